@@ -0,0 +1,30 @@
+-- Moves sales_transaction and sales_details from AUTO_INCREMENT to Hibernate pooled ids.
+--
+-- Run against an existing RPSalesDB before starting a release with pooled ids. It is idempotent and also
+-- repairs pools that Hibernate (ddl-auto: update) created with next_val = 1 on a database that already had rows.
+-- The AUTO_INCREMENT attribute stays on the id columns; ids are always supplied by the application from now on.
+--
+-- Hibernate's pooled optimizer hands out (next_val - allocationSize, next_val], so each pool must start at least
+-- allocationSize + 1 above the highest existing id (allocationSize: sales_transaction 50, sales_details 200).
+
+USE RPSalesDB;
+
+CREATE TABLE IF NOT EXISTS `sales_transaction_seq` (
+  `next_val` bigint DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE IF NOT EXISTS `sales_details_seq` (
+  `next_val` bigint DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+INSERT INTO `sales_transaction_seq` (`next_val`)
+SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM `sales_transaction_seq`);
+
+INSERT INTO `sales_details_seq` (`next_val`)
+SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM `sales_details_seq`);
+
+UPDATE `sales_transaction_seq`
+SET `next_val` = GREATEST(`next_val`, (SELECT COALESCE(MAX(`id`), 0) + 51 FROM `sales_transaction`));
+
+UPDATE `sales_details_seq`
+SET `next_val` = GREATEST(`next_val`, (SELECT COALESCE(MAX(`id`), 0) + 201 FROM `sales_details`));
@@ -0,0 +1,16 @@
+-- Adds the sales_transaction indexes for the transaction search, the export and the sales rollup rebuild.
+--
+-- Run once against an existing RPSalesDB before starting the release, so that Hibernate (ddl-auto: update) does
+-- not build them at startup. InnoDB builds them online: the table stays readable and writable meanwhile.
+-- MySQL has no CREATE INDEX IF NOT EXISTS; skip a statement whose index already exists.
+
+USE RPSalesDB;
+
+CREATE INDEX `idx_sales_transaction_transaction_date`
+    ON `sales_transaction` (`transaction_date`) ALGORITHM=INPLACE LOCK=NONE;
+
+CREATE INDEX `idx_sales_transaction_store_date`
+    ON `sales_transaction` (`business_entity_id`, `transaction_date`) ALGORITHM=INPLACE LOCK=NONE;
+
+CREATE INDEX `idx_sales_transaction_store_status_date`
+    ON `sales_transaction` (`business_entity_id`, `status`, `transaction_date`) ALGORITHM=INPLACE LOCK=NONE;
@@ -0,0 +1,10 @@
+-- Adds the stock_update_outbox index the outbox relay uses to find the oldest pending entry of each business entity.
+--
+-- Run once against an existing RPSalesDB before starting the release, so that Hibernate (ddl-auto: update) does
+-- not build it at startup. InnoDB builds it online: the table stays readable and writable meanwhile.
+-- MySQL has no CREATE INDEX IF NOT EXISTS; skip the statement if the index already exists.
+
+USE RPSalesDB;
+
+CREATE INDEX `idx_stock_update_outbox_entity_status_id`
+    ON `stock_update_outbox` (`business_entity_id`, `status`, `id`) ALGORITHM=INPLACE LOCK=NONE;
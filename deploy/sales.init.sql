@@ -88,6 +88,9 @@ CREATE TABLE `sales_transaction` (
   `sales_tax_id` bigint DEFAULT NULL,
   PRIMARY KEY (`id`),
   KEY `FK7wq54e1ubjodfnaph9fu12grq` (`sales_tax_id`),
+  KEY `idx_sales_transaction_transaction_date` (`transaction_date`),
+  KEY `idx_sales_transaction_store_date` (`business_entity_id`,`transaction_date`),
+  KEY `idx_sales_transaction_store_status_date` (`business_entity_id`,`status`,`transaction_date`),
   CONSTRAINT `FK7wq54e1ubjodfnaph9fu12grq` FOREIGN KEY (`sales_tax_id`) REFERENCES `sales_tax` (`id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -101,3 +104,100 @@ LOCK TABLES `sales_transaction` WRITE;
 /*!40000 ALTER TABLE `sales_transaction` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `stock_update_outbox`
+--
+
+DROP TABLE IF EXISTS `stock_update_outbox`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `stock_update_outbox` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `business_entity_id` bigint NOT NULL,
+  `payload` longtext NOT NULL,
+  `status` varchar(16) NOT NULL,
+  `attempts` int NOT NULL,
+  `next_attempt_at` datetime(6) NOT NULL,
+  `last_error` varchar(1000) DEFAULT NULL,
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_stock_update_outbox_status_id` (`status`,`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `idempotent_request`
+--
+
+DROP TABLE IF EXISTS `idempotent_request`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `idempotent_request` (
+  `idempotency_key` varchar(64) NOT NULL,
+  `request_hash` varchar(64) NOT NULL,
+  `transaction_id` bigint DEFAULT NULL,
+  `response` longtext,
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`idempotency_key`),
+  KEY `idx_idempotent_request_created_at` (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `sales_daily_rollup`
+--
+
+DROP TABLE IF EXISTS `sales_daily_rollup`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `sales_daily_rollup` (
+  `business_entity_id` bigint NOT NULL,
+  `sales_date` date NOT NULL,
+  `completed_count` bigint NOT NULL,
+  `subtotal` decimal(38,2) NOT NULL,
+  `tax_amount` decimal(38,2) NOT NULL,
+  `total` decimal(38,2) NOT NULL,
+  `refunded_count` bigint NOT NULL,
+  `refunded_total` decimal(38,2) NOT NULL,
+  `cancelled_count` bigint NOT NULL,
+  PRIMARY KEY (`business_entity_id`,`sales_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `product_daily_rollup`
+--
+
+DROP TABLE IF EXISTS `product_daily_rollup`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `product_daily_rollup` (
+  `sales_date` date NOT NULL,
+  `product_id` bigint NOT NULL,
+  `quantity_sold` bigint NOT NULL,
+  `revenue` decimal(38,2) NOT NULL,
+  `refunded_quantity` bigint NOT NULL,
+  `refunded_revenue` decimal(38,2) NOT NULL,
+  PRIMARY KEY (`sales_date`,`product_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `sales_transaction_seq`
+--
+
+DROP TABLE IF EXISTS `sales_transaction_seq`;
+CREATE TABLE `sales_transaction_seq` (
+  `next_val` bigint DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+INSERT INTO `sales_transaction_seq` VALUES (1);
+
+--
+-- Table structure for table `sales_details_seq`
+--
+
+DROP TABLE IF EXISTS `sales_details_seq`;
+CREATE TABLE `sales_details_seq` (
+  `next_val` bigint DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+INSERT INTO `sales_details_seq` VALUES (1);
@@ -0,0 +1,95 @@
+package com.retailpulse.config;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Feign;
+import feign.RequestLine;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of one Feign call from {@code 32} concurrent callers to a local stub server that answers
+ * after {@code remoteLatencyMs}.
+ * <p>
+ * {@code urlconnection} is Feign's default transport ({@code HttpURLConnection}): its JVM-wide keep-alive cache
+ * holds at most {@code http.maxConnections} (5) idle connections per host, so most concurrent callers open and
+ * close a TCP connection per call. {@code hc5} is the transport set up by {@link FeignConfig}: an Apache
+ * HttpClient whose connection pool, sized to the callers, keeps one connection per concurrent caller alive.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="FeignTransportBenchmark"} and compare the
+ * {@code p0.99} and {@code p0.999} rows.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(FeignTransportBenchmark.CALLERS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FeignTransportBenchmark {
+
+    static final int CALLERS = 32;
+
+    @Param({"urlconnection", "hc5"})
+    String transport;
+
+    @Param({"0", "5"})
+    int remoteLatencyMs;
+
+    private HttpServer server;
+    private PaymentClient client;
+
+    interface PaymentClient {
+        @RequestLine("POST /api/payments/create-payment-intent")
+        String createPaymentIntent(String request);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // the stub writes headers and body separately; without TCP_NODELAY every response waits on a delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4096);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                body.readAllBytes();
+                if (remoteLatencyMs > 0) {
+                    Thread.sleep(remoteLatencyMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = "{\"paymentIntentId\":\"pi_1\"}".getBytes();
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+
+        Client feignClient = "hc5".equals(transport)
+                ? FeignConfig.httpTransport(CALLERS, CALLERS, Duration.ofSeconds(10))
+                : new Client.Default(null, null);
+        client = Feign.builder()
+                .client(feignClient)
+                .target(PaymentClient.class, "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Benchmark
+    public String createPaymentIntent() {
+        return client.createPaymentIntent("{\"transactionId\":1,\"amount\":109.0}");
+    }
+}
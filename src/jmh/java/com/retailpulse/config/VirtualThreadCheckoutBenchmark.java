@@ -0,0 +1,152 @@
+package com.retailpulse.config;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import feign.RequestLine;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test for the virtual-thread execution mode: time to serve a burst of {@code concurrentCheckouts}
+ * checkouts, each making the two sequential remote calls of the checkout path (inventory, then payment).
+ * <p>
+ * With {@code transport=http} the calls go through the Feign transport configured by {@link FeignConfig}, its
+ * pool sized to the burst so no call waits for a connection, to a local HTTP server; with {@code transport=sleep} each call is a blocking wait of the same latency, which
+ * isolates the thread model from the CPU cost of HTTP. On machines with few cores the {@code http} variant is
+ * bound by that CPU cost (both sides run in this JVM) and the difference between executors shrinks.
+ * <p>
+ * {@code platform} runs the burst on a pool of 200 platform threads, Tomcat's default
+ * {@code server.tomcat.threads.max}; {@code virtual} runs one virtual thread per checkout, as Tomcat does
+ * with {@code spring.threads.virtual.enabled=true}. The downstream services are a local HTTP server that
+ * answers after {@code remoteLatencyMs}. With a bounded pool the burst takes roughly
+ * {@code ceil(concurrentCheckouts / 200) * 2 * remoteLatencyMs}; with virtual threads it stays close to
+ * {@code 2 * remoteLatencyMs} until the downstream server or the CPU saturates.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="VirtualThreadCheckoutBenchmark"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadCheckoutBenchmark {
+
+    private static final int PLATFORM_POOL_SIZE = 200;
+
+    @Param({"platform", "virtual"})
+    String executor;
+
+    @Param({"200", "1000", "2000"})
+    int concurrentCheckouts;
+
+    @Param({"50"})
+    int remoteLatencyMs;
+
+    @Param({"sleep", "http"})
+    String transport;
+
+    private HttpServer server;
+    private ExecutorService executorService;
+    private DownstreamClient client;
+
+    interface DownstreamClient {
+        @RequestLine("POST /api/inventory/salesUpdate")
+        void updateStocks(String request);
+
+        @RequestLine("POST /api/payments/create-payment-intent")
+        String createPaymentIntent(String request);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        executorService = "virtual".equals(executor)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_POOL_SIZE);
+
+        if ("sleep".equals(transport)) {
+            client = new SimulatedDownstreamClient(remoteLatencyMs);
+            return;
+        }
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4096);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                body.readAllBytes();
+                Thread.sleep(remoteLatencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = "{\"paymentIntentId\":\"pi_1\"}".getBytes();
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+
+        client = Feign.builder()
+                .client(FeignConfig.httpTransport(concurrentCheckouts, concurrentCheckouts, Duration.ofSeconds(10)))
+                .target(DownstreamClient.class, "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executorService.shutdownNow();
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Benchmark
+    public int checkoutBurst() throws Exception {
+        List<Future<String>> checkouts = new ArrayList<>(concurrentCheckouts);
+        for (int i = 0; i < concurrentCheckouts; i++) {
+            checkouts.add(executorService.submit(() -> {
+                client.updateStocks("{\"businessEntityId\":1}");
+                return client.createPaymentIntent("{\"transactionId\":1}");
+            }));
+        }
+        int completed = 0;
+        for (Future<String> checkout : checkouts) {
+            checkout.get();
+            completed++;
+        }
+        return completed;
+    }
+
+    private record SimulatedDownstreamClient(int latencyMs) implements DownstreamClient {
+
+        @Override
+        public void updateStocks(String request) {
+            await();
+        }
+
+        @Override
+        public String createPaymentIntent(String request) {
+            await();
+            return "{\"paymentIntentId\":\"pi_1\"}";
+        }
+
+        private void await() {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.retailpulse.entity;
+
+import com.retailpulse.dto.request.SalesDetailsDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Footprint and encode/decode rate of {@link SalesTransactionMementoCodec} against the string record
+ * {@link SalesTransactionMemento} the suspended-cart store used to hold.
+ * <p>
+ * {@code encode} reports two counters per cart: {@code encodedBytes}, the size of the encoding, and
+ * {@code recordBytes}, the heap retained by the record and its strings and line DTOs on a 64-bit JVM with compressed
+ * oops (12-byte object headers, Latin-1 strings). {@code restoreFromRecord} and {@code restoreFromBytes} compare
+ * restoring a cart from each form; {@code -prof gc} adds the bytes allocated per operation.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="SalesTransactionMementoCodecBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SalesTransactionMementoCodecBenchmark {
+
+    // record header and fields; String object plus byte[] header; SalesDetailsDto; list slot
+    private static final long RECORD_BYTES = 56;
+    private static final long STRING_BYTES = 40;
+    private static final long LINE_BYTES = 32;
+    private static final long LIST_BYTES = 16;
+
+    @Param({"1", "10", "100"})
+    int cartSize;
+
+    private SalesTax salesTax;
+    private SalesTransactionMemento memento;
+    private byte[] encoded;
+    private long recordBytes;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long encodedBytes;
+        public long recordBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        salesTax = new SalesTax(TaxType.GST, new BigDecimal("0.09"));
+        Map<Long, SalesDetails> salesDetails = new HashMap<>();
+        for (long productId = 1; productId <= cartSize; productId++) {
+            BigDecimal price = BigDecimal.valueOf(productId % 500 * 100 + productId % 100 + 99, 2);
+            salesDetails.put(10_000 + productId, new SalesDetails(10_000 + productId, (int) (productId % 7) + 1, price));
+        }
+        SalesTransaction transaction = new SalesTransaction(1L, salesTax);
+        transaction.addSalesDetails(salesDetails);
+        memento = transaction.saveToMemento();
+        encoded = SalesTransactionMementoCodec.encode(memento);
+        recordBytes = recordBytes(memento);
+    }
+
+    @Benchmark
+    public byte[] encode(Footprint footprint) {
+        byte[] bytes = SalesTransactionMementoCodec.encode(memento);
+        footprint.encodedBytes = bytes.length;
+        footprint.recordBytes = recordBytes;
+        return bytes;
+    }
+
+    @Benchmark
+    public SalesTransactionMemento decode() {
+        return SalesTransactionMementoCodec.decode(encoded);
+    }
+
+    @Benchmark
+    public SalesTransaction restoreFromRecord() {
+        return new SalesTransaction(memento.businessEntityId(), salesTax).restoreFromMemento(memento);
+    }
+
+    @Benchmark
+    public SalesTransaction restoreFromBytes() {
+        return new SalesTransaction(memento.businessEntityId(), salesTax)
+                .restoreFromMemento(SalesTransactionMementoCodec.decode(encoded));
+    }
+
+    private static long recordBytes(SalesTransactionMemento memento) {
+        long bytes = RECORD_BYTES
+                + stringBytes(memento.subTotal())
+                + stringBytes(memento.taxType())
+                + stringBytes(memento.taxRate())
+                + stringBytes(memento.taxAmount())
+                + stringBytes(memento.totalAmount())
+                + stringBytes(memento.status())
+                + stringBytes(memento.transactionDateTime())
+                + LIST_BYTES;
+        for (SalesDetailsDto line : memento.salesDetails()) {
+            bytes += LINE_BYTES + 4 + stringBytes(line.salesPricePerUnit());
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        // rounded up to the 8-byte object alignment
+        return value == null ? 0 : STRING_BYTES + (value.length() + 7) / 8 * 8;
+    }
+}
@@ -0,0 +1,70 @@
+package com.retailpulse.entity;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU and allocation cost of the cart pricing and memento paths on {@link SalesTransaction}.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="SalesTransactionPricingBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SalesTransactionPricingBenchmark {
+
+    @Param({"1", "10", "100", "5000"})
+    int cartSize;
+
+    private SalesTax salesTax;
+    private Map<Long, SalesDetails> salesDetails;
+    private SalesTransaction transaction;
+    private SalesTransactionMemento memento;
+
+    @Setup
+    public void setUp() {
+        salesTax = new SalesTax(TaxType.GST, new BigDecimal("0.09"));
+        salesDetails = new HashMap<>();
+        for (long productId = 1; productId <= cartSize; productId++) {
+            BigDecimal price = BigDecimal.valueOf(productId % 500 * 100 + productId % 100 + 99, 2);
+            salesDetails.put(productId, new SalesDetails(productId, (int) (productId % 7) + 1, price));
+        }
+        transaction = new SalesTransaction(1L, salesTax);
+        transaction.addSalesDetails(salesDetails);
+        memento = transaction.saveToMemento();
+    }
+
+    /**
+     * recalculateTotal is private; addSalesDetails is its only caller and is what checkout and restore pay for.
+     */
+    @Benchmark
+    public BigDecimal recalculateTotal() {
+        transaction.addSalesDetails(salesDetails);
+        return transaction.getTotal();
+    }
+
+    @Benchmark
+    public void subTotal(Blackhole blackhole) {
+        for (SalesDetails detail : salesDetails.values()) {
+            blackhole.consume(detail.getSubTotal());
+        }
+    }
+
+    @Benchmark
+    public SalesTransactionMemento saveToMemento() {
+        return transaction.saveToMemento();
+    }
+
+    @Benchmark
+    public SalesTransaction restoreFromMemento() {
+        return new SalesTransaction(memento.businessEntityId(), salesTax).restoreFromMemento(memento);
+    }
+}
@@ -0,0 +1,214 @@
+package com.retailpulse.repository;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Time to insert one cart (a {@code sales_transaction} row and {@code cartSize} {@code sales_details} rows) in one
+ * database transaction, issuing the JDBC calls Hibernate makes for each id strategy:
+ * <ul>
+ *   <li>{@code identity}: one INSERT per row, each returning its generated key ({@code GenerationType.IDENTITY}
+ *       disables insert batching)</li>
+ *   <li>{@code pooled}: one id-pool read per {@code allocationSize} rows, then the lines as JDBC batches of
+ *       {@code hibernate.jdbc.batch_size}, which Connector/J rewrites to multi-row INSERTs with
+ *       {@code rewriteBatchedStatements=true}</li>
+ * </ul>
+ * The default database is in-memory H2, which has no network hop; {@code roundTripMicros} adds a fixed wait per
+ * statement sent, standing in for the application-to-MySQL round trip. To measure a real server, point
+ * {@code jdbcUrl} at a scratch MySQL schema and set {@code roundTripMicros=0}, e.g.
+ * {@code -p jdbcUrl=jdbc:mysql://localhost:3322/bench?user=root&password=password&rewriteBatchedStatements=true}.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="SalesDetailsInsertBenchmark"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SalesDetailsInsertBenchmark {
+
+    // same values as the entity mappings and spring.jpa.properties.hibernate.jdbc.batch_size
+    private static final int TRANSACTION_ALLOCATION_SIZE = 50;
+    private static final int DETAILS_ALLOCATION_SIZE = 200;
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"identity", "pooled"})
+    String idStrategy;
+
+    @Param({"1", "10", "50", "200"})
+    int cartSize;
+
+    @Param({"0", "250"})
+    long roundTripMicros;
+
+    @Param({"jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1"})
+    String jdbcUrl;
+
+    private Connection connection;
+    private PreparedStatement insertTransaction;
+    private PreparedStatement insertTransactionWithId;
+    private PreparedStatement insertDetails;
+    private PreparedStatement insertDetailsWithId;
+    private PreparedStatement readTransactionPool;
+    private PreparedStatement advanceTransactionPool;
+    private PreparedStatement readDetailsPool;
+    private PreparedStatement advanceDetailsPool;
+
+    // pooled optimizer state: ids in (hi - allocationSize, hi] are handed out from memory
+    private long transactionId;
+    private long transactionHi;
+    private long detailsId;
+    private long detailsHi;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl);
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS bench_sales_details");
+            ddl.execute("DROP TABLE IF EXISTS bench_sales_transaction");
+            ddl.execute("DROP TABLE IF EXISTS bench_sales_transaction_seq");
+            ddl.execute("DROP TABLE IF EXISTS bench_sales_details_seq");
+            ddl.execute("CREATE TABLE bench_sales_transaction (id bigint NOT NULL AUTO_INCREMENT, business_entity_id bigint NOT NULL, "
+                    + "subtotal decimal(38,2), total decimal(38,2), PRIMARY KEY (id))");
+            ddl.execute("CREATE TABLE bench_sales_details (id bigint NOT NULL AUTO_INCREMENT, product_id bigint NOT NULL, "
+                    + "quantity int NOT NULL, sales_price_per_unit decimal(38,2) NOT NULL, sale_id bigint NOT NULL, PRIMARY KEY (id), "
+                    + "FOREIGN KEY (sale_id) REFERENCES bench_sales_transaction (id))");
+            ddl.execute("CREATE TABLE bench_sales_transaction_seq (next_val bigint)");
+            ddl.execute("CREATE TABLE bench_sales_details_seq (next_val bigint)");
+            ddl.execute("INSERT INTO bench_sales_transaction_seq VALUES (1)");
+            ddl.execute("INSERT INTO bench_sales_details_seq VALUES (1)");
+        }
+        connection.setAutoCommit(false);
+
+        insertTransaction = connection.prepareStatement(
+                "INSERT INTO bench_sales_transaction (business_entity_id, subtotal, total) VALUES (?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS);
+        insertTransactionWithId = connection.prepareStatement(
+                "INSERT INTO bench_sales_transaction (business_entity_id, subtotal, total, id) VALUES (?, ?, ?, ?)");
+        insertDetails = connection.prepareStatement(
+                "INSERT INTO bench_sales_details (product_id, quantity, sales_price_per_unit, sale_id) VALUES (?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS);
+        insertDetailsWithId = connection.prepareStatement(
+                "INSERT INTO bench_sales_details (product_id, quantity, sales_price_per_unit, sale_id, id) VALUES (?, ?, ?, ?, ?)");
+        readTransactionPool = connection.prepareStatement("SELECT next_val FROM bench_sales_transaction_seq FOR UPDATE");
+        advanceTransactionPool = connection.prepareStatement("UPDATE bench_sales_transaction_seq SET next_val = ? WHERE next_val = ?");
+        readDetailsPool = connection.prepareStatement("SELECT next_val FROM bench_sales_details_seq FOR UPDATE");
+        advanceDetailsPool = connection.prepareStatement("UPDATE bench_sales_details_seq SET next_val = ? WHERE next_val = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long insertCart() throws SQLException {
+        long saleId = "pooled".equals(idStrategy) ? insertPooled() : insertIdentity();
+        connection.commit();
+        roundTrip();
+        return saleId;
+    }
+
+    private long insertIdentity() throws SQLException {
+        bindTransaction(insertTransaction);
+        insertTransaction.executeUpdate();
+        roundTrip();
+        long saleId = generatedKey(insertTransaction);
+
+        for (int line = 0; line < cartSize; line++) {
+            bindDetails(insertDetails, line, saleId);
+            insertDetails.executeUpdate();
+            roundTrip();
+            generatedKey(insertDetails);
+        }
+        return saleId;
+    }
+
+    private long insertPooled() throws SQLException {
+        if (transactionId >= transactionHi) {
+            transactionHi = nextHi(readTransactionPool, advanceTransactionPool, TRANSACTION_ALLOCATION_SIZE);
+            transactionId = transactionHi - TRANSACTION_ALLOCATION_SIZE;
+        }
+        long saleId = ++transactionId;
+        bindTransaction(insertTransactionWithId);
+        insertTransactionWithId.setLong(4, saleId);
+        // with order_inserts the parent goes out first, as its own one-row batch
+        insertTransactionWithId.executeUpdate();
+        roundTrip();
+
+        int batched = 0;
+        for (int line = 0; line < cartSize; line++) {
+            if (detailsId >= detailsHi) {
+                detailsHi = nextHi(readDetailsPool, advanceDetailsPool, DETAILS_ALLOCATION_SIZE);
+                detailsId = detailsHi - DETAILS_ALLOCATION_SIZE;
+            }
+            bindDetails(insertDetailsWithId, line, saleId);
+            insertDetailsWithId.setLong(5, ++detailsId);
+            insertDetailsWithId.addBatch();
+            if (++batched == BATCH_SIZE) {
+                insertDetailsWithId.executeBatch();
+                roundTrip();
+                batched = 0;
+            }
+        }
+        if (batched > 0) {
+            insertDetailsWithId.executeBatch();
+            roundTrip();
+        }
+        return saleId;
+    }
+
+    /**
+     * Hibernate's table-backed sequence: read and advance the pool's high value (two statements, issued by
+     * Hibernate in its own short transaction; here they share the cart's).
+     */
+    private long nextHi(PreparedStatement read, PreparedStatement advance, int allocationSize) throws SQLException {
+        long hi;
+        try (ResultSet resultSet = read.executeQuery()) {
+            resultSet.next();
+            hi = resultSet.getLong(1);
+        }
+        roundTrip();
+        advance.setLong(1, hi + allocationSize);
+        advance.setLong(2, hi);
+        advance.executeUpdate();
+        roundTrip();
+        return hi + allocationSize;
+    }
+
+    private void bindTransaction(PreparedStatement statement) throws SQLException {
+        statement.setLong(1, 1L);
+        statement.setBigDecimal(2, new BigDecimal("100.00"));
+        statement.setBigDecimal(3, new BigDecimal("109.00"));
+    }
+
+    private static void bindDetails(PreparedStatement statement, int line, long saleId) throws SQLException {
+        statement.setLong(1, line + 1L);
+        statement.setInt(2, line % 7 + 1);
+        statement.setBigDecimal(3, BigDecimal.valueOf(line * 100L + 99, 2));
+        statement.setLong(4, saleId);
+    }
+
+    private static long generatedKey(PreparedStatement statement) throws SQLException {
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            keys.next();
+            return keys.getLong(1);
+        }
+    }
+
+    private void roundTrip() {
+        if (roundTripMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.retailpulse.service;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.retailpulse.dto.request.InventoryUpdateRequestDto;
+import com.retailpulse.entity.TransactionStatus;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.bridge.SLF4JBridgeHandler;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Logging cost of one checkout and its payment event: the log statements of {@code createSalesTransaction},
+ * {@code updateStocks}, the payment event listener and {@code updateTransactionStatus}, at the production level
+ * INFO, written as JSON by the {@link LogstashEncoder} to a discarding stream.
+ * <ul>
+ *   <li>{@code before}: the former {@code java.util.logging} statements, routed to Logback through the
+ *       {@code jul-to-slf4j} bridge as Spring Boot installs it. Messages are built by concatenation and
+ *       {@code String.format} whatever the level, including the per-product summary and mapping lines.</li>
+ *   <li>{@code after}: the SLF4J statements, parameterized, with the per-step lines at DEBUG and the product
+ *       summary built only when DEBUG is enabled.</li>
+ * </ul>
+ * {@code appender=async} puts the {@code prod} profile's {@link AsyncAppender} in front of the encoder, so the
+ * request thread only queues events.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="CheckoutLoggingBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CheckoutLoggingBenchmark {
+
+    @Param({"sync", "async"})
+    String appender;
+
+    @Param({"1", "10", "50"})
+    int cartSize;
+
+    private final java.util.logging.Logger julLogger = java.util.logging.Logger.getLogger("com.retailpulse.bench.jul");
+    private final Logger log = LoggerFactory.getLogger("com.retailpulse.bench.slf4j");
+
+    private LoggerContext loggerContext;
+    private InventoryUpdateRequestDto request;
+    private final Long transactionId = 1_000_123L;
+    private final Long businessEntityId = 42L;
+    private final BigDecimal totalAmount = new BigDecimal("1308.00");
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        loggerContext.reset();
+
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(loggerContext);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> json = new OutputStreamAppender<>();
+        json.setContext(loggerContext);
+        json.setEncoder(encoder);
+        json.setOutputStream(OutputStream.nullOutputStream());
+        json.start();
+
+        Appender<ILoggingEvent> root = json;
+        if ("async".equals(appender)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(loggerContext);
+            async.setQueueSize(8192);
+            async.setNeverBlock(false);
+            async.setIncludeCallerData(false);
+            async.addAppender(json);
+            async.start();
+            root = async;
+        }
+        ch.qos.logback.classic.Logger rootLogger = loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(ch.qos.logback.classic.Level.INFO);
+        rootLogger.addAppender(root);
+
+        SLF4JBridgeHandler.removeHandlersForRootLogger();
+        SLF4JBridgeHandler.install();
+        java.util.logging.Logger.getLogger("").setLevel(java.util.logging.Level.INFO);
+
+        List<InventoryUpdateRequestDto.InventoryItem> items = new ArrayList<>(cartSize);
+        for (long productId = 1; productId <= cartSize; productId++) {
+            items.add(new InventoryUpdateRequestDto.InventoryItem(productId, (int) (productId % 7) + 1));
+        }
+        request = new InventoryUpdateRequestDto(businessEntityId, items);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SLF4JBridgeHandler.uninstall();
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public void before() {
+        julLogger.info("Creating sales transaction for businessEntityId=" + businessEntityId);
+        for (InventoryUpdateRequestDto.InventoryItem item : request.items()) {
+            julLogger.fine("Mapping SalesDetails to InventoryItem: productId=" + item.productId() + ", quantity=" + item.quantity());
+        }
+        String productSummary = request.items().stream()
+                .map(item -> "productId=" + item.productId() + ", quantity=" + item.quantity())
+                .collect(Collectors.joining("; "));
+        julLogger.info("Preparing inventory update for businessEntityId=" + businessEntityId +
+                " with items: [" + productSummary + "]");
+        julLogger.info("Inventory update successful for businessEntityId=" + request.businessEntityId());
+        julLogger.info("Prepared payment data for transaction " + transactionId + ", amount=" + totalAmount);
+        julLogger.info("Received payment intent for transaction: " + transactionId);
+        julLogger.info("Sales transaction created successfully with ID=" + transactionId);
+        julLogger.info("Successfully created transaction response for transaction.");
+
+        julLogger.info(String.format("Received Payment Event: Payment ID '%s', Intent ID '%s', Transaction ID '%s', Status '%s'",
+                77L, "pi_3Nx", transactionId, "SUCCEEDED"));
+        julLogger.info(String.format("Attempting to update status for SalesTransaction ID: %d to %s",
+                transactionId, TransactionStatus.COMPLETED));
+        julLogger.info(String.format("Successfully updated SalesTransaction ID: %d status from %s to %s",
+                transactionId, TransactionStatus.PENDING_PAYMENT, TransactionStatus.COMPLETED));
+        julLogger.info(String.format("Successfully updated transaction ID '%s' status to '%s' based on payment event.",
+                transactionId, TransactionStatus.COMPLETED));
+    }
+
+    @Benchmark
+    public void after() {
+        log.debug("Creating sales transaction for businessEntityId={}", businessEntityId);
+        if (log.isDebugEnabled()) {
+            String productSummary = request.items().stream()
+                    .map(item -> "productId=" + item.productId() + ", quantity=" + item.quantity())
+                    .collect(Collectors.joining("; "));
+            log.debug("Preparing inventory update for businessEntityId={} with items: [{}]", businessEntityId, productSummary);
+        }
+        log.debug("Inventory update successful for businessEntityId={}", request.businessEntityId());
+        log.debug("Prepared payment data for transaction {}, amount={}", transactionId, totalAmount);
+        log.debug("Received payment intent for transaction: {}", transactionId);
+        log.info("Sales transaction created successfully with ID={} for businessEntityId={}", transactionId, businessEntityId);
+
+        log.debug("Received Payment Event: Payment ID '{}', Intent ID '{}', Transaction ID '{}', Status '{}'",
+                77L, "pi_3Nx", transactionId, "SUCCEEDED");
+        log.debug("Attempting to update status for SalesTransaction ID: {} to {}", transactionId, TransactionStatus.COMPLETED);
+        log.info("Successfully updated SalesTransaction ID: {} status from {} to {}",
+                transactionId, TransactionStatus.PENDING_PAYMENT, TransactionStatus.COMPLETED);
+        log.debug("Successfully updated transaction ID '{}' status to '{}' based on payment event.",
+                transactionId, TransactionStatus.COMPLETED);
+    }
+}
@@ -0,0 +1,90 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.request.SalesDetailsDto;
+import com.retailpulse.dto.response.SalesTransactionResponseDto;
+import com.retailpulse.dto.response.TaxResultDto;
+import com.retailpulse.entity.SalesDetails;
+import com.retailpulse.entity.SalesTax;
+import com.retailpulse.entity.SalesTransaction;
+import com.retailpulse.entity.TaxType;
+import com.retailpulse.repository.SalesTaxRepository;
+import com.retailpulse.util.DateUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * CPU and allocation cost of the quote ({@code calculateSalesTax}) and response mapping paths of
+ * {@link SalesTransactionService}. Repositories and clients are not touched by these paths; the tax registry
+ * is warmed in setup so lookups are served from memory as in production.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="SalesTransactionServiceBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SalesTransactionServiceBenchmark {
+
+    @Param({"1", "10", "100", "5000"})
+    int cartSize;
+
+    private SalesTransactionService salesTransactionService;
+    private List<SalesDetailsDto> salesDetailsDtos;
+    private SalesTransaction transaction;
+    private Instant transactionDate;
+
+    @Setup
+    public void setUp() {
+        SalesTax salesTax = new SalesTax(TaxType.GST, new BigDecimal("0.09"));
+        SalesTaxRepository salesTaxRepository = mock(SalesTaxRepository.class);
+        when(salesTaxRepository.findAll()).thenReturn(List.of(salesTax));
+        SalesTaxRegistry salesTaxRegistry = new SalesTaxRegistry(salesTaxRepository, new SimpleMeterRegistry());
+        salesTaxRegistry.refresh();
+
+        salesTransactionService = new SalesTransactionService(
+                null, null, salesTaxRegistry, new SalesTransactionHistory(new SimpleMeterRegistry(), 50, 720), null, null, null, null, null, null, null);
+
+        salesDetailsDtos = new ArrayList<>(cartSize);
+        Map<Long, SalesDetails> salesDetails = new HashMap<>();
+        for (long productId = 1; productId <= cartSize; productId++) {
+            BigDecimal price = BigDecimal.valueOf(productId % 500 * 100 + productId % 100 + 99, 2);
+            int quantity = (int) (productId % 7) + 1;
+            salesDetailsDtos.add(new SalesDetailsDto(productId, quantity, price.toPlainString()));
+            salesDetails.put(productId, new SalesDetails(productId, quantity, price));
+        }
+
+        // restoring from a memento gives the transaction an id and a transaction date, as a persisted one has
+        SalesTransaction draft = new SalesTransaction(1L, salesTax);
+        draft.addSalesDetails(salesDetails);
+        transaction = new SalesTransaction(1L, salesTax).restoreFromMemento(draft.saveToMemento());
+        transactionDate = transaction.getTransactionDate();
+    }
+
+    @Benchmark
+    public TaxResultDto calculateSalesTax() {
+        return salesTransactionService.calculateSalesTax(salesDetailsDtos);
+    }
+
+    @Benchmark
+    public SalesTransactionResponseDto mapToResponseDto() {
+        return salesTransactionService.mapToResponseDto(transaction);
+    }
+
+    @Benchmark
+    public String convertInstantToString() {
+        return DateUtil.convertInstantToString(transactionDate, DateUtil.DATE_TIME_FORMAT);
+    }
+}
@@ -3,9 +3,11 @@ package com.retailpulse;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients
+@EnableScheduling
 public class SalesMicroservice {
     public static void main(String[] args) {
         SpringApplication.run(SalesMicroservice.class, args);
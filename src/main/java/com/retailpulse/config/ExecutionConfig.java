@@ -0,0 +1,30 @@
+package com.retailpulse.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+/**
+ * Thread execution settings.
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true} Spring Boot runs Tomcat requests, the application task
+ * executor, the task scheduler and the Kafka listener containers on virtual threads. A checkout then parks
+ * its virtual thread while waiting on the inventory and payment services instead of holding one of Tomcat's
+ * platform threads. The Feign transport, which parks rather than pins a virtual thread, is set up per client
+ * in {@link FeignConfig}.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    /**
+     * Applied by Spring Boot to the auto-configured task executor. Copies every registered ThreadLocal
+     * (Spring Security's SecurityContext, the current Micrometer observation and its tracing span) onto the
+     * executing thread, so {@link FeignConfig#oauth2BearerForwardingInterceptor()} still finds the bearer
+     * token and trace IDs when work is handed off to another (virtual) thread.
+     */
+    @Bean
+    public TaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+}
@@ -1,10 +1,19 @@
 package com.retailpulse.config;
 
-import feign.Logger;
+import feign.Client;
 import feign.RequestInterceptor;
+import feign.hc5.ApacheHttp5Client;
 import io.micrometer.tracing.Tracer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.cloud.openfeign.FeignClientProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -13,18 +22,94 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtAut
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration of each Feign client, instantiated once per client ({@code inventory-service},
+ * {@code payment-service}).
+ * <p>
+ * Timeouts, log levels and connection pool sizes are set per client under
+ * {@code spring.cloud.openfeign.client.config.<client>} ({@code connect-timeout}, {@code read-timeout},
+ * {@code logger-level}, {@code max-connections}, {@code max-per-route}).
+ */
 @Slf4j
 public class FeignConfig {
 
+    private static final int DEFAULT_MAX_CONNECTIONS = 20;
+
     private final Tracer tracer;
 
     public FeignConfig(Tracer tracer) {
         this.tracer = tracer;
     }
 
+    /**
+     * Transport of this Feign client: its own Apache HttpClient with its own pool of keep-alive connections, so
+     * each downstream service gets a bounded number of connections and one service never takes the other's. The
+     * pool and connections guard their state with j.u.c locks, so a blocked call parks its virtual thread without
+     * pinning the carrier.
+     */
     @Bean
-    Logger.Level feignLoggerLevel() {
-        return Logger.Level.FULL;
+    public Client feignClient(Environment environment, FeignClientProperties feignClientProperties) {
+        String clientName = environment.getRequiredProperty("spring.cloud.openfeign.client.name");
+        int maxConnections = poolSetting(environment, feignClientProperties, clientName, "max-connections",
+                DEFAULT_MAX_CONNECTIONS);
+        int maxPerRoute = poolSetting(environment, feignClientProperties, clientName, "max-per-route", maxConnections);
+        return httpTransport(maxConnections, maxPerRoute, connectTimeout(feignClientProperties, clientName));
+    }
+
+    /**
+     * Automatic retries are off, so a call that may have reached the service is never sent again behind the
+     * caller's back; whether to retry is left to the caller. The read timeout comes from the Feign
+     * {@code Request.Options} of each call.
+     */
+    static Client httpTransport(int maxConnections, int maxPerRoute, Duration connectTimeout) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        // a connection the server may have closed meanwhile is checked before it is reused
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        return new ApacheHttp5Client(HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .disableAutomaticRetries()
+                .build());
+    }
+
+    /**
+     * Resolves a pool setting the way the other client settings resolve: the client's own setting, then the
+     * default client configuration, then {@code fallback}.
+     */
+    static int poolSetting(Environment environment, FeignClientProperties feignClientProperties, String clientName,
+                           String setting, int fallback) {
+        for (String name : new String[] {clientName, feignClientProperties.getDefaultConfig()}) {
+            Integer value = environment.getProperty("spring.cloud.openfeign.client.config." + name + "." + setting,
+                    Integer.class);
+            if (value != null) {
+                return value;
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * Resolves the connect timeout the way OpenFeign does: the client's own setting, then the default client
+     * configuration, then the {@code Request.Options} default of 10 seconds.
+     */
+    static Duration connectTimeout(FeignClientProperties feignClientProperties, String clientName) {
+        Map<String, FeignClientProperties.FeignClientConfiguration> config = feignClientProperties.getConfig();
+        for (String name : new String[] {clientName, feignClientProperties.getDefaultConfig()}) {
+            FeignClientProperties.FeignClientConfiguration clientConfig = config.get(name);
+            if (clientConfig != null && clientConfig.getConnectTimeout() != null) {
+                return Duration.ofMillis(clientConfig.getConnectTimeout());
+            }
+        }
+        return Duration.ofSeconds(10);
     }
 
     @Bean
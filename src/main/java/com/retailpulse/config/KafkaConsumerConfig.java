@@ -0,0 +1,74 @@
+package com.retailpulse.config;
+
+import com.retailpulse.service.PaymentEventRetryPublisher;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Listener container factories and retry topics for the payment event listeners.
+ * The default (record mode) listener uses Spring Boot's auto-configured factory.
+ */
+@Configuration
+@ConditionalOnProperty(value = "spring.kafka.consumer.enabled", havingValue = "true")
+public class KafkaConsumerConfig {
+
+    /**
+     * Batch factory for {@link com.retailpulse.service.PaymentEventBatchListener} and
+     * {@link com.retailpulse.service.PaymentEventParallelListener}. Inherits every {@code spring.kafka.*} setting
+     * (max-poll-records bounds the batch size) and commits offsets once per successfully processed poll.
+     */
+    @Bean
+    @ConditionalOnExpression("'${spring.kafka.consumer.listener-mode:record}' matches 'batch|parallel'")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> paymentEventBatchListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+    /**
+     * Record factory for the retry tiers of {@link com.retailpulse.service.PaymentEventRetryListener}, with manual
+     * acknowledgment so that a record that is not due yet can be negatively acknowledged with its remaining delay.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> paymentEventRetryListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        return factory;
+    }
+
+    /**
+     * Retry and dead-letter topics of the payment topic, created on startup if missing. The payment topic itself
+     * belongs to the payment service.
+     */
+    @Bean
+    public KafkaAdmin.NewTopics paymentEventRetryTopics(
+            @Value("${spring.kafka.consumer.topics.payment}") String paymentTopic,
+            @Value("${sales.payment-retry.partitions:3}") int partitions) {
+        List<NewTopic> topics = new ArrayList<>();
+        for (int tier = 0; tier < PaymentEventRetryPublisher.TIERS; tier++) {
+            topics.add(TopicBuilder.name(PaymentEventRetryPublisher.retryTopic(paymentTopic, tier)).partitions(partitions).build());
+        }
+        topics.add(TopicBuilder.name(PaymentEventRetryPublisher.deadLetterTopic(paymentTopic)).partitions(partitions).build());
+        return new KafkaAdmin.NewTopics(topics.toArray(NewTopic[]::new));
+    }
+}
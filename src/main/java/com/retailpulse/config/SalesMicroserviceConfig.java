@@ -43,6 +43,7 @@ public class SalesMicroserviceConfig {
             http.authorizeHttpRequests(c -> c
               .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/info", "/actuator/prometheus").permitAll()
               .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+              .requestMatchers("/actuator/**").authenticated()
               .requestMatchers("/hello").authenticated()
               .requestMatchers("/api/**").authenticated() //.hasRole("SUPER").anyRequest().authenticated()
             );
@@ -0,0 +1,51 @@
+package com.retailpulse.controller;
+
+import com.retailpulse.service.SalesTransactionExporter;
+import com.retailpulse.service.SalesTransactionExporter.Export;
+import com.retailpulse.service.SalesTransactionExporter.Format;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Bulk export of a store's transactions for reconciliation and analytics.
+ */
+@RestController
+@RequestMapping("/api/sales/export")
+public class SalesExportController {
+  private final SalesTransactionExporter salesTransactionExporter;
+
+  public SalesExportController(SalesTransactionExporter salesTransactionExporter) {
+    this.salesTransactionExporter = salesTransactionExporter;
+  }
+
+  /**
+   * Endpoint to export a store's transactions with their sales details. The body is written while the
+   * transactions are read, on the request thread, so an export of any size uses the same memory.
+   *
+   * @param businessEntityId the store
+   * @param from             first day, inclusive (yyyy-MM-dd)
+   * @param to               last day, inclusive (yyyy-MM-dd)
+   * @param format           ndjson (one transaction per line) or csv (one sales detail per line)
+   */
+  @GetMapping
+  public void exportTransactions(
+    @RequestParam Long businessEntityId,
+    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+    @RequestParam(defaultValue = "ndjson") String format,
+    HttpServletResponse response) throws IOException {
+    // validated before anything is written, so errors still get a regular error response
+    Export export = salesTransactionExporter.prepare(businessEntityId, from, to, Format.parse(format));
+    response.setContentType(export.format().contentType());
+    response.setCharacterEncoding("UTF-8");
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+      ContentDisposition.attachment().filename(export.filename()).build().toString());
+    export.writeTo(response.getOutputStream());
+  }
+}
@@ -0,0 +1,56 @@
+package com.retailpulse.controller;
+
+import com.retailpulse.dto.response.DailySalesReportDto;
+import com.retailpulse.dto.response.ProductSalesReportDto;
+import com.retailpulse.service.SalesRollupService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Sales reports for the back office, read from the daily rollups only.
+ */
+@RestController
+@RequestMapping("/api/sales/reports")
+public class SalesReportController {
+  private final SalesRollupService salesRollupService;
+
+  public SalesReportController(SalesRollupService salesRollupService) {
+    this.salesRollupService = salesRollupService;
+  }
+
+  /**
+   * Endpoint to get a store's sales totals per day.
+   *
+   * @param businessEntityId the store
+   * @param from             first day, inclusive (yyyy-MM-dd)
+   * @param to               last day, inclusive (yyyy-MM-dd)
+   * @return one entry per day with sales, in date order; days without sales are omitted
+   */
+  @GetMapping("/daily")
+  public ResponseEntity<List<DailySalesReportDto>> getDailySales(
+    @RequestParam Long businessEntityId,
+    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    return ResponseEntity.ok(salesRollupService.getDailySales(businessEntityId, from, to));
+  }
+
+  /**
+   * Endpoint to get the best-selling products over all stores.
+   *
+   * @param from  first day, inclusive (yyyy-MM-dd)
+   * @param to    last day, inclusive (yyyy-MM-dd)
+   * @param limit maximum number of products
+   * @return products by revenue, highest first
+   */
+  @GetMapping("/products")
+  public ResponseEntity<List<ProductSalesReportDto>> getTopProducts(
+    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+    @RequestParam(defaultValue = "20") int limit) {
+    return ResponseEntity.ok(salesRollupService.getTopProducts(from, to, limit));
+  }
+}
@@ -3,27 +3,47 @@ package com.retailpulse.controller;
 import com.retailpulse.dto.request.SalesDetailsDto;
 import com.retailpulse.dto.request.SalesTransactionRequestDto;
 import com.retailpulse.dto.request.SuspendedTransactionDto;
+import com.retailpulse.dto.response.BulkTransactionResponseDto;
 import com.retailpulse.dto.response.CreateTransactionResponseDto;
+import com.retailpulse.dto.response.SalesTransactionPageDto;
 import com.retailpulse.dto.response.SalesTransactionResponseDto;
 import com.retailpulse.dto.response.TaxResultDto;
 import com.retailpulse.dto.response.TransactionStatusResponseDto;
 import com.retailpulse.dto.response.TransientSalesTransactionDto;
+import com.retailpulse.entity.TransactionStatus;
+import com.retailpulse.service.BulkSalesTransactionService;
+import com.retailpulse.service.CheckoutIdempotencyService;
+import com.retailpulse.service.SalesTransactionSearchService;
 import com.retailpulse.service.SalesTransactionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/sales")
 public class SalesTransactionController {
   private final SalesTransactionService salesTransactionService;
+  private final BulkSalesTransactionService bulkSalesTransactionService;
+  private final CheckoutIdempotencyService checkoutIdempotencyService;
+  private final SalesTransactionSearchService salesTransactionSearchService;
 
   @Autowired
-  public SalesTransactionController(SalesTransactionService salesTransactionService) {
+  public SalesTransactionController(SalesTransactionService salesTransactionService,
+                                    BulkSalesTransactionService bulkSalesTransactionService,
+                                    CheckoutIdempotencyService checkoutIdempotencyService,
+                                    SalesTransactionSearchService salesTransactionSearchService) {
     this.salesTransactionService = salesTransactionService;
+    this.bulkSalesTransactionService = bulkSalesTransactionService;
+    this.checkoutIdempotencyService = checkoutIdempotencyService;
+    this.salesTransactionSearchService = salesTransactionSearchService;
   }
 
   @PostMapping("/calculateSalesTax")
@@ -44,18 +64,75 @@ public class SalesTransactionController {
     return ResponseEntity.ok(statusDto);
   }
 
+  /**
+   * Endpoint to wait for the status of a SalesTransaction as Server-Sent Events, instead of polling
+   * {@code /transactionStatus/{transactionId}}. A single {@code status} event is sent once the payment settles,
+   * then the stream ends; if it ends without one, the subscriber timed out and should reconnect.
+   *
+   * @param transactionId the ID of the SalesTransaction
+   * @return the event stream
+   */
+  @GetMapping(value = "/transactionStatus/{transactionId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamTransactionStatus(@PathVariable Long transactionId) {
+    return salesTransactionService.watchTransactionStatus(transactionId);
+  }
+
+  /**
+   * Endpoint to search a store's SalesTransactions, newest first. Pass the returned nextCursor to get the next page.
+   *
+   * @param businessEntityId the store
+   * @param from             first day, inclusive (yyyy-MM-dd)
+   * @param to               last day, inclusive (yyyy-MM-dd)
+   * @param status           only transactions in this status
+   * @param minTotal         lowest total, inclusive
+   * @param maxTotal         highest total, inclusive
+   * @param limit            maximum number of transactions in the page
+   * @param cursor           nextCursor of the previous page; omitted for the first page
+   * @return the page, with a nextCursor unless it is the last one
+   */
+  @GetMapping("/transactions")
+  public ResponseEntity<SalesTransactionPageDto> searchTransactions(
+    @RequestParam Long businessEntityId,
+    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+    @RequestParam(required = false) TransactionStatus status,
+    @RequestParam(required = false) BigDecimal minTotal,
+    @RequestParam(required = false) BigDecimal maxTotal,
+    @RequestParam(defaultValue = "50") int limit,
+    @RequestParam(required = false) String cursor) {
+    return ResponseEntity.ok(salesTransactionSearchService.search(
+      businessEntityId, from, to, status, minTotal, maxTotal, limit, cursor));
+  }
+
   /**
    * Endpoint to create a new SalesTransaction.
    *
-   * @param requestDto the SalesTransactionRequestDto containing transaction details
+   * @param idempotencyKey optional client-generated key; a retry with the same key returns the original response
+   * @param requestDto     the SalesTransactionRequestDto containing transaction details
    * @return the created SalesTransaction
    */
   @PostMapping("/createTransaction")
-  public ResponseEntity<CreateTransactionResponseDto> createSalesTransaction(@RequestBody SalesTransactionRequestDto requestDto) {
-    CreateTransactionResponseDto responseDto = salesTransactionService.createSalesTransaction(requestDto);
+  public ResponseEntity<CreateTransactionResponseDto> createSalesTransaction(
+    @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+    @RequestBody SalesTransactionRequestDto requestDto) {
+    CreateTransactionResponseDto responseDto = idempotencyKey == null
+      ? salesTransactionService.createSalesTransaction(requestDto)
+      : checkoutIdempotencyService.createSalesTransaction(idempotencyKey, requestDto);
     return new ResponseEntity<>(responseDto, HttpStatus.OK);
   }
 
+  /**
+   * Endpoint to create a batch of SalesTransactions, e.g. the sales a POS terminal queued while offline.
+   *
+   * @param requestDtos the SalesTransactionRequestDtos, in the order they were recorded
+   * @return one result per transaction, in request order; failed transactions do not fail the batch
+   */
+  @PostMapping("/createTransactions")
+  public ResponseEntity<BulkTransactionResponseDto> createSalesTransactions(@RequestBody List<SalesTransactionRequestDto> requestDtos) {
+    BulkTransactionResponseDto responseDto = bulkSalesTransactionService.createTransactions(requestDtos);
+    return ResponseEntity.ok(responseDto);
+  }
+
   /**
    * Endpoint to update an existing SalesTransaction.
    *
@@ -0,0 +1,14 @@
+package com.retailpulse.dto;
+
+import com.retailpulse.entity.TransactionStatus;
+
+import java.time.Instant;
+
+/**
+ * A status change to apply to a SalesTransaction, as derived from a payment event.
+ */
+public record TransactionStatusUpdateDto(
+    Long transactionId,
+    TransactionStatus status,
+    Instant paymentEventDate
+) {}
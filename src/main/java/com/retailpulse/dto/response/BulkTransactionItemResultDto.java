@@ -0,0 +1,21 @@
+package com.retailpulse.dto.response;
+
+/**
+ * Outcome of one sale of a bulk request; {@code index} is its position in the request.
+ * Either {@code result} is set, or {@code errorCode} and {@code message} are.
+ */
+public record BulkTransactionItemResultDto(
+    int index,
+    boolean created,
+    CreateTransactionResponseDto result,
+    String errorCode,
+    String message
+) {
+    public static BulkTransactionItemResultDto created(int index, CreateTransactionResponseDto result) {
+        return new BulkTransactionItemResultDto(index, true, result, null, null);
+    }
+
+    public static BulkTransactionItemResultDto failed(int index, String errorCode, String message) {
+        return new BulkTransactionItemResultDto(index, false, null, errorCode, message);
+    }
+}
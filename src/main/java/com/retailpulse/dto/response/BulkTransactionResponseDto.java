@@ -0,0 +1,11 @@
+package com.retailpulse.dto.response;
+
+import java.util.List;
+
+public record BulkTransactionResponseDto(
+    int received,
+    int created,
+    int failed,
+    List<BulkTransactionItemResultDto> results
+) {
+}
@@ -0,0 +1,17 @@
+package com.retailpulse.dto.response;
+
+import java.time.LocalDate;
+
+public record DailySalesReportDto(
+        long businessEntityId,
+        LocalDate date,
+        long completedCount,
+        String subtotal,
+        String taxAmount,
+        String total,
+        long refundedCount,
+        String refundedTotal,
+        String netTotal,
+        long cancelledCount
+) {
+}
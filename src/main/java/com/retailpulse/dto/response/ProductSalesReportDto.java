@@ -0,0 +1,11 @@
+package com.retailpulse.dto.response;
+
+public record ProductSalesReportDto(
+        long productId,
+        long quantitySold,
+        String revenue,
+        long refundedQuantity,
+        String refundedRevenue,
+        String netRevenue
+) {
+}
@@ -0,0 +1,12 @@
+package com.retailpulse.dto.response;
+
+import java.util.List;
+
+/**
+ * One page of a transaction search; {@code nextCursor} is {@code null} on the last page.
+ */
+public record SalesTransactionPageDto(
+        List<SalesTransactionSearchItemDto> transactions,
+        String nextCursor
+) {
+}
@@ -0,0 +1,19 @@
+package com.retailpulse.dto.response;
+
+import com.retailpulse.dto.request.SalesDetailsDto;
+
+import java.util.List;
+
+public record SalesTransactionSearchItemDto(
+        long salesTransactionId,
+        long businessEntityId,
+        String status,
+        String subTotalAmount,
+        String taxType,
+        String taxRate,
+        String taxAmount,
+        String totalAmount,
+        List<SalesDetailsDto> salesDetails,
+        String transactionDateTime
+) {
+}
@@ -0,0 +1,74 @@
+package com.retailpulse.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * {@code createTransaction} request received with an {@code Idempotency-Key}, inserted in the same local
+ * transaction as the sales transaction it created together with the response that was returned, so that a
+ * retry with the same key gets that response again. Rows are purged after the retention period.
+ * <p>
+ * The key is assigned by the client, so the entity reports itself as new until it has been persisted or
+ * loaded; saving a new key then inserts it directly instead of selecting it first.
+ */
+@Getter
+@Entity
+@Table(indexes = @Index(name = "idx_idempotent_request_created_at", columnList = "createdAt"))
+public class IdempotentRequest implements Persistable<String> {
+
+    public static final int MAX_KEY_LENGTH = 64;
+
+    @Id
+    @Column(length = MAX_KEY_LENGTH)
+    private String idempotencyKey;
+
+    // hex SHA-256 of the JSON serialized request body
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    private Long transactionId;
+
+    // JSON serialized CreateTransactionResponseDto
+    @Lob
+    private String response;
+
+    @Column(nullable = false)
+    @CreationTimestamp
+    private Instant createdAt;
+
+    @Transient
+    private boolean persisted;
+
+    protected IdempotentRequest() {
+    }
+
+    public IdempotentRequest(String idempotencyKey, String requestHash) {
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+    }
+
+    public void complete(Long transactionId, String response) {
+        this.transactionId = transactionId;
+        this.response = response;
+    }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        this.persisted = true;
+    }
+}
@@ -0,0 +1,202 @@
+package com.retailpulse.entity;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point decimal amount stored as an unscaled {@code long} and a scale, i.e. {@code unscaled * 10^-scale}
+ * (scale 2 = minor units such as cents).
+ * <p>
+ * Used by the pricing and tax path so that cart totals are computed without allocating a {@link BigDecimal}
+ * per line; entities and DTOs keep exposing {@link BigDecimal} and strings. Every operation gives the same
+ * value and scale as the {@link BigDecimal} operation it replaces, rounding is {@code HALF_UP}, and any result
+ * that does not fit a {@code long} throws {@link ArithmeticException} instead of wrapping around.
+ * <p>
+ * Like {@link BigDecimal#equals(Object)}, equality includes the scale: {@code 1.0} and {@code 1.00} are not
+ * equal; use {@link #compareTo(Money)} to compare values.
+ *
+ * @param unscaled the unscaled value
+ * @param scale    number of digits after the decimal point, 0 to 18
+ */
+public record Money(long unscaled, int scale) implements Comparable<Money> {
+
+    static final int MAX_SCALE = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1L;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10L;
+        }
+    }
+
+    public static final Money ZERO = new Money(0L, 0);
+
+    public Money {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new ArithmeticException("Unsupported money scale: " + scale);
+        }
+    }
+
+    /**
+     * @throws ArithmeticException if the value needs more than 18 digits of scale or does not fit a long
+     */
+    public static Money of(BigDecimal value) {
+        if (value.scale() < 0) {
+            value = value.setScale(0);
+        }
+        return new Money(value.unscaledValue().longValueExact(), value.scale());
+    }
+
+    /**
+     * Parses a plain decimal string ({@code "-12.50"}, {@code "3"}, {@code ".5"}) without going through
+     * {@link BigDecimal}. Anything else that {@code new BigDecimal(String)} accepts (exponents, non-ASCII
+     * digits, more than 18 digits) is delegated to it, so both accept and reject the same inputs.
+     *
+     * @throws NumberFormatException if the string is not a valid decimal number
+     * @throws ArithmeticException   if the value does not fit this representation
+     */
+    public static Money parse(String value) {
+        int length = value.length();
+        int index = 0;
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            index++;
+        }
+
+        long unscaled = 0L;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        for (; index < length; index++) {
+            char c = value.charAt(index);
+            if (c >= '0' && c <= '9') {
+                if (++digits > MAX_SCALE) {
+                    return of(new BigDecimal(value));
+                }
+                unscaled = unscaled * 10L + (c - '0');
+                if (fraction) {
+                    scale++;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                return of(new BigDecimal(value));
+            }
+        }
+        if (digits == 0) {
+            return of(new BigDecimal(value));
+        }
+        return new Money(negative ? -unscaled : unscaled, scale);
+    }
+
+    public Money plus(Money other) {
+        if (scale == other.scale) {
+            return new Money(Math.addExact(unscaled, other.unscaled), scale);
+        }
+        if (scale > other.scale) {
+            return new Money(Math.addExact(unscaled, rescale(other.unscaled, scale - other.scale)), scale);
+        }
+        return new Money(Math.addExact(rescale(unscaled, other.scale - scale), other.unscaled), other.scale);
+    }
+
+    public Money times(long multiplier) {
+        return new Money(Math.multiplyExact(unscaled, multiplier), scale);
+    }
+
+    /**
+     * Exact product; the scale of the result is the sum of both scales, as with {@link BigDecimal#multiply}.
+     */
+    public Money times(Money multiplier) {
+        return new Money(Math.multiplyExact(unscaled, multiplier.unscaled), Math.addExact(scale, multiplier.scale));
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(unscaled), scale);
+    }
+
+    /**
+     * Same result as {@code toBigDecimal().setScale(newScale, RoundingMode.HALF_UP)}.
+     */
+    public Money setScale(int newScale) {
+        if (newScale == scale) {
+            return this;
+        }
+        if (newScale > scale) {
+            return new Money(rescale(unscaled, newScale - scale), newScale);
+        }
+
+        long divisor = POWERS_OF_TEN[scale - newScale];
+        long quotient = unscaled / divisor;
+        long remainder = Math.abs(unscaled % divisor);
+        // remainder < divisor <= 10^18, so doubling it cannot overflow
+        if (remainder * 2 >= divisor) {
+            quotient += Long.signum(unscaled);
+        }
+        return new Money(quotient, newScale);
+    }
+
+    public int signum() {
+        return Long.signum(unscaled);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    /**
+     * Same text as {@link BigDecimal#toPlainString()}.
+     */
+    public String toPlainString() {
+        if (scale == 0) {
+            return Long.toString(unscaled);
+        }
+        if (unscaled == Long.MIN_VALUE) {
+            return toBigDecimal().toPlainString();
+        }
+
+        String digits = Long.toString(Math.abs(unscaled));
+        StringBuilder text = new StringBuilder(digits.length() + scale + 3);
+        if (unscaled < 0) {
+            text.append('-');
+        }
+        int integerDigits = digits.length() - scale;
+        if (integerDigits > 0) {
+            text.append(digits, 0, integerDigits).append('.').append(digits, integerDigits, digits.length());
+        } else {
+            text.append("0.");
+            for (int i = integerDigits; i < 0; i++) {
+                text.append('0');
+            }
+            text.append(digits);
+        }
+        return text.toString();
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        if (scale == other.scale) {
+            return Long.compare(unscaled, other.unscaled);
+        }
+        return toBigDecimal().compareTo(other.toBigDecimal());
+    }
+
+    /**
+     * Plain notation, which is also what {@link BigDecimal#toString()} prints for amounts of scale 2.
+     */
+    @Override
+    public String toString() {
+        return toPlainString();
+    }
+
+    private static long rescale(long unscaled, int scaleIncrease) {
+        if (scaleIncrease > MAX_SCALE) {
+            if (unscaled == 0L) {
+                return 0L;
+            }
+            throw new ArithmeticException("long overflow");
+        }
+        return Math.multiplyExact(unscaled, POWERS_OF_TEN[scaleIncrease]);
+    }
+}
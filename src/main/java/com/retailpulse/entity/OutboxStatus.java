@@ -0,0 +1,6 @@
+package com.retailpulse.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    FAILED
+}
@@ -0,0 +1,38 @@
+package com.retailpulse.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Quantity and revenue of one product over all stores on one day, counted like {@link SalesDailyRollup}.
+ */
+@Getter
+@Entity
+public class ProductDailyRollup {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private long quantitySold;
+
+    @Column(nullable = false)
+    private BigDecimal revenue;
+
+    @Column(nullable = false)
+    private long refundedQuantity;
+
+    @Column(nullable = false)
+    private BigDecimal refundedRevenue;
+
+    protected ProductDailyRollup() {
+    }
+
+    @Embeddable
+    public record Key(LocalDate salesDate, Long productId) implements Serializable {
+    }
+}
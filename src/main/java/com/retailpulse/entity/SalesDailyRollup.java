@@ -0,0 +1,49 @@
+package com.retailpulse.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totals of one store's sales on one day, by the day the sale was made. A sale counts as completed once its
+ * payment completes, and stays counted when it is refunded; refunds are counted separately. Written only by
+ * {@code SalesRollupRepository}, as increments on status changes or as a rebuild of whole days.
+ */
+@Getter
+@Entity
+public class SalesDailyRollup {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private long completedCount;
+
+    @Column(nullable = false)
+    private BigDecimal subtotal;
+
+    @Column(nullable = false)
+    private BigDecimal taxAmount;
+
+    @Column(nullable = false)
+    private BigDecimal total;
+
+    @Column(nullable = false)
+    private long refundedCount;
+
+    @Column(nullable = false)
+    private BigDecimal refundedTotal;
+
+    @Column(nullable = false)
+    private long cancelledCount;
+
+    protected SalesDailyRollup() {
+    }
+
+    @Embeddable
+    public record Key(Long businessEntityId, LocalDate salesDate) implements Serializable {
+    }
+}
@@ -1,6 +1,7 @@
 package com.retailpulse.entity;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -9,8 +10,11 @@ import java.math.BigDecimal;
 @Getter
 @Entity
 public class SalesDetails {
+    // pooled ids are assigned in memory, so a cart's lines are inserted as one JDBC batch instead of row by row;
+    // MySQL has no sequences, so Hibernate keeps the high value in the sales_details_seq table
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_details_seq")
+    @SequenceGenerator(name = "sales_details_seq", sequenceName = "sales_details_seq", allocationSize = 200)
     private Long id;
 
     @Setter
@@ -25,10 +29,14 @@ public class SalesDetails {
     @Column(nullable = false)
     private int quantity;
 
-    @Setter
     @Column(nullable = false)
     private BigDecimal salesPricePerUnit;
 
+    // salesPricePerUnit as Money, converted once per instance for the pricing path
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private Money unitPrice;
+
     protected SalesDetails() {}
 
     public SalesDetails(Long productId, int quantity, BigDecimal salesPricePerUnit) {
@@ -37,7 +45,65 @@ public class SalesDetails {
         this.salesPricePerUnit = salesPricePerUnit;
     }
 
+    public SalesDetails(Long productId, int quantity, Money unitPrice) {
+        this(productId, quantity, unitPrice.toBigDecimal());
+        this.unitPrice = unitPrice;
+    }
+
+    /**
+     * A line priced from its request text. A price with more digits or decimals than {@link Money} holds is kept
+     * as a {@link BigDecimal} only, and lines with such a price are totalled with {@link BigDecimal} arithmetic.
+     *
+     * @throws NumberFormatException if the price is not a valid decimal number
+     */
+    public static SalesDetails of(Long productId, int quantity, String salesPricePerUnit) {
+        try {
+            return new SalesDetails(productId, quantity, Money.parse(salesPricePerUnit));
+        } catch (ArithmeticException e) {
+            return new SalesDetails(productId, quantity, new BigDecimal(salesPricePerUnit));
+        }
+    }
+
+    /**
+     * Same product and price with another quantity, keeping the price already converted to {@link Money}.
+     */
+    public SalesDetails withQuantity(int quantity) {
+        SalesDetails line = new SalesDetails(productId, quantity, salesPricePerUnit);
+        line.unitPrice = unitPrice;
+        return line;
+    }
+
+    public void setSalesPricePerUnit(BigDecimal salesPricePerUnit) {
+        this.salesPricePerUnit = salesPricePerUnit;
+        this.unitPrice = null;
+    }
+
+    /**
+     * @throws ArithmeticException if the price does not fit {@link Money}
+     */
+    public Money getUnitPrice() {
+        if (unitPrice == null) {
+            unitPrice = Money.of(salesPricePerUnit);
+        }
+        return unitPrice;
+    }
+
+    /**
+     * @return unit price times quantity, unrounded
+     * @throws ArithmeticException if the price or the product does not fit {@link Money}
+     */
+    public Money getLineTotal() {
+        return getUnitPrice().times(quantity);
+    }
+
+    /**
+     * Same value as {@link #getLineTotal()}, also for prices that do not fit {@link Money}.
+     */
     public BigDecimal getSubTotal() {
-        return salesPricePerUnit.multiply(BigDecimal.valueOf(quantity));
+        try {
+            return getLineTotal().toBigDecimal();
+        } catch (ArithmeticException e) {
+            return salesPricePerUnit.multiply(BigDecimal.valueOf(quantity));
+        }
     }
 }
@@ -1,6 +1,7 @@
 package com.retailpulse.entity;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.math.BigDecimal;
@@ -19,6 +20,10 @@ public class SalesTax {
 
     private BigDecimal taxRate;
 
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private Money rate;
+
     protected SalesTax() {
     }
 
@@ -31,4 +36,18 @@ public class SalesTax {
         return subtotal.multiply(this.taxRate).setScale(2, RoundingMode.HALF_UP);
     }
 
+    /**
+     * Same result as {@link #calculateTax(BigDecimal)}: subtotal times rate, rounded HALF_UP to 2 decimals.
+     */
+    public Money calculateTax(Money subtotal) {
+        return subtotal.times(getRate()).setScale(2);
+    }
+
+    public Money getRate() {
+        if (rate == null) {
+            rate = Money.of(taxRate);
+        }
+        return rate;
+    }
+
 }
@@ -6,26 +6,50 @@ import jakarta.persistence.*;
 import lombok.Getter;
 
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Getter
 @Entity
+// an edit of the lines only writes the columns it changed, so it cannot undo a payment event applied since it was read
+@DynamicUpdate
+// a transaction with its tax and lines, for reads that return or change the lines
+@NamedEntityGraph(name = SalesTransaction.WITH_DETAILS, attributeNodes = {
+    @NamedAttributeNode("salesTax"),
+    @NamedAttributeNode("salesDetailEntities")
+})
+// the sales rollup rebuild reads one day of transactions at a time; searches and exports read a store's
+// transactions in date order, optionally of one status (InnoDB appends the id to every index, for the keyset)
+@Table(indexes = {
+    @Index(name = "idx_sales_transaction_transaction_date", columnList = "transactionDate"),
+    @Index(name = "idx_sales_transaction_store_date", columnList = "businessEntityId, transactionDate"),
+    @Index(name = "idx_sales_transaction_store_status_date", columnList = "businessEntityId, status, transactionDate")
+})
 public class SalesTransaction {
 
+    // IDs for suspended (unsaved) transactions; seeded from the clock so they look like the previous millisecond IDs
+    private static final AtomicLong MEMENTO_IDS = new AtomicLong(System.currentTimeMillis());
+
+    public static final String WITH_DETAILS = "SalesTransaction.withDetails";
+
+    // pooled like SalesDetails, so saving a transaction does not force an immediate INSERT to learn its id
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_transaction_seq")
+    @SequenceGenerator(name = "sales_transaction_seq", sequenceName = "sales_transaction_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private Long businessEntityId;
 
-    @ManyToOne
+    // lazy, so status and rollup reads do not join or select the tax; reads that show it fetch it with the transaction
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sales_tax_id")
     private SalesTax salesTax;
 
@@ -35,6 +59,8 @@ public class SalesTransaction {
 
     private BigDecimal total;
 
+    // written on insert; afterwards only by SalesTransactionStatusRepository's conditional updates
+    @Column(updatable = false)
     private TransactionStatus status;
 
     private Long paymentId;
@@ -86,13 +112,18 @@ public class SalesTransaction {
     }
 
     public void updateSalesDetails(Map<Long, SalesDetails> details) {
+        // edits the managed collection in place; replacing it would orphan it and fail the flush
         this.salesDetailEntities.clear();
-        this.addSalesDetails(details);
+        details.forEach((productId, detail) -> {
+            detail.setSalesTransaction(this);
+            this.salesDetailEntities.put(productId, detail);
+        });
+        recalculateTotal();
     }
 
     public SalesTransactionMemento saveToMemento() {
         return new SalesTransactionMemento(
-                System.currentTimeMillis(),
+                MEMENTO_IDS.incrementAndGet(),
                 this.businessEntityId,
                 this.subtotal.toPlainString(),
                 this.salesTax.getTaxType().name(),
@@ -122,11 +153,7 @@ public class SalesTransaction {
 
         Map<Long, SalesDetails> restoredDetails = new HashMap<>();
         for (SalesDetailsDto dto : memento.salesDetails()) {
-            SalesDetails detail = new SalesDetails(
-                    dto.productId(),
-                    dto.quantity(),
-                    new BigDecimal(dto.salesPricePerUnit())
-            );
+            SalesDetails detail = SalesDetails.of(dto.productId(), dto.quantity(), dto.salesPricePerUnit());
             restoredDetails.put(dto.productId(), detail);           
         }
         this.addSalesDetails(restoredDetails);
@@ -135,12 +162,26 @@ public class SalesTransaction {
     }
 
     private void recalculateTotal() {
-        BigDecimal subtotal = salesDetailEntities.values().stream()
-                .map(SalesDetails::getSubTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-        this.subtotal = subtotal;
-        this.salesTaxAmount = salesTax.calculateTax(subtotal);
-        this.total = subtotal.add(salesTaxAmount).setScale(2, RoundingMode.HALF_UP);
+        try {
+            Money subtotal = Money.ZERO;
+            for (SalesDetails salesDetails : salesDetailEntities.values()) {
+                subtotal = subtotal.plus(salesDetails.getLineTotal());
+            }
+            subtotal = subtotal.setScale(2);
+            Money salesTaxAmount = salesTax.calculateTax(subtotal);
+
+            this.subtotal = subtotal.toBigDecimal();
+            this.salesTaxAmount = salesTaxAmount.toBigDecimal();
+            this.total = subtotal.plus(salesTaxAmount).toBigDecimal();
+        } catch (ArithmeticException e) {
+            // a price, line or sum with more digits than Money holds; same result with BigDecimal
+            BigDecimal subtotal = salesDetailEntities.values().stream()
+                    .map(SalesDetails::getSubTotal)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add)
+                    .setScale(2, RoundingMode.HALF_UP);
+            this.subtotal = subtotal;
+            this.salesTaxAmount = salesTax.calculateTax(subtotal);
+            this.total = subtotal.add(salesTaxAmount);
+        }
     }
 }
@@ -0,0 +1,369 @@
+package com.retailpulse.entity;
+
+import com.retailpulse.dto.request.SalesDetailsDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary encoding of a {@link SalesTransactionMemento}, used to hold suspended carts in memory.
+ * <p>
+ * The first byte is the format version; decoding rejects versions it does not know. Version 1 is, in order:
+ * <ul>
+ *   <li>transaction ID and business entity ID as unsigned varints</li>
+ *   <li>subtotal, tax type, tax rate, tax amount and total</li>
+ *   <li>the line count plus one as a varint (0 for no list), then per line the product ID as an unsigned varint,
+ *       the quantity as a zigzag varint and the unit price</li>
+ *   <li>status and transaction date-time</li>
+ * </ul>
+ * Amounts are fixed point: a varint header of {@code 2 + scale} followed by the unscaled value as a zigzag varint,
+ * so {@code "109.00"} takes 3 bytes. Tax type and status are {@code 2 + ordinal}, and the date-time is {@code 2}
+ * followed by its epoch milliseconds, read as UTC+8 local time, as a zigzag varint. In each of these a header of
+ * {@code 0} is {@code null} and {@code 1} is the original text as a length-prefixed UTF-8 string, used for any
+ * value the compact form would not give back exactly. Decoding therefore returns a memento equal to the one
+ * encoded.
+ * <p>
+ * Ordinals are only stable within one build, which is enough for carts that live in memory.
+ */
+public final class SalesTransactionMementoCodec {
+
+    static final byte VERSION = 1;
+
+    private static final int NULL = 0;
+    private static final int TEXT = 1;
+    private static final int COMPACT = 2;
+
+    // SalesTransaction.saveToMemento() formats in Asia/Singapore, which has been UTC+8 since 1982
+    private static final ZoneOffset ZONE_OFFSET = ZoneOffset.ofHours(8);
+    private static final int DATE_TIME_LENGTH = 19;
+
+    private static final TaxType[] TAX_TYPES = TaxType.values();
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+    private SalesTransactionMementoCodec() {
+    }
+
+    /**
+     * @throws NullPointerException if the transaction ID or business entity ID is null
+     */
+    public static byte[] encode(SalesTransactionMemento memento) {
+        List<SalesDetailsDto> lines = memento.salesDetails();
+        Writer out = new Writer(32 + (lines == null ? 0 : lines.size() * 8));
+        out.writeByte(VERSION);
+        out.writeVarLong(memento.transactionId());
+        out.writeVarLong(memento.businessEntityId());
+        writeDecimal(out, memento.subTotal());
+        writeName(out, memento.taxType(), TAX_TYPES);
+        writeDecimal(out, memento.taxRate());
+        writeDecimal(out, memento.taxAmount());
+        writeDecimal(out, memento.totalAmount());
+        if (lines == null) {
+            out.writeVarLong(0);
+        } else {
+            out.writeVarLong(lines.size() + 1L);
+            for (SalesDetailsDto line : lines) {
+                out.writeVarLong(line.productId());
+                out.writeVarLong(zigzag(line.quantity()));
+                writeDecimal(out, line.salesPricePerUnit());
+            }
+        }
+        writeName(out, memento.status(), STATUSES);
+        writeDateTime(out, memento.transactionDateTime());
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are of an unknown version, truncated or malformed
+     */
+    public static SalesTransactionMemento decode(byte[] bytes) {
+        Reader in = new Reader(bytes);
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported memento version: " + version);
+        }
+        long transactionId = in.readVarLong();
+        long businessEntityId = in.readVarLong();
+        String subTotal = readDecimal(in);
+        String taxType = readName(in, TAX_TYPES);
+        String taxRate = readDecimal(in);
+        String taxAmount = readDecimal(in);
+        String totalAmount = readDecimal(in);
+        List<SalesDetailsDto> lines = null;
+        long lineCount = in.readVarLong() - 1;
+        if (lineCount < -1 || lineCount > in.remaining()) {
+            // every line takes at least one byte
+            throw new IllegalArgumentException("Invalid line count in memento: " + lineCount);
+        }
+        if (lineCount >= 0) {
+            SalesDetailsDto[] read = new SalesDetailsDto[(int) lineCount];
+            for (int i = 0; i < lineCount; i++) {
+                read[i] = new SalesDetailsDto(in.readVarLong(), (int) unzigzag(in.readVarLong()), readDecimal(in));
+            }
+            lines = List.of(read);
+        }
+        String status = readName(in, STATUSES);
+        String transactionDateTime = readDateTime(in);
+        return new SalesTransactionMemento(transactionId, businessEntityId, subTotal, taxType, taxRate, taxAmount,
+                totalAmount, lines, status, transactionDateTime);
+    }
+
+    private static void writeDecimal(Writer out, String value) {
+        if (value == null) {
+            out.writeVarLong(NULL);
+            return;
+        }
+        Money money = null;
+        try {
+            money = Money.parse(value);
+        } catch (NumberFormatException | ArithmeticException e) {
+            // not a decimal this form can hold; kept as text
+        }
+        if (money != null && money.toPlainString().equals(value)) {
+            out.writeVarLong(COMPACT + money.scale());
+            out.writeVarLong(zigzag(money.unscaled()));
+        } else {
+            writeText(out, value);
+        }
+    }
+
+    private static String readDecimal(Reader in) {
+        long header = in.readVarLong();
+        if (header == NULL) {
+            return null;
+        }
+        if (header == TEXT) {
+            return in.readText();
+        }
+        if (header < 0 || header > COMPACT + Money.MAX_SCALE) {
+            throw new IllegalArgumentException("Invalid decimal scale in memento: " + (header - COMPACT));
+        }
+        return new Money(unzigzag(in.readVarLong()), (int) header - COMPACT).toPlainString();
+    }
+
+    private static void writeName(Writer out, String value, Enum<?>[] values) {
+        if (value == null) {
+            out.writeVarLong(NULL);
+            return;
+        }
+        for (Enum<?> constant : values) {
+            if (constant.name().equals(value)) {
+                out.writeVarLong(COMPACT + constant.ordinal());
+                return;
+            }
+        }
+        writeText(out, value);
+    }
+
+    private static String readName(Reader in, Enum<?>[] values) {
+        long header = in.readVarLong();
+        if (header == NULL) {
+            return null;
+        }
+        if (header == TEXT) {
+            return in.readText();
+        }
+        if (header < 0 || header >= COMPACT + values.length) {
+            throw new IllegalArgumentException("Invalid ordinal in memento: " + (header - COMPACT));
+        }
+        return values[(int) header - COMPACT].name();
+    }
+
+    private static void writeDateTime(Writer out, String value) {
+        if (value == null) {
+            out.writeVarLong(NULL);
+            return;
+        }
+        LocalDateTime dateTime = parseDateTime(value);
+        if (dateTime != null && formatDateTime(dateTime).equals(value)) {
+            out.writeVarLong(COMPACT);
+            out.writeVarLong(zigzag(dateTime.toEpochSecond(ZONE_OFFSET) * 1000L));
+        } else {
+            writeText(out, value);
+        }
+    }
+
+    private static String readDateTime(Reader in) {
+        long header = in.readVarLong();
+        if (header == NULL) {
+            return null;
+        }
+        if (header == TEXT) {
+            return in.readText();
+        }
+        if (header != COMPACT) {
+            throw new IllegalArgumentException("Invalid date-time header in memento: " + header);
+        }
+        try {
+            return formatDateTime(LocalDateTime.ofEpochSecond(
+                    Math.floorDiv(unzigzag(in.readVarLong()), 1000L), 0, ZONE_OFFSET));
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid date-time in memento", e);
+        }
+    }
+
+    /**
+     * Parses the {@code yyyy-MM-dd HH:mm:ss} layout of {@link SalesTransaction#saveToMemento()} by position,
+     * which is several times faster than a {@link java.time.format.DateTimeFormatter}.
+     *
+     * @return the date-time, or {@code null} if the value is not in that layout
+     */
+    private static LocalDateTime parseDateTime(String value) {
+        if (value.length() != DATE_TIME_LENGTH || value.charAt(4) != '-' || value.charAt(7) != '-'
+                || value.charAt(10) != ' ' || value.charAt(13) != ':' || value.charAt(16) != ':') {
+            return null;
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        int hour = digits(value, 11, 2);
+        int minute = digits(value, 14, 2);
+        int second = digits(value, 17, 2);
+        if ((year | month | day | hour | minute | second) < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static String formatDateTime(LocalDateTime dateTime) {
+        char[] text = new char[DATE_TIME_LENGTH];
+        putDigits(text, 0, 4, dateTime.getYear());
+        text[4] = '-';
+        putDigits(text, 5, 2, dateTime.getMonthValue());
+        text[7] = '-';
+        putDigits(text, 8, 2, dateTime.getDayOfMonth());
+        text[10] = ' ';
+        putDigits(text, 11, 2, dateTime.getHour());
+        text[13] = ':';
+        putDigits(text, 14, 2, dateTime.getMinute());
+        text[16] = ':';
+        putDigits(text, 17, 2, dateTime.getSecond());
+        return new String(text);
+    }
+
+    /**
+     * @return the value of {@code count} ASCII digits starting at {@code start}, or -1 if any is not a digit
+     */
+    private static int digits(String value, int start, int count) {
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static void putDigits(char[] text, int start, int count, int value) {
+        for (int i = start + count - 1; i >= start; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static void writeText(Writer out, String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeVarLong(TEXT);
+        out.writeVarLong(utf8.length);
+        out.writeBytes(utf8);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Writer {
+        private byte[] buffer;
+        private int size;
+
+        private Writer(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        /** Unsigned LEB128: 7 bits per byte, low bits first, high bit set on all but the last byte. */
+        private void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        private Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        private int readByte() {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Truncated memento");
+            }
+            return buffer[position++];
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in memento");
+        }
+
+        private int remaining() {
+            return buffer.length - position;
+        }
+
+        private String readText() {
+            long length = readVarLong();
+            if (length < 0 || length > remaining()) {
+                throw new IllegalArgumentException("Truncated memento");
+            }
+            String text = new String(buffer, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return text;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.retailpulse.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Inventory stock update recorded in the same local transaction as the sales transaction that caused it,
+ * and delivered to the inventory service afterwards by the outbox relay. Rows are deleted once delivered;
+ * rows that exhaust their attempts are kept as {@link OutboxStatus#FAILED} for inspection.
+ */
+@Getter
+@Entity
+@Table(indexes = {
+    @Index(name = "idx_stock_update_outbox_status_id", columnList = "status, id"),
+    @Index(name = "idx_stock_update_outbox_entity_status_id", columnList = "businessEntityId, status, id")
+})
+public class StockUpdateOutbox {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long businessEntityId;
+
+    // JSON serialized InventoryUpdateRequestDto
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(length = MAX_ERROR_LENGTH)
+    private String lastError;
+
+    @Column(nullable = false)
+    @CreationTimestamp
+    private Instant createdAt;
+
+    protected StockUpdateOutbox() {
+    }
+
+    public StockUpdateOutbox(Long businessEntityId, String payload) {
+        this.businessEntityId = businessEntityId;
+        this.payload = payload;
+        this.status = OutboxStatus.PENDING;
+        this.nextAttemptAt = Instant.now();
+    }
+
+    public boolean isDue(Instant now) {
+        return !nextAttemptAt.isAfter(now);
+    }
+
+    /**
+     * Claims the entry for a relay: other relays do not take it before {@code leaseEnd}.
+     */
+    public void lease(Instant leaseEnd) {
+        this.nextAttemptAt = leaseEnd;
+    }
+
+    public void recordFailure(String error, Instant nextAttemptAt) {
+        this.attempts++;
+        this.lastError = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public void markFailed() {
+        this.status = OutboxStatus.FAILED;
+    }
+}
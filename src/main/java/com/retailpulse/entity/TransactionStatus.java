@@ -1,10 +1,35 @@
 package com.retailpulse.entity; 
 
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum TransactionStatus {
     PENDING_PAYMENT,
     COMPLETED,
     CANCELLED,
     REJECTED,
-    REFUNDED
+    REFUNDED;
+
+    private static final Map<TransactionStatus, Set<TransactionStatus>> PREDECESSORS = new EnumMap<>(TransactionStatus.class);
+
+    static {
+        // a failed payment can be retried, so REJECTED is not final; every other status is left only by a refund
+        PREDECESSORS.put(PENDING_PAYMENT, Collections.unmodifiableSet(EnumSet.of(PENDING_PAYMENT, REJECTED)));
+        PREDECESSORS.put(COMPLETED, Collections.unmodifiableSet(EnumSet.of(PENDING_PAYMENT, REJECTED)));
+        PREDECESSORS.put(CANCELLED, Collections.unmodifiableSet(EnumSet.of(PENDING_PAYMENT, REJECTED)));
+        PREDECESSORS.put(REJECTED, Collections.unmodifiableSet(EnumSet.of(PENDING_PAYMENT)));
+        PREDECESSORS.put(REFUNDED, Collections.unmodifiableSet(EnumSet.of(COMPLETED)));
+    }
+
+    /**
+     * The statuses a transaction may move to this status from. A status update for a transaction in any other
+     * status is stale, e.g. a redelivered {@code PROCESSING} event for a completed sale.
+     */
+    public Set<TransactionStatus> predecessors() {
+        return PREDECESSORS.get(this);
+    }
 }
@@ -0,0 +1,12 @@
+package com.retailpulse.exception;
+
+/**
+ * A call to a downstream service was rejected without being made, because its circuit breaker is open or its
+ * bulkhead is full. Answered with 503 so clients retry later.
+ */
+public class DependencyUnavailableException extends BusinessException {
+
+  public DependencyUnavailableException(String errorCode, String message) {
+    super(errorCode, message);
+  }
+}
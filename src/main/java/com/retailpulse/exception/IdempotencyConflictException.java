@@ -0,0 +1,12 @@
+package com.retailpulse.exception;
+
+/**
+ * A request with the same {@code Idempotency-Key} is still being processed. Answered with 409 so clients retry
+ * later with the same key.
+ */
+public class IdempotencyConflictException extends BusinessException {
+
+  public IdempotencyConflictException(String errorCode, String message) {
+    super(errorCode, message);
+  }
+}
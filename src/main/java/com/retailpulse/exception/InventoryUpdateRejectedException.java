@@ -0,0 +1,12 @@
+package com.retailpulse.exception;
+
+/**
+ * The inventory service answered a stock update with a client error (4xx), so it did not apply it. Unlike a
+ * timeout or a server error, the update can be sent again without deducting the stock twice.
+ */
+public class InventoryUpdateRejectedException extends BusinessException {
+
+  public InventoryUpdateRejectedException(String errorCode, String message) {
+    super(errorCode, message);
+  }
+}
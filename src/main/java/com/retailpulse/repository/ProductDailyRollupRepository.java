@@ -0,0 +1,36 @@
+package com.retailpulse.repository;
+
+import com.retailpulse.entity.ProductDailyRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ProductDailyRollupRepository extends JpaRepository<ProductDailyRollup, ProductDailyRollup.Key> {
+
+    /**
+     * Per-product totals over the given days, highest revenue first.
+     */
+    @Query("SELECT r.id.productId AS productId, SUM(r.quantitySold) AS quantitySold, SUM(r.revenue) AS revenue, " +
+           "SUM(r.refundedQuantity) AS refundedQuantity, SUM(r.refundedRevenue) AS refundedRevenue " +
+           "FROM ProductDailyRollup r WHERE r.id.salesDate BETWEEN :from AND :to " +
+           "GROUP BY r.id.productId ORDER BY SUM(r.revenue) DESC, r.id.productId")
+    List<ProductTotals> findTopProducts(LocalDate from, LocalDate to, Pageable pageable);
+
+    interface ProductTotals {
+        Long getProductId();
+
+        Long getQuantitySold();
+
+        BigDecimal getRevenue();
+
+        Long getRefundedQuantity();
+
+        BigDecimal getRefundedRevenue();
+    }
+}
@@ -0,0 +1,17 @@
+package com.retailpulse.repository;
+
+import com.retailpulse.entity.SalesDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollup, SalesDailyRollup.Key> {
+
+    @Query("SELECT r FROM SalesDailyRollup r WHERE r.id.businessEntityId = :businessEntityId " +
+           "AND r.id.salesDate BETWEEN :from AND :to ORDER BY r.id.salesDate")
+    List<SalesDailyRollup> findByStoreAndDates(Long businessEntityId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,157 @@
+package com.retailpulse.repository;
+
+import com.retailpulse.entity.TransactionStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * JDBC writes to {@code sales_daily_rollup} and {@code product_daily_rollup}. Increments are applied with
+ * {@code INSERT ... ON DUPLICATE KEY UPDATE}, so concurrent status changes of the same store and day add up
+ * without reading the row first.
+ */
+@Repository
+public class SalesRollupRepository {
+
+    // status is mapped without @Enumerated, so Hibernate stores the enum ordinal
+    private static final int COMPLETED = TransactionStatus.COMPLETED.ordinal();
+    private static final int CANCELLED = TransactionStatus.CANCELLED.ordinal();
+    private static final int REFUNDED = TransactionStatus.REFUNDED.ordinal();
+
+    private static final String ADD_DAILY_SQL =
+            "INSERT INTO sales_daily_rollup (business_entity_id, sales_date, completed_count, subtotal, tax_amount, total, " +
+            "refunded_count, refunded_total, cancelled_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE completed_count = completed_count + VALUES(completed_count), " +
+            "subtotal = subtotal + VALUES(subtotal), tax_amount = tax_amount + VALUES(tax_amount), " +
+            "total = total + VALUES(total), refunded_count = refunded_count + VALUES(refunded_count), " +
+            "refunded_total = refunded_total + VALUES(refunded_total), " +
+            "cancelled_count = cancelled_count + VALUES(cancelled_count)";
+
+    private static final String ADD_PRODUCT_SQL =
+            "INSERT INTO product_daily_rollup (sales_date, product_id, quantity_sold, revenue, refunded_quantity, " +
+            "refunded_revenue) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE quantity_sold = quantity_sold + VALUES(quantity_sold), " +
+            "revenue = revenue + VALUES(revenue), refunded_quantity = refunded_quantity + VALUES(refunded_quantity), " +
+            "refunded_revenue = refunded_revenue + VALUES(refunded_revenue)";
+
+    private static final String REBUILD_DAILY_SQL =
+            "INSERT INTO sales_daily_rollup (business_entity_id, sales_date, completed_count, subtotal, tax_amount, total, " +
+            "refunded_count, refunded_total, cancelled_count) " +
+            "SELECT business_entity_id, ?, " +
+            "SUM(CASE WHEN status IN (" + COMPLETED + ", " + REFUNDED + ") THEN 1 ELSE 0 END), " +
+            "COALESCE(SUM(CASE WHEN status IN (" + COMPLETED + ", " + REFUNDED + ") THEN subtotal END), 0), " +
+            "COALESCE(SUM(CASE WHEN status IN (" + COMPLETED + ", " + REFUNDED + ") THEN sales_tax_amount END), 0), " +
+            "COALESCE(SUM(CASE WHEN status IN (" + COMPLETED + ", " + REFUNDED + ") THEN total END), 0), " +
+            "SUM(CASE WHEN status = " + REFUNDED + " THEN 1 ELSE 0 END), " +
+            "COALESCE(SUM(CASE WHEN status = " + REFUNDED + " THEN total END), 0), " +
+            "SUM(CASE WHEN status = " + CANCELLED + " THEN 1 ELSE 0 END) " +
+            "FROM sales_transaction WHERE transaction_date >= ? AND transaction_date < ? " +
+            "AND status IN (" + COMPLETED + ", " + CANCELLED + ", " + REFUNDED + ") " +
+            "GROUP BY business_entity_id";
+
+    private static final String REBUILD_PRODUCT_SQL =
+            "INSERT INTO product_daily_rollup (sales_date, product_id, quantity_sold, revenue, refunded_quantity, " +
+            "refunded_revenue) " +
+            "SELECT ?, d.product_id, SUM(d.quantity), SUM(d.quantity * d.sales_price_per_unit), " +
+            "SUM(CASE WHEN t.status = " + REFUNDED + " THEN d.quantity ELSE 0 END), " +
+            "COALESCE(SUM(CASE WHEN t.status = " + REFUNDED + " THEN d.quantity * d.sales_price_per_unit END), 0) " +
+            "FROM sales_transaction t JOIN sales_details d ON d.sale_id = t.id " +
+            "WHERE t.transaction_date >= ? AND t.transaction_date < ? AND t.status IN (" + COMPLETED + ", " + REFUNDED + ") " +
+            "GROUP BY d.product_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SalesRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds the increments in a single JDBC batch. Must run inside the caller's transaction.
+     */
+    public void addDaily(List<DailyIncrement> increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_DAILY_SQL, increments, increments.size(), (ps, increment) -> {
+            ps.setLong(1, increment.businessEntityId());
+            ps.setObject(2, increment.salesDate());
+            ps.setLong(3, increment.completedCount());
+            ps.setBigDecimal(4, increment.subtotal());
+            ps.setBigDecimal(5, increment.taxAmount());
+            ps.setBigDecimal(6, increment.total());
+            ps.setLong(7, increment.refundedCount());
+            ps.setBigDecimal(8, increment.refundedTotal());
+            ps.setLong(9, increment.cancelledCount());
+        });
+    }
+
+    /**
+     * Adds the increments in a single JDBC batch. Must run inside the caller's transaction.
+     */
+    public void addProducts(List<ProductIncrement> increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_PRODUCT_SQL, increments, increments.size(), (ps, increment) -> {
+            ps.setObject(1, increment.salesDate());
+            ps.setLong(2, increment.productId());
+            ps.setLong(3, increment.quantitySold());
+            ps.setBigDecimal(4, increment.revenue());
+            ps.setLong(5, increment.refundedQuantity());
+            ps.setBigDecimal(6, increment.refundedRevenue());
+        });
+    }
+
+    /**
+     * Replaces the rollups of one day with totals computed from the sales made in {@code [from, to)}.
+     * Must run inside the caller's transaction.
+     */
+    public void rebuildDay(LocalDate salesDate, Instant from, Instant to) {
+        jdbcTemplate.update("DELETE FROM sales_daily_rollup WHERE sales_date = ?", salesDate);
+        jdbcTemplate.update("DELETE FROM product_daily_rollup WHERE sales_date = ?", salesDate);
+        jdbcTemplate.update(REBUILD_DAILY_SQL, ps -> bindDay(ps, salesDate, from, to));
+        jdbcTemplate.update(REBUILD_PRODUCT_SQL, ps -> bindDay(ps, salesDate, from, to));
+    }
+
+    private static void bindDay(PreparedStatement ps, LocalDate salesDate, Instant from, Instant to) throws SQLException {
+        ps.setObject(1, salesDate);
+        // same UTC binding Hibernate uses for Instant columns
+        ps.setTimestamp(2, Timestamp.from(from), utcCalendar());
+        ps.setTimestamp(3, Timestamp.from(to), utcCalendar());
+    }
+
+    private static Calendar utcCalendar() {
+        return Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    }
+
+    public record DailyIncrement(long businessEntityId, LocalDate salesDate, long completedCount, BigDecimal subtotal,
+                                 BigDecimal taxAmount, BigDecimal total, long refundedCount, BigDecimal refundedTotal,
+                                 long cancelledCount) {
+
+        public DailyIncrement plus(DailyIncrement other) {
+            return new DailyIncrement(businessEntityId, salesDate, completedCount + other.completedCount,
+                    subtotal.add(other.subtotal), taxAmount.add(other.taxAmount), total.add(other.total),
+                    refundedCount + other.refundedCount, refundedTotal.add(other.refundedTotal),
+                    cancelledCount + other.cancelledCount);
+        }
+    }
+
+    public record ProductIncrement(LocalDate salesDate, long productId, long quantitySold, BigDecimal revenue,
+                                   long refundedQuantity, BigDecimal refundedRevenue) {
+
+        public ProductIncrement plus(ProductIncrement other) {
+            return new ProductIncrement(salesDate, productId, quantitySold + other.quantitySold,
+                    revenue.add(other.revenue), refundedQuantity + other.refundedQuantity,
+                    refundedRevenue.add(other.refundedRevenue));
+        }
+    }
+}
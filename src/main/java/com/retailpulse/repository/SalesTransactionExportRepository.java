@@ -0,0 +1,93 @@
+package com.retailpulse.repository;
+
+import com.retailpulse.entity.TransactionStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only JDBC read of a store's transactions joined with their sales details, for exports that must not
+ * hold the result in memory.
+ */
+@Repository
+public class SalesTransactionExportRepository {
+
+    // Connector/J streams a result set row by row only for this fetch size; any other value reads it whole
+    private static final int STREAM_ROW_BY_ROW = Integer.MIN_VALUE;
+
+    private static final String EXPORT_SQL =
+            "SELECT t.id, t.business_entity_id, t.status, t.subtotal, t.sales_tax_amount, t.total, t.transaction_date, " +
+            "t.payment_event_date, d.product_id, d.quantity, d.sales_price_per_unit " +
+            "FROM sales_transaction t LEFT JOIN sales_details d ON d.sale_id = t.id " +
+            "WHERE t.business_entity_id = ? AND t.transaction_date >= ? AND t.transaction_date < ? " +
+            "ORDER BY t.transaction_date, t.id";
+
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SalesTransactionExportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Passes one row per sales detail to {@code action}, in transaction date order, with the rows of a transaction
+     * next to each other. A transaction without details gives one row without product. The connection stays busy
+     * until the last row has been handled, so a slow {@code action} slows the read down rather than buffering rows.
+     *
+     * @param from first transaction date, inclusive
+     * @param to   last transaction date, exclusive
+     */
+    public void forEachRow(long businessEntityId, Instant from, Instant to, Consumer<ExportRow> action) {
+        // same UTC binding Hibernate uses for Instant columns; one instance per read, Calendar is not thread-safe
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_ROW_BY_ROW);
+            ps.setLong(1, businessEntityId);
+            ps.setTimestamp(2, Timestamp.from(from), utc);
+            ps.setTimestamp(3, Timestamp.from(to), utc);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(toRow(rs, utc)));
+    }
+
+    private static ExportRow toRow(ResultSet rs, Calendar utc) throws SQLException {
+        // status is mapped without @Enumerated, so Hibernate stores the enum ordinal
+        int status = rs.getInt(3);
+        TransactionStatus transactionStatus = rs.wasNull() ? null : STATUSES[status];
+        Timestamp paymentEventDate = rs.getTimestamp(8, utc);
+        long productId = rs.getLong(9);
+        boolean hasDetail = !rs.wasNull();
+        return new ExportRow(
+                rs.getLong(1),
+                rs.getLong(2),
+                transactionStatus,
+                rs.getBigDecimal(4),
+                rs.getBigDecimal(5),
+                rs.getBigDecimal(6),
+                rs.getTimestamp(7, utc).toInstant(),
+                paymentEventDate != null ? paymentEventDate.toInstant() : null,
+                hasDetail ? productId : null,
+                hasDetail ? rs.getInt(10) : 0,
+                hasDetail ? rs.getBigDecimal(11) : null);
+    }
+
+    /**
+     * One sales detail with the columns of its transaction; {@code productId} is {@code null} for a transaction
+     * without details.
+     */
+    public record ExportRow(long transactionId, long businessEntityId, TransactionStatus status, BigDecimal subtotal,
+                            BigDecimal taxAmount, BigDecimal total, Instant transactionDate, Instant paymentEventDate,
+                            Long productId, int quantity, BigDecimal salesPricePerUnit) {
+    }
+}
@@ -1,9 +1,53 @@
 package com.retailpulse.repository;
 
+import com.retailpulse.dto.response.TransactionStatusResponseDto;
 import com.retailpulse.entity.SalesTransaction;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface SalesTransactionRepository extends JpaRepository<SalesTransaction, Long> {
+public interface SalesTransactionRepository extends JpaRepository<SalesTransaction, Long>, JpaSpecificationExecutor<SalesTransaction> {
+
+    /**
+     * Reads only the id and status columns, without loading the entity or joining its sales tax.
+     */
+    @Query("SELECT new com.retailpulse.dto.response.TransactionStatusResponseDto(t.id, t.status) FROM SalesTransaction t WHERE t.id = :id")
+    Optional<TransactionStatusResponseDto> findStatusById(Long id);
+
+    /**
+     * Loads the transaction together with its sales tax and sales details in one query.
+     */
+    @EntityGraph(SalesTransaction.WITH_DETAILS)
+    Optional<SalesTransaction> findWithDetailsById(Long id);
+
+    /**
+     * Loads the transactions together with their sales details in one query.
+     */
+    @Query("SELECT DISTINCT t FROM SalesTransaction t LEFT JOIN FETCH t.salesDetailEntities WHERE t.id IN :ids")
+    List<SalesTransaction> findAllWithDetailsByIdIn(Collection<Long> ids);
+
+    /**
+     * Reads the sales details of the transactions in one query, as plain values, without loading the transactions.
+     */
+    @Query("SELECT d.salesTransaction.id AS transactionId, d.productId AS productId, d.quantity AS quantity, " +
+            "d.salesPricePerUnit AS salesPricePerUnit FROM SalesDetails d WHERE d.salesTransaction.id IN :transactionIds")
+    List<DetailLine> findDetailLinesByTransactionIdIn(Collection<Long> transactionIds);
+
+    interface DetailLine {
+        Long getTransactionId();
+
+        Long getProductId();
+
+        int getQuantity();
+
+        BigDecimal getSalesPricePerUnit();
+    }
 }
@@ -0,0 +1,102 @@
+package com.retailpulse.repository;
+
+import com.retailpulse.dto.TransactionStatusUpdateDto;
+import com.retailpulse.entity.TransactionStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC access to the status columns of {@code sales_transaction}, for status transitions that should not load
+ * entities.
+ * <p>
+ * Every transition is a single conditional UPDATE: it only matches a row whose current status is one of the new
+ * status's {@link TransactionStatus#predecessors() predecessors} and whose payment event date is not after the
+ * event's. The check and the write are one statement under the row lock, so a stale or out-of-order event
+ * updates nothing instead of overwriting a newer status, without a version column or a prior read.
+ */
+@Repository
+public class SalesTransactionStatusRepository {
+
+    // status is mapped without @Enumerated, so Hibernate stores the enum ordinal
+    private static final Map<TransactionStatus, String> TRANSITION_SQL = new EnumMap<>(TransactionStatus.class);
+
+    static {
+        for (TransactionStatus status : TransactionStatus.values()) {
+            String predecessors = status.predecessors().stream()
+                    .map(predecessor -> Integer.toString(predecessor.ordinal()))
+                    .collect(Collectors.joining(", "));
+            TRANSITION_SQL.put(status, "UPDATE sales_transaction SET status = ?, payment_event_date = ? " +
+                    "WHERE id = ? AND status IN (" + predecessors + ") " +
+                    "AND (payment_event_date IS NULL OR payment_event_date <= ?)");
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SalesTransactionStatusRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Moves one transaction to {@code update.status()} if the transition is allowed from its current status and
+     * the event is not older than the last one applied. Must run inside the caller's transaction.
+     *
+     * @return {@code true} if the row was updated, {@code false} if the transaction does not exist or the update
+     * is stale
+     */
+    public boolean transition(TransactionStatusUpdateDto update) {
+        Calendar utc = utcCalendar();
+        return jdbcTemplate.update(TRANSITION_SQL.get(update.status()), ps -> bind(ps, update, utc)) > 0;
+    }
+
+    /**
+     * Applies every transition in one JDBC batch per target status. Must run inside the caller's transaction.
+     *
+     * @param updates the status updates, at most one per transaction id
+     * @return the number of rows updated for each entry, in the same order as {@code updates}: 0 where the
+     * transaction does not exist or the update is stale
+     */
+    public int[] transitions(List<TransactionStatusUpdateDto> updates) {
+        int[] updateCounts = new int[updates.size()];
+        if (updates.isEmpty()) {
+            return updateCounts;
+        }
+        Map<TransactionStatus, List<Integer>> indexesByStatus = new EnumMap<>(TransactionStatus.class);
+        for (int i = 0; i < updates.size(); i++) {
+            indexesByStatus.computeIfAbsent(updates.get(i).status(), status -> new ArrayList<>()).add(i);
+        }
+        Calendar utc = utcCalendar();
+        indexesByStatus.forEach((status, indexes) -> {
+            int[] counts = jdbcTemplate.batchUpdate(TRANSITION_SQL.get(status), indexes, indexes.size(),
+                    (ps, index) -> bind(ps, updates.get(index), utc))[0];
+            for (int i = 0; i < indexes.size(); i++) {
+                updateCounts[indexes.get(i)] = counts[i];
+            }
+        });
+        return updateCounts;
+    }
+
+    private static void bind(PreparedStatement ps, TransactionStatusUpdateDto update, Calendar utc) throws SQLException {
+        // same UTC binding Hibernate uses for Instant columns
+        Timestamp paymentEventDate = Timestamp.from(update.paymentEventDate());
+        ps.setInt(1, update.status().ordinal());
+        ps.setTimestamp(2, paymentEventDate, utc);
+        ps.setLong(3, update.transactionId());
+        ps.setTimestamp(4, paymentEventDate, utc);
+    }
+
+    private static Calendar utcCalendar() {
+        return Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    }
+}
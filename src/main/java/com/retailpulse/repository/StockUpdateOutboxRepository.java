@@ -0,0 +1,48 @@
+package com.retailpulse.repository;
+
+import com.retailpulse.entity.OutboxStatus;
+import com.retailpulse.entity.StockUpdateOutbox;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface StockUpdateOutboxRepository extends JpaRepository<StockUpdateOutbox, Long> {
+
+    /**
+     * Oldest committed entry in the given status of each business entity, if it is due, in ID order. The entries
+     * are locked with {@code SELECT ... FOR UPDATE} so that relays running on several replicas serialize on claiming
+     * them. An entry with a lower ID that is not committed yet is not seen, so this does not order the entries of a
+     * business entity by commit; see {@code StockUpdateOutboxRelay}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM StockUpdateOutbox o WHERE o.status = :status AND o.nextAttemptAt <= :now " +
+           "AND NOT EXISTS (SELECT 1 FROM StockUpdateOutbox e WHERE e.businessEntityId = o.businessEntityId " +
+           "AND e.status = :status AND e.id < o.id) ORDER BY o.id")
+    List<StockUpdateOutbox> findDueHeads(@Param("status") OutboxStatus status, @Param("now") Instant now, Limit limit);
+
+    /**
+     * Records a failed delivery of an entry, unless its lease has changed since the relay claimed it: the entry was
+     * then deleted or claimed again by another relay, whose outcome wins.
+     *
+     * @return 1 if the failure was recorded, 0 if the entry is no longer held under {@code leaseEnd}
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE StockUpdateOutbox o SET o.status = :status, o.attempts = :attempts, " +
+           "o.nextAttemptAt = :nextAttemptAt, o.lastError = :lastError WHERE o.id = :id AND o.nextAttemptAt = :leaseEnd")
+    int recordFailure(@Param("id") Long id, @Param("leaseEnd") Instant leaseEnd, @Param("status") OutboxStatus status,
+                      @Param("attempts") int attempts, @Param("nextAttemptAt") Instant nextAttemptAt,
+                      @Param("lastError") String lastError);
+
+    long countByStatus(OutboxStatus status);
+}
@@ -0,0 +1,197 @@
+package com.retailpulse.service;
+
+import com.retailpulse.client.PaymentServiceClient;
+import com.retailpulse.dto.request.SalesTransactionRequestDto;
+import com.retailpulse.dto.response.BulkTransactionItemResultDto;
+import com.retailpulse.dto.response.BulkTransactionResponseDto;
+import com.retailpulse.dto.response.CreateTransactionResponseDto;
+import com.retailpulse.dto.response.PaymentResponseDto;
+import com.retailpulse.entity.SalesDetails;
+import com.retailpulse.entity.SalesTax;
+import com.retailpulse.entity.SalesTransaction;
+import com.retailpulse.entity.TaxType;
+import com.retailpulse.exception.BusinessException;
+import com.retailpulse.exception.DependencyUnavailableException;
+import com.retailpulse.repository.SalesTransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk ingestion of sales queued by POS terminals while offline.
+ * <p>
+ * Compared to one {@code createTransaction} call per sale, the batch looks up the tax rate once, prices every
+ * sale in one pass, writes all transactions in JDBC batches, sends one aggregated stock update per store and
+ * requests the payment intents concurrently. Each sale gets its own result: a sale that is invalid, whose
+ * payment intent fails, or whose store's stock update fails is left out of the database and reported with the
+ * same error code {@code createTransaction} would return, without failing the rest of the batch.
+ * <p>
+ * As in {@code createTransaction}, stock is updated before the payment intents are requested, so a sale left out
+ * for its store's stock update never has a payment intent. A sale whose payment intent then fails stays deducted
+ * in the store's stock update, as the stock update of a failed {@code createTransaction} does outside OUTBOX mode.
+ */
+@Slf4j
+@Service
+public class BulkSalesTransactionService {
+
+  private final SalesTransactionRepository salesTransactionRepository;
+  private final SalesTaxRegistry salesTaxRegistry;
+  private final StockUpdateService stockUpdateService;
+  private final PaymentServiceClient paymentServiceClient;
+  private final DownstreamGuard downstreamGuard;
+  private final AsyncTaskExecutor taskExecutor;
+  private final int maxItems;
+
+  public BulkSalesTransactionService(SalesTransactionRepository salesTransactionRepository,
+                                     SalesTaxRegistry salesTaxRegistry,
+                                     StockUpdateService stockUpdateService,
+                                     PaymentServiceClient paymentServiceClient,
+                                     DownstreamGuard downstreamGuard,
+                                     @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor taskExecutor,
+                                     @Value("${sales.bulk.max-items:500}") int maxItems) {
+    this.salesTransactionRepository = salesTransactionRepository;
+    this.salesTaxRegistry = salesTaxRegistry;
+    this.stockUpdateService = stockUpdateService;
+    this.paymentServiceClient = paymentServiceClient;
+    this.downstreamGuard = downstreamGuard;
+    this.taskExecutor = taskExecutor;
+    this.maxItems = maxItems;
+  }
+
+  /**
+   * Creates every valid sale of the batch.
+   *
+   * @param requestDtos the sales, in the order the terminal recorded them
+   * @return one result per sale, in request order
+   * @throws BusinessException with code {@code EMPTY_BATCH} or {@code BATCH_TOO_LARGE} if the batch itself is rejected
+   */
+  @Transactional
+  public BulkTransactionResponseDto createTransactions(List<SalesTransactionRequestDto> requestDtos) {
+    if (requestDtos == null || requestDtos.isEmpty()) {
+      throw new BusinessException("EMPTY_BATCH", "Bulk request contains no transactions.");
+    }
+    if (requestDtos.size() > maxItems) {
+      throw new BusinessException("BATCH_TOO_LARGE", "Bulk request contains " + requestDtos.size() + " transactions, the limit is " + maxItems + ".");
+    }
+
+    log.info("Creating {} sales transactions in bulk", requestDtos.size());
+    BulkTransactionItemResultDto[] results = new BulkTransactionItemResultDto[requestDtos.size()];
+
+    // 1. price every sale with one tax lookup
+    SalesTax salesTax = salesTaxRegistry.getSalesTax(TaxType.GST);
+    Map<Integer, SalesTransaction> transactions = new LinkedHashMap<>();
+    for (int index = 0; index < requestDtos.size(); index++) {
+      SalesTransactionRequestDto requestDto = requestDtos.get(index);
+      if (requestDto == null || requestDto.salesDetails() == null || requestDto.salesDetails().isEmpty()) {
+        results[index] = BulkTransactionItemResultDto.failed(index, "EMPTY_SALE", "Sales details cannot be empty.");
+        continue;
+      }
+      try {
+        transactions.put(index, SalesTransactionService.newSalesTransaction(requestDto, salesTax));
+      } catch (RuntimeException e) { // unparseable or out-of-range prices
+        results[index] = BulkTransactionItemResultDto.failed(index, "INVALID_SALE", "Invalid sales details: " + e.getMessage());
+      }
+    }
+
+    // 2. assign ids; pooled ids need no INSERT, so nothing is written before the flush below
+    salesTransactionRepository.saveAll(transactions.values());
+
+    // 3. one stock update per store; a store whose update fails gets no payment intents, so none are left open
+    Map<Long, List<Integer>> indexesByStore = new LinkedHashMap<>();
+    transactions.forEach((index, transaction) ->
+      indexesByStore.computeIfAbsent(transaction.getBusinessEntityId(), id -> new ArrayList<>()).add(index));
+
+    indexesByStore.forEach((businessEntityId, indexes) -> {
+      try {
+        stockUpdateService.updateStocks(businessEntityId, aggregateSalesDetails(indexes, transactions));
+      } catch (BusinessException e) {
+        log.error("Inventory update failed during bulk creation for businessEntityId={}: {}", businessEntityId, e.getMessage());
+        String errorCode = e instanceof DependencyUnavailableException ? e.getErrorCode() : "INVENTORY_UPDATE_FAILED";
+        for (int index : indexes) {
+          results[index] = BulkTransactionItemResultDto.failed(index, errorCode, "Inventory update failed: " + e.getMessage());
+          discard(transactions, index);
+        }
+      }
+    });
+
+    // 4. payment intents for the remaining sales, requested concurrently; the payment service has no bulk API
+    Map<Integer, Future<PaymentResponseDto>> paymentRequests = new LinkedHashMap<>();
+    transactions.forEach((index, transaction) -> paymentRequests.put(index,
+      taskExecutor.submit(() -> downstreamGuard.call(DownstreamGuard.Dependency.PAYMENT,
+        () -> paymentServiceClient.createPaymentIntent(SalesTransactionService.createPaymentRequest(transaction))))));
+
+    Map<Integer, PaymentResponseDto> paymentIntents = new HashMap<>();
+    for (Map.Entry<Integer, Future<PaymentResponseDto>> paymentRequest : paymentRequests.entrySet()) {
+      int index = paymentRequest.getKey();
+      SalesTransaction transaction = transactions.get(index);
+      try {
+        PaymentResponseDto paymentResponseDto = awaitPaymentIntent(paymentRequest.getValue());
+        SalesTransactionService.applyPaymentIntent(transaction, paymentResponseDto);
+        paymentIntents.put(index, paymentResponseDto);
+      } catch (BusinessException e) {
+        results[index] = BulkTransactionItemResultDto.failed(index, e.getErrorCode(), e.getMessage());
+        discard(transactions, index);
+      }
+    }
+
+    // 5. write the remaining transactions and their lines in JDBC batches
+    salesTransactionRepository.flush();
+
+    transactions.forEach((index, transaction) -> results[index] = BulkTransactionItemResultDto.created(index,
+      new CreateTransactionResponseDto(SalesTransactionService.mapToResponseDto(transaction), paymentIntents.get(index))));
+
+    int created = transactions.size();
+    log.info("Bulk creation finished: {} of {} sales transactions created", created, requestDtos.size());
+    return new BulkTransactionResponseDto(requestDtos.size(), created, requestDtos.size() - created, Arrays.asList(results));
+  }
+
+  private PaymentResponseDto awaitPaymentIntent(Future<PaymentResponseDto> paymentRequest) {
+    try {
+      return paymentRequest.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for payment intents", e);
+    } catch (ExecutionException e) { // Feign exceptions (FeignException, RetryableException, etc.)
+      if (e.getCause() instanceof DependencyUnavailableException rejected) {
+        throw rejected;
+      }
+      log.error("Call to Payment Microservice failed during bulk creation: {}", e.getCause().getMessage());
+      throw new BusinessException("PAYMENT_SERVICE_ERROR", "Failed to initiate payment: " + e.getCause().getMessage());
+    }
+  }
+
+  /**
+   * Drops a sale that failed after its id was assigned, so neither it nor its lines are written by the flush.
+   */
+  private void discard(Map<Integer, SalesTransaction> transactions, int index) {
+    salesTransactionRepository.delete(transactions.remove(index));
+  }
+
+  /**
+   * Sums the quantities of a store's sales per product, so the store gets one stock update for the batch.
+   */
+  private static Map<Long, SalesDetails> aggregateSalesDetails(List<Integer> indexes, Map<Integer, SalesTransaction> transactions) {
+    Map<Long, SalesDetails> aggregated = new HashMap<>();
+    for (int index : indexes) {
+      for (SalesDetails line : transactions.get(index).getSalesDetailEntities().values()) {
+        aggregated.merge(line.getProductId(),
+          line.withQuantity(line.getQuantity()),
+          (total, next) -> total.withQuantity(total.getQuantity() + next.getQuantity()));
+      }
+    }
+    return aggregated;
+  }
+}
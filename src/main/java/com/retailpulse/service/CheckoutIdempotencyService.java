@@ -0,0 +1,215 @@
+package com.retailpulse.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.retailpulse.dto.request.SalesTransactionRequestDto;
+import com.retailpulse.dto.response.CreateTransactionResponseDto;
+import com.retailpulse.entity.IdempotentRequest;
+import com.retailpulse.exception.BusinessException;
+import com.retailpulse.exception.IdempotencyConflictException;
+import com.retailpulse.repository.IdempotentRequestRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs {@code createTransaction} at most once per {@code Idempotency-Key}, so that a POS client retrying after a
+ * timeout gets the original response instead of a second stock deduction and payment intent.
+ * <p>
+ * Keys seen by this replica are held in a bounded cache together with the pending or completed response: a
+ * duplicate waits for the first request to finish (up to {@code sales.idempotency.wait-timeout-ms}) and gets its
+ * response, or its failure. A failed request is forgotten, so the client may retry it with the same key.
+ * <p>
+ * Completed requests are also stored in the {@code idempotent_request} table, inserted in the same transaction
+ * as the sales transaction and kept for {@code sales.idempotency.retention-hours}. The insert happens before any
+ * downstream call; a duplicate on another replica blocks on the key until the first transaction ends and then
+ * replays the stored response. A key reused with a different request body is rejected.
+ */
+@Slf4j
+@Service
+public class CheckoutIdempotencyService {
+
+    private final SalesTransactionService salesTransactionService;
+    private final IdempotentRequestRepository idempotentRequestRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration waitTimeout;
+    private final Duration retention;
+
+    private final Cache<String, Attempt> attempts;
+    private final Counter replays;
+
+    public CheckoutIdempotencyService(SalesTransactionService salesTransactionService,
+                                      IdempotentRequestRepository idempotentRequestRepository,
+                                      TransactionTemplate transactionTemplate,
+                                      ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${sales.idempotency.cache-max-size:10000}") long cacheMaxSize,
+                                      @Value("${sales.idempotency.cache-ttl-minutes:10}") long cacheTtlMinutes,
+                                      @Value("${sales.idempotency.wait-timeout-ms:30000}") long waitTimeoutMs,
+                                      @Value("${sales.idempotency.retention-hours:24}") long retentionHours) {
+        this.salesTransactionService = salesTransactionService;
+        this.idempotentRequestRepository = idempotentRequestRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMs);
+        this.retention = Duration.ofHours(retentionHours);
+        this.attempts = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, attempts, "idempotencyKeys");
+        this.replays = Counter.builder("sales.idempotency.replays")
+                .description("createTransaction requests answered with the response to an earlier request with the same key")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Creates the sales transaction, or returns the response to an earlier request with the same key.
+     *
+     * @throws BusinessException             if the key is invalid or was used for a different request
+     * @throws IdempotencyConflictException if the earlier request is still running after the wait timeout
+     */
+    public CreateTransactionResponseDto createSalesTransaction(String idempotencyKey, SalesTransactionRequestDto requestDto) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotentRequest.MAX_KEY_LENGTH) {
+            throw new BusinessException("INVALID_IDEMPOTENCY_KEY",
+                    "Idempotency-Key must be 1 to " + IdempotentRequest.MAX_KEY_LENGTH + " characters.");
+        }
+        String requestHash = hash(requestDto);
+
+        Attempt attempt = new Attempt(requestHash, new CompletableFuture<>());
+        Attempt first = attempts.asMap().putIfAbsent(idempotencyKey, attempt);
+        if (first != null) {
+            checkSameRequest(idempotencyKey, first.requestHash, requestHash);
+            return awaitFirst(idempotencyKey, first);
+        }
+
+        try {
+            CreateTransactionResponseDto response = createOnce(idempotencyKey, requestHash, requestDto);
+            attempt.response.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            attempts.asMap().remove(idempotencyKey, attempt);
+            attempt.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private CreateTransactionResponseDto createOnce(String idempotencyKey, String requestHash,
+                                                    SalesTransactionRequestDto requestDto) {
+        IdempotentRequest stored = idempotentRequestRepository.findById(idempotencyKey).orElse(null);
+        if (stored != null) {
+            return replay(stored, requestHash);
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                // blocks while another replica holds the same key in an open transaction
+                IdempotentRequest claim = idempotentRequestRepository.saveAndFlush(new IdempotentRequest(idempotencyKey, requestHash));
+                CreateTransactionResponseDto response = salesTransactionService.createSalesTransaction(requestDto);
+                claim.complete(response.transaction().salesTransactionId(), toJson(response));
+                return response;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // another replica committed the key first
+            IdempotentRequest committed = idempotentRequestRepository.findById(idempotencyKey).orElseThrow(() -> e);
+            return replay(committed, requestHash);
+        }
+    }
+
+    private CreateTransactionResponseDto awaitFirst(String idempotencyKey, Attempt first) {
+        try {
+            CreateTransactionResponseDto response = first.response.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            replays.increment();
+            return response;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw inProgress(idempotencyKey);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress(idempotencyKey);
+        }
+    }
+
+    private CreateTransactionResponseDto replay(IdempotentRequest stored, String requestHash) {
+        checkSameRequest(stored.getIdempotencyKey(), stored.getRequestHash(), requestHash);
+        log.info("Replaying response for Idempotency-Key {} (transaction {})", stored.getIdempotencyKey(), stored.getTransactionId());
+        replays.increment();
+        try {
+            return objectMapper.readValue(stored.getResponse(), CreateTransactionResponseDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable response stored for Idempotency-Key " + stored.getIdempotencyKey(), e);
+        }
+    }
+
+    /**
+     * Deletes stored keys older than the retention period; retries after that create a new transaction.
+     *
+     * @return number of keys deleted
+     */
+    @Scheduled(
+            initialDelayString = "${sales.idempotency.purge-interval-ms:3600000}",
+            fixedDelayString = "${sales.idempotency.purge-interval-ms:3600000}")
+    public int purgeExpired() {
+        int deleted = idempotentRequestRepository.deleteCreatedBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} idempotency keys older than {}", deleted, retention);
+        }
+        return deleted;
+    }
+
+    private static void checkSameRequest(String idempotencyKey, String expectedHash, String requestHash) {
+        if (!expectedHash.equals(requestHash)) {
+            throw new BusinessException("IDEMPOTENCY_KEY_REUSED",
+                    "Idempotency-Key " + idempotencyKey + " was already used for a different request.");
+        }
+    }
+
+    private static IdempotencyConflictException inProgress(String idempotencyKey) {
+        return new IdempotencyConflictException("IDEMPOTENCY_REQUEST_IN_PROGRESS",
+                "A request with Idempotency-Key " + idempotencyKey + " is still being processed, try again shortly.");
+    }
+
+    String hash(SalesTransactionRequestDto requestDto) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(requestDto));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot hash createTransaction request", e);
+        }
+    }
+
+    private String toJson(CreateTransactionResponseDto response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize createTransaction response", e);
+        }
+    }
+
+    private record Attempt(String requestHash, CompletableFuture<CreateTransactionResponseDto> response) {
+    }
+}
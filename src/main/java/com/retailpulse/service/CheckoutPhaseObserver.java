@@ -0,0 +1,80 @@
+package com.retailpulse.service;
+
+import com.retailpulse.exception.ApplicationException;
+import com.retailpulse.exception.BusinessException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Times the phases of the checkout pipeline as {@code sales.checkout.phase} observations.
+ * <p>
+ * Each observation becomes a timer (percentile histogram enabled in {@code management.metrics.distribution})
+ * tagged with {@code phase}, {@code outcome} ({@code success} or {@code error}) and {@code error.code} (the
+ * {@link BusinessException} code, the exception class name for other failures, or {@code none}), and a tracing
+ * span that is current while the phase runs. Feign calls made inside a phase therefore forward the phase's span
+ * in the {@code X-B3-*} headers set by {@code FeignConfig}.
+ */
+@Component
+public class CheckoutPhaseObserver {
+
+    static final String OBSERVATION_NAME = "sales.checkout.phase";
+
+    public enum Phase {
+        TAX_LOOKUP,
+        INVENTORY_UPDATE,
+        SAVE,
+        PAYMENT_INTENT,
+        FINAL_SAVE;
+
+        String tagValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final ObservationRegistry observationRegistry;
+
+    public CheckoutPhaseObserver(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    public <T> T observe(Phase phase, Supplier<T> action) {
+        Observation observation = Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .contextualName("checkout " + phase.tagValue())
+                .lowCardinalityKeyValue("phase", phase.tagValue())
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            T result = action.get();
+            observation.lowCardinalityKeyValue("outcome", "success")
+                    .lowCardinalityKeyValue("error.code", "none");
+            return result;
+        } catch (RuntimeException e) {
+            observation.lowCardinalityKeyValue("outcome", "error")
+                    .lowCardinalityKeyValue("error.code", errorCode(e))
+                    .error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    public void observe(Phase phase, Runnable action) {
+        observe(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static String errorCode(RuntimeException e) {
+        if (e instanceof BusinessException businessException) {
+            return businessException.getErrorCode();
+        }
+        if (e instanceof ApplicationException applicationException) {
+            return applicationException.getErrorCode();
+        }
+        return e.getClass().getSimpleName();
+    }
+}
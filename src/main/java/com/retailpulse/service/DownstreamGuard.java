@@ -0,0 +1,99 @@
+package com.retailpulse.service;
+
+import com.retailpulse.exception.DependencyUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Runs calls to the inventory and payment services behind a per-service bulkhead and circuit breaker, configured
+ * under {@code resilience4j.bulkhead.instances.<service>} and {@code resilience4j.circuitbreaker.instances.<service>}.
+ * <p>
+ * The bulkhead caps the number of concurrent calls to a service and rejects further calls at once, so a slow
+ * service holds at most that many requests (and their database connections). The breaker opens once enough of
+ * the recent calls failed or were slow, and rejects calls until its wait duration has passed. A rejected call
+ * is not made; it fails with a {@link DependencyUnavailableException} ({@code <SERVICE>_BUSY} or
+ * {@code <SERVICE>_UNAVAILABLE}) and counts in {@code sales.downstream.rejections}. Breaker state and bulkhead
+ * usage are published by Resilience4j as {@code resilience4j.circuitbreaker.*} and {@code resilience4j.bulkhead.*}.
+ */
+@Slf4j
+@Component
+public class DownstreamGuard {
+
+    public enum Dependency {
+        INVENTORY("inventory-service", "INVENTORY_SERVICE"),
+        PAYMENT("payment-service", "PAYMENT_SERVICE");
+
+        private final String instanceName;
+        private final String errorCodePrefix;
+
+        Dependency(String instanceName, String errorCodePrefix) {
+            this.instanceName = instanceName;
+            this.errorCodePrefix = errorCodePrefix;
+        }
+    }
+
+    private final Map<Dependency, Guard> guards = new EnumMap<>(Dependency.class);
+
+    public DownstreamGuard(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry,
+                           MeterRegistry meterRegistry) {
+        for (Dependency dependency : Dependency.values()) {
+            guards.put(dependency, new Guard(
+                    bulkheadRegistry.bulkhead(dependency.instanceName),
+                    circuitBreakerRegistry.circuitBreaker(dependency.instanceName),
+                    rejections(meterRegistry, dependency, "bulkhead_full"),
+                    rejections(meterRegistry, dependency, "circuit_open")));
+        }
+    }
+
+    /**
+     * @throws DependencyUnavailableException if the call was rejected without being made
+     */
+    public <T> T call(Dependency dependency, Supplier<T> call) {
+        Guard guard = guards.get(dependency);
+        try {
+            return Bulkhead.decorateSupplier(guard.bulkhead, CircuitBreaker.decorateSupplier(guard.circuitBreaker, call)).get();
+        } catch (BulkheadFullException e) {
+            guard.bulkheadRejections.increment();
+            log.warn("Rejected call to {}: {} concurrent calls in progress", dependency.instanceName,
+                    guard.bulkhead.getBulkheadConfig().getMaxConcurrentCalls());
+            throw new DependencyUnavailableException(dependency.errorCodePrefix + "_BUSY",
+                    "Too many concurrent calls to " + dependency.instanceName + ", try again shortly.");
+        } catch (CallNotPermittedException e) {
+            guard.circuitRejections.increment();
+            log.warn("Rejected call to {}: circuit breaker is {}", dependency.instanceName, guard.circuitBreaker.getState());
+            throw new DependencyUnavailableException(dependency.errorCodePrefix + "_UNAVAILABLE",
+                    dependency.instanceName + " is unavailable, try again later.");
+        }
+    }
+
+    public void call(Dependency dependency, Runnable call) {
+        call(dependency, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, Dependency dependency, String reason) {
+        return Counter.builder("sales.downstream.rejections")
+                .description("Downstream calls rejected without being made")
+                .tag("dependency", dependency.instanceName)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private record Guard(Bulkhead bulkhead, CircuitBreaker circuitBreaker,
+                         Counter bulkheadRejections, Counter circuitRejections) {
+    }
+}
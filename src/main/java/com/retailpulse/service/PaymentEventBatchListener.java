@@ -0,0 +1,122 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.PaymentEventDto;
+import com.retailpulse.dto.TransactionStatusUpdateDto;
+import com.retailpulse.entity.TransactionStatus;
+import com.retailpulse.exception.BusinessException;
+import com.retailpulse.exception.ErrorCodes;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batch-mode Kafka listener for payment events, enabled with {@code spring.kafka.consumer.listener-mode=batch}.
+ * <p>
+ * Each poll is collapsed to one status update per transaction (the event with the latest payment event date
+ * wins) and applied as conditional updates, one JDBC batch per status. The container acknowledges in BATCH mode,
+ * so offsets are only committed once the database transaction for the whole poll has committed. An update whose
+ * transaction is not found, e.g. because it is not visible yet, is forwarded to the retry tiers like a failed
+ * event in record mode, see {@link PaymentEventRetryPublisher}; its events are not marked as applied.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "spring.kafka.consumer.enabled", havingValue = "true")
+@ConditionalOnProperty(value = "spring.kafka.consumer.listener-mode", havingValue = "batch")
+public class PaymentEventBatchListener {
+
+    private final SalesTransactionService salesTransactionService;
+    private final PaymentEventDeduplicator paymentEventDeduplicator;
+    private final PaymentEventRetryPublisher paymentEventRetryPublisher;
+
+    public PaymentEventBatchListener(SalesTransactionService salesTransactionService,
+                                     PaymentEventDeduplicator paymentEventDeduplicator,
+                                     PaymentEventRetryPublisher paymentEventRetryPublisher) {
+        this.salesTransactionService = salesTransactionService;
+        this.paymentEventDeduplicator = paymentEventDeduplicator;
+        this.paymentEventRetryPublisher = paymentEventRetryPublisher;
+    }
+
+    @KafkaListener(
+        topics = "${spring.kafka.consumer.topics.payment}",
+        groupId = "${spring.kafka.consumer.group-ids.payment}",
+        concurrency = "${spring.kafka.consumer.concurrency.payment:1}",
+        containerFactory = "paymentEventBatchListenerContainerFactory",
+        batch = "true"
+    )
+    public void handlePaymentEvents(List<ConsumerRecord<String, PaymentEventDto>> records) {
+        Map<Long, LatestEvent> latestByTransaction = collapse(records);
+        List<TransactionStatusUpdateDto> updates = latestByTransaction.values().stream().map(LatestEvent::update).toList();
+        log.info("Received {} payment events, applying {} transaction status updates", records.size(), updates.size());
+
+        Set<Long> retried = new HashSet<>();
+        if (!updates.isEmpty()) {
+            // failures propagate so the container error handler retries the poll before any offset is committed
+            for (TransactionStatusUpdateDto notFound : salesTransactionService.updateTransactionStatuses(updates)) {
+                paymentEventRetryPublisher.forward(latestByTransaction.get(notFound.transactionId()).record(),
+                        new BusinessException(ErrorCodes.NOT_FOUND, "Sales transaction not found for id: " + notFound.transactionId()));
+                retried.add(notFound.transactionId());
+            }
+        }
+        for (ConsumerRecord<String, PaymentEventDto> record : records) {
+            if (record.value() != null && !retried.contains(record.value().transactionId())) {
+                paymentEventDeduplicator.markApplied(record.value());
+            }
+        }
+    }
+
+    /**
+     * Reduces a poll to one update per transaction ID, keeping the event with the latest payment event date.
+     * On equal dates the record read last wins. Events applied before are dropped.
+     */
+    Map<Long, LatestEvent> collapse(List<ConsumerRecord<String, PaymentEventDto>> records) {
+        Map<Long, LatestEvent> latestByTransaction = new LinkedHashMap<>();
+
+        for (ConsumerRecord<String, PaymentEventDto> record : records) {
+            PaymentEventDto paymentEvent = record.value();
+            if (paymentEvent == null) {
+                // ErrorHandlingDeserializer hands over undeserializable records as null values
+                log.warn("Skipping undeserializable payment event at {}-{}@{}", record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            if (paymentEvent.transactionId() == null) {
+                log.warn("Skipping payment event without transaction ID. Payment ID: '{}', Intent ID: '{}'",
+                        paymentEvent.paymentId(), paymentEvent.paymentIntentId());
+                continue;
+            }
+            if (paymentEventDeduplicator.isDuplicate(paymentEvent)) {
+                log.debug("Dropping redelivered payment event: Payment ID '{}', Status '{}'",
+                        paymentEvent.paymentId(), paymentEvent.paymentStatus());
+                continue;
+            }
+
+            TransactionStatus status = PaymentEventListener.mapPaymentStatusToTransactionStatus(paymentEvent.paymentStatus());
+            if (status == null) {
+                log.warn("Unknown or unmapped PaymentStatus '{}' received. Payment ID: '{}', Intent ID: '{}', Transaction ID: '{}'",
+                        paymentEvent.paymentStatus(), paymentEvent.paymentId(), paymentEvent.paymentIntentId(), paymentEvent.transactionId());
+                continue;
+            }
+
+            Instant paymentEventDate = PaymentEventListener.resolvePaymentEventDate(paymentEvent);
+            TransactionStatusUpdateDto update = new TransactionStatusUpdateDto(paymentEvent.transactionId(), status, paymentEventDate);
+            latestByTransaction.merge(paymentEvent.transactionId(), new LatestEvent(record, update),
+                    (current, candidate) -> candidate.update().paymentEventDate().isBefore(current.update().paymentEventDate()) ? current : candidate);
+        }
+
+        return latestByTransaction;
+    }
+
+    /**
+     * The update a poll collapsed to for one transaction, with the record it was read from.
+     */
+    record LatestEvent(ConsumerRecord<String, PaymentEventDto> record, TransactionStatusUpdateDto update) {
+    }
+}
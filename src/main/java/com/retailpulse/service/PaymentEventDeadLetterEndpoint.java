@@ -0,0 +1,39 @@
+package com.retailpulse.service;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Actuator endpoint ({@code /actuator/paymentdlt}) to re-drive dead-lettered payment events to the payment topic.
+ */
+@Component
+@Endpoint(id = "paymentdlt")
+@ConditionalOnProperty(value = "spring.kafka.consumer.enabled", havingValue = "true")
+public class PaymentEventDeadLetterEndpoint {
+
+    private static final int DEFAULT_LIMIT = 1000;
+
+    private final PaymentEventDeadLetterReplayer paymentEventDeadLetterReplayer;
+
+    public PaymentEventDeadLetterEndpoint(PaymentEventDeadLetterReplayer paymentEventDeadLetterReplayer) {
+        this.paymentEventDeadLetterReplayer = paymentEventDeadLetterReplayer;
+    }
+
+    /**
+     * @param limit maximum number of events to replay, 1000 if omitted
+     */
+    @WriteOperation
+    public ReplayDescriptor replay(@Nullable Integer limit) {
+        long start = System.nanoTime();
+        int replayed = paymentEventDeadLetterReplayer.replay(limit != null ? limit : DEFAULT_LIMIT);
+        return new ReplayDescriptor(replayed, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    public record ReplayDescriptor(int replayed, Duration duration) {
+    }
+}
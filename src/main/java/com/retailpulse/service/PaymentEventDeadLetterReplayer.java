@@ -0,0 +1,141 @@
+package com.retailpulse.service;
+
+import com.retailpulse.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Re-drives payment events from the dead-letter topic to the payment topic, e.g. once the cause of their
+ * failure has been fixed.
+ * <p>
+ * The dead-letter topic is read by its own consumer group ({@code sales.payment-retry.replay-group-id}), in polls
+ * of {@code sales.payment-retry.replay-batch-size} records. Each poll is sent to the payment topic with the
+ * original key, and its offsets are committed once every send has been acknowledged, so a replay that fails
+ * half-way resumes after the last committed poll and never skips a record. Replayed events start over with a
+ * fresh set of retries.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(value = "spring.kafka.consumer.enabled", havingValue = "true")
+public class PaymentEventDeadLetterReplayer {
+
+    /** Dead-letter partition and offset a replayed event was read from, as a string. */
+    static final String REPLAYED_FROM_HEADER = "sales-replayed-from";
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+
+    private final ConsumerFactory<Object, Object> consumerFactory;
+    private final KafkaTemplate<Object, Object> kafkaTemplate;
+    private final String paymentTopic;
+    private final String deadLetterTopic;
+    private final String groupId;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+
+    private final ReentrantLock replaying = new ReentrantLock();
+
+    public PaymentEventDeadLetterReplayer(ConsumerFactory<Object, Object> consumerFactory,
+                                          KafkaTemplate<Object, Object> kafkaTemplate,
+                                          @Value("${spring.kafka.consumer.topics.payment}") String paymentTopic,
+                                          @Value("${sales.payment-retry.replay-group-id:sales-payment-dlt-replay}") String groupId,
+                                          @Value("${sales.payment-retry.replay-batch-size:100}") int batchSize,
+                                          @Value("${sales.payment-retry.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.consumerFactory = consumerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.paymentTopic = paymentTopic;
+        this.deadLetterTopic = PaymentEventRetryPublisher.deadLetterTopic(paymentTopic);
+        this.groupId = groupId;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    /**
+     * Replays up to {@code limit} dead-lettered events, oldest first, stopping early when the topic is drained.
+     *
+     * @return number of events replayed
+     * @throws BusinessException if the limit is not positive or another replay is running
+     */
+    public int replay(int limit) {
+        if (limit < 1) {
+            throw new BusinessException("INVALID_LIMIT", "Replay limit must be positive.");
+        }
+        if (!replaying.tryLock()) {
+            throw new BusinessException("REPLAY_IN_PROGRESS", "A dead-letter replay is already running.");
+        }
+        try (Consumer<Object, Object> consumer = consumerFactory.createConsumer(groupId, null, null, consumerProperties())) {
+            consumer.assign(consumer.partitionsFor(deadLetterTopic).stream()
+                    .map(partition -> new TopicPartition(partition.topic(), partition.partition()))
+                    .toList());
+
+            int replayed = 0;
+            while (replayed < limit) {
+                ConsumerRecords<Object, Object> records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+                List<CompletableFuture<?>> sends = new ArrayList<>(records.count());
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                for (ConsumerRecord<Object, Object> record : records) {
+                    if (replayed == limit) {
+                        break;
+                    }
+                    ProducerRecord<Object, Object> replay = new ProducerRecord<>(paymentTopic, null, record.key(), record.value());
+                    replay.headers().add(REPLAYED_FROM_HEADER,
+                            (record.partition() + "@" + record.offset()).getBytes(StandardCharsets.UTF_8));
+                    sends.add(kafkaTemplate.send(replay));
+                    offsets.put(new TopicPartition(record.topic(), record.partition()), new OffsetAndMetadata(record.offset() + 1));
+                    replayed++;
+                }
+                awaitSends(sends);
+                consumer.commitSync(offsets);
+            }
+            log.info("Replayed {} payment events from {} to {}", replayed, deadLetterTopic, paymentTopic);
+            return replayed;
+        } finally {
+            replaying.unlock();
+        }
+    }
+
+    private Properties consumerProperties() {
+        Properties properties = new Properties();
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+        properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return properties;
+    }
+
+    private void awaitSends(List<CompletableFuture<?>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying payment events", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Could not replay payment events to " + paymentTopic, e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.retailpulse.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.retailpulse.dto.PaymentEventDto;
+import com.retailpulse.entity.PaymentStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded in-memory record of the payment events this instance has applied, by payment ID and status, so that
+ * redeliveries (after a rebalance, or a poll retried by the error handler) are dropped before they reach the
+ * database.
+ * <p>
+ * An event is only recorded once it has been handled, so a failed event is not mistaken for a duplicate on its
+ * retry. The record is per instance and expires after {@code sales.payment-dedup.ttl-seconds}; a redelivery it
+ * misses is still rejected by the conditional status update, at the cost of one statement.
+ */
+@Component
+public class PaymentEventDeduplicator {
+
+    private record Key(Long paymentId, PaymentStatus paymentStatus) {
+    }
+
+    private final Cache<Key, Boolean> applied;
+
+    public PaymentEventDeduplicator(MeterRegistry meterRegistry,
+                                    @Value("${sales.payment-dedup.max-size:100000}") long maxSize,
+                                    @Value("${sales.payment-dedup.ttl-seconds:3600}") long ttlSeconds) {
+        this.applied = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, applied, "paymentEventDedup");
+    }
+
+    /**
+     * @return {@code true} if an event with the same payment ID and status was applied already; events without a
+     * payment ID are never duplicates
+     */
+    public boolean isDuplicate(PaymentEventDto paymentEvent) {
+        return paymentEvent.paymentId() != null
+                && applied.getIfPresent(new Key(paymentEvent.paymentId(), paymentEvent.paymentStatus())) != null;
+    }
+
+    /**
+     * Records an event as applied, including when its status update was ignored as stale.
+     */
+    public void markApplied(PaymentEventDto paymentEvent) {
+        if (paymentEvent.paymentId() != null) {
+            applied.put(new Key(paymentEvent.paymentId(), paymentEvent.paymentStatus()), Boolean.TRUE);
+        }
+    }
+}
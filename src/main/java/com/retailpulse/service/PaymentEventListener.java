@@ -7,8 +7,8 @@ import com.retailpulse.entity.TransactionStatus;
 import java.time.Instant;
 import java.time.ZoneId;
 
-import java.util.logging.Logger;
-
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
@@ -16,70 +16,69 @@ import org.springframework.stereotype.Component;
 /**
  * Kafka listener for processing payment-related events.
  */
+@Slf4j
 @Component
 @ConditionalOnProperty( 
     value = "spring.kafka.consumer.enabled", // The property key to check
     havingValue = "true",           // The value that enables the bean
     matchIfMissing = false           // If property is missing, don't create the bean
 )
+@ConditionalOnProperty(
+    value = "spring.kafka.consumer.listener-mode", // record (default), batch or parallel, see PaymentEventBatchListener and PaymentEventParallelListener
+    havingValue = "record",
+    matchIfMissing = true
+)
 public class PaymentEventListener {
 
-    private static final Logger logger = Logger.getLogger(PaymentEventListener.class.getName());
+    private final PaymentEventProcessor paymentEventProcessor;
+    private final PaymentEventRetryPublisher paymentEventRetryPublisher;
 
-    private final SalesTransactionService salesTransactionService;
-
-    // Inject the service that contains the logic to update the transaction
-    public PaymentEventListener(SalesTransactionService salesTransactionService) {
-        this.salesTransactionService = salesTransactionService;
+    // Inject the processor that contains the logic to update the transaction
+    public PaymentEventListener(PaymentEventProcessor paymentEventProcessor,
+                                PaymentEventRetryPublisher paymentEventRetryPublisher) {
+        this.paymentEventProcessor = paymentEventProcessor;
+        this.paymentEventRetryPublisher = paymentEventRetryPublisher;
     }
 
     /**
      * Listens for PaymentEventDto events on the 'payment-events' topic.
+     * An event whose status update fails is forwarded to the retry tiers, see {@link PaymentEventRetryPublisher}.
      *
-     * @param paymentEvent The deserialized PaymentEventDto received from Kafka.
+     * @param record The record carrying the deserialized PaymentEventDto received from Kafka.
      */
     @KafkaListener(
         topics = "${spring.kafka.consumer.topics.payment}", // "payment-events",
-        groupId = "${spring.kafka.consumer.group-ids.payment}" // Ensure this group ID is unique for the Sales service
+        groupId = "${spring.kafka.consumer.group-ids.payment}", // Ensure this group ID is unique for the Sales service
+        concurrency = "${spring.kafka.consumer.concurrency.payment:1}" // consumer threads, each owning some partitions
         // containerFactory = "..." // Optional: specify if you created a custom container factory
     )
-    public void handlePaymentEvent(PaymentEventDto paymentEvent) {
-        logger.info(String.format("Received Payment Event: Payment ID '%s', Intent ID '%s', Transaction ID '%s', Status '%s'",
+    public void handlePaymentEvent(ConsumerRecord<String, PaymentEventDto> record) {
+        PaymentEventDto paymentEvent = record.value();
+        log.debug("Received Payment Event: Payment ID '{}', Intent ID '{}', Transaction ID '{}', Status '{}'",
                 paymentEvent.paymentId(),
                 paymentEvent.paymentIntentId(),
-                paymentEvent.transactionId(), 
-                paymentEvent.paymentStatus()));
-
-        // 1. Extract transaction ID (assuming it's a String, adapt if it's Long) and payment event date       
-        Long transactionId = paymentEvent.transactionId();
-        Instant paymentEventDate = null;
-        if (paymentEvent.paymentEventDate() != null) {
-          paymentEventDate = paymentEvent.paymentEventDate().atZone(ZoneId.of("Asia/Singapore")).toInstant();
-        }
-        else{
-          paymentEventDate = java.time.Instant.now();
-        }
-        
-        // 2. Map PaymentStatus to TransactionStatus
-        TransactionStatus newTransactionStatus = mapPaymentStatusToTransactionStatus(paymentEvent.paymentStatus());
+                paymentEvent.transactionId(),
+                paymentEvent.paymentStatus());
 
-        if (newTransactionStatus == null) {
-            logger.warning(String.format("Unknown or unmapped PaymentStatus '%s' received. Payment ID: '%s', Intent ID: '%s', Transaction ID: '%s'",
-                    paymentEvent.paymentStatus(), paymentEvent.paymentId(), paymentEvent.paymentIntentId(), transactionId));
-            // Consider sending to a DLQ or alerting
-            return;
+        try {
+            paymentEventProcessor.process(paymentEvent);
+        } catch (Exception e) { // e.g. the transaction is not visible yet; retried without blocking the partition
+            paymentEventRetryPublisher.forward(record, e);
         }
+    }
 
-        // 3. Delegate the status update to the SalesTransactionService
-        try {
-            salesTransactionService.updateTransactionStatus(transactionId, newTransactionStatus, paymentEventDate);
-            logger.info(String.format("Successfully updated transaction ID '%s' status to '%s' based on payment event.",
-                    transactionId, newTransactionStatus));
-        } catch (Exception e) { // Catch specific exceptions from your service if possible (e.g., TransactionNotFoundException)
-            logger.severe(String.format("Failed to update transaction ID '%s' status to '%s' based on payment event. Payment ID: '%s', Intent ID: '%s'",
-                    transactionId, newTransactionStatus, paymentEvent.paymentId(), paymentEvent.paymentIntentId()));
-            logger.severe(e.getMessage());
+    /**
+     * Resolves the instant of a payment event. Event dates are Singapore local time; events without a date are
+     * stamped with the time they are processed.
+     *
+     * @param paymentEvent The payment event.
+     * @return The payment event date as an Instant.
+     */
+    static Instant resolvePaymentEventDate(PaymentEventDto paymentEvent) {
+        if (paymentEvent.paymentEventDate() != null) {
+          return paymentEvent.paymentEventDate().atZone(ZoneId.of("Asia/Singapore")).toInstant();
         }
+        return Instant.now();
     }
 
     /**
@@ -88,7 +87,7 @@ public class PaymentEventListener {
      * @param paymentStatus The status from the payment event.
      * @return The corresponding TransactionStatus, or null if unmapped.
      */
-    private TransactionStatus mapPaymentStatusToTransactionStatus(com.retailpulse.entity.PaymentStatus paymentStatus) {
+    static TransactionStatus mapPaymentStatusToTransactionStatus(com.retailpulse.entity.PaymentStatus paymentStatus) {
         if (paymentStatus == null) {
             return null;
         }
@@ -0,0 +1,195 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.PaymentEventDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Partition-parallel Kafka listener for payment events, enabled with
+ * {@code spring.kafka.consumer.listener-mode=parallel}.
+ * <p>
+ * Payment events are keyed by transaction ID, so all events of a transaction land on one partition, in order.
+ * Each poll is split into one lane per transaction ID; a lane applies its events one after the other, in offset
+ * order, while lanes of different transactions run concurrently on the application task executor, up to
+ * {@code spring.kafka.consumer.parallel.max-in-flight} lanes at a time. Lanes are formed from the transaction ID
+ * the event carries rather than the record key, so ordering per transaction holds even for a mis-keyed event.
+ * Every lane in flight holds a database connection, so consumer threads times {@code max-in-flight} must fit in
+ * the connection pool next to checkout.
+ * <p>
+ * The listener returns once every lane of the poll has finished, and the container acknowledges in BATCH mode,
+ * so no offset is committed ahead of an event still being applied. Each event is applied in its own transaction
+ * by the {@link PaymentEventProcessor}, as in record mode; an event that fails is forwarded to the retry tiers
+ * of {@link PaymentEventRetryPublisher} and its lane continues.
+ * <p>
+ * Per partition, {@code sales.payment.events.in.flight} counts the events handed to a lane and not yet applied,
+ * and {@code sales.payment.events.lag} is the number of records behind the log end as of the last poll.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "spring.kafka.consumer.enabled", havingValue = "true")
+@ConditionalOnProperty(value = "spring.kafka.consumer.listener-mode", havingValue = "parallel")
+public class PaymentEventParallelListener {
+
+    private final PaymentEventProcessor paymentEventProcessor;
+    private final PaymentEventDeduplicator paymentEventDeduplicator;
+    private final PaymentEventRetryPublisher paymentEventRetryPublisher;
+    private final AsyncTaskExecutor taskExecutor;
+    private final MeterRegistry meterRegistry;
+    private final int maxInFlight;
+
+    private final Map<TopicPartition, PartitionMetrics> partitionMetrics = new ConcurrentHashMap<>();
+
+    public PaymentEventParallelListener(PaymentEventProcessor paymentEventProcessor,
+                                        PaymentEventDeduplicator paymentEventDeduplicator,
+                                        PaymentEventRetryPublisher paymentEventRetryPublisher,
+                                        @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor taskExecutor,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${spring.kafka.consumer.parallel.max-in-flight:2}") int maxInFlight) {
+        this.paymentEventProcessor = paymentEventProcessor;
+        this.paymentEventDeduplicator = paymentEventDeduplicator;
+        this.paymentEventRetryPublisher = paymentEventRetryPublisher;
+        this.taskExecutor = taskExecutor;
+        this.meterRegistry = meterRegistry;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @KafkaListener(
+        topics = "${spring.kafka.consumer.topics.payment}",
+        groupId = "${spring.kafka.consumer.group-ids.payment}",
+        concurrency = "${spring.kafka.consumer.concurrency.payment:1}",
+        containerFactory = "paymentEventBatchListenerContainerFactory",
+        batch = "true"
+    )
+    public void handlePaymentEvents(List<ConsumerRecord<String, PaymentEventDto>> records, Consumer<?, ?> consumer) {
+        Map<Long, List<ConsumerRecord<String, PaymentEventDto>>> lanes = lanes(records);
+        log.debug("Received {} payment events for {} transactions", records.size(), lanes.size());
+
+        Semaphore permits = new Semaphore(maxInFlight);
+        List<CompletableFuture<Void>> running = new ArrayList<>(lanes.size());
+        try {
+            for (List<ConsumerRecord<String, PaymentEventDto>> lane : lanes.values()) {
+                lane.forEach(record -> metrics(record).inFlight.incrementAndGet());
+                permits.acquire();
+                running.add(CompletableFuture.runAsync(() -> runLane(lane), taskExecutor)
+                        .whenComplete((ignored, failure) -> permits.release()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while dispatching payment events", e);
+        } finally {
+            // failures propagate once every lane has stopped, so the container retries the poll uncommitted
+            CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+        }
+
+        for (TopicPartition partition : consumer.assignment()) {
+            OptionalLong lag = consumer.currentLag(partition);
+            if (lag.isPresent()) {
+                metrics(partition).lag.set(lag.getAsLong());
+            }
+        }
+    }
+
+    /**
+     * Groups a poll by transaction ID, keeping the records of each transaction in the order they were read.
+     * Records without a usable event, and events applied before, are skipped.
+     */
+    Map<Long, List<ConsumerRecord<String, PaymentEventDto>>> lanes(List<ConsumerRecord<String, PaymentEventDto>> records) {
+        Map<Long, List<ConsumerRecord<String, PaymentEventDto>>> lanes = new LinkedHashMap<>();
+        for (ConsumerRecord<String, PaymentEventDto> record : records) {
+            PaymentEventDto paymentEvent = record.value();
+            if (paymentEvent == null) {
+                // ErrorHandlingDeserializer hands over undeserializable records as null values
+                log.warn("Skipping undeserializable payment event at {}-{}@{}", record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            if (paymentEvent.transactionId() == null) {
+                log.warn("Skipping payment event without transaction ID. Payment ID: '{}', Intent ID: '{}'",
+                        paymentEvent.paymentId(), paymentEvent.paymentIntentId());
+                continue;
+            }
+            if (paymentEventDeduplicator.isDuplicate(paymentEvent)) {
+                log.debug("Dropping redelivered payment event: Payment ID '{}', Status '{}'",
+                        paymentEvent.paymentId(), paymentEvent.paymentStatus());
+                continue;
+            }
+            lanes.computeIfAbsent(paymentEvent.transactionId(), id -> new ArrayList<>()).add(record);
+        }
+        return lanes;
+    }
+
+    private void runLane(List<ConsumerRecord<String, PaymentEventDto>> lane) {
+        int next = 0;
+        try {
+            for (; next < lane.size(); next++) {
+                ConsumerRecord<String, PaymentEventDto> record = lane.get(next);
+                apply(record);
+                metrics(record).inFlight.decrementAndGet();
+            }
+        } finally {
+            // only reached with records left after an unexpected failure; they are redelivered with the poll
+            for (; next < lane.size(); next++) {
+                metrics(lane.get(next)).inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private void apply(ConsumerRecord<String, PaymentEventDto> record) {
+        try {
+            paymentEventProcessor.process(record.value());
+        } catch (Exception e) {
+            // the lane moves on; ordering against the retried event is kept by the conditional status update
+            paymentEventRetryPublisher.forward(record, e);
+        }
+    }
+
+    private PartitionMetrics metrics(ConsumerRecord<?, ?> record) {
+        return metrics(new TopicPartition(record.topic(), record.partition()));
+    }
+
+    private PartitionMetrics metrics(TopicPartition partition) {
+        return partitionMetrics.computeIfAbsent(partition, this::register);
+    }
+
+    private PartitionMetrics register(TopicPartition partition) {
+        PartitionMetrics metrics = new PartitionMetrics();
+        String partitionTag = Integer.toString(partition.partition());
+        Gauge.builder("sales.payment.events.in.flight", metrics.inFlight, AtomicInteger::get)
+                .description("Payment events dispatched to a transaction lane and not yet applied")
+                .tag("topic", partition.topic())
+                .tag("partition", partitionTag)
+                .register(meterRegistry);
+        Gauge.builder("sales.payment.events.lag", metrics.lag, AtomicLong::get)
+                .description("Records between the consumer position and the log end, as of the last poll")
+                .tag("topic", partition.topic())
+                .tag("partition", partitionTag)
+                .register(meterRegistry);
+        return metrics;
+    }
+
+    private static final class PartitionMetrics {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong lag = new AtomicLong();
+    }
+}
@@ -0,0 +1,56 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.PaymentEventDto;
+import com.retailpulse.entity.TransactionStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Applies a single payment event to its sales transaction, for the listeners that handle events one at a time:
+ * the record-mode {@link PaymentEventListener}, the lanes of {@link PaymentEventParallelListener} and the retry
+ * tiers of {@link PaymentEventRetryListener}.
+ */
+@Slf4j
+@Component
+public class PaymentEventProcessor {
+
+    private final SalesTransactionService salesTransactionService;
+    private final PaymentEventDeduplicator paymentEventDeduplicator;
+
+    public PaymentEventProcessor(SalesTransactionService salesTransactionService,
+                                 PaymentEventDeduplicator paymentEventDeduplicator) {
+        this.salesTransactionService = salesTransactionService;
+        this.paymentEventDeduplicator = paymentEventDeduplicator;
+    }
+
+    /**
+     * Updates the transaction's status from the event. Events applied before and events with an unmapped payment
+     * status are skipped; a stale event is ignored by the status update itself.
+     *
+     * @throws RuntimeException if the status update failed, e.g. because the transaction is not visible yet; the
+     * event is then not recorded as applied, so it can be retried
+     */
+    public void process(PaymentEventDto paymentEvent) {
+        if (paymentEventDeduplicator.isDuplicate(paymentEvent)) {
+            log.debug("Dropping redelivered payment event: Payment ID '{}', Status '{}'",
+                    paymentEvent.paymentId(), paymentEvent.paymentStatus());
+            return;
+        }
+
+        Long transactionId = paymentEvent.transactionId();
+        TransactionStatus newTransactionStatus = PaymentEventListener.mapPaymentStatusToTransactionStatus(paymentEvent.paymentStatus());
+        if (newTransactionStatus == null) {
+            log.warn("Unknown or unmapped PaymentStatus '{}' received. Payment ID: '{}', Intent ID: '{}', Transaction ID: '{}'",
+                    paymentEvent.paymentStatus(), paymentEvent.paymentId(), paymentEvent.paymentIntentId(), transactionId);
+            return;
+        }
+
+        Instant paymentEventDate = PaymentEventListener.resolvePaymentEventDate(paymentEvent);
+        salesTransactionService.updateTransactionStatus(transactionId, newTransactionStatus, paymentEventDate);
+        paymentEventDeduplicator.markApplied(paymentEvent);
+        log.debug("Successfully updated transaction ID '{}' status to '{}' based on payment event.",
+                transactionId, newTransactionStatus);
+    }
+}
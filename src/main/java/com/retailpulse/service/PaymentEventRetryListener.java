@@ -0,0 +1,80 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.PaymentEventDto;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Consumes the payment event retry tiers written by {@link PaymentEventRetryPublisher}, one container per tier.
+ * <p>
+ * Every record of a tier was delayed by the same amount, so records become due in offset order. A record that is
+ * not due yet is negatively acknowledged with the remaining delay: the container pauses the partition, keeps
+ * polling so the consumer stays in its group, and redelivers the record when it is due. Only the tier waits; the
+ * payment topic and the other tiers keep flowing. An event that fails again moves on to the next tier, or to the
+ * dead-letter topic after the last.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "spring.kafka.consumer.enabled", havingValue = "true")
+public class PaymentEventRetryListener {
+
+    private final PaymentEventProcessor paymentEventProcessor;
+    private final PaymentEventRetryPublisher paymentEventRetryPublisher;
+    private final Clock clock;
+
+    public PaymentEventRetryListener(PaymentEventProcessor paymentEventProcessor,
+                                     PaymentEventRetryPublisher paymentEventRetryPublisher) {
+        this(paymentEventProcessor, paymentEventRetryPublisher, Clock.systemUTC());
+    }
+
+    PaymentEventRetryListener(PaymentEventProcessor paymentEventProcessor,
+                              PaymentEventRetryPublisher paymentEventRetryPublisher, Clock clock) {
+        this.paymentEventProcessor = paymentEventProcessor;
+        this.paymentEventRetryPublisher = paymentEventRetryPublisher;
+        this.clock = clock;
+    }
+
+    // one listener per tier (PaymentEventRetryPublisher.TIERS), so a long delay never holds up a shorter one
+    @KafkaListener(
+        id = "payment-events-retry-0",
+        topics = "${spring.kafka.consumer.topics.payment}-retry-0",
+        groupId = "${spring.kafka.consumer.group-ids.payment}",
+        containerFactory = "paymentEventRetryListenerContainerFactory"
+    )
+    @KafkaListener(
+        id = "payment-events-retry-1",
+        topics = "${spring.kafka.consumer.topics.payment}-retry-1",
+        groupId = "${spring.kafka.consumer.group-ids.payment}",
+        containerFactory = "paymentEventRetryListenerContainerFactory"
+    )
+    @KafkaListener(
+        id = "payment-events-retry-2",
+        topics = "${spring.kafka.consumer.topics.payment}-retry-2",
+        groupId = "${spring.kafka.consumer.group-ids.payment}",
+        containerFactory = "paymentEventRetryListenerContainerFactory"
+    )
+    public void handleRetry(ConsumerRecord<String, PaymentEventDto> record, Acknowledgment acknowledgment) {
+        long wait = PaymentEventRetryPublisher.notBefore(record.headers()) - clock.millis();
+        if (wait > 0) {
+            acknowledgment.nack(Duration.ofMillis(wait));
+            return;
+        }
+
+        if (record.value() != null) {
+            log.debug("Retrying payment event for transaction ID '{}' from {}", record.value().transactionId(), record.topic());
+            try {
+                paymentEventProcessor.process(record.value());
+            } catch (Exception e) {
+                paymentEventRetryPublisher.forward(record, e);
+            }
+        }
+        acknowledgment.acknowledge();
+    }
+}
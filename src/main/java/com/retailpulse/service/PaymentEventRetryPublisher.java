@@ -0,0 +1,181 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.PaymentEventDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Moves a payment event that could not be applied to the next retry tier, or to the dead-letter topic once every
+ * tier has been tried, so that it never holds up the events behind it on its partition.
+ * <p>
+ * There are {@link #TIERS} retry topics, {@code <payment topic>-retry-0} to {@code -retry-2}; tier {@code n} delays
+ * an event by {@code sales.payment-retry.initial-delay-ms} times {@code sales.payment-retry.multiplier} to the
+ * {@code n}th power. The dead-letter topic is {@code <payment topic>-dlt}. Forwarded records keep their key, so
+ * the events of a transaction stay on one partition in each tier, and carry Spring Kafka's {@code kafka_dlt-*}
+ * headers: the topic, partition, offset and timestamp the event was first read from, and the class and message
+ * of the last failure.
+ * <p>
+ * Sends are synchronous: the caller only moves on, and lets its offset be committed, once the event is stored
+ * in the next topic. A failed send propagates, so the container redelivers the event instead.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "spring.kafka.consumer.enabled", havingValue = "true")
+public class PaymentEventRetryPublisher {
+
+    public static final int TIERS = 3;
+
+    /** Retry tiers an event has been through, as a 4-byte int. */
+    static final String ATTEMPT_HEADER = "sales-retry-attempt";
+    /** Epoch milliseconds before which a retry tier must not process the event, as an 8-byte long. */
+    static final String NOT_BEFORE_HEADER = "sales-retry-not-before";
+
+    private static final List<String> ORIGIN_HEADERS = List.of(KafkaHeaders.DLT_ORIGINAL_TOPIC,
+            KafkaHeaders.DLT_ORIGINAL_PARTITION, KafkaHeaders.DLT_ORIGINAL_OFFSET, KafkaHeaders.DLT_ORIGINAL_TIMESTAMP);
+
+    private final KafkaTemplate<Object, Object> kafkaTemplate;
+    private final Clock clock;
+    private final List<String> retryTopics = new ArrayList<>(TIERS);
+    private final List<Duration> delays = new ArrayList<>(TIERS);
+    private final String deadLetterTopic;
+    private final long sendTimeoutMs;
+
+    private final List<Counter> retried = new ArrayList<>(TIERS);
+    private final Counter deadLettered;
+
+    @Autowired
+    public PaymentEventRetryPublisher(KafkaTemplate<Object, Object> kafkaTemplate,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${spring.kafka.consumer.topics.payment}") String paymentTopic,
+                                      @Value("${sales.payment-retry.initial-delay-ms:1000}") long initialDelayMs,
+                                      @Value("${sales.payment-retry.multiplier:5}") int multiplier,
+                                      @Value("${sales.payment-retry.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this(kafkaTemplate, meterRegistry, paymentTopic, initialDelayMs, multiplier, sendTimeoutMs, Clock.systemUTC());
+    }
+
+    PaymentEventRetryPublisher(KafkaTemplate<Object, Object> kafkaTemplate, MeterRegistry meterRegistry,
+                               String paymentTopic, long initialDelayMs, int multiplier, long sendTimeoutMs, Clock clock) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.clock = clock;
+        long delayMs = initialDelayMs;
+        for (int tier = 0; tier < TIERS; tier++) {
+            retryTopics.add(retryTopic(paymentTopic, tier));
+            delays.add(Duration.ofMillis(delayMs));
+            retried.add(forwards(meterRegistry, "retry-" + tier));
+            delayMs *= multiplier;
+        }
+        this.deadLetterTopic = deadLetterTopic(paymentTopic);
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.deadLettered = forwards(meterRegistry, "dlt");
+    }
+
+    public static String retryTopic(String paymentTopic, int tier) {
+        return paymentTopic + "-retry-" + tier;
+    }
+
+    public static String deadLetterTopic(String paymentTopic) {
+        return paymentTopic + "-dlt";
+    }
+
+    /**
+     * Sends a failed event to the tier after the one it was read from, or to the dead-letter topic after the last.
+     *
+     * @param record  the record the event was read from, on the payment topic or a retry topic
+     * @param failure why it could not be applied
+     */
+    public void forward(ConsumerRecord<String, PaymentEventDto> record, Exception failure) {
+        int attempt = attempt(record.headers());
+        boolean exhausted = attempt >= TIERS;
+        String topic = exhausted ? deadLetterTopic : retryTopics.get(attempt);
+
+        ProducerRecord<Object, Object> forwarded = new ProducerRecord<>(topic, null, record.key(), record.value());
+        Headers headers = forwarded.headers();
+        if (attempt == 0) {
+            headers.add(KafkaHeaders.DLT_ORIGINAL_TOPIC, record.topic().getBytes(StandardCharsets.UTF_8));
+            headers.add(KafkaHeaders.DLT_ORIGINAL_PARTITION, ByteBuffer.allocate(Integer.BYTES).putInt(record.partition()).array());
+            headers.add(KafkaHeaders.DLT_ORIGINAL_OFFSET, ByteBuffer.allocate(Long.BYTES).putLong(record.offset()).array());
+            headers.add(KafkaHeaders.DLT_ORIGINAL_TIMESTAMP, ByteBuffer.allocate(Long.BYTES).putLong(record.timestamp()).array());
+        } else {
+            for (String name : ORIGIN_HEADERS) {
+                Header origin = record.headers().lastHeader(name);
+                if (origin != null) {
+                    headers.add(origin);
+                }
+            }
+        }
+        headers.add(KafkaHeaders.DLT_EXCEPTION_FQCN, failure.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        headers.add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, String.valueOf(failure.getMessage()).getBytes(StandardCharsets.UTF_8));
+        headers.add(ATTEMPT_HEADER, ByteBuffer.allocate(Integer.BYTES).putInt(attempt + 1).array());
+        if (!exhausted) {
+            long notBefore = clock.millis() + delays.get(attempt).toMillis();
+            headers.add(NOT_BEFORE_HEADER, ByteBuffer.allocate(Long.BYTES).putLong(notBefore).array());
+        }
+
+        send(forwarded);
+        if (exhausted) {
+            deadLettered.increment();
+            log.error("Payment event for transaction ID '{}' failed after {} retries, sent to {}: {}",
+                    transactionId(record), TIERS, topic, failure.getMessage());
+        } else {
+            retried.get(attempt).increment();
+            log.warn("Payment event for transaction ID '{}' failed, retrying through {} in {} ms: {}",
+                    transactionId(record), topic, delays.get(attempt).toMillis(), failure.getMessage());
+        }
+    }
+
+    /**
+     * @return epoch milliseconds before which the record must not be processed, or 0 if it carries no delay
+     */
+    static long notBefore(Headers headers) {
+        Header header = headers.lastHeader(NOT_BEFORE_HEADER);
+        return header != null ? ByteBuffer.wrap(header.value()).getLong() : 0;
+    }
+
+    private static int attempt(Headers headers) {
+        Header header = headers.lastHeader(ATTEMPT_HEADER);
+        return header != null ? ByteBuffer.wrap(header.value()).getInt() : 0;
+    }
+
+    private void send(ProducerRecord<Object, Object> record) {
+        try {
+            kafkaTemplate.send(record).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while forwarding payment event to " + record.topic(), e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Could not forward payment event to " + record.topic(), e);
+        }
+    }
+
+    private static Long transactionId(ConsumerRecord<String, PaymentEventDto> record) {
+        return record.value() != null ? record.value().transactionId() : null;
+    }
+
+    private static Counter forwards(MeterRegistry meterRegistry, String tier) {
+        return Counter.builder("sales.payment.events.forwarded")
+                .description("Payment events that failed and were forwarded to a retry tier or the dead-letter topic")
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,37 @@
+package com.retailpulse.service;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Actuator endpoint ({@code /actuator/salesrollup}) to rebuild the daily sales rollups of a date range from the
+ * transactions, e.g. to backfill days from before the rollups existed.
+ */
+@Component
+@Endpoint(id = "salesrollup")
+public class SalesRollupEndpoint {
+
+    private final SalesRollupService salesRollupService;
+
+    public SalesRollupEndpoint(SalesRollupService salesRollupService) {
+        this.salesRollupService = salesRollupService;
+    }
+
+    /**
+     * @param from first day to rebuild, inclusive (yyyy-MM-dd)
+     * @param to   last day to rebuild, inclusive (yyyy-MM-dd)
+     */
+    @WriteOperation
+    public RebuildDescriptor rebuild(String from, String to) {
+        long start = System.nanoTime();
+        int days = salesRollupService.rebuild(LocalDate.parse(from), LocalDate.parse(to));
+        return new RebuildDescriptor(days, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    public record RebuildDescriptor(int days, Duration duration) {
+    }
+}
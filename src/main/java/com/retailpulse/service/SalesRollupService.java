@@ -0,0 +1,337 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.TransactionStatusUpdateDto;
+import com.retailpulse.dto.response.DailySalesReportDto;
+import com.retailpulse.dto.response.ProductSalesReportDto;
+import com.retailpulse.entity.SalesDailyRollup;
+import com.retailpulse.entity.SalesDetails;
+import com.retailpulse.entity.SalesTransaction;
+import com.retailpulse.entity.TransactionStatus;
+import com.retailpulse.exception.BusinessException;
+import com.retailpulse.repository.ProductDailyRollupRepository;
+import com.retailpulse.repository.SalesDailyRollupRepository;
+import com.retailpulse.repository.SalesRollupRepository;
+import com.retailpulse.repository.SalesRollupRepository.DailyIncrement;
+import com.retailpulse.repository.SalesRollupRepository.ProductIncrement;
+import com.retailpulse.repository.SalesTransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Maintains the per-store and per-product daily sales rollups and serves the sales reports from them, so that
+ * reports never aggregate {@code sales_transaction} or {@code sales_details}.
+ * <p>
+ * Every status change adds the difference between what the sale counts for in its new and its old status to the
+ * rollups of the day the sale was made (in {@code sales.rollup.zone}), in the transaction of the status change.
+ * A completed sale counts as sold; a refunded one as sold and refunded; a cancelled one as cancelled; other
+ * statuses count for nothing. Editing the lines of a sale replaces what it counts for in its status.
+ * {@link #rebuild} recomputes whole days from the transactions, for backfill or repair, running several days in
+ * parallel.
+ */
+@Slf4j
+@Service
+public class SalesRollupService {
+
+    private static final Comparator<DailyIncrement> DAILY_ORDER =
+            Comparator.comparing(DailyIncrement::businessEntityId).thenComparing(DailyIncrement::salesDate);
+    private static final Comparator<ProductIncrement> PRODUCT_ORDER =
+            Comparator.comparing(ProductIncrement::salesDate).thenComparing(ProductIncrement::productId);
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final SalesDailyRollupRepository salesDailyRollupRepository;
+    private final ProductDailyRollupRepository productDailyRollupRepository;
+    private final SalesTransactionRepository salesTransactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncTaskExecutor taskExecutor;
+    private final ZoneId zone;
+    private final int rebuildParallelism;
+    private final int maxDays;
+
+    public SalesRollupService(SalesRollupRepository salesRollupRepository,
+                              SalesDailyRollupRepository salesDailyRollupRepository,
+                              ProductDailyRollupRepository productDailyRollupRepository,
+                              SalesTransactionRepository salesTransactionRepository,
+                              TransactionTemplate transactionTemplate,
+                              @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor taskExecutor,
+                              @Value("${sales.rollup.zone:Asia/Singapore}") String zone,
+                              @Value("${sales.rollup.rebuild-parallelism:4}") int rebuildParallelism,
+                              @Value("${sales.rollup.max-days:366}") int maxDays) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.salesDailyRollupRepository = salesDailyRollupRepository;
+        this.productDailyRollupRepository = productDailyRollupRepository;
+        this.salesTransactionRepository = salesTransactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.zone = ZoneId.of(zone);
+        this.rebuildParallelism = rebuildParallelism;
+        this.maxDays = maxDays;
+    }
+
+    /**
+     * Applies one status change to the rollups. Must run inside the caller's transaction.
+     */
+    public void recordStatusChange(SalesTransaction transaction, TransactionStatus oldStatus, TransactionStatus newStatus) {
+        Increments increments = new Increments();
+        increments.add(transaction, oldStatus, newStatus);
+        increments.write();
+    }
+
+    /**
+     * Applies an edit of a sale's lines to the rollups: what the sale counts for in its status is taken out with its
+     * old lines and totals and added back with the new ones, so editing a completed sale moves its revenue. Must run
+     * inside the caller's transaction.
+     *
+     * @param edit replaces the lines of {@code transaction}
+     */
+    public void recordLinesChange(SalesTransaction transaction, Runnable edit) {
+        Increments increments = new Increments();
+        increments.add(transaction, transaction.getStatus(), null);
+        edit.run();
+        increments.add(transaction, null, transaction.getStatus());
+        increments.write();
+    }
+
+    /**
+     * Applies a batch of status transitions to the rollups, after the conditional updates of
+     * {@link com.retailpulse.repository.SalesTransactionStatusRepository} have written them. The old statuses are
+     * not read back: a transition can only have come from one of the new status's predecessors, and those all count
+     * the same. Only transactions whose counts change are loaded, with their details in one query. Must run inside
+     * the caller's transaction.
+     *
+     * @param applied the transitions that updated a row
+     */
+    public void recordStatusChanges(List<TransactionStatusUpdateDto> applied) {
+        Map<Long, TransactionStatus> newStatuses = new HashMap<>();
+        for (TransactionStatusUpdateDto update : applied) {
+            if (!Weight.of(update.status()).minus(Weight.ofPredecessors(update.status())).isZero()) {
+                newStatuses.put(update.transactionId(), update.status());
+            }
+        }
+        if (newStatuses.isEmpty()) {
+            return;
+        }
+
+        Increments increments = new Increments();
+        for (SalesTransaction transaction : salesTransactionRepository.findAllWithDetailsByIdIn(newStatuses.keySet())) {
+            TransactionStatus newStatus = newStatuses.get(transaction.getId());
+            increments.add(transaction, newStatus.predecessors().iterator().next(), newStatus);
+        }
+        increments.write();
+    }
+
+    /**
+     * Recomputes the rollups of every day from {@code from} to {@code to}, inclusive, each day in its own
+     * transaction and up to {@code sales.rollup.rebuild-parallelism} days at a time.
+     *
+     * @return number of days rebuilt
+     * @throws BusinessException if the range is invalid or any day failed; the other days are still rebuilt
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        List<LocalDate> days = from.datesUntil(to.plusDays(1)).toList();
+        log.info("Rebuilding sales rollups for {} to {} ({} days)", from, to, days.size());
+
+        Semaphore permits = new Semaphore(rebuildParallelism);
+        List<Future<?>> results = new ArrayList<>(days.size());
+        for (LocalDate day : days) {
+            permits.acquireUninterruptibly();
+            try {
+                results.add(taskExecutor.submit(() -> {
+                    try {
+                        transactionTemplate.executeWithoutResult(status ->
+                                salesRollupRepository.rebuildDay(day, startOf(day), startOf(day.plusDays(1))));
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        List<LocalDate> failed = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                results.get(i).get();
+            } catch (ExecutionException e) {
+                log.error("Failed to rebuild sales rollups for {}", days.get(i), e.getCause());
+                failed.add(days.get(i));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BusinessException("ROLLUP_REBUILD_FAILED", "Interrupted while rebuilding sales rollups.");
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw new BusinessException("ROLLUP_REBUILD_FAILED",
+                    "Failed to rebuild sales rollups for " + failed.size() + " of " + days.size() + " days: " + failed);
+        }
+        return days.size();
+    }
+
+    public List<DailySalesReportDto> getDailySales(Long businessEntityId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return salesDailyRollupRepository.findByStoreAndDates(businessEntityId, from, to).stream()
+                .map(SalesRollupService::toReport)
+                .toList();
+    }
+
+    /**
+     * @param limit maximum number of products, 1 to 1000
+     * @return the products with the highest revenue over the given days
+     */
+    public List<ProductSalesReportDto> getTopProducts(LocalDate from, LocalDate to, int limit) {
+        checkRange(from, to);
+        if (limit < 1 || limit > 1000) {
+            throw new BusinessException("INVALID_LIMIT", "Limit must be between 1 and 1000.");
+        }
+        return productDailyRollupRepository.findTopProducts(from, to, PageRequest.of(0, limit)).stream()
+                .map(totals -> new ProductSalesReportDto(
+                        totals.getProductId(),
+                        totals.getQuantitySold(),
+                        totals.getRevenue().toPlainString(),
+                        totals.getRefundedQuantity(),
+                        totals.getRefundedRevenue().toPlainString(),
+                        totals.getRevenue().subtract(totals.getRefundedRevenue()).toPlainString()))
+                .toList();
+    }
+
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new BusinessException("INVALID_DATE_RANGE", "'from' must not be after 'to'.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new BusinessException("INVALID_DATE_RANGE", "Date range must not exceed " + maxDays + " days.");
+        }
+    }
+
+    private Instant startOf(LocalDate day) {
+        return day.atStartOfDay(zone).toInstant();
+    }
+
+    private static DailySalesReportDto toReport(SalesDailyRollup rollup) {
+        return new DailySalesReportDto(
+                rollup.getId().businessEntityId(),
+                rollup.getId().salesDate(),
+                rollup.getCompletedCount(),
+                rollup.getSubtotal().toPlainString(),
+                rollup.getTaxAmount().toPlainString(),
+                rollup.getTotal().toPlainString(),
+                rollup.getRefundedCount(),
+                rollup.getRefundedTotal().toPlainString(),
+                rollup.getTotal().subtract(rollup.getRefundedTotal()).toPlainString(),
+                rollup.getCancelledCount());
+    }
+
+    /**
+     * How much a sale in the given status counts as sold, refunded and cancelled.
+     */
+    private record Weight(int sold, int refunded, int cancelled) {
+
+        private static final Weight NONE = new Weight(0, 0, 0);
+
+        static Weight of(TransactionStatus status) {
+            if (status == null) {
+                return NONE;
+            }
+            return switch (status) {
+                case COMPLETED -> new Weight(1, 0, 0);
+                case REFUNDED -> new Weight(1, 1, 0);
+                case CANCELLED -> new Weight(0, 0, 1);
+                default -> NONE;
+            };
+        }
+
+        /**
+         * @throws IllegalStateException if the predecessors of {@code status} do not all count the same, in which
+         * case a transition to it cannot be rolled up without reading the old status
+         */
+        static Weight ofPredecessors(TransactionStatus status) {
+            Weight weight = null;
+            for (TransactionStatus predecessor : status.predecessors()) {
+                Weight predecessorWeight = of(predecessor);
+                if (weight != null && !weight.equals(predecessorWeight)) {
+                    throw new IllegalStateException("Predecessors of " + status + " count differently in the rollups");
+                }
+                weight = predecessorWeight;
+            }
+            return weight;
+        }
+
+        Weight minus(Weight other) {
+            return new Weight(sold - other.sold, refunded - other.refunded, cancelled - other.cancelled);
+        }
+
+        boolean isZero() {
+            return sold == 0 && refunded == 0 && cancelled == 0;
+        }
+    }
+
+    /**
+     * Increments summed by rollup row, written in key order so that concurrent writers lock rows in the same order.
+     */
+    private final class Increments {
+        private final Map<DailyIncrement, DailyIncrement> daily = new TreeMap<>(DAILY_ORDER);
+        private final Map<ProductIncrement, ProductIncrement> products = new TreeMap<>(PRODUCT_ORDER);
+
+        void add(SalesTransaction transaction, TransactionStatus oldStatus, TransactionStatus newStatus) {
+            Weight delta = Weight.of(newStatus).minus(Weight.of(oldStatus));
+            if (delta.isZero()) {
+                return;
+            }
+            LocalDate day = transaction.getTransactionDate().atZone(zone).toLocalDate();
+            BigDecimal total = orZero(transaction.getTotal());
+
+            DailyIncrement store = new DailyIncrement(transaction.getBusinessEntityId(), day, delta.sold,
+                    times(orZero(transaction.getSubtotal()), delta.sold),
+                    times(orZero(transaction.getSalesTaxAmount()), delta.sold),
+                    times(total, delta.sold), delta.refunded, times(total, delta.refunded), delta.cancelled);
+            daily.merge(store, store, DailyIncrement::plus);
+
+            if (delta.sold == 0 && delta.refunded == 0) {
+                return;
+            }
+            for (SalesDetails details : transaction.getSalesDetailEntities().values()) {
+                BigDecimal revenue = details.getSubTotal();
+                ProductIncrement product = new ProductIncrement(day, details.getProductId(),
+                        (long) details.getQuantity() * delta.sold, times(revenue, delta.sold),
+                        (long) details.getQuantity() * delta.refunded, times(revenue, delta.refunded));
+                products.merge(product, product, ProductIncrement::plus);
+            }
+        }
+
+        void write() {
+            salesRollupRepository.addDaily(new ArrayList<>(daily.values()));
+            salesRollupRepository.addProducts(new ArrayList<>(products.values()));
+        }
+
+        private static BigDecimal times(BigDecimal amount, int factor) {
+            return factor == 1 ? amount : amount.multiply(BigDecimal.valueOf(factor));
+        }
+
+        private static BigDecimal orZero(BigDecimal amount) {
+            return amount != null ? amount : BigDecimal.ZERO;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.retailpulse.service;
+
+import com.retailpulse.entity.SalesTax;
+import com.retailpulse.entity.TaxType;
+import com.retailpulse.exception.BusinessException;
+import com.retailpulse.exception.ErrorCodes;
+import com.retailpulse.repository.SalesTaxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process registry of sales tax rates.
+ * <p>
+ * Rates are loaded once at startup into an immutable, versioned snapshot and served from memory, so the
+ * quote and checkout paths never query {@code sales_tax} in the steady state. The snapshot is reloaded on a
+ * schedule, on demand through the {@code salestax} actuator endpoint, or lazily after {@link #invalidate()}.
+ */
+@Slf4j
+@Component
+public class SalesTaxRegistry {
+
+    static final BigDecimal DEFAULT_GST_RATE = new BigDecimal("0.09");
+
+    private final SalesTaxRepository salesTaxRepository;
+    private final AtomicReference<SalesTaxSnapshot> snapshot = new AtomicReference<>(SalesTaxSnapshot.empty(0L));
+    // ReentrantLock rather than synchronized so a loading thread never pins a virtual carrier thread
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter refreshes;
+    private final Counter refreshFailures;
+
+    public SalesTaxRegistry(SalesTaxRepository salesTaxRepository, MeterRegistry meterRegistry) {
+        this.salesTaxRepository = salesTaxRepository;
+        this.hits = Counter.builder("sales.tax.registry.lookups")
+                .description("Sales tax rate lookups served by the registry")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("sales.tax.registry.lookups")
+                .description("Sales tax rate lookups served by the registry")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.refreshes = Counter.builder("sales.tax.registry.refreshes")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.refreshFailures = Counter.builder("sales.tax.registry.refreshes")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        Gauge.builder("sales.tax.registry.version", snapshot, ref -> ref.get().version())
+                .description("Version of the sales tax snapshot currently served")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the current rate for the given tax type, loading it from the database only when the registry
+     * has no entry for it (first use, or after an invalidation).
+     *
+     * @param taxType the tax type to resolve
+     * @return the SalesTax entity for the tax type
+     * @throws BusinessException if the tax type is not configured and has no default rate
+     */
+    public SalesTax getSalesTax(TaxType taxType) {
+        SalesTax salesTax = snapshot.get().rates().get(taxType);
+        if (salesTax != null) {
+            hits.increment();
+            return salesTax;
+        }
+        misses.increment();
+        return loadMissing(taxType);
+    }
+
+    /**
+     * @return the snapshot currently served by the registry
+     */
+    public SalesTaxSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Reloads every rate from the database and publishes a new snapshot. The version is only bumped when the
+     * loaded rates differ from the ones being served.
+     *
+     * @return the snapshot served after the refresh
+     */
+    public SalesTaxSnapshot refresh() {
+        loadLock.lock();
+        try {
+            Map<TaxType, SalesTax> rates = loadRates();
+            SalesTaxSnapshot current = snapshot.get();
+            SalesTaxSnapshot next = sameRates(current.rates(), rates)
+                    ? current
+                    : new SalesTaxSnapshot(current.version() + 1, Instant.now(), rates);
+            snapshot.set(next);
+            refreshes.increment();
+            log.debug("Sales tax registry refreshed, version={} rates={}", next.version(), next.rates().size());
+            return next;
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            throw e;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Drops every cached rate. The next lookup reloads from the database.
+     */
+    public void invalidate() {
+        snapshot.updateAndGet(current -> SalesTaxSnapshot.empty(current.version() + 1));
+        log.info("Sales tax registry invalidated");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        scheduledRefresh();
+    }
+
+    @Scheduled(
+            initialDelayString = "${sales.tax-registry.refresh-interval-ms:300000}",
+            fixedDelayString = "${sales.tax-registry.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // keep serving the last good snapshot
+            log.warn("Sales tax registry refresh failed, serving version {}: {}", snapshot.get().version(), e.getMessage());
+        }
+    }
+
+    private SalesTax loadMissing(TaxType taxType) {
+        loadLock.lock();
+        try {
+            SalesTax salesTax = snapshot.get().rates().get(taxType);
+            if (salesTax != null) {
+                return salesTax;
+            }
+
+            salesTax = salesTaxRepository.findSalesTaxByTaxType(taxType)
+                    .orElseGet(() -> createDefault(taxType));
+
+            SalesTaxSnapshot current = snapshot.get();
+            Map<TaxType, SalesTax> rates = new EnumMap<>(TaxType.class);
+            rates.putAll(current.rates());
+            rates.put(taxType, salesTax);
+            snapshot.set(new SalesTaxSnapshot(current.version() + 1, Instant.now(), Collections.unmodifiableMap(rates)));
+            return salesTax;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private SalesTax createDefault(TaxType taxType) {
+        if (taxType != TaxType.GST) {
+            throw new BusinessException(ErrorCodes.NOT_FOUND, "Sales tax not configured for type: " + taxType);
+        }
+        log.info("No {} rate configured, creating default rate {}", taxType, DEFAULT_GST_RATE);
+        return salesTaxRepository.save(new SalesTax(taxType, DEFAULT_GST_RATE));
+    }
+
+    private Map<TaxType, SalesTax> loadRates() {
+        List<SalesTax> salesTaxes = salesTaxRepository.findAll();
+        Map<TaxType, SalesTax> rates = new EnumMap<>(TaxType.class);
+        // the table has no unique key on tax_type, so prefer the oldest row when duplicates exist
+        salesTaxes.stream()
+                .filter(salesTax -> salesTax.getTaxType() != null && salesTax.getTaxRate() != null)
+                .sorted(Comparator.comparing(SalesTax::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .forEach(salesTax -> rates.putIfAbsent(salesTax.getTaxType(), salesTax));
+        return Collections.unmodifiableMap(rates);
+    }
+
+    private static boolean sameRates(Map<TaxType, SalesTax> current, Map<TaxType, SalesTax> loaded) {
+        if (current.size() != loaded.size()) {
+            return false;
+        }
+        return loaded.entrySet().stream().allMatch(entry -> {
+            SalesTax existing = current.get(entry.getKey());
+            return existing != null
+                    && existing.getTaxRate().compareTo(entry.getValue().getTaxRate()) == 0;
+        });
+    }
+
+    /**
+     * Immutable view of the rates served by the registry.
+     *
+     * @param version  incremented whenever the served rates change or are invalidated
+     * @param loadedAt when this snapshot was published
+     * @param rates    rate per tax type
+     */
+    public record SalesTaxSnapshot(long version, Instant loadedAt, Map<TaxType, SalesTax> rates) {
+        static SalesTaxSnapshot empty(long version) {
+            return new SalesTaxSnapshot(version, Instant.now(), Map.of());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.retailpulse.service;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Actuator endpoint ({@code /actuator/salestax}) to inspect, refresh or invalidate the {@link SalesTaxRegistry}.
+ */
+@Component
+@Endpoint(id = "salestax")
+public class SalesTaxRegistryEndpoint {
+
+    private final SalesTaxRegistry salesTaxRegistry;
+
+    public SalesTaxRegistryEndpoint(SalesTaxRegistry salesTaxRegistry) {
+        this.salesTaxRegistry = salesTaxRegistry;
+    }
+
+    @ReadOperation
+    public SnapshotDescriptor snapshot() {
+        return describe(salesTaxRegistry.getSnapshot());
+    }
+
+    @WriteOperation
+    public SnapshotDescriptor refresh() {
+        return describe(salesTaxRegistry.refresh());
+    }
+
+    @DeleteOperation
+    public SnapshotDescriptor invalidate() {
+        salesTaxRegistry.invalidate();
+        return describe(salesTaxRegistry.getSnapshot());
+    }
+
+    private SnapshotDescriptor describe(SalesTaxRegistry.SalesTaxSnapshot snapshot) {
+        Map<String, String> rates = snapshot.rates().entrySet().stream()
+                .collect(Collectors.toMap(
+                        entry -> entry.getKey().name(),
+                        entry -> entry.getValue().getTaxRate().toPlainString()));
+        return new SnapshotDescriptor(snapshot.version(), snapshot.loadedAt(), rates);
+    }
+
+    public record SnapshotDescriptor(long version, Instant loadedAt, Map<String, String> rates) {
+    }
+}
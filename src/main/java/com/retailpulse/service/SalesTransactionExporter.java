@@ -0,0 +1,281 @@
+package com.retailpulse.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailpulse.exception.BusinessException;
+import com.retailpulse.repository.SalesTransactionExportRepository;
+import com.retailpulse.repository.SalesTransactionExportRepository.ExportRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * Writes a store's transactions of a date range, with their line items, straight from a streaming JDBC read to an
+ * output stream, so memory use does not depend on the size of the export.
+ * <p>
+ * Rows are written through a fixed-size buffer as they are read; when the client reads slowly, writes block and
+ * the database read waits with them. Dates are the days the sales were made in {@code sales.export.zone};
+ * timestamps are written as UTC ISO-8601 instants.
+ */
+@Slf4j
+@Service
+public class SalesTransactionExporter {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public static Format parse(String format) {
+            try {
+                return valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException("INVALID_EXPORT_FORMAT", "Export format must be ndjson or csv.");
+            }
+        }
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ISO_INSTANT;
+
+    private final SalesTransactionExportRepository salesTransactionExportRepository;
+    private final ObjectMapper objectMapper;
+    private final ZoneId zone;
+    private final int maxDays;
+
+    public SalesTransactionExporter(SalesTransactionExportRepository salesTransactionExportRepository,
+                                    ObjectMapper objectMapper,
+                                    @Value("${sales.export.zone:Asia/Singapore}") String zone,
+                                    @Value("${sales.export.max-days:93}") int maxDays) {
+        this.salesTransactionExportRepository = salesTransactionExportRepository;
+        this.objectMapper = objectMapper;
+        this.zone = ZoneId.of(zone);
+        this.maxDays = maxDays;
+    }
+
+    /**
+     * Validates an export of the days from {@code from} to {@code to}, inclusive, without reading anything yet.
+     *
+     * @throws BusinessException if the range is invalid
+     */
+    public Export prepare(long businessEntityId, LocalDate from, LocalDate to, Format format) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new BusinessException("INVALID_DATE_RANGE", "'from' must not be after 'to'.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new BusinessException("INVALID_DATE_RANGE", "Date range must not exceed " + maxDays + " days.");
+        }
+        return new Export(businessEntityId, from, to, format);
+    }
+
+    public final class Export {
+        private final long businessEntityId;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final Format format;
+
+        private Export(long businessEntityId, LocalDate from, LocalDate to, Format format) {
+            this.businessEntityId = businessEntityId;
+            this.from = from;
+            this.to = to;
+            this.format = format;
+        }
+
+        public Format format() {
+            return format;
+        }
+
+        public String filename() {
+            return "sales-" + businessEntityId + "-" + from + "-" + to + "." + format.extension;
+        }
+
+        /**
+         * Writes the export and flushes {@code out}; {@code out} is not closed.
+         *
+         * @return number of transactions written
+         */
+        public long writeTo(OutputStream out) throws IOException {
+            long start = System.nanoTime();
+            RowWriter writer = format == Format.CSV ? new CsvWriter(out) : new NdjsonWriter(objectMapper, out);
+            try {
+                salesTransactionExportRepository.forEachRow(businessEntityId,
+                        from.atStartOfDay(zone).toInstant(), to.plusDays(1).atStartOfDay(zone).toInstant(),
+                        row -> {
+                            try {
+                                writer.write(row);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+            } catch (UncheckedIOException e) {
+                // typically the client went away; the read is abandoned with it
+                throw e.getCause();
+            }
+            long transactions = writer.finish();
+            log.info("Exported {} transactions of businessEntityId={} for {} to {} as {} in {} ms", transactions,
+                    businessEntityId, from, to, format, (System.nanoTime() - start) / 1_000_000);
+            return transactions;
+        }
+    }
+
+    private interface RowWriter {
+        void write(ExportRow row) throws IOException;
+
+        /**
+         * @return number of transactions written
+         */
+        long finish() throws IOException;
+    }
+
+    /**
+     * One JSON object per line and transaction, with its line items as an array.
+     */
+    private static final class NdjsonWriter implements RowWriter {
+        private final JsonGenerator json;
+        private long currentTransactionId = -1;
+        private long transactions;
+
+        NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            this.json = objectMapper.getFactory().createGenerator(out);
+            this.json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ExportRow row) throws IOException {
+            if (row.transactionId() != currentTransactionId) {
+                if (transactions > 0) {
+                    endTransaction();
+                }
+                startTransaction(row);
+                currentTransactionId = row.transactionId();
+                transactions++;
+            }
+            if (row.productId() != null) {
+                json.writeStartObject();
+                json.writeNumberField("productId", row.productId());
+                json.writeNumberField("quantity", row.quantity());
+                writeAmount("salesPricePerUnit", row.salesPricePerUnit());
+                json.writeEndObject();
+            }
+        }
+
+        @Override
+        public long finish() throws IOException {
+            if (transactions > 0) {
+                endTransaction();
+            }
+            json.flush();
+            return transactions;
+        }
+
+        private void startTransaction(ExportRow row) throws IOException {
+            json.writeStartObject();
+            json.writeNumberField("salesTransactionId", row.transactionId());
+            json.writeNumberField("businessEntityId", row.businessEntityId());
+            json.writeStringField("status", row.status() != null ? row.status().name() : null);
+            writeAmount("subtotal", row.subtotal());
+            writeAmount("taxAmount", row.taxAmount());
+            writeAmount("total", row.total());
+            json.writeStringField("transactionDateTime", TIMESTAMP.format(row.transactionDate()));
+            json.writeStringField("paymentEventDateTime",
+                    row.paymentEventDate() != null ? TIMESTAMP.format(row.paymentEventDate()) : null);
+            json.writeArrayFieldStart("salesDetails");
+        }
+
+        private void endTransaction() throws IOException {
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        private void writeAmount(String field, BigDecimal amount) throws IOException {
+            json.writeStringField(field, amount != null ? amount.toPlainString() : null);
+        }
+    }
+
+    /**
+     * One line per line item, repeating the columns of its transaction. No value can contain a comma, quote or
+     * line break, so nothing is quoted.
+     */
+    private static final class CsvWriter implements RowWriter {
+        private static final String HEADER = "sales_transaction_id,business_entity_id,status,subtotal,tax_amount,total," +
+                "transaction_date_time,payment_event_date_time,product_id,quantity,sales_price_per_unit\n";
+
+        private final Writer out;
+        private long currentTransactionId = -1;
+        private long transactions;
+
+        CsvWriter(OutputStream out) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            this.out.write(HEADER);
+        }
+
+        @Override
+        public void write(ExportRow row) throws IOException {
+            if (row.transactionId() != currentTransactionId) {
+                currentTransactionId = row.transactionId();
+                transactions++;
+            }
+            out.append(Long.toString(row.transactionId())).append(',')
+                    .append(Long.toString(row.businessEntityId())).append(',')
+                    .append(row.status() != null ? row.status().name() : "").append(',');
+            appendAmount(row.subtotal());
+            appendAmount(row.taxAmount());
+            appendAmount(row.total());
+            TIMESTAMP.formatTo(row.transactionDate(), out);
+            out.append(',');
+            if (row.paymentEventDate() != null) {
+                TIMESTAMP.formatTo(row.paymentEventDate(), out);
+            }
+            out.append(',');
+            if (row.productId() != null) {
+                out.append(Long.toString(row.productId())).append(',')
+                        .append(Integer.toString(row.quantity())).append(',')
+                        .append(row.salesPricePerUnit().toPlainString());
+            } else {
+                out.append(',');
+            }
+            out.append('\n');
+        }
+
+        @Override
+        public long finish() throws IOException {
+            out.flush();
+            return transactions;
+        }
+
+        private void appendAmount(BigDecimal amount) throws IOException {
+            if (amount != null) {
+                out.append(amount.toPlainString());
+            }
+            out.append(',');
+        }
+    }
+}
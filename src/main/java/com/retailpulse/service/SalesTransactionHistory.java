@@ -1,36 +1,210 @@
 package com.retailpulse.service;
 
 import com.retailpulse.entity.SalesTransactionMemento;
+import com.retailpulse.entity.SalesTransactionMementoCodec;
+import com.retailpulse.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * In-memory store of suspended carts, keyed by business entity (store) and memento transaction ID.
+ * <p>
+ * Each store holds at most {@code sales.suspended-carts.max-per-store} carts; suspending beyond that is
+ * rejected. Carts that are not restored within {@code sales.suspended-carts.idle-ttl-minutes} are evicted by
+ * a periodic sweep. Updates to one store are serialized by that store's lock, so terminals of different
+ * stores never contend, and callers always receive an immutable snapshot of the store's carts.
+ * <p>
+ * Carts are held as {@link SalesTransactionMementoCodec} bytes rather than as mementos of strings, and decoded
+ * for each snapshot.
+ */
+@Slf4j
 @Component
 public class SalesTransactionHistory {
 
-    private final Map<Long, Map<Long, SalesTransactionMemento>> suspendedTransactions = new ConcurrentHashMap<>();
+    // SuspendedCart, its byte[] header and its LinkedHashMap entry on a 64-bit JVM with compressed oops
+    private static final long CART_OVERHEAD_BYTES = 96;
 
+    private final Map<Long, StoreCarts> stores = new ConcurrentHashMap<>();
+    private final int maxCartsPerStore;
+    private final long idleTtlMillis;
+    private final Clock clock;
+
+    private final AtomicLong cartCount = new AtomicLong();
+    private final AtomicLong estimatedBytes = new AtomicLong();
+    private final Counter idleEvictions;
+    private final Counter rejections;
+
+    @Autowired
+    public SalesTransactionHistory(MeterRegistry meterRegistry,
+                                   @Value("${sales.suspended-carts.max-per-store:50}") int maxCartsPerStore,
+                                   @Value("${sales.suspended-carts.idle-ttl-minutes:720}") long idleTtlMinutes) {
+        this(meterRegistry, maxCartsPerStore, Duration.ofMinutes(idleTtlMinutes), Clock.systemUTC());
+    }
+
+    SalesTransactionHistory(MeterRegistry meterRegistry, int maxCartsPerStore, Duration idleTtl, Clock clock) {
+        this.maxCartsPerStore = maxCartsPerStore;
+        this.idleTtlMillis = idleTtl.toMillis();
+        this.clock = clock;
+
+        Gauge.builder("sales.suspended.carts", cartCount, AtomicLong::get)
+                .description("Suspended carts held in memory")
+                .register(meterRegistry);
+        Gauge.builder("sales.suspended.stores", stores, Map::size)
+                .description("Stores with at least one suspended cart")
+                .register(meterRegistry);
+        Gauge.builder("sales.suspended.carts.memory", estimatedBytes, AtomicLong::get)
+                .description("Estimated heap retained by suspended carts")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.idleEvictions = Counter.builder("sales.suspended.carts.evictions")
+                .description("Suspended carts evicted after the idle TTL")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("sales.suspended.carts.rejections")
+                .description("Suspensions rejected because the store was at capacity")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds a suspended cart to the store.
+     *
+     * @return snapshot of the store's suspended carts, in suspension order
+     * @throws BusinessException with code {@code SUSPENDED_CART_LIMIT} if the store is at capacity
+     */
     public Map<Long, SalesTransactionMemento> addTransaction(Long businessEntityId, SalesTransactionMemento salesTransactionMemento) {
-        if (!suspendedTransactions.containsKey(businessEntityId)) {
-            Map<Long, SalesTransactionMemento> suspendedTransaction = new HashMap<>();
-            suspendedTransaction.put(salesTransactionMemento.transactionId(), salesTransactionMemento);
-            suspendedTransactions.put(businessEntityId, suspendedTransaction);
-        } else {
-            suspendedTransactions.get(businessEntityId).put(salesTransactionMemento.transactionId(), salesTransactionMemento);
-        }
+        while (true) {
+            StoreCarts store = stores.computeIfAbsent(businessEntityId, id -> new StoreCarts());
+            store.lock.lock();
+            try {
+                if (store.retired) {
+                    // emptied and unlinked by the sweep after we looked it up; retry with a fresh store
+                    continue;
+                }
+                if (store.carts.size() >= maxCartsPerStore && !store.carts.containsKey(salesTransactionMemento.transactionId())) {
+                    rejections.increment();
+                    throw new BusinessException("SUSPENDED_CART_LIMIT",
+                            "Store " + businessEntityId + " already has " + maxCartsPerStore + " suspended transactions.");
+                }
 
-        return suspendedTransactions.get(businessEntityId);
+                SuspendedCart cart = new SuspendedCart(SalesTransactionMementoCodec.encode(salesTransactionMemento), clock.millis());
+                // remove first so a re-suspended cart moves to the tail and the order stays by suspension time
+                SuspendedCart replaced = store.carts.remove(salesTransactionMemento.transactionId());
+                if (replaced != null) {
+                    released(replaced);
+                }
+                store.carts.put(salesTransactionMemento.transactionId(), cart);
+                cartCount.incrementAndGet();
+                estimatedBytes.addAndGet(cart.estimatedBytes());
+                return store.snapshot();
+            } finally {
+                store.lock.unlock();
+            }
+        }
     }
 
+    /**
+     * Removes a suspended cart from the store, if present.
+     *
+     * @return snapshot of the store's remaining suspended carts, empty if the store has none
+     */
     public Map<Long, SalesTransactionMemento> deleteTransaction(Long businessEntityId, Long transactionId) {
-        if (suspendedTransactions.containsKey(businessEntityId)) {
-            Map<Long, SalesTransactionMemento> suspendedTransactionMap = suspendedTransactions.get(businessEntityId);
-            suspendedTransactionMap.remove(transactionId);
+        StoreCarts store = stores.get(businessEntityId);
+        if (store == null) {
+            return Map.of();
         }
 
-        return suspendedTransactions.get(businessEntityId);
+        store.lock.lock();
+        try {
+            SuspendedCart removed = store.carts.remove(transactionId);
+            if (removed != null) {
+                released(removed);
+            }
+            return store.snapshot();
+        } finally {
+            store.lock.unlock();
+        }
     }
 
+    /**
+     * Evicts carts suspended longer than the idle TTL and unlinks stores left empty.
+     *
+     * @return number of carts evicted
+     */
+    @Scheduled(
+            initialDelayString = "${sales.suspended-carts.sweep-interval-ms:60000}",
+            fixedDelayString = "${sales.suspended-carts.sweep-interval-ms:60000}")
+    public int evictIdle() {
+        long expiredBefore = clock.millis() - idleTtlMillis;
+        int evicted = 0;
+
+        for (Map.Entry<Long, StoreCarts> entry : stores.entrySet()) {
+            StoreCarts store = entry.getValue();
+            store.lock.lock();
+            try {
+                // carts are kept in suspension order, so the expired ones are at the head
+                Iterator<SuspendedCart> carts = store.carts.values().iterator();
+                while (carts.hasNext()) {
+                    SuspendedCart cart = carts.next();
+                    if (cart.suspendedAtMillis() > expiredBefore) {
+                        break;
+                    }
+                    carts.remove();
+                    released(cart);
+                    evicted++;
+                }
+                if (store.carts.isEmpty()) {
+                    store.retired = true;
+                    stores.remove(entry.getKey(), store);
+                }
+            } finally {
+                store.lock.unlock();
+            }
+        }
+
+        if (evicted > 0) {
+            idleEvictions.increment(evicted);
+            log.info("Evicted {} suspended carts idle for more than {} minutes", evicted, Duration.ofMillis(idleTtlMillis).toMinutes());
+        }
+        return evicted;
+    }
+
+    private void released(SuspendedCart cart) {
+        cartCount.decrementAndGet();
+        estimatedBytes.addAndGet(-cart.estimatedBytes());
+    }
+
+    private record SuspendedCart(byte[] memento, long suspendedAtMillis) {
+
+        private long estimatedBytes() {
+            return CART_OVERHEAD_BYTES + memento.length;
+        }
+    }
+
+    private static final class StoreCarts {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Long, SuspendedCart> carts = new LinkedHashMap<>();
+        // set under lock once the sweep has unlinked this store from the map
+        private boolean retired;
+
+        private Map<Long, SalesTransactionMemento> snapshot() {
+            Map<Long, SalesTransactionMemento> snapshot = new LinkedHashMap<>(Math.max(4, carts.size() * 2));
+            carts.forEach((transactionId, cart) -> snapshot.put(transactionId, SalesTransactionMementoCodec.decode(cart.memento())));
+            return Collections.unmodifiableMap(snapshot);
+        }
+    }
 }
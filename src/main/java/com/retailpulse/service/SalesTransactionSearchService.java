@@ -0,0 +1,174 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.request.SalesDetailsDto;
+import com.retailpulse.dto.response.SalesTransactionPageDto;
+import com.retailpulse.dto.response.SalesTransactionSearchItemDto;
+import com.retailpulse.entity.SalesTransaction;
+import com.retailpulse.entity.TransactionStatus;
+import com.retailpulse.exception.BusinessException;
+import com.retailpulse.repository.SalesTransactionRepository;
+import com.retailpulse.repository.SalesTransactionRepository.DetailLine;
+import com.retailpulse.util.DateUtil;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Searches a store's transactions, newest first, a page at a time.
+ * <p>
+ * Pages are read by keyset rather than by offset: the cursor holds the transaction date and id of the last
+ * transaction of the previous page, and the next page starts right after it in the
+ * {@code (business_entity_id, transaction_date)} or {@code (business_entity_id, status, transaction_date)} index,
+ * so every page costs the same however deep it is. The sales details of a page are read in one query.
+ */
+@Service
+public class SalesTransactionSearchService {
+
+    private static final String TRANSACTION_DATE = "transactionDate";
+    private static final String ID = "id";
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, TRANSACTION_DATE, ID);
+    private static final char CURSOR_SEPARATOR = '_';
+
+    private final SalesTransactionRepository salesTransactionRepository;
+    private final ZoneId zone;
+    private final int maxPageSize;
+
+    public SalesTransactionSearchService(SalesTransactionRepository salesTransactionRepository,
+                                         @Value("${sales.search.zone:Asia/Singapore}") String zone,
+                                         @Value("${sales.search.max-page-size:200}") int maxPageSize) {
+        this.salesTransactionRepository = salesTransactionRepository;
+        this.zone = ZoneId.of(zone);
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Returns the page of matching transactions that follows {@code cursor}, or the first page without one.
+     * All filters but the store are optional; dates are local days in {@code sales.search.zone}, both inclusive.
+     *
+     * @throws BusinessException if a filter, the page size or the cursor is invalid
+     */
+    public SalesTransactionPageDto search(long businessEntityId, LocalDate from, LocalDate to, TransactionStatus status,
+                                          BigDecimal minTotal, BigDecimal maxTotal, int pageSize, String cursor) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new BusinessException("INVALID_DATE_RANGE", "'from' must not be after 'to'.");
+        }
+        if (minTotal != null && maxTotal != null && maxTotal.compareTo(minTotal) < 0) {
+            throw new BusinessException("INVALID_AMOUNT_RANGE", "'minTotal' must not be greater than 'maxTotal'.");
+        }
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new BusinessException("INVALID_LIMIT", "Page size must be between 1 and " + maxPageSize + ".");
+        }
+
+        Specification<SalesTransaction> criteria = criteria(businessEntityId,
+                from != null ? from.atStartOfDay(zone).toInstant() : null,
+                to != null ? to.plusDays(1).atStartOfDay(zone).toInstant() : null,
+                status, minTotal, maxTotal);
+        ScrollPosition position = cursor != null ? decodeCursor(cursor) : ScrollPosition.keyset();
+        Window<SalesTransaction> page = salesTransactionRepository.findBy(criteria,
+                query -> query.sortBy(NEWEST_FIRST).limit(pageSize).scroll(position));
+
+        List<SalesTransaction> transactions = page.getContent();
+        if (transactions.isEmpty()) {
+            return new SalesTransactionPageDto(List.of(), null);
+        }
+        Map<Long, List<SalesDetailsDto>> details = detailsOf(transactions);
+        List<SalesTransactionSearchItemDto> items = new ArrayList<>(transactions.size());
+        for (SalesTransaction transaction : transactions) {
+            items.add(toItem(transaction, details.getOrDefault(transaction.getId(), List.of())));
+        }
+        String nextCursor = page.hasNext() ? encodeCursor(transactions.get(transactions.size() - 1)) : null;
+        return new SalesTransactionPageDto(items, nextCursor);
+    }
+
+    private static Specification<SalesTransaction> criteria(long businessEntityId, Instant from, Instant to,
+                                                            TransactionStatus status, BigDecimal minTotal,
+                                                            BigDecimal maxTotal) {
+        return (root, query, builder) -> {
+            if (query != null && query.getResultType() == SalesTransaction.class) {
+                // the tax is shown with every transaction; fetch it with the page instead of one select per rate
+                root.fetch("salesTax", JoinType.LEFT);
+            }
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(builder.equal(root.get("businessEntityId"), businessEntityId));
+            if (status != null) {
+                predicates.add(builder.equal(root.get("status"), status));
+            }
+            if (from != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get(TRANSACTION_DATE), from));
+            }
+            if (to != null) {
+                predicates.add(builder.lessThan(root.get(TRANSACTION_DATE), to));
+            }
+            // amounts are not in the indexes; they filter the rows the index range yields
+            if (minTotal != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("total"), minTotal));
+            }
+            if (maxTotal != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("total"), maxTotal));
+            }
+            return builder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private Map<Long, List<SalesDetailsDto>> detailsOf(List<SalesTransaction> transactions) {
+        List<Long> ids = transactions.stream().map(SalesTransaction::getId).toList();
+        Map<Long, List<SalesDetailsDto>> details = new HashMap<>();
+        for (DetailLine line : salesTransactionRepository.findDetailLinesByTransactionIdIn(ids)) {
+            details.computeIfAbsent(line.getTransactionId(), id -> new ArrayList<>())
+                    .add(new SalesDetailsDto(line.getProductId(), line.getQuantity(),
+                            line.getSalesPricePerUnit().toString()));
+        }
+        return details;
+    }
+
+    private static SalesTransactionSearchItemDto toItem(SalesTransaction transaction, List<SalesDetailsDto> details) {
+        return new SalesTransactionSearchItemDto(
+                transaction.getId(),
+                transaction.getBusinessEntityId(),
+                transaction.getStatus() != null ? transaction.getStatus().name() : null,
+                transaction.getSubtotal().toString(),
+                transaction.getSalesTax().getTaxType().name(),
+                transaction.getSalesTax().getTaxRate().toString(),
+                transaction.getSalesTaxAmount().toString(),
+                transaction.getTotal().toString(),
+                details,
+                DateUtil.convertInstantToString(transaction.getTransactionDate(), DateUtil.DATE_TIME_FORMAT));
+    }
+
+    static String encodeCursor(SalesTransaction last) {
+        String position = last.getTransactionDate().toString() + CURSOR_SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetScrollPosition decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.lastIndexOf(CURSOR_SEPARATOR);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(TRANSACTION_DATE, Instant.parse(position.substring(0, separator)));
+            keys.put(ID, Long.parseLong(position.substring(separator + 1)));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BusinessException("INVALID_CURSOR", "Cursor is not valid.");
+        }
+    }
+}
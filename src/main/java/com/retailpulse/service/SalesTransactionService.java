@@ -1,5 +1,6 @@
 package com.retailpulse.service;
 
+import com.retailpulse.dto.TransactionStatusUpdateDto;
 import com.retailpulse.dto.request.SalesDetailsDto;
 import com.retailpulse.dto.request.SalesTransactionRequestDto;
 import com.retailpulse.dto.request.SuspendedTransactionDto;
@@ -12,12 +13,16 @@ import com.retailpulse.dto.response.TaxResultDto;
 import com.retailpulse.dto.response.TransientSalesTransactionDto;
 import com.retailpulse.entity.*;
 import com.retailpulse.exception.ErrorCodes;
-import com.retailpulse.repository.SalesTaxRepository;
 import com.retailpulse.repository.SalesTransactionRepository;
+import com.retailpulse.repository.SalesTransactionStatusRepository;
+import com.retailpulse.service.CheckoutPhaseObserver.Phase;
 import com.retailpulse.exception.BusinessException;
+import com.retailpulse.exception.DependencyUnavailableException;
 import com.retailpulse.util.DateUtil;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.retailpulse.client.PaymentServiceClient;
 
@@ -25,54 +30,86 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class SalesTransactionService {
 
-  private static final Logger logger = Logger.getLogger(SalesTransactionService.class.getName());
-
   private final SalesTransactionRepository salesTransactionRepository;
-  private final SalesTaxRepository salesTaxRepository;
+  private final SalesTransactionStatusRepository salesTransactionStatusRepository;
+  private final SalesTaxRegistry salesTaxRegistry;
   private final SalesTransactionHistory salesTransactionHistory;
   private final StockUpdateService stockUpdateService;
   private final PaymentServiceClient paymentServiceClient;
+  private final TransactionStatusCache transactionStatusCache;
+  private final TransactionStatusWatcher transactionStatusWatcher;
+  private final CheckoutPhaseObserver checkoutPhaseObserver;
+  private final DownstreamGuard downstreamGuard;
+  private final SalesRollupService salesRollupService;
 
   public SalesTransactionService(SalesTransactionRepository salesTransactionRepository,
-                                 SalesTaxRepository salesTaxRepository,
+                                 SalesTransactionStatusRepository salesTransactionStatusRepository,
+                                 SalesTaxRegistry salesTaxRegistry,
                                  SalesTransactionHistory salesTransactionHistory,
                                  StockUpdateService stockUpdateService,
-                                 PaymentServiceClient paymentServiceClient) {
+                                 PaymentServiceClient paymentServiceClient,
+                                 TransactionStatusCache transactionStatusCache,
+                                 TransactionStatusWatcher transactionStatusWatcher,
+                                 CheckoutPhaseObserver checkoutPhaseObserver,
+                                 DownstreamGuard downstreamGuard,
+                                 SalesRollupService salesRollupService) {
     this.salesTransactionRepository = salesTransactionRepository;
-    this.salesTaxRepository = salesTaxRepository;
+    this.salesTransactionStatusRepository = salesTransactionStatusRepository;
+    this.salesTaxRegistry = salesTaxRegistry;
     this.salesTransactionHistory = salesTransactionHistory;
     this.stockUpdateService = stockUpdateService;
     this.paymentServiceClient = paymentServiceClient;
+    this.transactionStatusCache = transactionStatusCache;
+    this.transactionStatusWatcher = transactionStatusWatcher;
+    this.checkoutPhaseObserver = checkoutPhaseObserver;
+    this.downstreamGuard = downstreamGuard;
+    this.salesRollupService = salesRollupService;
   }
 
   public TaxResultDto calculateSalesTax(List<SalesDetailsDto> salesDetailsDtos) {
-    BigDecimal subtotal = salesDetailsDtos.stream()
-      .map(salesDetailsDto -> new BigDecimal(salesDetailsDto.salesPricePerUnit()).multiply(new BigDecimal(salesDetailsDto.quantity())))
-      .reduce(BigDecimal.ZERO, BigDecimal::add)
-      .setScale(2, RoundingMode.HALF_UP);
-
-    SalesTax salesTax = salesTaxRepository.findSalesTaxByTaxType(TaxType.GST)
-      .orElseGet(() -> {
-        SalesTax newSalesTax = new SalesTax(TaxType.GST, new BigDecimal("0.09"));
-        return salesTaxRepository.save(newSalesTax);
-      });
+    SalesTax salesTax = salesTaxRegistry.getSalesTax(TaxType.GST);
 
-    BigDecimal taxAmount = subtotal.multiply(salesTax.getTaxRate()).setScale(2, RoundingMode.HALF_UP);
+    String subtotalText;
+    String taxAmountText;
+    String totalText;
+    try {
+      Money subtotal = Money.ZERO;
+      for (SalesDetailsDto salesDetailsDto : salesDetailsDtos) {
+        subtotal = subtotal.plus(Money.parse(salesDetailsDto.salesPricePerUnit()).times(salesDetailsDto.quantity()));
+      }
+      subtotal = subtotal.setScale(2);
+      Money taxAmount = salesTax.calculateTax(subtotal);
+      subtotalText = subtotal.toString();
+      taxAmountText = taxAmount.toString();
+      totalText = subtotal.plus(taxAmount).toString();
+    } catch (ArithmeticException e) {
+      // a price, line or sum with more digits than Money holds; same result with BigDecimal
+      BigDecimal subtotal = BigDecimal.ZERO;
+      for (SalesDetailsDto salesDetailsDto : salesDetailsDtos) {
+        subtotal = subtotal.add(new BigDecimal(salesDetailsDto.salesPricePerUnit()).multiply(BigDecimal.valueOf(salesDetailsDto.quantity())));
+      }
+      subtotal = subtotal.setScale(2, RoundingMode.HALF_UP);
+      BigDecimal taxAmount = salesTax.calculateTax(subtotal);
+      subtotalText = subtotal.toString();
+      taxAmountText = taxAmount.toString();
+      totalText = subtotal.add(taxAmount).toString();
+    }
 
     return new TaxResultDto(
-      subtotal.toString(),
+      subtotalText,
       salesTax.getTaxType().name(),
       salesTax.getTaxRate().toString(),
-      taxAmount.toString(),
-      subtotal.add(taxAmount).setScale(2, RoundingMode.HALF_UP).toString(),
+      taxAmountText,
+      totalText,
       salesDetailsDtos
     );
   }
@@ -85,124 +122,117 @@ public class SalesTransactionService {
  * @throws BusinessException if the transaction is not found.
  */
   public TransactionStatusResponseDto getTransactionStatus(Long transactionId) {
-      logger.info("Fetching status for SalesTransaction ID: " + transactionId);
+      log.debug("Fetching status for SalesTransaction ID: {}", transactionId);
+
+      TransactionStatus cachedStatus = transactionStatusCache.get(transactionId);
+      if (cachedStatus != null) {
+          return new TransactionStatusResponseDto(transactionId, cachedStatus);
+      }
 
-      // Find the transaction by ID
-      SalesTransaction transaction = salesTransactionRepository.findById(transactionId)
+      // Read id and status only; polls do not need the entity
+      TransactionStatusResponseDto statusDto = salesTransactionRepository.findStatusById(transactionId)
               .orElseThrow(() -> {
-                  logger.warning("SalesTransaction not found for ID: " + transactionId);
+                  log.warn("SalesTransaction not found for ID: {}", transactionId);
                   return new BusinessException(ErrorCodes.NOT_FOUND, "Sales transaction not found for id: " + transactionId);
               });
+      transactionStatusCache.putIfAbsent(transactionId, statusDto.status());
 
-      // Map entity to DTO
-      TransactionStatusResponseDto statusDto = new TransactionStatusResponseDto(transaction.getId(), transaction.getStatus());
-
-      logger.fine("Fetched status '" + transaction.getStatus() + "' for SalesTransaction ID: " + transactionId);
+      log.debug("Fetched status '{}' for SalesTransaction ID: {}", statusDto.status(), transactionId);
       return statusDto;
   }
 
+  /**
+   * Opens a stream that pushes the status of a SalesTransaction once its payment settles, instead of the client
+   * polling {@link #getTransactionStatus}. A transaction that has settled already is reported at once.
+   *
+   * @param transactionId The ID of the SalesTransaction.
+   * @return the stream, completed after its single status event or after the subscriber timeout.
+   * @throws BusinessException if the transaction is not found.
+   */
+  public SseEmitter watchTransactionStatus(Long transactionId) {
+      return transactionStatusWatcher.watch(transactionId, () -> getTransactionStatus(transactionId).status());
+  }
+
   @Transactional
   public CreateTransactionResponseDto createSalesTransaction(SalesTransactionRequestDto requestDto) {
     if (requestDto.salesDetails() == null || requestDto.salesDetails().isEmpty()) {
-      logger.warning("Attempted to create transaction with empty sales details.");
+      log.warn("Attempted to create transaction with empty sales details.");
       throw new BusinessException("EMPTY_SALE", "Sales details cannot be empty.");
     }
 
-    logger.info("Creating sales transaction for businessEntityId=" + requestDto.businessEntityId());
-
-    SalesTax salesTax = salesTaxRepository.findSalesTaxByTaxType(TaxType.GST)
-      .orElseGet(() -> {
-        SalesTax newSalesTax = new SalesTax(TaxType.GST, new BigDecimal("0.09"));
-        return salesTaxRepository.save(newSalesTax);
-      });
+    log.debug("Creating sales transaction for businessEntityId={}", requestDto.businessEntityId());
 
-    SalesTransaction transaction = new SalesTransaction(requestDto.businessEntityId(), salesTax);
-
-    Map<Long, SalesDetails> salesDetailEntities = requestDto.salesDetails().stream()
-      .map(salesDetailsDto -> new SalesDetails(
-        salesDetailsDto.productId(),
-        salesDetailsDto.quantity(),
-        new BigDecimal(salesDetailsDto.salesPricePerUnit())
-      ))
-      .collect(Collectors.toMap(
-        SalesDetails::getProductId,
-        detail -> detail,
-        (existing, replacement) -> replacement
-      ));
+    SalesTax salesTax = checkoutPhaseObserver.observe(Phase.TAX_LOOKUP, () -> salesTaxRegistry.getSalesTax(TaxType.GST));
 
-    transaction.addSalesDetails(salesDetailEntities);
+    SalesTransaction transaction = newSalesTransaction(requestDto, salesTax);
+    Map<Long, SalesDetails> salesDetailEntities = transaction.getSalesDetailEntities();
 
-    try {
-      stockUpdateService.updateStocks(requestDto.businessEntityId(), salesDetailEntities);
-    } catch (BusinessException e) {
-      logger.severe("Inventory update failed during transaction creation: " + e.getMessage());
-      throw new BusinessException("INVENTORY_UPDATE_FAILED", "Inventory update failed: " + e.getMessage());
-    }
+    checkoutPhaseObserver.observe(Phase.INVENTORY_UPDATE, () -> {
+      try {
+        stockUpdateService.updateStocks(requestDto.businessEntityId(), salesDetailEntities);
+      } catch (DependencyUnavailableException e) {
+        throw e; // fast fail, keep the 503 code
+      } catch (BusinessException e) {
+        log.error("Inventory update failed during transaction creation: {}", e.getMessage());
+        throw new BusinessException("INVENTORY_UPDATE_FAILED", "Inventory update failed: " + e.getMessage());
+      }
+    });
 
     BigDecimal totalAmount = transaction.getTotal(); // Assuming getTotal() returns BigDecimal    
     
     // Handle potential null totalAmount gracefully if needed
     if (totalAmount == null) {
-      logger.severe("Transaction total amount is null for transaction.");      
+      log.error("Transaction total amount is null for transaction.");
       throw new BusinessException("TRANSACTION_TOTAL_NULL", "Transaction total amount is null.");
     }
     
     transaction.setStatus(TransactionStatus.PENDING_PAYMENT);
-    transaction = salesTransactionRepository.save(transaction);
-    salesTransactionRepository.flush(); // Forces Hibernate to flush to DB
+    SalesTransaction pendingTransaction = transaction;
+    transaction = checkoutPhaseObserver.observe(Phase.SAVE, () -> {
+      SalesTransaction saved = salesTransactionRepository.save(pendingTransaction);
+      salesTransactionRepository.flush(); // Forces Hibernate to flush to DB
+      return saved;
+    });
     Long transactionId = transaction.getId();
 
-    PaymentRequestDto paymentData = new PaymentRequestDto(
-      transactionId, "RetailPulse Payment", 
-      totalAmount.doubleValue(), 
-      "SGD", 
-      "pos@retailpulse.com", 
-      "card"
-    ); 
-    logger.info("Prepared payment data for transaction " + transactionId + ", amount=" + totalAmount);
-
-    PaymentResponseDto paymentResponseDto;
-    try {
-      paymentResponseDto = paymentServiceClient.createPaymentIntent(paymentData);
-      logger.info("Received payment intent for transaction: " + transactionId);
-    } catch (Exception e) { // Catch Feign exceptions (FeignException, RetryableException, etc.)
-      logger.severe("Call to Payment Microservice failed for transaction: " + transactionId + ": " + e.getMessage());
-      throw new BusinessException("PAYMENT_SERVICE_ERROR", "Failed to initiate payment: " + e.getMessage());
-    }
-
-    transaction.setPaymentIntentId(paymentResponseDto.paymentIntentId());
-    if (paymentResponseDto.paymentId() != null) {
-      transaction.setPaymentId(paymentResponseDto.paymentId());
-
-      if (paymentResponseDto.paymentEventDate() != null) {
-        transaction.setPaymentEventDate(paymentResponseDto.paymentEventDate().atZone(ZoneId.of("Asia/Singapore")).toInstant());
+    PaymentRequestDto paymentData = createPaymentRequest(transaction);
+    log.debug("Prepared payment data for transaction {}, amount={}", transactionId, totalAmount);
+
+    PaymentResponseDto paymentResponseDto = checkoutPhaseObserver.observe(Phase.PAYMENT_INTENT, () -> {
+      try {
+        PaymentResponseDto paymentIntent = downstreamGuard.call(DownstreamGuard.Dependency.PAYMENT,
+          () -> paymentServiceClient.createPaymentIntent(paymentData));
+        log.debug("Received payment intent for transaction: {}", transactionId);
+        return paymentIntent;
+      } catch (DependencyUnavailableException e) {
+        throw e;
+      } catch (Exception e) { // Catch Feign exceptions (FeignException, RetryableException, etc.)
+        log.error("Call to Payment Microservice failed for transaction: {}: {}", transactionId, e.getMessage());
+        throw new BusinessException("PAYMENT_SERVICE_ERROR", "Failed to initiate payment: " + e.getMessage());
       }
-      else{
-        transaction.setPaymentEventDate(java.time.Instant.now());
-      }
-    }
-    else{
-      logger.severe("Payment Microservice returned null paymentIntentId for transaction: " + transactionId);
-      throw new BusinessException("PAYMENT_SERVICE_ERROR", "Payment initiation failed: Invalid response from payment service.");
-    }
+    });
 
-    if (paymentResponseDto.paymentId() != null) {
-      transaction.setPaymentId(paymentResponseDto.paymentId());
-    }
+    applyPaymentIntent(transaction, paymentResponseDto);
 
-    transaction = salesTransactionRepository.save(transaction);
-    logger.info("Sales transaction created successfully with ID=" + transaction.getId());
+    SalesTransaction paidTransaction = transaction;
+    transaction = checkoutPhaseObserver.observe(Phase.FINAL_SAVE, () -> {
+      SalesTransaction saved = salesTransactionRepository.save(paidTransaction);
+      salesTransactionRepository.flush(); // flush here rather than at commit, so the phase includes the UPDATE
+      return saved;
+    });
+    log.info("Sales transaction created successfully with ID={} for businessEntityId={}", transaction.getId(), transaction.getBusinessEntityId());
     
     SalesTransactionResponseDto transactionResponseDto = mapToResponseDto(transaction);
 
     CreateTransactionResponseDto responseDto = new CreateTransactionResponseDto(transactionResponseDto, paymentResponseDto);
-    logger.info("Successfully created transaction response for transaction.");
 
     return responseDto;
   }
 
   /**
-   * Updates the status of an existing SalesTransaction.
+   * Updates the status of an existing SalesTransaction with one conditional UPDATE, without loading it. The update
+   * is ignored if it is stale: the transaction's current status is not a predecessor of {@code newStatus}, or a
+   * later payment event was applied already.
    *
    * @param transactionId The ID of the SalesTransaction to update.
    * @param newStatus     The new TransactionStatus to set.
@@ -211,19 +241,60 @@ public class SalesTransactionService {
    */
   @Transactional // Ensure this operation is atomic
   public void updateTransactionStatus(Long transactionId, TransactionStatus newStatus, Instant paymentEventDate) {
-    logger.info(String.format("Attempting to update status for SalesTransaction ID: %d to %s", transactionId, newStatus));
-    SalesTransaction transaction = salesTransactionRepository.findById(transactionId)
-      .orElseThrow(() -> {
-          logger.warning(String.format("SalesTransaction not found for ID: %d during status update.", transactionId));
-          return new BusinessException(ErrorCodes.NOT_FOUND, String.format("Sales transaction not found for id: %d", transactionId));
-      });
-
-    TransactionStatus oldStatus = transaction.getStatus();
-    transaction.setStatus(newStatus);
-    transaction.setPaymentEventDate(paymentEventDate);
-    salesTransactionRepository.saveAndFlush(transaction); // Ensure immediate persistence
-
-    logger.info(String.format("Successfully updated SalesTransaction ID: %d status from %s to %s", transactionId, oldStatus, newStatus));    
+    log.debug("Attempting to update status for SalesTransaction ID: {} to {}", transactionId, newStatus);
+    TransactionStatusUpdateDto update = new TransactionStatusUpdateDto(transactionId, newStatus, paymentEventDate);
+    if (!salesTransactionStatusRepository.transition(update)) {
+      // rare: tells a missing transaction from a stale event
+      TransactionStatusResponseDto current = salesTransactionRepository.findStatusById(transactionId)
+        .orElseThrow(() -> {
+            log.warn("SalesTransaction not found for ID: {} during status update.", transactionId);
+            return new BusinessException(ErrorCodes.NOT_FOUND, String.format("Sales transaction not found for id: %d", transactionId));
+        });
+      log.info("Ignored stale status update of SalesTransaction ID: {} to {}, current status is {}",
+        transactionId, newStatus, current.status());
+      return;
+    }
+
+    salesRollupService.recordStatusChanges(List.of(update));
+    transactionStatusCache.putAfterCommit(transactionId, newStatus, paymentEventDate);
+    transactionStatusWatcher.publishAfterCommit(transactionId, newStatus);
+
+    log.info("Successfully updated SalesTransaction ID: {} status to {}", transactionId, newStatus);
+  }
+
+  /**
+   * Applies a batch of status updates as conditional UPDATEs in one JDBC batch per status, without loading the
+   * transactions. Stale updates are skipped as in {@link #updateTransactionStatus}; the sales rollups are then
+   * updated for the transitions that were applied.
+   *
+   * @param updates the status updates to apply, at most one per transaction ID
+   * @return the updates whose transaction was not found, to be retried by the caller
+   */
+  @Transactional
+  public List<TransactionStatusUpdateDto> updateTransactionStatuses(List<TransactionStatusUpdateDto> updates) {
+    int[] updateCounts = salesTransactionStatusRepository.transitions(updates);
+
+    List<TransactionStatusUpdateDto> applied = new ArrayList<>(updates.size());
+    List<TransactionStatusUpdateDto> notFound = new ArrayList<>();
+    for (int i = 0; i < updateCounts.length; i++) {
+      TransactionStatusUpdateDto update = updates.get(i);
+      if (updateCounts[i] > 0) {
+        applied.add(update);
+        transactionStatusCache.putAfterCommit(update.transactionId(), update.status(), update.paymentEventDate());
+        transactionStatusWatcher.publishAfterCommit(update.transactionId(), update.status());
+      } else if (salesTransactionRepository.findStatusById(update.transactionId()).isEmpty()) {
+        // rare: tells a missing transaction from a stale event, as updateTransactionStatus does
+        log.warn("SalesTransaction not found for ID: {} during batch status update.", update.transactionId());
+        notFound.add(update);
+      } else {
+        log.info("Ignored stale status update of SalesTransaction ID: {} to {} during batch status update.",
+          update.transactionId(), update.status());
+      }
+    }
+    salesRollupService.recordStatusChanges(applied);
+
+    log.info("Batch status update applied to {} of {} SalesTransactions", applied.size(), updates.size());
+    return notFound;
   }
 
   /**
@@ -236,13 +307,14 @@ public class SalesTransactionService {
   @Transactional
   public SalesTransactionResponseDto updateSalesTransaction(Long transactionId, List<SalesDetailsDto> newSalesDetailsDtos) {
     if (newSalesDetailsDtos == null || newSalesDetailsDtos.isEmpty()) {
-      logger.warning("Attempted to update transaction with empty sales details.");
+      log.warn("Attempted to update transaction with empty sales details.");
       throw new BusinessException("EMPTY_UPDATE", "New sales details cannot be empty.");
     }
 
-    logger.info("Updating sales transaction ID=" + transactionId + " with " + newSalesDetailsDtos.size() + " items.");
+    log.info("Updating sales transaction ID={} with {} items.", transactionId, newSalesDetailsDtos.size());
 
-    SalesTransaction existingTransaction = salesTransactionRepository.findById(transactionId)
+    // the lines are replaced and the response shows the tax, so both are read with the transaction
+    SalesTransaction existingTransaction = salesTransactionRepository.findWithDetailsById(transactionId)
       .orElseThrow(() -> new BusinessException(ErrorCodes.NOT_FOUND, "Sales transaction not found for id: " + transactionId));
 
     Map<Long, SalesDetails> existingDetails = existingTransaction.getSalesDetailEntities();
@@ -260,7 +332,7 @@ public class SalesTransactionService {
         productId -> productId,
         productId -> {
           SalesDetails detail = existingDetails.get(productId);
-          return new SalesDetails(productId, -detail.getQuantity(), detail.getSalesPricePerUnit());
+          return detail.withQuantity(-detail.getQuantity());
         }
       ));
 
@@ -270,14 +342,14 @@ public class SalesTransactionService {
         sdDTO -> {
           long productId = sdDTO.productId();
           int newQuantity = sdDTO.quantity();
-          BigDecimal newPrice = new BigDecimal(sdDTO.salesPricePerUnit());
+          SalesDetails newLine = SalesDetails.of(productId, newQuantity, sdDTO.salesPricePerUnit());
 
           if (existingDetails.containsKey(productId)) {
             SalesDetails existingDetail = existingDetails.get(productId);
             int deltaQuantity = newQuantity - existingDetail.getQuantity();
-            return new SalesDetails(productId, deltaQuantity, newPrice);
+            return newLine.withQuantity(deltaQuantity);
           } else {
-            return new SalesDetails(productId, newQuantity, newPrice);
+            return newLine;
           }
         }
       ));
@@ -287,49 +359,44 @@ public class SalesTransactionService {
     Map<Long, SalesDetails> newDetailsMap = newSalesDetailsDtos.stream()
       .collect(Collectors.toMap(
         SalesDetailsDto::productId,
-        sdDTO -> new SalesDetails(
-          sdDTO.productId(),
-          sdDTO.quantity(),
-          new BigDecimal(sdDTO.salesPricePerUnit())
-        )
+        sdDTO -> SalesDetails.of(sdDTO.productId(), sdDTO.quantity(), sdDTO.salesPricePerUnit())
       ));
 
-    existingTransaction.updateSalesDetails(newDetailsMap);
+    // a settled sale is already counted in the sales rollups, with the lines it had
+    salesRollupService.recordLinesChange(existingTransaction, () -> existingTransaction.updateSalesDetails(newDetailsMap));
 
     try {
       stockUpdateService.updateStocks(existingTransaction.getBusinessEntityId(), updateSalesDetailsMap);
+    } catch (DependencyUnavailableException e) {
+      throw e; // fast fail, keep the 503 code
     } catch (BusinessException e) {
-      logger.severe("Inventory update failed during transaction update: " + e.getMessage());
+      log.error("Inventory update failed during transaction update: {}", e.getMessage());
       throw new BusinessException("INVENTORY_UPDATE_FAILED", "Inventory update failed: " + e.getMessage());
     }
 
     salesTransactionRepository.saveAndFlush(existingTransaction);
-    logger.info("Sales transaction ID=" + transactionId + " updated successfully.");
+    log.info("Sales transaction ID={} updated successfully.", transactionId);
 
     return mapToResponseDto(existingTransaction);
   }
 
   public List<TransientSalesTransactionDto> suspendTransaction(SuspendedTransactionDto suspendedTransactionDto) {
     if (suspendedTransactionDto.salesDetails() == null || suspendedTransactionDto.salesDetails().isEmpty()) {
-      logger.warning("Attempted to suspend transaction with empty sales details.");
+      log.warn("Attempted to suspend transaction with empty sales details.");
       throw new BusinessException("EMPTY_SALE", "Sales details cannot be empty.");
     }
 
-    logger.info("Suspending transaction for businessEntityId=" + suspendedTransactionDto.businessEntityId());
+    log.info("Suspending transaction for businessEntityId={}", suspendedTransactionDto.businessEntityId());
 
-    SalesTax salesTax = salesTaxRepository.findSalesTaxByTaxType(TaxType.GST)
-      .orElseGet(() -> {
-        SalesTax newSalesTax = new SalesTax(TaxType.GST, new BigDecimal("0.09"));
-        return salesTaxRepository.save(newSalesTax);
-      });
+    SalesTax salesTax = salesTaxRegistry.getSalesTax(TaxType.GST);
 
     SalesTransaction salesTransaction = new SalesTransaction(suspendedTransactionDto.businessEntityId(), salesTax);
 
     Map<Long, SalesDetails> salesDetails = suspendedTransactionDto.salesDetails().stream()
-      .map(salesDetailsDto -> new SalesDetails(
+      .map(salesDetailsDto -> SalesDetails.of(
         salesDetailsDto.productId(),
         salesDetailsDto.quantity(),
-        new BigDecimal(salesDetailsDto.salesPricePerUnit())
+        salesDetailsDto.salesPricePerUnit()
       ))
       .collect(Collectors.toMap(
         SalesDetails::getProductId,
@@ -344,56 +411,98 @@ public class SalesTransactionService {
     Map<Long, SalesTransactionMemento> suspendedTransactions =
       salesTransactionHistory.addTransaction(suspendedTransactionDto.businessEntityId(), salesTransactionMemento);
 
-    return suspendedTransactions.entrySet().stream()
-      .map(entry -> {
-        SalesTransactionMemento memento = entry.getValue();
-        SalesTransaction transaction = new SalesTransaction(memento.businessEntityId(), salesTax);
-        transaction.restoreFromMemento(memento);
-        return mapToTransientDto(transaction);
-      })
+    return suspendedTransactions.values().stream()
+      .map(SalesTransactionService::mapToTransientDto)
       .toList();
   }
 
   public List<TransientSalesTransactionDto> restoreTransaction(Long businessEntityId, Long transactionId) {
-    logger.info("Restoring suspended transactionId=" + transactionId + " for businessEntityId=" + businessEntityId);
+    log.info("Restoring suspended transactionId={} for businessEntityId={}", transactionId, businessEntityId);
 
     Map<Long, SalesTransactionMemento> suspendedTransactions =
       salesTransactionHistory.deleteTransaction(businessEntityId, transactionId);
 
-    return suspendedTransactions.entrySet().stream()
-      .map(entry -> {
-        SalesTransactionMemento memento = entry.getValue();
-        SalesTransaction transaction = new SalesTransaction(
-          memento.businessEntityId(),
-          new SalesTax(TaxType.valueOf(memento.taxType()), new BigDecimal(memento.taxRate()))
-        );
-        transaction.restoreFromMemento(memento);
-        return mapToTransientDto(transaction);
-      })
+    return suspendedTransactions.values().stream()
+      .map(SalesTransactionService::mapToTransientDto)
       .toList();
   }
 
-  private TransientSalesTransactionDto mapToTransientDto(SalesTransaction salesTransaction) {
+  /**
+   * Maps a suspended cart straight from its memento; the memento already carries the computed amounts.
+   */
+  private static TransientSalesTransactionDto mapToTransientDto(SalesTransactionMemento memento) {
     return new TransientSalesTransactionDto(
-      salesTransaction.getId(),
-      salesTransaction.getBusinessEntityId(),
-      salesTransaction.getSubtotal().toString(),
-      salesTransaction.getSalesTax().getTaxType().name(),
-      salesTransaction.getSalesTax().getTaxRate().toString(),
-      salesTransaction.getSalesTaxAmount().toString(),
-      salesTransaction.getTotal().toString(),
-      salesTransaction.getSalesDetailEntities().values().stream()
-        .map(salesDetails -> new SalesDetailsDto(
-          salesDetails.getProductId(),
-          salesDetails.getQuantity(),
-          salesDetails.getSalesPricePerUnit().toString()
-        ))
-        .toList(),
-      DateUtil.convertInstantToString(salesTransaction.getTransactionDate(), DateUtil.DATE_TIME_FORMAT)
+      memento.transactionId(),
+      memento.businessEntityId(),
+      memento.subTotal(),
+      memento.taxType(),
+      memento.taxRate(),
+      memento.taxAmount(),
+      memento.totalAmount(),
+      memento.salesDetails(),
+      memento.transactionDateTime()
+    );
+  }
+
+  /**
+   * Creates an unsaved transaction with its sales details and totals. A product listed twice keeps its last line.
+   */
+  static SalesTransaction newSalesTransaction(SalesTransactionRequestDto requestDto, SalesTax salesTax) {
+    SalesTransaction transaction = new SalesTransaction(requestDto.businessEntityId(), salesTax);
+
+    Map<Long, SalesDetails> salesDetailEntities = requestDto.salesDetails().stream()
+      .map(salesDetailsDto -> SalesDetails.of(
+        salesDetailsDto.productId(),
+        salesDetailsDto.quantity(),
+        salesDetailsDto.salesPricePerUnit()
+      ))
+      .collect(Collectors.toMap(
+        SalesDetails::getProductId,
+        detail -> detail,
+        (existing, replacement) -> replacement
+      ));
+
+    transaction.addSalesDetails(salesDetailEntities);
+    return transaction;
+  }
+
+  /**
+   * Builds the payment intent request for a saved transaction.
+   */
+  static PaymentRequestDto createPaymentRequest(SalesTransaction transaction) {
+    return new PaymentRequestDto(
+      transaction.getId(), "RetailPulse Payment",
+      transaction.getTotal().doubleValue(),
+      "SGD",
+      "pos@retailpulse.com",
+      "card"
     );
   }
 
-  private SalesTransactionResponseDto mapToResponseDto(SalesTransaction salesTransaction) {
+  /**
+   * Records a payment intent on the transaction.
+   *
+   * @throws BusinessException with code {@code PAYMENT_SERVICE_ERROR} if the response has no payment ID
+   */
+  static void applyPaymentIntent(SalesTransaction transaction, PaymentResponseDto paymentResponseDto) {
+    transaction.setPaymentIntentId(paymentResponseDto.paymentIntentId());
+    if (paymentResponseDto.paymentId() != null) {
+      transaction.setPaymentId(paymentResponseDto.paymentId());
+
+      if (paymentResponseDto.paymentEventDate() != null) {
+        transaction.setPaymentEventDate(paymentResponseDto.paymentEventDate().atZone(ZoneId.of("Asia/Singapore")).toInstant());
+      }
+      else{
+        transaction.setPaymentEventDate(java.time.Instant.now());
+      }
+    }
+    else{
+      log.error("Payment Microservice returned null paymentIntentId for transaction: {}", transaction.getId());
+      throw new BusinessException("PAYMENT_SERVICE_ERROR", "Payment initiation failed: Invalid response from payment service.");
+    }
+  }
+
+  static SalesTransactionResponseDto mapToResponseDto(SalesTransaction salesTransaction) {
     return new SalesTransactionResponseDto(
       salesTransaction.getId(),
       salesTransaction.getBusinessEntityId(),
@@ -0,0 +1,155 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.request.InventoryUpdateRequestDto;
+import com.retailpulse.exception.DependencyUnavailableException;
+import com.retailpulse.exception.InventoryUpdateRejectedException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Merges concurrent stock updates of the same store into one inventory service request.
+ * <p>
+ * The first update of a store opens a batch and waits for the window; updates of that store arriving meanwhile
+ * add their quantities to the batch, summed by product. The batch is sent when the window ends, or right away by
+ * the update that brings it to {@code maxItems} products. Every caller blocks until the request that carries its
+ * quantities has been sent. If the inventory service rejects a merged request ({@link InventoryUpdateRejectedException}),
+ * its updates are sent again one by one, so only the callers whose own update is rejected get a failure. Any other
+ * failure, such as a timeout, a server error or a {@link DependencyUnavailableException}, fails them all: the merged
+ * request may have been applied, and sending its updates again could deduct the stock twice.
+ * <p>
+ * Callers wait for the window inside their own database transaction. At checkout that transaction has already
+ * taken its pooled connection, so each waiting checkout holds an idle connection for up to {@code window}; keep the
+ * window to a few milliseconds and the pool larger than the checkouts expected to wait at once.
+ */
+@Slf4j
+class StockUpdateCoalescer {
+
+  private final Map<Long, Batch> openBatches = new ConcurrentHashMap<>();
+  private final Duration window;
+  private final int maxItems;
+  private final Consumer<InventoryUpdateRequestDto> sender;
+
+  StockUpdateCoalescer(Duration window, int maxItems, Consumer<InventoryUpdateRequestDto> sender) {
+    this.window = window;
+    this.maxItems = maxItems;
+    this.sender = sender;
+  }
+
+  /**
+   * Adds the items to the store's open batch and waits until that batch has been sent.
+   *
+   * @throws RuntimeException the exception thrown by the sender for this update
+   */
+  void update(InventoryUpdateRequestDto request) {
+    Long businessEntityId = request.businessEntityId();
+    Batch[] joined = new Batch[1];
+    CompletableFuture<?>[] sent = new CompletableFuture<?>[1];
+    boolean[] opened = new boolean[1];
+    boolean[] filled = new boolean[1];
+
+    openBatches.compute(businessEntityId, (id, open) -> {
+      Batch batch = open != null ? open : new Batch(id);
+      opened[0] = open == null;
+      sent[0] = batch.add(request);
+      joined[0] = batch;
+      // unlinking a full batch closes it; later updates of the store open a new one
+      filled[0] = batch.quantities.size() >= maxItems;
+      return filled[0] ? null : batch;
+    });
+
+    Batch batch = joined[0];
+    if (filled[0]) {
+      send(batch);
+    } else if (opened[0]) {
+      awaitWindow();
+      if (openBatches.remove(businessEntityId, batch)) {
+        send(batch);
+      }
+    }
+
+    try {
+      sent[0].join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private void awaitWindow() {
+    try {
+      Thread.sleep(window);
+    } catch (InterruptedException e) {
+      // send what we have instead of stranding the other callers
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void send(Batch batch) {
+    InventoryUpdateRequestDto request = batch.toRequest();
+    log.debug("Sending coalesced inventory update for businessEntityId={}: {} updates, {} products",
+      batch.businessEntityId, batch.updates.size(), request.items().size());
+    try {
+      sender.accept(request);
+      batch.updates.forEach(update -> update.sent.complete(null));
+    } catch (InventoryUpdateRejectedException e) {
+      if (batch.updates.size() == 1) {
+        batch.updates.get(0).sent.completeExceptionally(e);
+        return;
+      }
+      log.warn("Coalesced inventory update for businessEntityId={} was rejected, sending its {} updates separately: {}",
+        batch.businessEntityId, batch.updates.size(), e.getMessage());
+      batch.updates.forEach(this::sendAlone);
+    } catch (RuntimeException e) {
+      batch.updates.forEach(update -> update.sent.completeExceptionally(e));
+    }
+  }
+
+  private void sendAlone(Update update) {
+    try {
+      sender.accept(update.request);
+      update.sent.complete(null);
+    } catch (RuntimeException e) {
+      update.sent.completeExceptionally(e);
+    }
+  }
+
+  private record Update(InventoryUpdateRequestDto request, CompletableFuture<Void> sent) {
+  }
+
+  private static final class Batch {
+    private final long businessEntityId;
+    // guarded by the map's per-key lock while the batch is open, read only after it is unlinked
+    private final Map<Long, Integer> quantities = new LinkedHashMap<>();
+    private final List<Update> updates = new ArrayList<>();
+
+    private Batch(long businessEntityId) {
+      this.businessEntityId = businessEntityId;
+    }
+
+    private CompletableFuture<Void> add(InventoryUpdateRequestDto request) {
+      for (InventoryUpdateRequestDto.InventoryItem item : request.items()) {
+        quantities.merge(item.productId(), item.quantity(), Integer::sum);
+      }
+      Update update = new Update(request, new CompletableFuture<>());
+      updates.add(update);
+      return update.sent;
+    }
+
+    private InventoryUpdateRequestDto toRequest() {
+      List<InventoryUpdateRequestDto.InventoryItem> items = new ArrayList<>(quantities.size());
+      quantities.forEach((productId, quantity) -> items.add(new InventoryUpdateRequestDto.InventoryItem(productId, quantity)));
+      return new InventoryUpdateRequestDto(businessEntityId, items);
+    }
+  }
+}
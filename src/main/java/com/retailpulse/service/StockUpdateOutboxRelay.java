@@ -0,0 +1,172 @@
+package com.retailpulse.service;
+
+import com.retailpulse.entity.OutboxStatus;
+import com.retailpulse.entity.StockUpdateOutbox;
+import com.retailpulse.repository.StockUpdateOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delivers queued {@link StockUpdateOutbox} entries to the inventory service.
+ * <p>
+ * Each pass first claims a batch in a short transaction: the oldest pending entry of each business entity, if it
+ * is due, locked and leased by moving its next attempt to the end of {@code lease-ms}. Relays on other replicas
+ * skip a leased entry, and with it its business entity, so each business entity has at most one update in flight,
+ * a business entity whose updates fail backs off as a whole, and it does not hold up the others. The claimed
+ * entries are then sent with no transaction or lock held. The delivered ones are deleted in one statement, and
+ * each failure is recorded by a conditional update that only applies while the entry still carries this relay's
+ * lease, so it cannot overwrite an entry another relay has claimed since. Entries whose lease runs out before they
+ * are sent are left to a later pass.
+ * <p>
+ * The entries of a business entity are not guaranteed to be delivered in the order their sales committed: IDs are
+ * assigned at insert rather than at commit, so a later ID can commit first and be sent before an earlier one that
+ * was still uncommitted when it was claimed. That is safe because every entry is a quantity delta, and deltas
+ * applied to the same stock give the same result in any order.
+ * <p>
+ * Delivery is at-least-once: an entry sent by a relay that stops before recording it is sent again once its lease
+ * runs out, so {@code lease-ms} should be well above the time a batch takes to send. Failed entries are retried
+ * with exponential backoff and parked as {@link OutboxStatus#FAILED} after {@code max-attempts}.
+ * <p>
+ * The relay runs on the scheduler thread, so there is no caller SecurityContext and the Feign interceptor
+ * sends no bearer token; the inventory service must accept these calls on the service network.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "inventory-service.stock-update.mode", havingValue = "OUTBOX")
+public class StockUpdateOutboxRelay {
+
+    private final StockUpdateOutboxRepository stockUpdateOutboxRepository;
+    private final StockUpdateService stockUpdateService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+
+    public StockUpdateOutboxRelay(StockUpdateOutboxRepository stockUpdateOutboxRepository,
+                                  StockUpdateService stockUpdateService,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${inventory-service.stock-update.relay.batch-size:100}") int batchSize,
+                                  @Value("${inventory-service.stock-update.relay.max-attempts:10}") int maxAttempts,
+                                  @Value("${inventory-service.stock-update.relay.initial-backoff-ms:1000}") long initialBackoffMs,
+                                  @Value("${inventory-service.stock-update.relay.max-backoff-ms:300000}") long maxBackoffMs,
+                                  @Value("${inventory-service.stock-update.relay.lease-ms:60000}") long leaseMs) {
+        this.stockUpdateOutboxRepository = stockUpdateOutboxRepository;
+        this.stockUpdateService = stockUpdateService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.lease = Duration.ofMillis(leaseMs);
+        this.sent = deliveries(meterRegistry, "sent");
+        this.retried = deliveries(meterRegistry, "retry");
+        this.failed = deliveries(meterRegistry, "failed");
+    }
+
+    @Scheduled(fixedDelayString = "${inventory-service.stock-update.relay.interval-ms:1000}")
+    public void scheduledRelay() {
+        try {
+            int delivered;
+            do {
+                delivered = relay();
+            } while (delivered > 0);
+        } catch (RuntimeException e) {
+            log.warn("Stock update outbox relay pass failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs one relay pass over at most {@code batch-size} claimed entries, one per business entity.
+     *
+     * @return the number of entries delivered
+     */
+    public int relay() {
+        Instant now = Instant.now();
+        // the column keeps microseconds, and the failures are recorded by comparing against it
+        Instant leaseEnd = now.plus(lease).truncatedTo(ChronoUnit.MICROS);
+        List<StockUpdateOutbox> claimed = transactionTemplate.execute(status -> claim(now, leaseEnd));
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> delivered = new ArrayList<>();
+        for (StockUpdateOutbox entry : claimed) {
+            if (Instant.now().isAfter(leaseEnd)) {
+                // another relay may have claimed the rest by now
+                break;
+            }
+            try {
+                stockUpdateService.deliver(stockUpdateService.readPayload(entry));
+                delivered.add(entry.getId());
+                sent.increment();
+            } catch (RuntimeException e) {
+                recordFailure(entry, e, leaseEnd);
+            }
+        }
+
+        if (!delivered.isEmpty()) {
+            stockUpdateOutboxRepository.deleteAllByIdInBatch(delivered);
+        }
+        log.debug("Stock update outbox relay delivered {} of {} claimed entries", delivered.size(), claimed.size());
+        return delivered.size();
+    }
+
+    private List<StockUpdateOutbox> claim(Instant now, Instant leaseEnd) {
+        List<StockUpdateOutbox> due = stockUpdateOutboxRepository.findDueHeads(OutboxStatus.PENDING, now, Limit.of(batchSize));
+        due.forEach(entry -> entry.lease(leaseEnd));
+        return due;
+    }
+
+    private void recordFailure(StockUpdateOutbox entry, RuntimeException e, Instant leaseEnd) {
+        entry.recordFailure(e.getMessage(), Instant.now().plus(backoff(entry.getAttempts() + 1)));
+        if (entry.getAttempts() >= maxAttempts) {
+            // park it so later updates of the business entity are not held back forever
+            entry.markFailed();
+        }
+        int recorded = stockUpdateOutboxRepository.recordFailure(entry.getId(), leaseEnd, entry.getStatus(),
+                entry.getAttempts(), entry.getNextAttemptAt(), entry.getLastError());
+        if (recorded == 0) {
+            log.warn("Stock update outbox entry {} was claimed by another relay, its failure is not recorded", entry.getId());
+        } else if (entry.getStatus() == OutboxStatus.FAILED) {
+            failed.increment();
+            log.error("Stock update outbox entry {} for businessEntityId={} failed after {} attempts: {}",
+                    entry.getId(), entry.getBusinessEntityId(), entry.getAttempts(), entry.getLastError());
+        } else {
+            retried.increment();
+            log.warn("Stock update outbox entry {} for businessEntityId={} failed (attempt {}), next attempt at {}",
+                    entry.getId(), entry.getBusinessEntityId(), entry.getAttempts(), entry.getNextAttemptAt());
+        }
+    }
+
+    Duration backoff(int attempt) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempt - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static Counter deliveries(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("sales.stock.outbox.deliveries")
+                .description("Stock update outbox delivery attempts")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -1,60 +1,134 @@
 package com.retailpulse.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.retailpulse.client.InventoryServiceClient;
 import com.retailpulse.dto.request.InventoryUpdateRequestDto;
 import com.retailpulse.entity.SalesDetails;
+import com.retailpulse.entity.StockUpdateOutbox;
 import com.retailpulse.exception.BusinessException;
+import com.retailpulse.exception.InventoryUpdateRejectedException;
+import com.retailpulse.repository.StockUpdateOutboxRepository;
 import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
-import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class StockUpdateService {
 
-  private static final Logger logger = Logger.getLogger(StockUpdateService.class.getName());
+  /**
+   * How stock updates reach the inventory service.
+   * <ul>
+   *   <li>{@code DIRECT}: synchronous call inside the caller's transaction.</li>
+   *   <li>{@code OUTBOX}: recorded in {@code stock_update_outbox} within the caller's transaction and delivered
+   *   afterwards by {@link StockUpdateOutboxRelay}.</li>
+   *   <li>{@code COALESCING}: synchronous like {@code DIRECT}, but concurrent updates of the same store within
+   *   {@code inventory-service.stock-update.coalescing.window-ms} are merged into one call by
+   *   {@link StockUpdateCoalescer}. The caller's transaction, and its connection, is held for the window.</li>
+   * </ul>
+   */
+  public enum Mode {
+    DIRECT,
+    OUTBOX,
+    COALESCING
+  }
 
   private final InventoryServiceClient inventoryServiceClient;
+  private final StockUpdateOutboxRepository stockUpdateOutboxRepository;
+  private final ObjectMapper objectMapper;
+  private final DownstreamGuard downstreamGuard;
+  private final Mode mode;
+  private final StockUpdateCoalescer coalescer;
 
-  public StockUpdateService(InventoryServiceClient inventoryServiceClient) {
+  public StockUpdateService(InventoryServiceClient inventoryServiceClient,
+                            StockUpdateOutboxRepository stockUpdateOutboxRepository,
+                            ObjectMapper objectMapper,
+                            DownstreamGuard downstreamGuard,
+                            @Value("${inventory-service.stock-update.mode:DIRECT}") Mode mode,
+                            @Value("${inventory-service.stock-update.coalescing.window-ms:5}") long coalescingWindowMs,
+                            @Value("${inventory-service.stock-update.coalescing.max-items:200}") int coalescingMaxItems) {
     this.inventoryServiceClient = inventoryServiceClient;
+    this.stockUpdateOutboxRepository = stockUpdateOutboxRepository;
+    this.objectMapper = objectMapper;
+    this.downstreamGuard = downstreamGuard;
+    this.mode = mode;
+    this.coalescer = new StockUpdateCoalescer(Duration.ofMillis(coalescingWindowMs), coalescingMaxItems, this::deliver);
   }
 
   public void updateStocks(Long businessEntityId, Map<Long, SalesDetails> salesDetails) {
     if (salesDetails == null || salesDetails.isEmpty()) {
-      logger.warning("No sales details provided for inventory update.");
+      log.warn("No sales details provided for inventory update.");
       throw new BusinessException("EMPTY_TRANSACTION", "No sales details found for inventory update.");
     }
 
     InventoryUpdateRequestDto request = createStockUpdateRequest(businessEntityId, salesDetails);
 
-    String productSummary = request.items().stream()
-      .map(item -> "productId=" + item.productId() + ", quantity=" + item.quantity())
-      .collect(Collectors.joining("; "));
-    logger.info("Preparing inventory update for businessEntityId=" + businessEntityId +
-      " with items: [" + productSummary + "]");
+    // the item list is only built when it is logged
+    if (log.isDebugEnabled()) {
+      String productSummary = request.items().stream()
+        .map(item -> "productId=" + item.productId() + ", quantity=" + item.quantity())
+        .collect(Collectors.joining("; "));
+      log.debug("Preparing inventory update for businessEntityId={} with items: [{}]", businessEntityId, productSummary);
+    }
 
+    switch (mode) {
+      case OUTBOX -> enqueue(request);
+      case COALESCING -> coalescer.update(request);
+      default -> deliver(request);
+    }
+  }
+
+  /**
+   * Sends a stock update to the inventory service.
+   *
+   * @param request the stock update to send
+   * @throws BusinessException with code {@code INVENTORY_UPDATE_FAILED} if the inventory service call fails; an
+   *         {@link InventoryUpdateRejectedException} if the inventory service rejected the update with a 4xx
+   * @throws com.retailpulse.exception.DependencyUnavailableException if the call is rejected by {@link DownstreamGuard}
+   */
+  void deliver(InventoryUpdateRequestDto request) {
     try {
-      inventoryServiceClient.updateStocks(request);
-      logger.info("Inventory update successful for businessEntityId=" + businessEntityId);
+      downstreamGuard.call(DownstreamGuard.Dependency.INVENTORY, () -> inventoryServiceClient.updateStocks(request));
+      log.debug("Inventory update successful for businessEntityId={}", request.businessEntityId());
+    } catch (FeignException.FeignClientException e) {
+      log.error("Inventory update rejected for businessEntityId={}. Reason: {}", request.businessEntityId(), e.getMessage());
+      throw new InventoryUpdateRejectedException("INVENTORY_UPDATE_FAILED", "Failed to update inventory: " + e.getMessage());
     } catch (FeignException e) {
-      logger.severe("Inventory update failed for businessEntityId=" + businessEntityId +
-        ". Reason: " + e.getMessage());
+      log.error("Inventory update failed for businessEntityId={}. Reason: {}", request.businessEntityId(), e.getMessage());
       throw new BusinessException("INVENTORY_UPDATE_FAILED", "Failed to update inventory: " + e.getMessage());
     }
   }
 
+  InventoryUpdateRequestDto readPayload(StockUpdateOutbox entry) {
+    try {
+      return objectMapper.readValue(entry.getPayload(), InventoryUpdateRequestDto.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unreadable stock update outbox payload, id=" + entry.getId(), e);
+    }
+  }
+
+  private void enqueue(InventoryUpdateRequestDto request) {
+    String payload;
+    try {
+      payload = objectMapper.writeValueAsString(request);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize inventory update request", e);
+    }
+    // joins the caller's transaction, so the entry is discarded if the sales transaction rolls back
+    StockUpdateOutbox entry = stockUpdateOutboxRepository.save(new StockUpdateOutbox(request.businessEntityId(), payload));
+    log.debug("Inventory update queued in outbox for businessEntityId={}, outboxId={}", request.businessEntityId(), entry.getId());
+  }
+
   private InventoryUpdateRequestDto createStockUpdateRequest(Long businessEntityId, Map<Long, SalesDetails> salesDetails) {
     List<InventoryUpdateRequestDto.InventoryItem> items = salesDetails.values().stream()
-      .map(detail -> {
-        long productId = detail.getProductId();
-        int quantity = detail.getQuantity();
-        logger.fine("Mapping SalesDetails to InventoryItem: productId=" + productId + ", quantity=" + quantity);
-        return new InventoryUpdateRequestDto.InventoryItem(productId, quantity);
-      })
+      .map(detail -> new InventoryUpdateRequestDto.InventoryItem(detail.getProductId(), detail.getQuantity()))
       .collect(Collectors.toList());
 
     return new InventoryUpdateRequestDto(businessEntityId, items);
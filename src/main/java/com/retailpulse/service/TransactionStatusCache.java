@@ -0,0 +1,121 @@
+package com.retailpulse.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.retailpulse.entity.TransactionStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bounded in-memory cache of transaction statuses, serving {@code GET /transactionStatus/{id}} polls.
+ * <p>
+ * Entries are written by the payment event path once its update has committed, and populated from the status
+ * projection on a miss. With several replicas, each one also receives every payment event through
+ * {@link TransactionStatusCacheInvalidationListener}. Such an event has not been checked against the database, so
+ * it only moves a cached status forward, the way the conditional status update would: the cached status must be
+ * one of the new status's {@link TransactionStatus#predecessors() predecessors}, and the event must not be older
+ * than the one that wrote the entry. Events for transactions that are not cached are ignored. A read never
+ * overwrites a present entry, so a poll that loaded the old status just before an event arrived cannot replace
+ * the newer status. Every entry expires after {@code sales.status-cache.ttl-seconds}, which bounds staleness for
+ * writes that bypass these paths, and for an event that passes these checks but is then not applied.
+ */
+@Component
+public class TransactionStatusCache {
+
+    private final Cache<Long, CachedStatus> statuses;
+
+    public TransactionStatusCache(MeterRegistry meterRegistry,
+                                  @Value("${sales.status-cache.max-size:100000}") long maxSize,
+                                  @Value("${sales.status-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, statuses, "transactionStatus");
+    }
+
+    /**
+     * @return the cached status, or {@code null} on a miss
+     */
+    public TransactionStatus get(Long transactionId) {
+        CachedStatus cached = statuses.getIfPresent(transactionId);
+        return cached != null ? cached.status() : null;
+    }
+
+    /**
+     * Caches a status read from the database, unless a status was cached in the meantime.
+     */
+    public void putIfAbsent(Long transactionId, TransactionStatus status) {
+        if (status != null) {
+            statuses.asMap().putIfAbsent(transactionId, new CachedStatus(status, null));
+        }
+    }
+
+    /**
+     * Caches a status written by the current transaction once it commits, or immediately if there is no
+     * transaction. Nothing is cached if the transaction rolls back.
+     *
+     * @param paymentEventDate date of the payment event the status was written from
+     */
+    public void putAfterCommit(Long transactionId, TransactionStatus status, Instant paymentEventDate) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            putCommitted(transactionId, status, paymentEventDate);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                putCommitted(transactionId, status, paymentEventDate);
+            }
+        });
+    }
+
+    /**
+     * Moves a cached status forward to the one carried by a payment event, whether or not this replica applies
+     * the event to the database.
+     *
+     * @return {@code false} if the cached status shows the event to be stale; {@code true} if the event moved
+     * the cached status forward or the transaction is not cached
+     */
+    public boolean advance(Long transactionId, TransactionStatus status, Instant paymentEventDate) {
+        CachedStatus cached = statuses.getIfPresent(transactionId);
+        if (cached == null) {
+            return true;
+        }
+        if (!cached.advancesTo(status, paymentEventDate)) {
+            return false;
+        }
+        statuses.asMap().computeIfPresent(transactionId, (id, current) ->
+                current.advancesTo(status, paymentEventDate) ? new CachedStatus(status, paymentEventDate) : current);
+        return true;
+    }
+
+    private void putCommitted(Long transactionId, TransactionStatus status, Instant paymentEventDate) {
+        // commits of one transaction are ordered by the conditional update, but their callbacks may not be
+        statuses.asMap().merge(transactionId, new CachedStatus(status, paymentEventDate),
+                (current, committed) -> current.isNewerThan(paymentEventDate) ? current : committed);
+    }
+
+    /**
+     * @param paymentEventDate date of the payment event that wrote the status; {@code null} if it was read from
+     *                         the database
+     */
+    private record CachedStatus(TransactionStatus status, Instant paymentEventDate) {
+
+        private boolean advancesTo(TransactionStatus next, Instant nextPaymentEventDate) {
+            return next.predecessors().contains(status) && !isNewerThan(nextPaymentEventDate);
+        }
+
+        private boolean isNewerThan(Instant otherPaymentEventDate) {
+            return paymentEventDate != null && otherPaymentEventDate != null && paymentEventDate.isAfter(otherPaymentEventDate);
+        }
+    }
+}
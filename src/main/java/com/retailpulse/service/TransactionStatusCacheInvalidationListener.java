@@ -0,0 +1,59 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.PaymentEventDto;
+import com.retailpulse.entity.TransactionStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps every replica's {@link TransactionStatusCache} in step with the payment events applied by whichever
+ * replica owns the partition, and completes the status streams of its {@link TransactionStatusWatcher}.
+ * <p>
+ * Consumes the payment topic under a consumer group unique to this instance
+ * ({@code spring.kafka.consumer.group-ids.status-cache}), so each replica sees every event, starting from the
+ * latest offset. It only touches the cache and the streams; the database update stays with the payment event
+ * listener. The event has not been checked against the database yet, and on the replica that applies it may
+ * arrive before that update commits, so it only moves a cached status forward (see
+ * {@link TransactionStatusCache#advance}).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "spring.kafka.consumer.enabled", havingValue = "true")
+public class TransactionStatusCacheInvalidationListener {
+
+    private final TransactionStatusCache transactionStatusCache;
+    private final TransactionStatusWatcher transactionStatusWatcher;
+
+    public TransactionStatusCacheInvalidationListener(TransactionStatusCache transactionStatusCache,
+                                                      TransactionStatusWatcher transactionStatusWatcher) {
+        this.transactionStatusCache = transactionStatusCache;
+        this.transactionStatusWatcher = transactionStatusWatcher;
+    }
+
+    @KafkaListener(
+        topics = "${spring.kafka.consumer.topics.payment}",
+        groupId = "${spring.kafka.consumer.group-ids.status-cache}",
+        // events from before this instance started were already applied to the database
+        properties = "auto.offset.reset=latest"
+    )
+    public void handlePaymentEvent(PaymentEventDto paymentEvent) {
+        if (paymentEvent == null || paymentEvent.transactionId() == null) {
+            return;
+        }
+        TransactionStatus status = PaymentEventListener.mapPaymentStatusToTransactionStatus(paymentEvent.paymentStatus());
+        if (status == null) {
+            return;
+        }
+        if (!transactionStatusCache.advance(paymentEvent.transactionId(), status,
+                PaymentEventListener.resolvePaymentEventDate(paymentEvent))) {
+            log.debug("Ignored stale payment event for transaction {}: cached status does not lead to {}",
+                    paymentEvent.transactionId(), status);
+            return;
+        }
+        // after the cache, so a subscriber that registers once this has run reads the new status
+        transactionStatusWatcher.publish(paymentEvent.transactionId(), status);
+        log.debug("Cached status {} for transaction {} from payment event", status, paymentEvent.transactionId());
+    }
+}
@@ -0,0 +1,163 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.response.TransactionStatusResponseDto;
+import com.retailpulse.entity.TransactionStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Registry of clients waiting for a transaction to leave {@code PENDING_PAYMENT}, serving
+ * {@code GET /transactionStatus/{id}/stream}.
+ * <p>
+ * Each waiting client is an {@link SseEmitter} on an asynchronous request, so no thread is held while it waits.
+ * When a payment event settles the transaction, the emitters waiting on it are sent a single {@code status} event
+ * and completed. Settled statuses arrive on two paths, like those of the {@link TransactionStatusCache}: once the
+ * status update of this replica has committed, and through {@link TransactionStatusCacheInvalidationListener} for
+ * the events applied by another replica. Whichever comes first completes the stream. The second path only passes
+ * on events that move the cached status forward, and a stream only accepts a status that can follow
+ * {@code PENDING_PAYMENT}, the status it was opened on.
+ * <p>
+ * Events are sent on the application task executor, so a slow client never holds up the payment event listener
+ * that settled the transaction.
+ * <p>
+ * A client that is still waiting after {@code sales.status-stream.timeout-ms} gets an empty stream and is
+ * expected to reconnect, as an {@code EventSource} does.
+ */
+@Slf4j
+@Component
+public class TransactionStatusWatcher {
+
+    private final Map<Long, Set<SseEmitter>> waiting = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final TaskExecutor taskExecutor;
+    private final long timeoutMs;
+
+    public TransactionStatusWatcher(@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor taskExecutor,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${sales.status-stream.timeout-ms:30000}") long timeoutMs) {
+        this.taskExecutor = taskExecutor;
+        this.timeoutMs = timeoutMs;
+        Gauge.builder("sales.status.subscribers", subscribers, AtomicInteger::get)
+                .description("Clients waiting on a transaction status stream")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream that reports the transaction's status once it is no longer {@code PENDING_PAYMENT}.
+     * <p>
+     * The client is registered before the current status is read, so a status settled in between is not missed.
+     *
+     * @param currentStatus reads the transaction's current status; an exception it throws is propagated
+     */
+    public SseEmitter watch(Long transactionId, Supplier<TransactionStatus> currentStatus) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onTimeout(() -> {
+            unsubscribe(transactionId, emitter);
+            emitter.complete();
+        });
+        emitter.onCompletion(() -> unsubscribe(transactionId, emitter));
+        emitter.onError(failure -> unsubscribe(transactionId, emitter));
+        subscribe(transactionId, emitter);
+
+        TransactionStatus status;
+        try {
+            status = currentStatus.get();
+        } catch (RuntimeException e) {
+            unsubscribe(transactionId, emitter);
+            throw e;
+        }
+        // if the emitter is gone already, a payment event has settled the transaction and completed it
+        if (status != TransactionStatus.PENDING_PAYMENT && unsubscribe(transactionId, emitter)) {
+            send(emitter, transactionId, status);
+        }
+        return emitter;
+    }
+
+    /**
+     * Completes the streams waiting on the transaction with the status carried by a payment event. Statuses that
+     * cannot follow {@code PENDING_PAYMENT} are ignored.
+     */
+    public void publish(Long transactionId, TransactionStatus status) {
+        if (status == TransactionStatus.PENDING_PAYMENT || !status.predecessors().contains(TransactionStatus.PENDING_PAYMENT)) {
+            return;
+        }
+        Set<SseEmitter> emitters = waiting.remove(transactionId);
+        if (emitters == null) {
+            return;
+        }
+        subscribers.addAndGet(-emitters.size());
+        taskExecutor.execute(() -> emitters.forEach(emitter -> send(emitter, transactionId, status)));
+        log.debug("Pushing status {} of transaction {} to {} subscribers", status, transactionId, emitters.size());
+    }
+
+    /**
+     * Publishes a status written by the current transaction once it commits, or immediately if there is no
+     * transaction. Nothing is published if the transaction rolls back.
+     */
+    public void publishAfterCommit(Long transactionId, TransactionStatus status) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(transactionId, status);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(transactionId, status);
+            }
+        });
+    }
+
+    private void subscribe(Long transactionId, SseEmitter emitter) {
+        // compute and remove are atomic per key, so a publish either sees this emitter or runs before it is added
+        waiting.compute(transactionId, (id, emitters) -> {
+            Set<SseEmitter> set = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            set.add(emitter);
+            return set;
+        });
+        subscribers.incrementAndGet();
+    }
+
+    /**
+     * @return whether the emitter was still waiting
+     */
+    private boolean unsubscribe(Long transactionId, SseEmitter emitter) {
+        boolean[] removed = new boolean[1];
+        waiting.computeIfPresent(transactionId, (id, emitters) -> {
+            removed[0] = emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+        if (removed[0]) {
+            subscribers.decrementAndGet();
+        }
+        return removed[0];
+    }
+
+    private static void send(SseEmitter emitter, Long transactionId, TransactionStatus status) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("status")
+                    .data(new TransactionStatusResponseDto(transactionId, status), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // the client went away or the stream timed out meanwhile; the container completes the request
+            log.debug("Could not push status {} of transaction {}: {}", status, transactionId, e.getMessage());
+        }
+    }
+}
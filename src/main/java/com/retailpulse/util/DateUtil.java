@@ -2,28 +2,35 @@ package com.retailpulse.util;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DateUtil {
     public static String DATE_TIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
 
+    private static final ZoneId ZONE_ID = ZoneId.of("Asia/Singapore");
+    private static final ZoneOffset ZONE_OFFSET = ZoneOffset.ofHours(8);
+
+    // DateTimeFormatter is immutable and thread-safe; callers use a handful of constant patterns
+    private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
     // Function to convert a String to Instant with a custom date-time format
     public static Instant convertStringToInstant(String dateTime, String format) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
-        LocalDateTime localDateTime = LocalDateTime.parse(dateTime, formatter);
-        return localDateTime.toInstant(ZoneOffset.ofHours(8));
+        LocalDateTime localDateTime = LocalDateTime.parse(dateTime, formatter(format));
+        return localDateTime.toInstant(ZONE_OFFSET);
     }
 
     // Function to convert Instant to formatted String
     public static String convertInstantToString(Instant instant, String pattern) {
-        // Convert Instant to ZonedDateTime using the specified time zone
-        ZoneId zoneId = ZoneId.of("Asia/Singapore"); // Example: "UTC", "America/New_York", etc.
-        ZonedDateTime zonedDateTime = instant.atZone(zoneId);
-
-        // Create a DateTimeFormatter with the specified pattern
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+        // Convert Instant to ZonedDateTime in the store time zone
+        ZonedDateTime zonedDateTime = instant.atZone(ZONE_ID);
 
         // Format the ZonedDateTime to String
-        return zonedDateTime.format(formatter);
+        return zonedDateTime.format(formatter(pattern));
+    }
+
+    private static DateTimeFormatter formatter(String pattern) {
+        return FORMATTERS.computeIfAbsent(pattern, DateTimeFormatter::ofPattern);
     }
 
 }
@@ -0,0 +1,74 @@
+package com.retailpulse.config;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionConfigTest {
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void contextPropagatingTaskDecorator_bearerTokenForwardedFromVirtualThread() throws Exception {
+        TaskDecorator decorator = new ExecutionConfig().contextPropagatingTaskDecorator();
+        RequestInterceptor interceptor = new FeignConfig(Tracer.NOOP).oauth2BearerForwardingInterceptor();
+
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new JwtAuthenticationToken(jwt("token-123")));
+        SecurityContextHolder.setContext(securityContext);
+
+        RequestTemplate template = new RequestTemplate();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> future = executor.submit(decorator.decorate(() -> {
+                assertTrue(Thread.currentThread().isVirtual());
+                interceptor.apply(template);
+            }));
+            future.get();
+        }
+
+        assertEquals(List.of("Bearer token-123"), List.copyOf(template.headers().get("Authorization")));
+    }
+
+    @Test
+    void withoutDecorator_virtualThreadHasNoSecurityContext() throws Exception {
+        RequestInterceptor interceptor = new FeignConfig(Tracer.NOOP).oauth2BearerForwardingInterceptor();
+
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new JwtAuthenticationToken(jwt("token-123")));
+        SecurityContextHolder.setContext(securityContext);
+
+        RequestTemplate template = new RequestTemplate();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> interceptor.apply(template)).get();
+        }
+
+        assertFalse(template.headers().containsKey("Authorization"));
+    }
+
+    private static Jwt jwt(String tokenValue) {
+        return Jwt.withTokenValue(tokenValue)
+                .header("alg", "none")
+                .subject("cashier")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300))
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.retailpulse.config;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.FeignClientProperties;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeignConfigTest {
+
+    @Test
+    void connectTimeout_clientSettingOverridesDefault() {
+        FeignClientProperties properties = properties(2000, 500);
+
+        assertEquals(Duration.ofMillis(500), FeignConfig.connectTimeout(properties, "payment-service"));
+        assertEquals(Duration.ofMillis(2000), FeignConfig.connectTimeout(properties, "inventory-service"));
+    }
+
+    @Test
+    void connectTimeout_fallsBackToFeignDefault() {
+        assertEquals(Duration.ofSeconds(10), FeignConfig.connectTimeout(new FeignClientProperties(), "inventory-service"));
+    }
+
+    @Test
+    void feignClient_usesPooledApacheHttpClientOfNamedClient() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.cloud.openfeign.client.name", "payment-service");
+
+        Client client = new FeignConfig(Tracer.NOOP).feignClient(environment, properties(2000, 500));
+
+        assertInstanceOf(ApacheHttp5Client.class, client);
+    }
+
+    @Test
+    void poolSetting_clientSettingOverridesDefault() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.cloud.openfeign.client.config.default.max-connections", "10")
+                .withProperty("spring.cloud.openfeign.client.config.payment-service.max-connections", "4");
+        FeignClientProperties properties = new FeignClientProperties();
+
+        assertEquals(4, FeignConfig.poolSetting(environment, properties, "payment-service", "max-connections", 20));
+        assertEquals(10, FeignConfig.poolSetting(environment, properties, "inventory-service", "max-connections", 20));
+        assertEquals(20, FeignConfig.poolSetting(environment, properties, "inventory-service", "max-per-route", 20));
+    }
+
+    private static FeignClientProperties properties(int defaultConnectTimeout, int paymentConnectTimeout) {
+        FeignClientProperties.FeignClientConfiguration defaults = new FeignClientProperties.FeignClientConfiguration();
+        defaults.setConnectTimeout(defaultConnectTimeout);
+        FeignClientProperties.FeignClientConfiguration payment = new FeignClientProperties.FeignClientConfiguration();
+        payment.setConnectTimeout(paymentConnectTimeout);
+
+        FeignClientProperties properties = new FeignClientProperties();
+        properties.getConfig().put(properties.getDefaultConfig(), defaults);
+        properties.getConfig().put("payment-service", payment);
+        return properties;
+    }
+}
@@ -3,9 +3,17 @@ package com.retailpulse.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.retailpulse.dto.request.SalesDetailsDto;
 import com.retailpulse.dto.request.SalesTransactionRequestDto;
+import com.retailpulse.dto.response.BulkTransactionItemResultDto;
+import com.retailpulse.dto.response.BulkTransactionResponseDto;
+import com.retailpulse.dto.response.CreateTransactionResponseDto;
+import com.retailpulse.dto.response.SalesTransactionPageDto;
 import com.retailpulse.dto.response.SalesTransactionResponseDto;
 import com.retailpulse.dto.response.TaxResultDto;
 import com.retailpulse.entity.TaxType;
+import com.retailpulse.entity.TransactionStatus;
+import com.retailpulse.service.BulkSalesTransactionService;
+import com.retailpulse.service.CheckoutIdempotencyService;
+import com.retailpulse.service.SalesTransactionSearchService;
 import com.retailpulse.service.SalesTransactionService;
 import com.retailpulse.util.DateUtil;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,11 +28,16 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +48,15 @@ public class SalesTransactionControllerTest {
     @Mock
     private SalesTransactionService salesTransactionService;
 
+    @Mock
+    private BulkSalesTransactionService bulkSalesTransactionService;
+
+    @Mock
+    private CheckoutIdempotencyService checkoutIdempotencyService;
+
+    @Mock
+    private SalesTransactionSearchService salesTransactionSearchService;
+
     @InjectMocks
     private SalesTransactionController salesTransactionController;
 
@@ -96,6 +118,33 @@ public class SalesTransactionControllerTest {
     //             .andExpect(status().isOk());
     // }
 
+    @Test
+    public void testCreateSalesTransactionWithIdempotencyKey() throws Exception {
+        // Given
+        SalesTransactionResponseDto transaction = new SalesTransactionResponseDto(
+                7L,
+                1L,
+                "1200.0",
+                TaxType.GST.name(),
+                "0.09",
+                "108.000",
+                "1308.000",
+                salesTransactionRequestDto.salesDetails(),
+                DateUtil.convertInstantToString(Instant.now(), DateUtil.DATE_TIME_FORMAT)
+        );
+        when(checkoutIdempotencyService.createSalesTransaction(ArgumentMatchers.eq("pos-3-000123"), ArgumentMatchers.any()))
+                .thenReturn(new CreateTransactionResponseDto(transaction, null));
+
+        // When & Then
+        mockMvc.perform(post("/api/sales/createTransaction")
+                        .header("Idempotency-Key", "pos-3-000123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(salesTransactionRequestDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transaction.salesTransactionId").value(7));
+        verify(salesTransactionService, never()).createSalesTransaction(ArgumentMatchers.any());
+    }
+
     @Test
     public void testUpdateSalesTransaction() throws Exception {
         // Given
@@ -120,4 +169,38 @@ public class SalesTransactionControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void testCreateSalesTransactions() throws Exception {
+        // Given
+        BulkTransactionResponseDto responseDto = new BulkTransactionResponseDto(2, 0, 2, List.of(
+                BulkTransactionItemResultDto.failed(0, "PAYMENT_SERVICE_ERROR", "Failed to initiate payment"),
+                BulkTransactionItemResultDto.failed(1, "EMPTY_SALE", "Sales details cannot be empty.")));
+        when(bulkSalesTransactionService.createTransactions(ArgumentMatchers.anyList())).thenReturn(responseDto);
+
+        // When & Then
+        mockMvc.perform(post("/api/sales/createTransactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(salesTransactionRequestDto, salesTransactionRequestDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.results[1].errorCode").value("EMPTY_SALE"));
+    }
+
+    @Test
+    public void testSearchTransactions() throws Exception {
+        // Given
+        when(salesTransactionSearchService.search(1L, LocalDate.of(2025, 3, 1), null, TransactionStatus.COMPLETED,
+                null, null, 20, "abc")).thenReturn(new SalesTransactionPageDto(List.of(), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/sales/transactions")
+                        .param("businessEntityId", "1")
+                        .param("from", "2025-03-01")
+                        .param("status", "COMPLETED")
+                        .param("limit", "20")
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions").isEmpty());
+    }
+
 }
@@ -0,0 +1,208 @@
+package com.retailpulse.domain;
+
+import com.retailpulse.entity.Money;
+import com.retailpulse.entity.SalesDetails;
+import com.retailpulse.entity.SalesTax;
+import com.retailpulse.entity.SalesTransaction;
+import com.retailpulse.entity.TaxType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Randomized checks that {@link Money} reproduces the {@link BigDecimal} arithmetic it replaces. Each property
+ * runs a few thousand generated cases from a fixed seed; a failure message carries the case that broke it.
+ */
+public class MoneyTest {
+
+    private static final long SEED = 20250601L;
+    private static final int CASES = 5_000;
+
+    @Test
+    public void parse_matchesBigDecimal() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < CASES; i++) {
+            String text = randomDecimalString(random);
+            BigDecimal expected = new BigDecimal(text);
+            assertEquals(expected, Money.parse(text).toBigDecimal(), "parse(" + text + ")");
+        }
+    }
+
+    @Test
+    public void parse_rejectsWhatBigDecimalRejects() {
+        for (String text : new String[] {"", "-", "+", ".", "1.2.3", "1,5", " 1", "1 ", "abc", "--1", "1-"}) {
+            assertThrows(NumberFormatException.class, () -> new BigDecimal(text), text);
+            assertThrows(NumberFormatException.class, () -> Money.parse(text), text);
+        }
+    }
+
+    @Test
+    public void parse_delegatesExponentAndLongInputs() {
+        assertEquals(new BigDecimal("1.5E+2").setScale(0), Money.parse("1.5E+2").toBigDecimal());
+        assertEquals(new BigDecimal("12345678901234567.89"), Money.parse("12345678901234567.89").toBigDecimal());
+        // beyond 18 digits of scale or a long unscaled value
+        assertThrows(ArithmeticException.class, () -> Money.parse("0.0000000000000000001"));
+        assertThrows(ArithmeticException.class, () -> Money.parse("123456789012345678901234"));
+    }
+
+    @Test
+    public void setScale_matchesHalfUp() {
+        Random random = new Random(SEED + 1);
+        for (int i = 0; i < CASES; i++) {
+            long unscaled = randomLong(random);
+            int scale = random.nextInt(19);
+            int newScale = random.nextInt(19);
+            BigDecimal expected = BigDecimal.valueOf(unscaled, scale).setScale(newScale, RoundingMode.HALF_UP);
+
+            String description = "setScale(" + unscaled + "E-" + scale + ", " + newScale + ")";
+            if (expected.unscaledValue().bitLength() > 63) {
+                assertThrows(ArithmeticException.class, () -> new Money(unscaled, scale).setScale(newScale), description);
+            } else {
+                assertEquals(expected, new Money(unscaled, scale).setScale(newScale).toBigDecimal(), description);
+            }
+        }
+    }
+
+    @Test
+    public void setScale_roundsHalfAwayFromZero() {
+        assertEquals(new BigDecimal("0.13"), new Money(125, 3).setScale(2).toBigDecimal());
+        assertEquals(new BigDecimal("-0.13"), new Money(-125, 3).setScale(2).toBigDecimal());
+        assertEquals(new BigDecimal("0.12"), new Money(1249, 4).setScale(2).toBigDecimal());
+        assertEquals(new BigDecimal("-0.12"), new Money(-1249, 4).setScale(2).toBigDecimal());
+    }
+
+    @Test
+    public void plusAndTimes_matchBigDecimal() {
+        Random random = new Random(SEED + 2);
+        for (int i = 0; i < CASES; i++) {
+            Money a = new Money(random.nextLong() >> random.nextInt(64), random.nextInt(7));
+            Money b = new Money(random.nextLong() >> random.nextInt(64), random.nextInt(7));
+            long multiplier = random.nextInt() >> random.nextInt(32);
+
+            assertMatches(a.toBigDecimal().add(b.toBigDecimal()), () -> a.plus(b), a + " + " + b);
+            assertMatches(a.toBigDecimal().multiply(BigDecimal.valueOf(multiplier)), () -> a.times(multiplier), a + " * " + multiplier);
+            assertMatches(a.toBigDecimal().multiply(b.toBigDecimal()), () -> a.times(b), a + " * " + b);
+        }
+    }
+
+    @Test
+    public void toPlainString_matchesBigDecimal() {
+        Random random = new Random(SEED + 3);
+        for (int i = 0; i < CASES; i++) {
+            Money money = new Money(randomLong(random), random.nextInt(19));
+            assertEquals(money.toBigDecimal().toPlainString(), money.toPlainString(), money.unscaled() + "E-" + money.scale());
+        }
+        assertEquals(BigDecimal.valueOf(Long.MIN_VALUE, 2).toPlainString(), new Money(Long.MIN_VALUE, 2).toPlainString());
+        assertEquals(new BigDecimal("0.01").toString(), new Money(1, 2).toString());
+        assertEquals(new BigDecimal("-1308.00").toString(), new Money(-130800, 2).toString());
+    }
+
+    @Test
+    public void overflow_throwsInsteadOfWrapping() {
+        Money max = new Money(Long.MAX_VALUE, 2);
+        assertThrows(ArithmeticException.class, () -> max.plus(new Money(1, 2)));
+        assertThrows(ArithmeticException.class, () -> max.times(2));
+        assertThrows(ArithmeticException.class, () -> max.setScale(3));
+        assertThrows(ArithmeticException.class, () -> new Money(1, 2).plus(new Money(Long.MAX_VALUE, 0)));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("92233720368547758.08")));
+    }
+
+    @Test
+    public void cartTotals_matchBigDecimalPricing() {
+        Random random = new Random(SEED + 4);
+        for (int i = 0; i < 1_000; i++) {
+            BigDecimal taxRate = BigDecimal.valueOf(random.nextInt(3000), 2 + random.nextInt(2));
+            Map<Long, SalesDetails> lines = new HashMap<>();
+            BigDecimal expectedSubtotal = BigDecimal.ZERO;
+            int lineCount = 1 + random.nextInt(random.nextBoolean() ? 10 : 1_500);
+            for (long productId = 0; productId < lineCount; productId++) {
+                // negative quantities occur in stock reversal deltas
+                int quantity = random.nextInt(2_000) - 200;
+                String price = randomPrice(random);
+                lines.put(productId, new SalesDetails(productId, quantity, Money.parse(price)));
+                expectedSubtotal = expectedSubtotal.add(new BigDecimal(price).multiply(BigDecimal.valueOf(quantity)));
+            }
+
+            expectedSubtotal = expectedSubtotal.setScale(2, RoundingMode.HALF_UP);
+            BigDecimal expectedTax = expectedSubtotal.multiply(taxRate).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal expectedTotal = expectedSubtotal.add(expectedTax).setScale(2, RoundingMode.HALF_UP);
+
+            SalesTransaction transaction = new SalesTransaction(1L, new SalesTax(TaxType.GST, taxRate));
+            transaction.addSalesDetails(lines);
+
+            String description = "case " + i + ", rate " + taxRate + ", " + lineCount + " lines";
+            assertEquals(expectedSubtotal, transaction.getSubtotal(), description);
+            assertEquals(expectedTax, transaction.getSalesTaxAmount(), description);
+            assertEquals(expectedTotal, transaction.getTotal(), description);
+        }
+    }
+
+    @Test
+    public void cartTotals_pricesBeyondMoneyFallBackToBigDecimal() {
+        BigDecimal taxRate = new BigDecimal("0.09");
+        String[] prices = {"0.0000000000000000001", "19.99999999999999999999", "123456789012345678901.25"};
+        Map<Long, SalesDetails> lines = new HashMap<>();
+        BigDecimal expectedSubtotal = BigDecimal.ZERO;
+        for (int i = 0; i < prices.length; i++) {
+            String price = prices[i];
+            assertThrows(ArithmeticException.class, () -> Money.parse(price));
+            lines.put((long) i, SalesDetails.of((long) i, 3, price));
+            expectedSubtotal = expectedSubtotal.add(new BigDecimal(price).multiply(BigDecimal.valueOf(3)));
+        }
+        expectedSubtotal = expectedSubtotal.setScale(2, RoundingMode.HALF_UP);
+        BigDecimal expectedTax = expectedSubtotal.multiply(taxRate).setScale(2, RoundingMode.HALF_UP);
+
+        SalesTransaction transaction = new SalesTransaction(1L, new SalesTax(TaxType.GST, taxRate));
+        transaction.addSalesDetails(lines);
+
+        assertEquals(expectedSubtotal, transaction.getSubtotal());
+        assertEquals(expectedTax, transaction.getSalesTaxAmount());
+        assertEquals(expectedSubtotal.add(expectedTax), transaction.getTotal());
+        assertEquals(new BigDecimal("59.99999999999999999997"), lines.get(1L).getSubTotal());
+    }
+
+    private static void assertMatches(BigDecimal expected, Supplier<Money> actual, String description) {
+        if (expected.unscaledValue().bitLength() > 63) {
+            assertThrows(ArithmeticException.class, actual::get, description);
+        } else {
+            assertEquals(expected, actual.get().toBigDecimal(), description);
+        }
+    }
+
+    private static long randomLong(Random random) {
+        return random.nextLong() >> random.nextInt(64);
+    }
+
+    private static String randomPrice(Random random) {
+        int scale = random.nextInt(4);
+        return BigDecimal.valueOf(random.nextInt(1_000_000), scale).toPlainString();
+    }
+
+    private static String randomDecimalString(Random random) {
+        StringBuilder text = new StringBuilder();
+        switch (random.nextInt(3)) {
+            case 0 -> text.append('-');
+            case 1 -> text.append('+');
+            default -> { }
+        }
+        int integerDigits = random.nextInt(10);
+        int fractionDigits = random.nextInt(integerDigits == 0 ? 8 : 9);
+        for (int i = 0; i < integerDigits; i++) {
+            text.append((char) ('0' + random.nextInt(10)));
+        }
+        if (fractionDigits > 0 || integerDigits == 0 || random.nextBoolean()) {
+            text.append('.');
+        }
+        for (int i = 0; i < fractionDigits || (integerDigits == 0 && i == 0); i++) {
+            text.append((char) ('0' + random.nextInt(10)));
+        }
+        return text.toString();
+    }
+}
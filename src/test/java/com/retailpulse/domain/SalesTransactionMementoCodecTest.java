@@ -0,0 +1,77 @@
+package com.retailpulse.domain;
+
+import com.retailpulse.dto.request.SalesDetailsDto;
+import com.retailpulse.entity.SalesDetails;
+import com.retailpulse.entity.SalesTax;
+import com.retailpulse.entity.SalesTransaction;
+import com.retailpulse.entity.SalesTransactionMemento;
+import com.retailpulse.entity.SalesTransactionMementoCodec;
+import com.retailpulse.entity.TaxType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SalesTransactionMementoCodecTest {
+
+    @Test
+    public void roundTripsASavedCart() {
+        SalesTransaction salesTransaction = new SalesTransaction(1L, new SalesTax(TaxType.GST, new BigDecimal("0.09")));
+        salesTransaction.addSalesDetails(Map.of(
+                1L, new SalesDetails(1L, 2, new BigDecimal("50.0")),
+                2L, new SalesDetails(2L, 3, new BigDecimal("100.00")),
+                300000L, new SalesDetails(300000L, 4, new BigDecimal("1999.99"))));
+        SalesTransactionMemento memento = salesTransaction.saveToMemento();
+
+        byte[] encoded = SalesTransactionMementoCodec.encode(memento);
+
+        assertEquals(memento, SalesTransactionMementoCodec.decode(encoded));
+        // every field in its compact form; the memento's strings alone are over 80 characters
+        assertTrue(encoded.length <= 56, "encoded to " + encoded.length + " bytes");
+    }
+
+    @Test
+    public void keepsValuesWithoutACompactFormAsText() {
+        SalesTransactionMemento memento = new SalesTransactionMemento(7L, 1L, "+100.00", "VAT", "9E-2", null, "109.00",
+                List.of(new SalesDetailsDto(1L, -2, "50.00"), new SalesDetailsDto(2L, 1, "123456789012345678901.5")),
+                "ON_HOLD", "01/01/2025 10:00");
+
+        assertEquals(memento, SalesTransactionMementoCodec.decode(SalesTransactionMementoCodec.encode(memento)));
+    }
+
+    @Test
+    public void roundTripsMissingFields() {
+        SalesTransactionMemento memento = new SalesTransactionMemento(7L, 1L, null, null, null, null, null, null, null, null);
+
+        assertEquals(memento, SalesTransactionMementoCodec.decode(SalesTransactionMementoCodec.encode(memento)));
+    }
+
+    @Test
+    public void rejectsUnknownVersionAndTruncatedBytes() {
+        byte[] encoded = SalesTransactionMementoCodec.encode(new SalesTransactionMemento(7L, 1L, "100.00", "GST", "0.09",
+                "9.00", "109.00", List.of(new SalesDetailsDto(1L, 2, "50.00")), "PENDING_PAYMENT", "2025-01-01 10:00:00"));
+
+        byte[] nextVersion = encoded.clone();
+        nextVersion[0]++;
+        assertThrows(IllegalArgumentException.class, () -> SalesTransactionMementoCodec.decode(nextVersion));
+        assertThrows(IllegalArgumentException.class,
+                () -> SalesTransactionMementoCodec.decode(Arrays.copyOf(encoded, encoded.length - 3)));
+    }
+
+    @Test
+    public void rejectsOutOfRangeHeaders() {
+        // version, transaction ID 7, business entity ID 1, then the subtotal header
+        byte[] scaleTooLarge = {1, 7, 1, 21, 0};
+        assertThrows(IllegalArgumentException.class, () -> SalesTransactionMementoCodec.decode(scaleTooLarge));
+        // null subtotal, then a tax type ordinal past the last TaxType
+        byte[] unknownTaxType = {1, 7, 1, 0, 100};
+        assertThrows(IllegalArgumentException.class, () -> SalesTransactionMementoCodec.decode(unknownTaxType));
+        // null amounts and tax type, then a line count far beyond the bytes left
+        byte[] tooManyLines = {1, 7, 1, 0, 0, 0, 0, 0, 100, 0, 0};
+        assertThrows(IllegalArgumentException.class, () -> SalesTransactionMementoCodec.decode(tooManyLines));
+    }
+}
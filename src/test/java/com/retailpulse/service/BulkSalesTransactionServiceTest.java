@@ -0,0 +1,192 @@
+package com.retailpulse.service;
+
+import com.retailpulse.client.PaymentServiceClient;
+import com.retailpulse.dto.request.PaymentRequestDto;
+import com.retailpulse.dto.request.SalesDetailsDto;
+import com.retailpulse.dto.request.SalesTransactionRequestDto;
+import com.retailpulse.dto.response.BulkTransactionItemResultDto;
+import com.retailpulse.dto.response.BulkTransactionResponseDto;
+import com.retailpulse.dto.response.PaymentResponseDto;
+import com.retailpulse.entity.SalesDetails;
+import com.retailpulse.entity.SalesTax;
+import com.retailpulse.entity.SalesTransaction;
+import com.retailpulse.entity.TaxType;
+import com.retailpulse.exception.BusinessException;
+import com.retailpulse.repository.SalesTransactionRepository;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkSalesTransactionServiceTest {
+
+  @Mock
+  private SalesTransactionRepository salesTransactionRepository;
+
+  @Mock
+  private SalesTaxRegistry salesTaxRegistry;
+
+  @Mock
+  private StockUpdateService stockUpdateService;
+
+  @Mock
+  private PaymentServiceClient paymentServiceClient;
+
+  @Captor
+  private ArgumentCaptor<Long> stores;
+
+  @Captor
+  private ArgumentCaptor<Map<Long, SalesDetails>> stockUpdates;
+
+  private BulkSalesTransactionService bulkSalesTransactionService;
+
+  @BeforeEach
+  void setUp() {
+    // runs payment requests on the calling thread, so they are issued in request order
+    bulkSalesTransactionService = new BulkSalesTransactionService(salesTransactionRepository, salesTaxRegistry,
+      stockUpdateService, paymentServiceClient, new DownstreamGuard(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), new SimpleMeterRegistry()),
+      new TaskExecutorAdapter(Runnable::run), 3);
+  }
+
+  @Test
+  void testCreateTransactions_rejectsEmptyBatch() {
+    BusinessException exception = assertThrows(BusinessException.class,
+      () -> bulkSalesTransactionService.createTransactions(List.of()));
+
+    assertEquals("EMPTY_BATCH", exception.getErrorCode());
+    verifyNoInteractions(salesTransactionRepository, paymentServiceClient, stockUpdateService);
+  }
+
+  @Test
+  void testCreateTransactions_rejectsBatchOverLimit() {
+    List<SalesTransactionRequestDto> requests = List.of(sale(1L, 1L), sale(1L, 2L), sale(1L, 3L), sale(1L, 4L));
+
+    BusinessException exception = assertThrows(BusinessException.class,
+      () -> bulkSalesTransactionService.createTransactions(requests));
+
+    assertEquals("BATCH_TOO_LARGE", exception.getErrorCode());
+    verifyNoInteractions(salesTransactionRepository, paymentServiceClient, stockUpdateService);
+  }
+
+  @Test
+  void testCreateTransactions_reportsFailuresPerSale() {
+    when(salesTaxRegistry.getSalesTax(TaxType.GST)).thenReturn(new SalesTax(TaxType.GST, new BigDecimal("0.09")));
+    assignIdsOnSave();
+    when(paymentServiceClient.createPaymentIntent(any(PaymentRequestDto.class)))
+      .thenReturn(paymentIntent("pi_1"))
+      .thenThrow(new RuntimeException("payment service unavailable"));
+    SalesTransactionRequestDto emptySale = new SalesTransactionRequestDto(1L, "0", "0", List.of());
+
+    BulkTransactionResponseDto response = bulkSalesTransactionService.createTransactions(
+      List.of(sale(1L, 10L), emptySale, sale(1L, 11L)));
+
+    assertEquals(3, response.received());
+    assertEquals(1, response.created());
+    assertEquals(2, response.failed());
+
+    BulkTransactionItemResultDto created = response.results().get(0);
+    assertTrue(created.created());
+    assertEquals("pi_1", created.result().paymentIntent().paymentIntentId());
+    assertEquals("EMPTY_SALE", response.results().get(1).errorCode());
+    assertEquals("PAYMENT_SERVICE_ERROR", response.results().get(2).errorCode());
+
+    // the sale whose payment failed is dropped before the flush; the store's stock was updated before the payment intents
+    verify(salesTransactionRepository).delete(any(SalesTransaction.class));
+    verify(salesTransactionRepository).flush();
+    verify(stockUpdateService).updateStocks(eq(1L), stockUpdates.capture());
+    assertEquals(Map.of(10L, 2, 11L, 2), quantities(stockUpdates.getValue()));
+  }
+
+  @Test
+  void testCreateTransactions_sendsOneStockUpdatePerStore() {
+    when(salesTaxRegistry.getSalesTax(TaxType.GST)).thenReturn(new SalesTax(TaxType.GST, new BigDecimal("0.09")));
+    assignIdsOnSave();
+    when(paymentServiceClient.createPaymentIntent(any(PaymentRequestDto.class))).thenReturn(paymentIntent("pi"));
+
+    BulkTransactionResponseDto response = bulkSalesTransactionService.createTransactions(
+      List.of(sale(1L, 10L), sale(2L, 10L), sale(1L, 10L)));
+
+    assertEquals(3, response.created());
+    verify(salesTaxRegistry, times(1)).getSalesTax(TaxType.GST);
+    verify(stockUpdateService, times(2)).updateStocks(stores.capture(), stockUpdates.capture());
+    Map<Long, Map<Long, Integer>> quantitiesByStore = new HashMap<>();
+    for (int i = 0; i < stores.getAllValues().size(); i++) {
+      quantitiesByStore.put(stores.getAllValues().get(i), quantities(stockUpdates.getAllValues().get(i)));
+    }
+    assertEquals(Map.of(1L, Map.of(10L, 4), 2L, Map.of(10L, 2)), quantitiesByStore);
+  }
+
+  @Test
+  void testCreateTransactions_failsEveryTransactionOfStoreWhenInventoryUpdateFails() {
+    when(salesTaxRegistry.getSalesTax(TaxType.GST)).thenReturn(new SalesTax(TaxType.GST, new BigDecimal("0.09")));
+    assignIdsOnSave();
+    when(paymentServiceClient.createPaymentIntent(any(PaymentRequestDto.class))).thenReturn(paymentIntent("pi"));
+    doThrow(new BusinessException("INVENTORY_UPDATE_FAILED", "Failed to update inventory: timeout"))
+      .when(stockUpdateService).updateStocks(eq(2L), anyMap());
+
+    BulkTransactionResponseDto response = bulkSalesTransactionService.createTransactions(
+      List.of(sale(2L, 10L), sale(1L, 10L), sale(2L, 11L)));
+
+    assertEquals(1, response.created());
+    assertTrue(response.results().get(1).created());
+    assertEquals("INVENTORY_UPDATE_FAILED", response.results().get(0).errorCode());
+    assertEquals("INVENTORY_UPDATE_FAILED", response.results().get(2).errorCode());
+    verify(salesTransactionRepository, times(2)).delete(any(SalesTransaction.class));
+    // no payment intent is left open for the sales of the failed store
+    ArgumentCaptor<PaymentRequestDto> payments = ArgumentCaptor.forClass(PaymentRequestDto.class);
+    verify(paymentServiceClient).createPaymentIntent(payments.capture());
+    assertEquals(response.results().get(1).result().transaction().salesTransactionId(), (long) payments.getValue().transactionId());
+  }
+
+  // saveAll assigns pooled ids without writing; the creation date is set the same way for the response
+  private void assignIdsOnSave() {
+    AtomicLong ids = new AtomicLong();
+    when(salesTransactionRepository.saveAll(anyCollection())).thenAnswer(invocation -> {
+      List<SalesTransaction> transactions = List.copyOf(invocation.<Collection<SalesTransaction>>getArgument(0));
+      for (SalesTransaction transaction : transactions) {
+        ReflectionTestUtils.setField(transaction, "id", ids.incrementAndGet());
+        ReflectionTestUtils.setField(transaction, "transactionDate", Instant.now());
+      }
+      return transactions;
+    });
+  }
+
+  private static SalesTransactionRequestDto sale(long businessEntityId, long productId) {
+    return new SalesTransactionRequestDto(businessEntityId, "9.00", "109.00",
+      List.of(new SalesDetailsDto(productId, 2, "50.00")));
+  }
+
+  private static PaymentResponseDto paymentIntent(String paymentIntentId) {
+    return new PaymentResponseDto("secret", paymentIntentId, 1L, null, 109.0, "SGD", null, null);
+  }
+
+  private static Map<Long, Integer> quantities(Map<Long, SalesDetails> salesDetails) {
+    return salesDetails.values().stream()
+      .collect(Collectors.toMap(SalesDetails::getProductId, SalesDetails::getQuantity));
+  }
+}
@@ -0,0 +1,189 @@
+package com.retailpulse.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailpulse.dto.request.SalesDetailsDto;
+import com.retailpulse.dto.request.SalesTransactionRequestDto;
+import com.retailpulse.dto.response.CreateTransactionResponseDto;
+import com.retailpulse.dto.response.PaymentResponseDto;
+import com.retailpulse.dto.response.SalesTransactionResponseDto;
+import com.retailpulse.entity.IdempotentRequest;
+import com.retailpulse.entity.PaymentStatus;
+import com.retailpulse.exception.BusinessException;
+import com.retailpulse.repository.IdempotentRequestRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CheckoutIdempotencyServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private SalesTransactionService salesTransactionService;
+    private IdempotentRequestRepository idempotentRequestRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private CheckoutIdempotencyService checkoutIdempotencyService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        salesTransactionService = mock(SalesTransactionService.class);
+        idempotentRequestRepository = mock(IdempotentRequestRepository.class);
+        when(idempotentRequestRepository.findById(any())).thenReturn(Optional.empty());
+        when(idempotentRequestRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<CreateTransactionResponseDto>) invocation.getArgument(0)).doInTransaction(null));
+
+        meterRegistry = new SimpleMeterRegistry();
+        checkoutIdempotencyService = new CheckoutIdempotencyService(salesTransactionService, idempotentRequestRepository,
+                transactionTemplate, objectMapper, meterRegistry, 100, 10, 5000, 24);
+    }
+
+    @Test
+    void createSalesTransaction_storesResponseWithKey() throws Exception {
+        CreateTransactionResponseDto response = response(42L);
+        when(salesTransactionService.createSalesTransaction(any())).thenReturn(response);
+
+        assertEquals(response, checkoutIdempotencyService.createSalesTransaction("key-1", request("10.00")));
+
+        ArgumentCaptor<IdempotentRequest> claim = ArgumentCaptor.forClass(IdempotentRequest.class);
+        verify(idempotentRequestRepository).saveAndFlush(claim.capture());
+        assertEquals("key-1", claim.getValue().getIdempotencyKey());
+        assertEquals(42L, claim.getValue().getTransactionId());
+        assertEquals(response, objectMapper.readValue(claim.getValue().getResponse(), CreateTransactionResponseDto.class));
+    }
+
+    @Test
+    void createSalesTransaction_retryReturnsFirstResponseWithoutCreatingAgain() {
+        CreateTransactionResponseDto response = response(42L);
+        when(salesTransactionService.createSalesTransaction(any())).thenReturn(response);
+
+        checkoutIdempotencyService.createSalesTransaction("key-1", request("10.00"));
+        CreateTransactionResponseDto retried = checkoutIdempotencyService.createSalesTransaction("key-1", request("10.00"));
+
+        assertEquals(response, retried);
+        verify(salesTransactionService, times(1)).createSalesTransaction(any());
+        assertEquals(1.0, meterRegistry.get("sales.idempotency.replays").counter().count());
+    }
+
+    @Test
+    void createSalesTransaction_concurrentDuplicateWaitsForFirst() throws Exception {
+        CountDownLatch inCreate = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CreateTransactionResponseDto response = response(42L);
+        when(salesTransactionService.createSalesTransaction(any())).thenAnswer(invocation -> {
+            inCreate.countDown();
+            release.await();
+            return response;
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<CreateTransactionResponseDto> first = executor.submit(
+                    () -> checkoutIdempotencyService.createSalesTransaction("key-1", request("10.00")));
+            inCreate.await();
+            Future<CreateTransactionResponseDto> duplicate = executor.submit(
+                    () -> checkoutIdempotencyService.createSalesTransaction("key-1", request("10.00")));
+
+            Thread.sleep(50);
+            assertFalse(duplicate.isDone());
+            release.countDown();
+
+            assertEquals(response, first.get());
+            assertEquals(response, duplicate.get());
+        }
+        verify(salesTransactionService, times(1)).createSalesTransaction(any());
+    }
+
+    @Test
+    void createSalesTransaction_storedKeyIsReplayedFromDatabase() throws Exception {
+        CreateTransactionResponseDto response = response(42L);
+        when(idempotentRequestRepository.findById("key-1"))
+                .thenReturn(Optional.of(stored("key-1", request("10.00"), response)));
+
+        assertEquals(response, checkoutIdempotencyService.createSalesTransaction("key-1", request("10.00")));
+
+        verifyNoInteractions(salesTransactionService);
+        verify(idempotentRequestRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createSalesTransaction_keyCommittedByOtherReplicaIsReplayed() throws Exception {
+        CreateTransactionResponseDto response = response(42L);
+        when(idempotentRequestRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+        when(idempotentRequestRepository.findById("key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(stored("key-1", request("10.00"), response)));
+
+        assertEquals(response, checkoutIdempotencyService.createSalesTransaction("key-1", request("10.00")));
+
+        verifyNoInteractions(salesTransactionService);
+    }
+
+    @Test
+    void createSalesTransaction_keyReusedForDifferentRequestIsRejected() {
+        when(salesTransactionService.createSalesTransaction(any())).thenReturn(response(42L));
+        checkoutIdempotencyService.createSalesTransaction("key-1", request("10.00"));
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> checkoutIdempotencyService.createSalesTransaction("key-1", request("99.00")));
+
+        assertEquals("IDEMPOTENCY_KEY_REUSED", ex.getErrorCode());
+        verify(salesTransactionService, times(1)).createSalesTransaction(any());
+    }
+
+    @Test
+    void createSalesTransaction_failedRequestCanBeRetriedWithSameKey() {
+        when(salesTransactionService.createSalesTransaction(any()))
+                .thenThrow(new BusinessException("PAYMENT_SERVICE_ERROR", "Failed to initiate payment"))
+                .thenReturn(response(42L));
+
+        assertThrows(BusinessException.class,
+                () -> checkoutIdempotencyService.createSalesTransaction("key-1", request("10.00")));
+        CreateTransactionResponseDto retried = checkoutIdempotencyService.createSalesTransaction("key-1", request("10.00"));
+
+        assertEquals(42L, retried.transaction().salesTransactionId());
+        verify(salesTransactionService, times(2)).createSalesTransaction(any());
+    }
+
+    @Test
+    void createSalesTransaction_overlongKeyIsRejected() {
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> checkoutIdempotencyService.createSalesTransaction("k".repeat(65), request("10.00")));
+
+        assertEquals("INVALID_IDEMPOTENCY_KEY", ex.getErrorCode());
+        verifyNoInteractions(salesTransactionService, idempotentRequestRepository);
+    }
+
+    private IdempotentRequest stored(String key, SalesTransactionRequestDto request, CreateTransactionResponseDto response)
+            throws Exception {
+        IdempotentRequest stored = new IdempotentRequest(key, checkoutIdempotencyService.hash(request));
+        stored.complete(response.transaction().salesTransactionId(), objectMapper.writeValueAsString(response));
+        return stored;
+    }
+
+    private static SalesTransactionRequestDto request(String price) {
+        return new SalesTransactionRequestDto(1L, "0.90", "10.90", List.of(new SalesDetailsDto(5L, 1, price)));
+    }
+
+    private static CreateTransactionResponseDto response(long transactionId) {
+        SalesTransactionResponseDto transaction = new SalesTransactionResponseDto(transactionId, 1L, "10.00", "GST",
+                "0.09", "0.90", "10.90", List.of(new SalesDetailsDto(5L, 1, "10.00")), "2026-10-18 10:15:00");
+        PaymentResponseDto paymentIntent = new PaymentResponseDto("secret", "pi_1", 9L, transactionId, 10.90, "SGD",
+                PaymentStatus.PROCESSING, null);
+        return new CreateTransactionResponseDto(transaction, paymentIntent);
+    }
+}
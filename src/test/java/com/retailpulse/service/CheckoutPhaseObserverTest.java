@@ -0,0 +1,66 @@
+package com.retailpulse.service;
+
+import com.retailpulse.exception.BusinessException;
+import com.retailpulse.service.CheckoutPhaseObserver.Phase;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckoutPhaseObserverTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private CheckoutPhaseObserver checkoutPhaseObserver;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    ObservationRegistry observationRegistry = ObservationRegistry.create();
+    observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+    checkoutPhaseObserver = new CheckoutPhaseObserver(observationRegistry);
+  }
+
+  @Test
+  void observe_success_timesPhaseWithSuccessOutcome() {
+    String result = checkoutPhaseObserver.observe(Phase.TAX_LOOKUP, () -> "GST");
+
+    assertEquals("GST", result);
+    Timer timer = timer("tax_lookup", "success", "none");
+    assertEquals(1, timer.count());
+  }
+
+  @Test
+  void observe_businessException_tagsErrorCodeAndRethrows() {
+    BusinessException ex = assertThrows(BusinessException.class, () ->
+      checkoutPhaseObserver.observe(Phase.INVENTORY_UPDATE, () -> {
+        throw new BusinessException("INVENTORY_UPDATE_FAILED", "Inventory update failed");
+      })
+    );
+
+    assertEquals("INVENTORY_UPDATE_FAILED", ex.getErrorCode());
+    assertEquals(1, timer("inventory_update", "error", "INVENTORY_UPDATE_FAILED").count());
+  }
+
+  @Test
+  void observe_otherException_tagsExceptionClass() {
+    assertThrows(IllegalStateException.class, () ->
+      checkoutPhaseObserver.observe(Phase.SAVE, () -> {
+        throw new IllegalStateException("connection closed");
+      })
+    );
+
+    assertEquals(1, timer("save", "error", "IllegalStateException").count());
+  }
+
+  private Timer timer(String phase, String outcome, String errorCode) {
+    return meterRegistry.get(CheckoutPhaseObserver.OBSERVATION_NAME)
+      .tag("phase", phase)
+      .tag("outcome", outcome)
+      .tag("error.code", errorCode)
+      .timer();
+  }
+}
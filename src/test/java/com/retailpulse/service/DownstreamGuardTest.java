@@ -0,0 +1,129 @@
+package com.retailpulse.service;
+
+import com.retailpulse.exception.DependencyUnavailableException;
+import com.retailpulse.service.DownstreamGuard.Dependency;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownstreamGuardTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private DownstreamGuard downstreamGuard;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .ignoreExceptions(FeignException.FeignClientException.class)
+                .build());
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        downstreamGuard = new DownstreamGuard(circuitBreakerRegistry, bulkheadRegistry, meterRegistry);
+    }
+
+    @Test
+    void call_serverErrorsOpenCircuitAndLaterCallsFailFast() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(FeignException.class, () -> downstreamGuard.call(Dependency.PAYMENT, () -> {
+                throw error(503);
+            }));
+        }
+
+        DependencyUnavailableException ex = assertThrows(DependencyUnavailableException.class,
+                () -> downstreamGuard.call(Dependency.PAYMENT, () -> fail("call must not be made")));
+
+        assertEquals("PAYMENT_SERVICE_UNAVAILABLE", ex.getErrorCode());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker("payment-service").getState());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakerRegistry.circuitBreaker("inventory-service").getState());
+        assertEquals(1.0, rejections("payment-service", "circuit_open"));
+    }
+
+    @Test
+    void call_clientErrorsDoNotOpenCircuit() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(FeignException.class, () -> downstreamGuard.call(Dependency.INVENTORY, () -> {
+                throw error(409);
+            }));
+        }
+
+        assertEquals("ok", downstreamGuard.call(Dependency.INVENTORY, () -> "ok"));
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakerRegistry.circuitBreaker("inventory-service").getState());
+    }
+
+    @Test
+    void call_fullBulkheadRejectsWithoutCalling() throws Exception {
+        CountDownLatch inCall = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> slowCall = executor.submit(() -> downstreamGuard.call(Dependency.INVENTORY, () -> {
+                inCall.countDown();
+                await(release);
+                return "done";
+            }));
+            inCall.await();
+
+            DependencyUnavailableException ex = assertThrows(DependencyUnavailableException.class,
+                    () -> downstreamGuard.call(Dependency.INVENTORY, () -> fail("call must not be made")));
+            assertEquals("INVENTORY_SERVICE_BUSY", ex.getErrorCode());
+            // the other dependency has its own bulkhead
+            assertEquals("paid", downstreamGuard.call(Dependency.PAYMENT, () -> "paid"));
+
+            release.countDown();
+            assertEquals("done", slowCall.get());
+        }
+
+        assertEquals(1.0, rejections("inventory-service", "bulkhead_full"));
+    }
+
+    private double rejections(String dependency, String reason) {
+        return meterRegistry.get("sales.downstream.rejections")
+                .tag("dependency", dependency)
+                .tag("reason", reason)
+                .counter().count();
+    }
+
+    private static FeignException error(int status) {
+        Request request = Request.create(Request.HttpMethod.POST, "http://localhost/api", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("call", Response.builder()
+                .status(status)
+                .request(request)
+                .headers(Map.of())
+                .build());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
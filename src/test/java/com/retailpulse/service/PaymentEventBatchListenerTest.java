@@ -0,0 +1,141 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.PaymentEventDto;
+import com.retailpulse.dto.TransactionStatusUpdateDto;
+import com.retailpulse.entity.PaymentStatus;
+import com.retailpulse.entity.TransactionStatus;
+import com.retailpulse.exception.BusinessException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentEventBatchListenerTest {
+
+  @Mock
+  private SalesTransactionService salesTransactionService;
+
+  @Mock
+  private PaymentEventDeduplicator paymentEventDeduplicator;
+
+  @Mock
+  private PaymentEventRetryPublisher paymentEventRetryPublisher;
+
+  @InjectMocks
+  private PaymentEventBatchListener paymentEventBatchListener;
+
+  private long offset;
+
+  @Test
+  void handlePaymentEvents_collapsesToLatestEventPerTransaction() {
+    LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+    List<ConsumerRecord<String, PaymentEventDto>> records = List.of(
+      record(event(1L, PaymentStatus.SUCCEEDED, now.plusMinutes(5))),
+      record(event(1L, PaymentStatus.PROCESSING, now)),
+      record(event(2L, PaymentStatus.CANCELED, now)),
+      record(event(2L, PaymentStatus.SUCCEEDED, now))
+    );
+
+    paymentEventBatchListener.handlePaymentEvents(records);
+
+    List<TransactionStatusUpdateDto> updates = captureUpdates();
+    assertEquals(2, updates.size());
+    assertEquals(1L, updates.get(0).transactionId());
+    assertEquals(TransactionStatus.COMPLETED, updates.get(0).status());
+    // equal event dates: the record read last wins
+    assertEquals(2L, updates.get(1).transactionId());
+    assertEquals(TransactionStatus.COMPLETED, updates.get(1).status());
+  }
+
+  @Test
+  void handlePaymentEvents_skipsUndeserializableAndIncompleteEvents() {
+    List<ConsumerRecord<String, PaymentEventDto>> records = new ArrayList<>();
+    records.add(record(null));
+    records.add(record(event(null, PaymentStatus.SUCCEEDED, LocalDateTime.now())));
+    records.add(record(event(3L, PaymentStatus.FAILED, null)));
+
+    paymentEventBatchListener.handlePaymentEvents(records);
+
+    List<TransactionStatusUpdateDto> updates = captureUpdates();
+    assertEquals(1, updates.size());
+    assertEquals(3L, updates.get(0).transactionId());
+    assertEquals(TransactionStatus.REJECTED, updates.get(0).status());
+    assertNotNull(updates.get(0).paymentEventDate());
+  }
+
+  @Test
+  void handlePaymentEvents_nothingToApply_doesNotCallService() {
+    List<ConsumerRecord<String, PaymentEventDto>> records = new ArrayList<>();
+    records.add(record(null));
+
+    paymentEventBatchListener.handlePaymentEvents(records);
+
+    verify(salesTransactionService, never()).updateTransactionStatuses(any());
+  }
+
+  @Test
+  void handlePaymentEvents_dropsRedeliveredEventsAndRecordsAppliedOnes() {
+    PaymentEventDto redelivered = event(1L, PaymentStatus.SUCCEEDED, LocalDateTime.now());
+    PaymentEventDto fresh = new PaymentEventDto(11L, "pi_456", 2L, new BigDecimal("10.00"), "SGD",
+      "customer@example.com", PaymentStatus.SUCCEEDED, LocalDateTime.now());
+    when(paymentEventDeduplicator.isDuplicate(redelivered)).thenReturn(true);
+
+    paymentEventBatchListener.handlePaymentEvents(List.of(record(redelivered), record(fresh)));
+
+    List<TransactionStatusUpdateDto> updates = captureUpdates();
+    assertEquals(1, updates.size());
+    assertEquals(2L, updates.get(0).transactionId());
+    verify(paymentEventDeduplicator).markApplied(fresh);
+  }
+
+  @Test
+  void handlePaymentEvents_forwardsEventsOfMissingTransactionsToRetry() {
+    LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+    PaymentEventDto older = event(1L, PaymentStatus.PROCESSING, now);
+    PaymentEventDto latest = event(1L, PaymentStatus.SUCCEEDED, now.plusMinutes(1));
+    PaymentEventDto applied = event(2L, PaymentStatus.SUCCEEDED, now);
+    ConsumerRecord<String, PaymentEventDto> latestRecord = record(latest);
+    when(salesTransactionService.updateTransactionStatuses(any())).thenAnswer(invocation ->
+      invocation.<List<TransactionStatusUpdateDto>>getArgument(0).stream()
+        .filter(update -> update.transactionId() == 1L)
+        .toList());
+
+    paymentEventBatchListener.handlePaymentEvents(List.of(record(older), latestRecord, record(applied)));
+
+    verify(paymentEventRetryPublisher).forward(eq(latestRecord), any(BusinessException.class));
+    verifyNoMoreInteractions(paymentEventRetryPublisher);
+    verify(paymentEventDeduplicator).markApplied(applied);
+    verify(paymentEventDeduplicator, never()).markApplied(older);
+    verify(paymentEventDeduplicator, never()).markApplied(latest);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<TransactionStatusUpdateDto> captureUpdates() {
+    ArgumentCaptor<List<TransactionStatusUpdateDto>> captor = ArgumentCaptor.forClass(List.class);
+    verify(salesTransactionService, times(1)).updateTransactionStatuses(captor.capture());
+    return captor.getValue();
+  }
+
+  private ConsumerRecord<String, PaymentEventDto> record(PaymentEventDto paymentEvent) {
+    return new ConsumerRecord<>("payment-events", 0, offset++, null, paymentEvent);
+  }
+
+  private static PaymentEventDto event(Long transactionId, PaymentStatus status, LocalDateTime paymentEventDate) {
+    return new PaymentEventDto(10L, "pi_123", transactionId, new BigDecimal("10.00"), "SGD",
+      "customer@example.com", status, paymentEventDate);
+  }
+}
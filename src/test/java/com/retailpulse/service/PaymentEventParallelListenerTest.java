@@ -0,0 +1,143 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.PaymentEventDto;
+import com.retailpulse.entity.PaymentStatus;
+import com.retailpulse.entity.TransactionStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PaymentEventParallelListenerTest {
+
+    private static final String TOPIC = "payment-events";
+
+    private SalesTransactionService salesTransactionService;
+    private PaymentEventRetryPublisher paymentEventRetryPublisher;
+    private SimpleMeterRegistry meterRegistry;
+    private Consumer<?, ?> consumer;
+    private PaymentEventParallelListener listener;
+    private long offset;
+
+    @BeforeEach
+    void setUp() {
+        salesTransactionService = mock(SalesTransactionService.class);
+        paymentEventRetryPublisher = mock(PaymentEventRetryPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = mock(Consumer.class);
+        when(consumer.assignment()).thenReturn(Set.of(new TopicPartition(TOPIC, 0)));
+        when(consumer.currentLag(any())).thenReturn(OptionalLong.of(42));
+
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor();
+        taskExecutor.setVirtualThreads(true);
+        PaymentEventDeduplicator paymentEventDeduplicator = new PaymentEventDeduplicator(meterRegistry, 100, 60);
+        listener = new PaymentEventParallelListener(new PaymentEventProcessor(salesTransactionService, paymentEventDeduplicator),
+                paymentEventDeduplicator, paymentEventRetryPublisher, taskExecutor, meterRegistry, 4);
+    }
+
+    @Test
+    void handlePaymentEvents_appliesEventsOfOneTransactionInOffsetOrder() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+        listener.handlePaymentEvents(List.of(
+                record(event(1L, PaymentStatus.PROCESSING, now)),
+                record(event(2L, PaymentStatus.FAILED, now)),
+                record(event(1L, PaymentStatus.SUCCEEDED, now.plusMinutes(1))),
+                record(event(1L, PaymentStatus.CANCELED, now.plusMinutes(2)))), consumer);
+
+        InOrder inOrder = inOrder(salesTransactionService);
+        inOrder.verify(salesTransactionService).updateTransactionStatus(eq(1L), eq(TransactionStatus.PENDING_PAYMENT), any());
+        inOrder.verify(salesTransactionService).updateTransactionStatus(eq(1L), eq(TransactionStatus.COMPLETED), any());
+        inOrder.verify(salesTransactionService).updateTransactionStatus(eq(1L), eq(TransactionStatus.CANCELLED), any());
+        verify(salesTransactionService).updateTransactionStatus(eq(2L), eq(TransactionStatus.REJECTED), any());
+    }
+
+    @Test
+    void handlePaymentEvents_appliesDifferentTransactionsOfOnePartitionConcurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            bothStarted.countDown();
+            // only completes if the other transaction is being applied at the same time
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+            return null;
+        }).when(salesTransactionService).updateTransactionStatus(any(), any(), any());
+
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        listener.handlePaymentEvents(List.of(
+                record(event(1L, PaymentStatus.SUCCEEDED, now)),
+                record(event(2L, PaymentStatus.SUCCEEDED, now))), consumer);
+
+        assertEquals(0, bothStarted.getCount());
+    }
+
+    @Test
+    void handlePaymentEvents_failedEventIsForwardedAndDoesNotStopItsTransaction() {
+        IllegalStateException lockWaitTimeout = new IllegalStateException("lock wait timeout");
+        doThrow(lockWaitTimeout)
+                .when(salesTransactionService).updateTransactionStatus(eq(1L), eq(TransactionStatus.PENDING_PAYMENT), any());
+
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        ConsumerRecord<String, PaymentEventDto> failed = record(event(1L, PaymentStatus.PROCESSING, now));
+        listener.handlePaymentEvents(List.of(
+                failed,
+                record(event(1L, PaymentStatus.SUCCEEDED, now.plusMinutes(1)))), consumer);
+
+        verify(paymentEventRetryPublisher).forward(failed, lockWaitTimeout);
+        verify(salesTransactionService).updateTransactionStatus(eq(1L), eq(TransactionStatus.COMPLETED), any());
+    }
+
+    @Test
+    void handlePaymentEvents_dropsRedeliveredEventButRetriesFailedOne() {
+        doThrow(new IllegalStateException("lock wait timeout")).doNothing()
+                .when(salesTransactionService).updateTransactionStatus(eq(2L), any(), any());
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        PaymentEventDto applied = event(1L, PaymentStatus.SUCCEEDED, now);
+        PaymentEventDto failed = new PaymentEventDto(11L, "pi_456", 2L, new BigDecimal("10.00"), "SGD",
+                "customer@example.com", PaymentStatus.SUCCEEDED, now);
+
+        listener.handlePaymentEvents(List.of(record(applied), record(failed)), consumer);
+        listener.handlePaymentEvents(List.of(record(applied), record(failed)), consumer);
+
+        verify(salesTransactionService, times(1)).updateTransactionStatus(eq(1L), any(), any());
+        verify(salesTransactionService, times(2)).updateTransactionStatus(eq(2L), any(), any());
+    }
+
+    @Test
+    void handlePaymentEvents_skipsUnusableRecordsAndPublishesPartitionMetrics() {
+        listener.handlePaymentEvents(List.of(
+                record(null),
+                record(event(null, PaymentStatus.SUCCEEDED, null)),
+                record(event(3L, null, null))), consumer);
+
+        verify(salesTransactionService, never()).updateTransactionStatus(any(), any(), any());
+        assertEquals(0, meterRegistry.get("sales.payment.events.in.flight").tag("partition", "0").gauge().value());
+        assertEquals(42, meterRegistry.get("sales.payment.events.lag").tag("topic", TOPIC).tag("partition", "0").gauge().value());
+    }
+
+    private ConsumerRecord<String, PaymentEventDto> record(PaymentEventDto event) {
+        String key = event != null && event.transactionId() != null ? event.transactionId().toString() : null;
+        return new ConsumerRecord<>(TOPIC, 0, offset++, key, event);
+    }
+
+    private static PaymentEventDto event(Long transactionId, PaymentStatus status, LocalDateTime date) {
+        return new PaymentEventDto(10L, "pi_123", transactionId, new BigDecimal("10.00"), "SGD",
+                "customer@example.com", status, date);
+    }
+}
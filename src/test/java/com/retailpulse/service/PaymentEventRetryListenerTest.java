@@ -0,0 +1,80 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.PaymentEventDto;
+import com.retailpulse.entity.PaymentStatus;
+import com.retailpulse.exception.BusinessException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PaymentEventRetryListenerTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T01:30:00Z");
+
+    private PaymentEventProcessor paymentEventProcessor;
+    private PaymentEventRetryPublisher paymentEventRetryPublisher;
+    private Acknowledgment acknowledgment;
+    private PaymentEventRetryListener listener;
+
+    @BeforeEach
+    void setUp() {
+        paymentEventProcessor = mock(PaymentEventProcessor.class);
+        paymentEventRetryPublisher = mock(PaymentEventRetryPublisher.class);
+        acknowledgment = mock(Acknowledgment.class);
+        listener = new PaymentEventRetryListener(paymentEventProcessor, paymentEventRetryPublisher, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void handleRetry_recordNotDueYetIsRedeliveredAfterTheRemainingDelay() {
+        ConsumerRecord<String, PaymentEventDto> record = record(NOW.plusMillis(4000));
+
+        listener.handleRetry(record, acknowledgment);
+
+        verify(acknowledgment).nack(Duration.ofMillis(4000));
+        verify(acknowledgment, never()).acknowledge();
+        verifyNoInteractions(paymentEventProcessor);
+    }
+
+    @Test
+    void handleRetry_dueRecordIsProcessedAndAcknowledged() {
+        ConsumerRecord<String, PaymentEventDto> record = record(NOW.minusMillis(1));
+
+        listener.handleRetry(record, acknowledgment);
+
+        verify(paymentEventProcessor).process(record.value());
+        verify(acknowledgment).acknowledge();
+        verifyNoInteractions(paymentEventRetryPublisher);
+    }
+
+    @Test
+    void handleRetry_failedAgainMovesToNextTier() {
+        ConsumerRecord<String, PaymentEventDto> record = record(NOW);
+        BusinessException notFound = new BusinessException("NOT_FOUND", "Sales transaction not found for id: 7");
+        doThrow(notFound).when(paymentEventProcessor).process(any());
+
+        listener.handleRetry(record, acknowledgment);
+
+        verify(paymentEventRetryPublisher).forward(record, notFound);
+        verify(acknowledgment).acknowledge();
+    }
+
+    private static ConsumerRecord<String, PaymentEventDto> record(Instant notBefore) {
+        ConsumerRecord<String, PaymentEventDto> record = new ConsumerRecord<>("payment-events-retry-1", 0, 0L, "7",
+                new PaymentEventDto(10L, "pi_123", 7L, new BigDecimal("10.00"), "SGD",
+                        "customer@example.com", PaymentStatus.SUCCEEDED, null));
+        record.headers().add(PaymentEventRetryPublisher.NOT_BEFORE_HEADER,
+                ByteBuffer.allocate(Long.BYTES).putLong(notBefore.toEpochMilli()).array());
+        return record;
+    }
+}
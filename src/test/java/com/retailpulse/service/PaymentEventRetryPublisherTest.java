@@ -0,0 +1,124 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.PaymentEventDto;
+import com.retailpulse.entity.PaymentStatus;
+import com.retailpulse.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PaymentEventRetryPublisherTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T01:30:00Z");
+
+    private KafkaTemplate<Object, Object> kafkaTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentEventRetryPublisher publisher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new PaymentEventRetryPublisher(kafkaTemplate, meterRegistry, "payment-events", 1000, 5, 1000,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void forward_failedMainEventGoesToFirstTierWithItsOrigin() {
+        ConsumerRecord<String, PaymentEventDto> record = new ConsumerRecord<>("payment-events", 2, 41L, "7", event());
+
+        publisher.forward(record, new BusinessException("NOT_FOUND", "Sales transaction not found for id: 7"));
+
+        ProducerRecord<Object, Object> sent = sent();
+        assertEquals("payment-events-retry-0", sent.topic());
+        assertEquals("7", sent.key());
+        assertSame(record.value(), sent.value());
+        Headers headers = sent.headers();
+        assertEquals("payment-events", string(headers, KafkaHeaders.DLT_ORIGINAL_TOPIC));
+        assertEquals(2, ByteBuffer.wrap(headers.lastHeader(KafkaHeaders.DLT_ORIGINAL_PARTITION).value()).getInt());
+        assertEquals(41L, ByteBuffer.wrap(headers.lastHeader(KafkaHeaders.DLT_ORIGINAL_OFFSET).value()).getLong());
+        assertEquals(BusinessException.class.getName(), string(headers, KafkaHeaders.DLT_EXCEPTION_FQCN));
+        assertEquals(NOW.toEpochMilli() + 1000, PaymentEventRetryPublisher.notBefore(headers));
+        assertEquals(1, meterRegistry.get("sales.payment.events.forwarded").tag("tier", "retry-0").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void forward_delayGrowsByMultiplierPerTier() {
+        publisher.forward(new ConsumerRecord<>("payment-events", 0, 0L, "7", event()), new IllegalStateException("first"));
+        ProducerRecord<Object, Object> firstRetry = sent();
+        ConsumerRecord<String, PaymentEventDto> retried = new ConsumerRecord<>("payment-events-retry-0", 0, 0L, "7", event());
+        firstRetry.headers().forEach(header -> retried.headers().add(header));
+        clearInvocations(kafkaTemplate);
+
+        publisher.forward(retried, new IllegalStateException("second"));
+
+        ProducerRecord<Object, Object> secondRetry = sent();
+        assertEquals("payment-events-retry-1", secondRetry.topic());
+        assertEquals(NOW.toEpochMilli() + 5000, PaymentEventRetryPublisher.notBefore(secondRetry.headers()));
+        // still points at the event's position on the payment topic, with the latest failure
+        assertEquals("payment-events", string(secondRetry.headers(), KafkaHeaders.DLT_ORIGINAL_TOPIC));
+        assertEquals("second", string(secondRetry.headers(), KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+    }
+
+    @Test
+    void forward_afterLastTierGoesToDeadLetterTopic() {
+        ConsumerRecord<String, PaymentEventDto> record = new ConsumerRecord<>("payment-events-retry-2", 0, 9L, "7", event());
+        record.headers().add(PaymentEventRetryPublisher.ATTEMPT_HEADER, ByteBuffer.allocate(Integer.BYTES).putInt(3).array());
+        record.headers().add(KafkaHeaders.DLT_ORIGINAL_TOPIC, "payment-events".getBytes(StandardCharsets.UTF_8));
+
+        publisher.forward(record, new IllegalStateException("lock wait timeout"));
+
+        ProducerRecord<Object, Object> sent = sent();
+        assertEquals("payment-events-dlt", sent.topic());
+        assertEquals("payment-events", string(sent.headers(), KafkaHeaders.DLT_ORIGINAL_TOPIC));
+        assertEquals("lock wait timeout", string(sent.headers(), KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+        assertEquals(0, PaymentEventRetryPublisher.notBefore(sent.headers()));
+        assertEquals(1, meterRegistry.get("sales.payment.events.forwarded").tag("tier", "dlt").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void forward_failedSendPropagates() {
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        assertThrows(IllegalStateException.class, () -> publisher.forward(
+                new ConsumerRecord<>("payment-events", 0, 0L, "7", event()), new IllegalStateException("first")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProducerRecord<Object, Object> sent() {
+        ArgumentCaptor<ProducerRecord<Object, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(captor.capture());
+        return captor.getValue();
+    }
+
+    private static String string(Headers headers, String name) {
+        return new String(headers.lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+
+    private static PaymentEventDto event() {
+        return new PaymentEventDto(10L, "pi_123", 7L, new BigDecimal("10.00"), "SGD",
+                "customer@example.com", PaymentStatus.SUCCEEDED, null);
+    }
+}
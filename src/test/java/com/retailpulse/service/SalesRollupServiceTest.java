@@ -0,0 +1,271 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.TransactionStatusUpdateDto;
+import com.retailpulse.entity.SalesDetails;
+import com.retailpulse.entity.SalesTax;
+import com.retailpulse.entity.SalesTransaction;
+import com.retailpulse.entity.TaxType;
+import com.retailpulse.entity.TransactionStatus;
+import com.retailpulse.exception.BusinessException;
+import com.retailpulse.repository.ProductDailyRollupRepository;
+import com.retailpulse.repository.SalesDailyRollupRepository;
+import com.retailpulse.repository.SalesRollupRepository;
+import com.retailpulse.repository.SalesRollupRepository.DailyIncrement;
+import com.retailpulse.repository.SalesRollupRepository.ProductIncrement;
+import com.retailpulse.repository.SalesTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SalesRollupServiceTest {
+
+    // 2025-03-01 09:30 in Singapore
+    private static final Instant SALE_TIME = Instant.parse("2025-03-01T01:30:00Z");
+    private static final LocalDate SALE_DAY = LocalDate.of(2025, 3, 1);
+
+    private SalesRollupRepository salesRollupRepository;
+    private SalesTransactionRepository salesTransactionRepository;
+    private TransactionTemplate transactionTemplate;
+    private SalesRollupService salesRollupService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        salesRollupRepository = mock(SalesRollupRepository.class);
+        salesTransactionRepository = mock(SalesTransactionRepository.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            ((Consumer<org.springframework.transaction.TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor();
+        taskExecutor.setVirtualThreads(true);
+        salesRollupService = new SalesRollupService(salesRollupRepository, mock(SalesDailyRollupRepository.class),
+                mock(ProductDailyRollupRepository.class), salesTransactionRepository, transactionTemplate, taskExecutor,
+                "Asia/Singapore", 2, 31);
+    }
+
+    @Test
+    void recordStatusChange_completedSaleAddsToStoreAndProductRollups() {
+        SalesTransaction sale = sale(1L, 10L, Map.of(100L, 4, 200L, 1));
+
+        salesRollupService.recordStatusChange(sale, TransactionStatus.PENDING_PAYMENT, TransactionStatus.COMPLETED);
+
+        DailyIncrement daily = single(dailyIncrements());
+        assertEquals(10L, daily.businessEntityId());
+        assertEquals(SALE_DAY, daily.salesDate());
+        assertEquals(1, daily.completedCount());
+        assertEquals(sale.getSubtotal(), daily.subtotal());
+        assertEquals(sale.getSalesTaxAmount(), daily.taxAmount());
+        assertEquals(sale.getTotal(), daily.total());
+        assertEquals(0, daily.refundedCount());
+        assertEquals(0, daily.cancelledCount());
+
+        List<ProductIncrement> products = productIncrements();
+        assertEquals(List.of(100L, 200L), products.stream().map(ProductIncrement::productId).toList());
+        assertEquals(4, products.get(0).quantitySold());
+        assertEquals(0, new BigDecimal("10.00").compareTo(products.get(0).revenue()));
+    }
+
+    @Test
+    void recordStatusChange_refundOfCompletedSaleAddsOnlyTheRefund() {
+        SalesTransaction sale = sale(1L, 10L, Map.of(100L, 4));
+
+        salesRollupService.recordStatusChange(sale, TransactionStatus.COMPLETED, TransactionStatus.REFUNDED);
+
+        DailyIncrement daily = single(dailyIncrements());
+        assertEquals(0, daily.completedCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(daily.total()));
+        assertEquals(1, daily.refundedCount());
+        assertEquals(sale.getTotal(), daily.refundedTotal());
+        ProductIncrement product = single(productIncrements());
+        assertEquals(0, product.quantitySold());
+        assertEquals(4, product.refundedQuantity());
+    }
+
+    @Test
+    void recordStatusChange_completedSaleMovedBackIsSubtracted() {
+        SalesTransaction sale = sale(1L, 10L, Map.of(100L, 4));
+
+        salesRollupService.recordStatusChange(sale, TransactionStatus.COMPLETED, TransactionStatus.PENDING_PAYMENT);
+
+        DailyIncrement daily = single(dailyIncrements());
+        assertEquals(-1, daily.completedCount());
+        assertEquals(sale.getTotal().negate(), daily.total());
+        assertEquals(-4, single(productIncrements()).quantitySold());
+    }
+
+    @Test
+    void recordStatusChange_unchangedWeightWritesNothing() {
+        SalesTransaction sale = sale(1L, 10L, Map.of(100L, 4));
+
+        salesRollupService.recordStatusChange(sale, TransactionStatus.PENDING_PAYMENT, TransactionStatus.REJECTED);
+
+        assertTrue(dailyIncrements().isEmpty());
+        assertTrue(productIncrements().isEmpty());
+    }
+
+    @Test
+    void recordLinesChange_completedSaleMovesToItsNewLines() {
+        SalesTransaction sale = sale(1L, 10L, Map.of(100L, 4, 200L, 1));
+        sale.setStatus(TransactionStatus.COMPLETED);
+        BigDecimal oldTotal = sale.getTotal();
+
+        salesRollupService.recordLinesChange(sale, () -> sale.updateSalesDetails(Map.of(
+                100L, new SalesDetails(100L, 6, new BigDecimal("2.50")),
+                300L, new SalesDetails(300L, 1, new BigDecimal("2.50")))));
+
+        DailyIncrement daily = single(dailyIncrements());
+        assertEquals(0, daily.completedCount());
+        assertEquals(0, sale.getTotal().subtract(oldTotal).compareTo(daily.total()));
+        Map<Long, Long> quantities = new LinkedHashMap<>();
+        productIncrements().forEach(product -> quantities.put(product.productId(), product.quantitySold()));
+        assertEquals(Map.of(100L, 2L, 200L, -1L, 300L, 1L), quantities);
+    }
+
+    @Test
+    void recordLinesChange_pendingSaleWritesNothing() {
+        SalesTransaction sale = sale(1L, 10L, Map.of(100L, 4));
+        sale.setStatus(TransactionStatus.PENDING_PAYMENT);
+
+        salesRollupService.recordLinesChange(sale, () -> sale.updateSalesDetails(Map.of(
+                100L, new SalesDetails(100L, 6, new BigDecimal("2.50")))));
+
+        assertEquals(6, sale.getSalesDetailEntities().get(100L).getQuantity());
+        assertTrue(dailyIncrements().isEmpty());
+        assertTrue(productIncrements().isEmpty());
+    }
+
+    @Test
+    void recordStatusChanges_sumsSalesOfSameStoreAndDayFromOneLoad() {
+        SalesTransaction first = sale(1L, 10L, Map.of(100L, 4));
+        SalesTransaction second = sale(2L, 10L, Map.of(100L, 1));
+        SalesTransaction otherStore = sale(3L, 20L, Map.of(300L, 2));
+        when(salesTransactionRepository.findAllWithDetailsByIdIn(any())).thenReturn(List.of(first, second, otherStore));
+
+        salesRollupService.recordStatusChanges(List.of(
+                new TransactionStatusUpdateDto(1L, TransactionStatus.COMPLETED, Instant.now()),
+                new TransactionStatusUpdateDto(2L, TransactionStatus.COMPLETED, Instant.now()),
+                new TransactionStatusUpdateDto(3L, TransactionStatus.CANCELLED, Instant.now())));
+
+        verify(salesTransactionRepository, times(1)).findAllWithDetailsByIdIn(any());
+        List<DailyIncrement> daily = dailyIncrements();
+        assertEquals(2, daily.size());
+        assertEquals(10L, daily.get(0).businessEntityId());
+        assertEquals(2, daily.get(0).completedCount());
+        assertEquals(first.getTotal().add(second.getTotal()), daily.get(0).total());
+        assertEquals(20L, daily.get(1).businessEntityId());
+        assertEquals(1, daily.get(1).cancelledCount());
+        ProductIncrement product = single(productIncrements());
+        assertEquals(100L, product.productId());
+        assertEquals(5, product.quantitySold());
+    }
+
+    @Test
+    void recordStatusChanges_loadsOnlyTransactionsWhoseCountsChange() {
+        SalesTransaction refunded = sale(1L, 10L, Map.of(100L, 4));
+        when(salesTransactionRepository.findAllWithDetailsByIdIn(any())).thenReturn(List.of(refunded));
+
+        salesRollupService.recordStatusChanges(List.of(
+                new TransactionStatusUpdateDto(1L, TransactionStatus.REFUNDED, Instant.now()),
+                new TransactionStatusUpdateDto(2L, TransactionStatus.REJECTED, Instant.now()),
+                new TransactionStatusUpdateDto(3L, TransactionStatus.PENDING_PAYMENT, Instant.now())));
+
+        verify(salesTransactionRepository).findAllWithDetailsByIdIn(Set.of(1L));
+        DailyIncrement daily = single(dailyIncrements());
+        assertEquals(0, daily.completedCount());
+        assertEquals(1, daily.refundedCount());
+        assertEquals(4, single(productIncrements()).refundedQuantity());
+    }
+
+    @Test
+    void recordStatusChanges_noCountChangeReadsNothing() {
+        salesRollupService.recordStatusChanges(List.of(
+                new TransactionStatusUpdateDto(2L, TransactionStatus.REJECTED, Instant.now())));
+
+        verifyNoInteractions(salesTransactionRepository, salesRollupRepository);
+    }
+
+    @Test
+    void rebuild_rebuildsEveryLocalDayInItsOwnTransaction() {
+        int days = salesRollupService.rebuild(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 3));
+
+        assertEquals(3, days);
+        verify(transactionTemplate, times(3)).executeWithoutResult(any());
+        verify(salesRollupRepository).rebuildDay(SALE_DAY,
+                Instant.parse("2025-02-28T16:00:00Z"), Instant.parse("2025-03-01T16:00:00Z"));
+        verify(salesRollupRepository).rebuildDay(eq(LocalDate.of(2025, 3, 2)), any(), any());
+        verify(salesRollupRepository).rebuildDay(eq(LocalDate.of(2025, 3, 3)), any(), any());
+    }
+
+    @Test
+    void rebuild_failedDayIsReportedAfterTheOthersAreRebuilt() {
+        doThrow(new IllegalStateException("lock wait timeout"))
+                .when(salesRollupRepository).rebuildDay(eq(LocalDate.of(2025, 3, 2)), any(), any());
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> salesRollupService.rebuild(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 3)));
+
+        assertEquals("ROLLUP_REBUILD_FAILED", ex.getErrorCode());
+        assertTrue(ex.getMessage().contains("2025-03-02"));
+        verify(salesRollupRepository, times(3)).rebuildDay(any(), any(), any());
+    }
+
+    @Test
+    void getDailySales_rejectsRangeLongerThanMaxDays() {
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> salesRollupService.getDailySales(10L, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 1)));
+
+        assertEquals("INVALID_DATE_RANGE", ex.getErrorCode());
+    }
+
+    private List<DailyIncrement> dailyIncrements() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DailyIncrement>> captor = ArgumentCaptor.forClass(List.class);
+        verify(salesRollupRepository).addDaily(captor.capture());
+        return captor.getValue();
+    }
+
+    private List<ProductIncrement> productIncrements() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ProductIncrement>> captor = ArgumentCaptor.forClass(List.class);
+        verify(salesRollupRepository).addProducts(captor.capture());
+        return captor.getValue();
+    }
+
+    private static <T> T single(List<T> values) {
+        assertEquals(1, values.size());
+        return values.get(0);
+    }
+
+    private static SalesTransaction sale(long id, long businessEntityId, Map<Long, Integer> quantities) {
+        Map<Long, SalesDetails> details = new LinkedHashMap<>();
+        quantities.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> details.put(entry.getKey(),
+                        new SalesDetails(entry.getKey(), entry.getValue(), new BigDecimal("2.50"))));
+        SalesTransaction transaction = new SalesTransaction(businessEntityId, new SalesTax(TaxType.GST, new BigDecimal("0.09")));
+        transaction.addSalesDetails(details);
+        ReflectionTestUtils.setField(transaction, "id", id);
+        ReflectionTestUtils.setField(transaction, "transactionDate", SALE_TIME);
+        return transaction;
+    }
+}
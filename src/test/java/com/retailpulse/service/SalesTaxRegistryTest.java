@@ -0,0 +1,116 @@
+package com.retailpulse.service;
+
+import com.retailpulse.entity.SalesTax;
+import com.retailpulse.entity.TaxType;
+import com.retailpulse.repository.SalesTaxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SalesTaxRegistryTest {
+
+  private SalesTaxRepository salesTaxRepository;
+  private SimpleMeterRegistry meterRegistry;
+  private SalesTaxRegistry salesTaxRegistry;
+
+  @BeforeEach
+  void setUp() {
+    salesTaxRepository = mock(SalesTaxRepository.class);
+    meterRegistry = new SimpleMeterRegistry();
+    salesTaxRegistry = new SalesTaxRegistry(salesTaxRepository, meterRegistry);
+  }
+
+  @Test
+  void getSalesTax_afterRefresh_servedFromMemory() {
+    when(salesTaxRepository.findAll()).thenReturn(List.of(new SalesTax(TaxType.GST, new BigDecimal("0.09"))));
+
+    salesTaxRegistry.refresh();
+    SalesTax first = salesTaxRegistry.getSalesTax(TaxType.GST);
+    SalesTax second = salesTaxRegistry.getSalesTax(TaxType.GST);
+
+    assertSame(first, second);
+    assertEquals(new BigDecimal("0.09"), first.getTaxRate());
+    verify(salesTaxRepository, never()).findSalesTaxByTaxType(any());
+    assertEquals(2.0, lookups("hit"));
+    assertEquals(0.0, lookups("miss"));
+  }
+
+  @Test
+  void getSalesTax_emptyRegistry_loadsOnceAndCachesRate() {
+    when(salesTaxRepository.findSalesTaxByTaxType(TaxType.GST))
+      .thenReturn(Optional.of(new SalesTax(TaxType.GST, new BigDecimal("0.08"))));
+
+    salesTaxRegistry.getSalesTax(TaxType.GST);
+    SalesTax salesTax = salesTaxRegistry.getSalesTax(TaxType.GST);
+
+    assertEquals(new BigDecimal("0.08"), salesTax.getTaxRate());
+    verify(salesTaxRepository, times(1)).findSalesTaxByTaxType(TaxType.GST);
+    assertEquals(1.0, lookups("hit"));
+    assertEquals(1.0, lookups("miss"));
+  }
+
+  @Test
+  void getSalesTax_rateMissingInDatabase_createsDefaultRate() {
+    when(salesTaxRepository.findSalesTaxByTaxType(TaxType.GST)).thenReturn(Optional.empty());
+    when(salesTaxRepository.save(any(SalesTax.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+    SalesTax salesTax = salesTaxRegistry.getSalesTax(TaxType.GST);
+
+    assertEquals(SalesTaxRegistry.DEFAULT_GST_RATE, salesTax.getTaxRate());
+    verify(salesTaxRepository, times(1)).save(any(SalesTax.class));
+  }
+
+  @Test
+  void refresh_versionOnlyChangesWhenRatesChange() {
+    when(salesTaxRepository.findAll())
+      .thenReturn(List.of(new SalesTax(TaxType.GST, new BigDecimal("0.09"))))
+      .thenReturn(List.of(new SalesTax(TaxType.GST, new BigDecimal("0.090"))))
+      .thenReturn(List.of(new SalesTax(TaxType.GST, new BigDecimal("0.10"))));
+
+    long first = salesTaxRegistry.refresh().version();
+    long unchanged = salesTaxRegistry.refresh().version();
+    long changed = salesTaxRegistry.refresh().version();
+
+    assertEquals(first, unchanged);
+    assertEquals(first + 1, changed);
+    assertEquals(new BigDecimal("0.10"), salesTaxRegistry.getSalesTax(TaxType.GST).getTaxRate());
+  }
+
+  @Test
+  void invalidate_nextLookupReloadsFromDatabase() {
+    when(salesTaxRepository.findAll()).thenReturn(List.of(new SalesTax(TaxType.GST, new BigDecimal("0.09"))));
+    when(salesTaxRepository.findSalesTaxByTaxType(TaxType.GST))
+      .thenReturn(Optional.of(new SalesTax(TaxType.GST, new BigDecimal("0.10"))));
+
+    long version = salesTaxRegistry.refresh().version();
+    salesTaxRegistry.invalidate();
+
+    assertTrue(salesTaxRegistry.getSnapshot().rates().isEmpty());
+    assertTrue(salesTaxRegistry.getSnapshot().version() > version);
+    assertEquals(new BigDecimal("0.10"), salesTaxRegistry.getSalesTax(TaxType.GST).getTaxRate());
+  }
+
+  @Test
+  void scheduledRefresh_databaseDown_keepsServingLastSnapshot() {
+    when(salesTaxRepository.findAll())
+      .thenReturn(List.of(new SalesTax(TaxType.GST, new BigDecimal("0.09"))))
+      .thenThrow(new IllegalStateException("connection refused"));
+
+    salesTaxRegistry.refresh();
+    assertDoesNotThrow(() -> salesTaxRegistry.scheduledRefresh());
+
+    assertEquals(new BigDecimal("0.09"), salesTaxRegistry.getSalesTax(TaxType.GST).getTaxRate());
+  }
+
+  private double lookups(String result) {
+    return meterRegistry.get("sales.tax.registry.lookups").tag("result", result).counter().count();
+  }
+}
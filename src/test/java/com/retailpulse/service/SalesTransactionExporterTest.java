@@ -0,0 +1,133 @@
+package com.retailpulse.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailpulse.entity.TransactionStatus;
+import com.retailpulse.exception.BusinessException;
+import com.retailpulse.repository.SalesTransactionExportRepository;
+import com.retailpulse.repository.SalesTransactionExportRepository.ExportRow;
+import com.retailpulse.service.SalesTransactionExporter.Format;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SalesTransactionExporterTest {
+
+    private static final Instant SALE_TIME = Instant.parse("2025-03-01T01:30:00Z");
+
+    private SalesTransactionExportRepository salesTransactionExportRepository;
+    private SalesTransactionExporter salesTransactionExporter;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        salesTransactionExportRepository = mock(SalesTransactionExportRepository.class);
+        salesTransactionExporter = new SalesTransactionExporter(salesTransactionExportRepository, objectMapper,
+                "Asia/Singapore", 31);
+    }
+
+    @Test
+    void ndjson_writesOneLinePerTransactionWithItsDetails() throws IOException {
+        givenRows(
+                row(1L, 100L, 2, "2.50"),
+                row(1L, 200L, 1, "4.00"),
+                new ExportRow(2L, 10L, TransactionStatus.CANCELLED, new BigDecimal("0.00"), new BigDecimal("0.00"),
+                        new BigDecimal("0.00"), SALE_TIME, null, null, 0, null));
+
+        String body = export(Format.NDJSON, 2);
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(body.endsWith("\n"));
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1L, first.get("salesTransactionId").asLong());
+        assertEquals("COMPLETED", first.get("status").asText());
+        assertEquals("9.00", first.get("subtotal").asText());
+        assertEquals("2025-03-01T01:30:00Z", first.get("transactionDateTime").asText());
+        assertEquals(2, first.get("salesDetails").size());
+        assertEquals(200L, first.get("salesDetails").get(1).get("productId").asLong());
+        assertEquals("4.00", first.get("salesDetails").get(1).get("salesPricePerUnit").asText());
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals("CANCELLED", second.get("status").asText());
+        assertTrue(second.get("paymentEventDateTime").isNull());
+        assertEquals(0, second.get("salesDetails").size());
+    }
+
+    @Test
+    void csv_writesHeaderAndOneLinePerDetail() throws IOException {
+        givenRows(row(1L, 100L, 2, "2.50"), row(1L, 200L, 1, "4.00"));
+
+        String body = export(Format.CSV, 1);
+
+        List<String> lines = body.lines().toList();
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).startsWith("sales_transaction_id,business_entity_id,status,"));
+        assertEquals("1,10,COMPLETED,9.00,0.81,9.81,2025-03-01T01:30:00Z,2025-03-01T01:31:00Z,100,2,2.50", lines.get(1));
+        assertEquals(11, lines.get(2).split(",", -1).length);
+    }
+
+    @Test
+    void export_readsLocalDaysOfTheRange() throws IOException {
+        salesTransactionExporter.prepare(10L, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 2), Format.CSV)
+                .writeTo(new ByteArrayOutputStream());
+
+        verify(salesTransactionExportRepository).forEachRow(eq(10L), eq(Instant.parse("2025-02-28T16:00:00Z")),
+                eq(Instant.parse("2025-03-02T16:00:00Z")), any());
+    }
+
+    @Test
+    void prepare_rejectsRangeLongerThanMaxDays() {
+        BusinessException ex = assertThrows(BusinessException.class, () -> salesTransactionExporter.prepare(10L,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 1), Format.NDJSON));
+
+        assertEquals("INVALID_DATE_RANGE", ex.getErrorCode());
+        verifyNoInteractions(salesTransactionExportRepository);
+    }
+
+    @Test
+    void parse_rejectsUnknownFormat() {
+        BusinessException ex = assertThrows(BusinessException.class, () -> Format.parse("xml"));
+
+        assertEquals("INVALID_EXPORT_FORMAT", ex.getErrorCode());
+    }
+
+    private String export(Format format, long expectedTransactions) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long transactions = salesTransactionExporter
+                .prepare(10L, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 1), format)
+                .writeTo(out);
+        assertEquals(expectedTransactions, transactions);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenRows(ExportRow... rows) {
+        doAnswer(invocation -> {
+            Consumer<ExportRow> action = invocation.getArgument(3);
+            for (ExportRow row : rows) {
+                action.accept(row);
+            }
+            return null;
+        }).when(salesTransactionExportRepository).forEachRow(anyLong(), any(), any(), any(Consumer.class));
+    }
+
+    private static ExportRow row(long transactionId, long productId, int quantity, String price) {
+        return new ExportRow(transactionId, 10L, TransactionStatus.COMPLETED, new BigDecimal("9.00"),
+                new BigDecimal("0.81"), new BigDecimal("9.81"), SALE_TIME, SALE_TIME.plusSeconds(60), productId,
+                quantity, new BigDecimal(price));
+    }
+}
@@ -0,0 +1,118 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.request.SalesDetailsDto;
+import com.retailpulse.entity.SalesTransactionMemento;
+import com.retailpulse.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SalesTransactionHistoryTest {
+
+  private Clock clock;
+  private SimpleMeterRegistry meterRegistry;
+  private SalesTransactionHistory salesTransactionHistory;
+
+  @BeforeEach
+  void setUp() {
+    clock = mock(Clock.class);
+    when(clock.millis()).thenReturn(0L);
+    meterRegistry = new SimpleMeterRegistry();
+    salesTransactionHistory = new SalesTransactionHistory(meterRegistry, 3, Duration.ofMinutes(10), clock);
+  }
+
+  @Test
+  void addTransaction_returnsSnapshotInSuspensionOrder() {
+    salesTransactionHistory.addTransaction(1L, memento(11L));
+    Map<Long, SalesTransactionMemento> carts = salesTransactionHistory.addTransaction(1L, memento(12L));
+
+    assertEquals(List.of(11L, 12L), List.copyOf(carts.keySet()));
+    assertThrows(UnsupportedOperationException.class, () -> carts.remove(11L));
+    assertEquals(2.0, meterRegistry.get("sales.suspended.carts").gauge().value());
+    assertTrue(meterRegistry.get("sales.suspended.carts.memory").gauge().value() > 0);
+  }
+
+  @Test
+  void addTransaction_storeAtCapacity_rejects() {
+    salesTransactionHistory.addTransaction(1L, memento(11L));
+    salesTransactionHistory.addTransaction(1L, memento(12L));
+    salesTransactionHistory.addTransaction(1L, memento(13L));
+
+    BusinessException ex = assertThrows(BusinessException.class, () ->
+      salesTransactionHistory.addTransaction(1L, memento(14L))
+    );
+
+    assertEquals("SUSPENDED_CART_LIMIT", ex.getErrorCode());
+    assertEquals(1.0, meterRegistry.get("sales.suspended.carts.rejections").counter().count());
+    // other stores have their own capacity
+    assertEquals(1, salesTransactionHistory.addTransaction(2L, memento(21L)).size());
+  }
+
+  @Test
+  void deleteTransaction_unknownStore_returnsEmpty() {
+    assertTrue(salesTransactionHistory.deleteTransaction(99L, 1L).isEmpty());
+  }
+
+  @Test
+  void evictIdle_removesExpiredCartsAndEmptyStores() {
+    salesTransactionHistory.addTransaction(1L, memento(11L));
+    salesTransactionHistory.addTransaction(2L, memento(21L));
+    when(clock.millis()).thenReturn(Duration.ofMinutes(6).toMillis());
+    salesTransactionHistory.addTransaction(1L, memento(12L));
+
+    when(clock.millis()).thenReturn(Duration.ofMinutes(11).toMillis());
+    int evicted = salesTransactionHistory.evictIdle();
+
+    assertEquals(2, evicted);
+    assertEquals(List.of(12L), List.copyOf(salesTransactionHistory.deleteTransaction(1L, 0L).keySet()));
+    assertEquals(1.0, meterRegistry.get("sales.suspended.stores").gauge().value());
+    assertEquals(1.0, meterRegistry.get("sales.suspended.carts").gauge().value());
+    assertEquals(2.0, meterRegistry.get("sales.suspended.carts.evictions").counter().count());
+  }
+
+  @Test
+  void addTransaction_concurrentTerminalsOfOneStore_keepsEveryCart() throws Exception {
+    salesTransactionHistory = new SalesTransactionHistory(meterRegistry, 1_000, Duration.ofMinutes(10), clock);
+    int terminals = 8;
+    int cartsPerTerminal = 100;
+    CountDownLatch start = new CountDownLatch(1);
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(terminals)) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int terminal = 0; terminal < terminals; terminal++) {
+        long firstId = terminal * 1_000L;
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (long id = firstId; id < firstId + cartsPerTerminal; id++) {
+            salesTransactionHistory.addTransaction(1L, memento(id));
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+
+    assertEquals(terminals * cartsPerTerminal, salesTransactionHistory.deleteTransaction(1L, -1L).size());
+  }
+
+  private static SalesTransactionMemento memento(long transactionId) {
+    return new SalesTransactionMemento(transactionId, 1L, "100.00", "GST", "0.09", "9.00", "109.00",
+      List.of(new SalesDetailsDto(1L, 2, "50.00")), "PENDING_PAYMENT", "2025-01-01 10:00:00");
+  }
+}
@@ -7,6 +7,11 @@ import com.retailpulse.entity.SalesTax;
 import com.retailpulse.entity.TaxType;
 import com.retailpulse.repository.SalesTaxRepository;
 import com.retailpulse.repository.SalesTransactionRepository;
+import com.retailpulse.repository.SalesTransactionStatusRepository;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -30,12 +35,18 @@ public class SalesTransactionMementoTest {
     @Mock
     private SalesTransactionRepository salesTransactionRepository;
 
+    @Mock
+    private SalesTransactionStatusRepository salesTransactionStatusRepository;
+
     @Mock
     private StockUpdateService stockUpdateService;
 
     @Mock
     private PaymentServiceClient paymentServiceClient;
 
+    @Mock
+    private TransactionStatusCache transactionStatusCache;
+
     @Test
     public void testSalesTransactionMemento() {
         SalesDetailsDto salesDetailsDto1 = new SalesDetailsDto(1L, 2, "50.0");
@@ -51,9 +62,11 @@ public class SalesTransactionMementoTest {
 
         when(salesTaxRepository.save(any(SalesTax.class))).thenReturn(new SalesTax(TaxType.GST, new BigDecimal("0.09")));
 
-        SalesTransactionHistory salesTransactionHistory = new SalesTransactionHistory();
+        SalesTransactionHistory salesTransactionHistory = new SalesTransactionHistory(new SimpleMeterRegistry(), 50, 720);
        
-        SalesTransactionService salesTransactionService = new SalesTransactionService(salesTransactionRepository, salesTaxRepository, salesTransactionHistory, stockUpdateService, paymentServiceClient);
+        SalesTaxRegistry salesTaxRegistry = new SalesTaxRegistry(salesTaxRepository, new SimpleMeterRegistry());
+        SalesTransactionService salesTransactionService = new SalesTransactionService(salesTransactionRepository, salesTransactionStatusRepository, salesTaxRegistry, salesTransactionHistory, stockUpdateService, paymentServiceClient, transactionStatusCache, null, new CheckoutPhaseObserver(ObservationRegistry.NOOP),
+                new DownstreamGuard(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), new SimpleMeterRegistry()), null);
 
         salesTransactionService.suspendTransaction(suspendedTransactionDto1);
         salesTransactionService.suspendTransaction(suspendedTransactionDto2);
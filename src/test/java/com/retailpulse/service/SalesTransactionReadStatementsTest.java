@@ -0,0 +1,159 @@
+package com.retailpulse.service;
+
+import com.retailpulse.client.PaymentServiceClient;
+import com.retailpulse.dto.request.SalesDetailsDto;
+import com.retailpulse.dto.response.SalesTransactionPageDto;
+import com.retailpulse.dto.response.SalesTransactionResponseDto;
+import com.retailpulse.entity.SalesDetails;
+import com.retailpulse.entity.SalesTax;
+import com.retailpulse.entity.SalesTransaction;
+import com.retailpulse.entity.TaxType;
+import com.retailpulse.entity.TransactionStatus;
+import com.retailpulse.repository.SalesTransactionRepository;
+import com.retailpulse.repository.SalesTransactionStatusRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Counts the SQL statements of each transaction read, through the service methods behind the endpoints, against an
+ * in-memory database, so that a mapping or query change that loads associations row by row fails here rather than
+ * in production.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({SalesTransactionSearchService.class, SalesTransactionStatusRepository.class})
+class SalesTransactionReadStatementsTest {
+
+    private static final long STORE = 10L;
+    private static final int TRANSACTIONS = 5;
+    private static final int LINES = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SalesTransactionRepository salesTransactionRepository;
+
+    @Autowired
+    private SalesTransactionStatusRepository salesTransactionStatusRepository;
+
+    @Autowired
+    private SalesTransactionSearchService salesTransactionSearchService;
+
+    private SalesTransactionService salesTransactionService;
+
+    private final List<Long> ids = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        SalesTax gst = entityManager.persist(new SalesTax(TaxType.GST, new BigDecimal("0.09")));
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            Map<Long, SalesDetails> details = new LinkedHashMap<>();
+            for (long productId = 1; productId <= LINES; productId++) {
+                details.put(productId, new SalesDetails(productId, 2, new BigDecimal("2.50")));
+            }
+            SalesTransaction transaction = new SalesTransaction(STORE, gst);
+            transaction.addSalesDetails(details);
+            transaction.setStatus(TransactionStatus.COMPLETED);
+            ids.add(entityManager.persist(transaction).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        SalesRollupService salesRollupService = mock(SalesRollupService.class);
+        // the rollup statements are counted in SalesRollupServiceTest; only the edit itself runs here
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(salesRollupService).recordLinesChange(any(), any());
+        salesTransactionService = new SalesTransactionService(salesTransactionRepository, salesTransactionStatusRepository,
+                mock(SalesTaxRegistry.class), mock(SalesTransactionHistory.class), mock(StockUpdateService.class),
+                mock(PaymentServiceClient.class), new TransactionStatusCache(new SimpleMeterRegistry(), 100, 30),
+                mock(TransactionStatusWatcher.class), mock(CheckoutPhaseObserver.class), mock(DownstreamGuard.class),
+                salesRollupService);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getTransactionStatus_readsOneRowThenServesTheCache() {
+        assertEquals(TransactionStatus.COMPLETED, salesTransactionService.getTransactionStatus(ids.get(0)).status());
+        assertStatements(1);
+
+        statistics.clear();
+        assertEquals(TransactionStatus.COMPLETED, salesTransactionService.getTransactionStatus(ids.get(0)).status());
+        assertStatements(0);
+    }
+
+    @Test
+    void updateSalesTransaction_readsHeaderTaxAndLinesInOneQuery() {
+        List<SalesDetailsDto> lines = new ArrayList<>();
+        for (long productId = 1; productId <= LINES; productId++) {
+            lines.add(new SalesDetailsDto(productId, 3, "2.50"));
+        }
+
+        SalesTransactionResponseDto response = salesTransactionService.updateSalesTransaction(ids.get(0), lines);
+
+        assertEquals(LINES, response.salesDetails().size());
+        assertEquals("GST", response.taxType());
+        // one read of header, tax and lines; the flush then updates the header and replaces the lines in two batches
+        assertEquals(1, statistics.getQueryExecutionCount(), "reads");
+        assertEquals(0, statistics.getEntityFetchCount() + statistics.getCollectionFetchCount(), "lazy loads");
+        assertStatements(4);
+    }
+
+    @Test
+    void rollupBatch_readsAllTransactionsWithLinesInOneQuery() {
+        List<SalesTransaction> transactions = salesTransactionRepository.findAllWithDetailsByIdIn(ids);
+
+        assertEquals(TRANSACTIONS, transactions.size());
+        transactions.forEach(transaction -> assertEquals(LINES, transaction.getSalesDetailEntities().size()));
+        assertStatements(1);
+    }
+
+    @Test
+    void search_readsEveryPageInTwoQueries() {
+        SalesTransactionPageDto first = salesTransactionSearchService.search(STORE, null, null, null, null, null, 2, null);
+        assertEquals(2, first.transactions().size());
+        first.transactions().forEach(transaction -> assertEquals(LINES, transaction.salesDetails().size()));
+        assertStatements(2);
+
+        statistics.clear();
+        entityManager.clear();
+        SalesTransactionPageDto second = salesTransactionSearchService.search(STORE, null, null, null, null, null, 2,
+                first.nextCursor());
+        assertEquals(2, second.transactions().size());
+        assertTrue(second.transactions().get(0).salesTransactionId() < first.transactions().get(1).salesTransactionId());
+        assertStatements(2);
+    }
+
+    private void assertStatements(long expected) {
+        assertEquals(expected, statistics.getPrepareStatementCount(), "SQL statements");
+    }
+}
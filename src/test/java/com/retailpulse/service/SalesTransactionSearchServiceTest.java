@@ -0,0 +1,140 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.response.SalesTransactionPageDto;
+import com.retailpulse.entity.SalesDetails;
+import com.retailpulse.entity.SalesTax;
+import com.retailpulse.entity.SalesTransaction;
+import com.retailpulse.entity.TaxType;
+import com.retailpulse.entity.TransactionStatus;
+import com.retailpulse.exception.BusinessException;
+import com.retailpulse.repository.SalesTransactionRepository;
+import com.retailpulse.repository.SalesTransactionRepository.DetailLine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class SalesTransactionSearchServiceTest {
+
+    private static final Instant SALE_TIME = Instant.parse("2025-03-01T01:30:00.123456Z");
+
+    private SalesTransactionRepository salesTransactionRepository;
+    private SalesTransactionSearchService salesTransactionSearchService;
+
+    @BeforeEach
+    void setUp() {
+        salesTransactionRepository = mock(SalesTransactionRepository.class);
+        salesTransactionSearchService = new SalesTransactionSearchService(salesTransactionRepository, "Asia/Singapore", 100);
+    }
+
+    @Test
+    void search_readsDetailsOfThePageInOneQuery() {
+        SalesTransaction newer = sale(2L);
+        SalesTransaction older = sale(1L);
+        givenPage(List.of(newer, older), true);
+        List<DetailLine> lines = List.of(line(1L, 100L, 2), line(2L, 100L, 1), line(2L, 200L, 3));
+        when(salesTransactionRepository.findDetailLinesByTransactionIdIn(anyCollection())).thenReturn(lines);
+
+        SalesTransactionPageDto page = salesTransactionSearchService.search(10L, null, null, null, null, null, 2, null);
+
+        verify(salesTransactionRepository, times(1)).findDetailLinesByTransactionIdIn(List.of(2L, 1L));
+        assertEquals(List.of(2L, 1L), page.transactions().stream().map(t -> t.salesTransactionId()).toList());
+        assertEquals(2, page.transactions().get(0).salesDetails().size());
+        assertEquals(1, page.transactions().get(1).salesDetails().size());
+        assertEquals("COMPLETED", page.transactions().get(0).status());
+        assertNotNull(page.nextCursor());
+    }
+
+    @Test
+    void search_lastPageHasNoCursor() {
+        givenPage(List.of(sale(1L)), false);
+        when(salesTransactionRepository.findDetailLinesByTransactionIdIn(anyCollection())).thenReturn(List.of());
+
+        SalesTransactionPageDto page = salesTransactionSearchService.search(10L, null, null, null, null, null, 2, null);
+
+        assertEquals(1, page.transactions().size());
+        assertTrue(page.transactions().get(0).salesDetails().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void search_emptyPageSkipsDetailsQuery() {
+        givenPage(List.of(), false);
+
+        SalesTransactionPageDto page = salesTransactionSearchService.search(10L, null, null, null, null, null, 2, null);
+
+        assertTrue(page.transactions().isEmpty());
+        verify(salesTransactionRepository, never()).findDetailLinesByTransactionIdIn(any());
+    }
+
+    @Test
+    void cursor_roundTripsTransactionDateAndId() {
+        KeysetScrollPosition position = SalesTransactionSearchService.decodeCursor(
+                SalesTransactionSearchService.encodeCursor(sale(42L)));
+
+        assertEquals(Map.of("transactionDate", SALE_TIME, "id", 42L), position.getKeys());
+        assertTrue(position.scrollsForward());
+    }
+
+    @Test
+    void search_rejectsMalformedCursor() {
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> salesTransactionSearchService.search(10L, null, null, null, null, null, 2, "not-a-cursor"));
+
+        assertEquals("INVALID_CURSOR", ex.getErrorCode());
+    }
+
+    @Test
+    void search_rejectsPageSizeAboveMaximum() {
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> salesTransactionSearchService.search(10L, null, null, TransactionStatus.COMPLETED, null, null, 101, null));
+
+        assertEquals("INVALID_LIMIT", ex.getErrorCode());
+        verifyNoInteractions(salesTransactionRepository);
+    }
+
+    @Test
+    void search_rejectsInvertedAmountRange() {
+        BusinessException ex = assertThrows(BusinessException.class, () -> salesTransactionSearchService.search(10L,
+                null, null, null, new BigDecimal("10.00"), new BigDecimal("5.00"), 2, null));
+
+        assertEquals("INVALID_AMOUNT_RANGE", ex.getErrorCode());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenPage(List<SalesTransaction> transactions, boolean hasNext) {
+        Window<SalesTransaction> window = Window.from(transactions, index -> ScrollPosition.keyset(), hasNext);
+        when(salesTransactionRepository.findBy(any(Specification.class), any())).thenReturn(window);
+    }
+
+    private static SalesTransaction sale(long id) {
+        SalesTransaction transaction = new SalesTransaction(10L, new SalesTax(TaxType.GST, new BigDecimal("0.09")));
+        transaction.addSalesDetails(Map.of(100L, new SalesDetails(100L, 1, new BigDecimal("2.50"))));
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        ReflectionTestUtils.setField(transaction, "id", id);
+        ReflectionTestUtils.setField(transaction, "transactionDate", SALE_TIME);
+        return transaction;
+    }
+
+    private static DetailLine line(long transactionId, long productId, int quantity) {
+        DetailLine line = mock(DetailLine.class);
+        when(line.getTransactionId()).thenReturn(transactionId);
+        when(line.getProductId()).thenReturn(productId);
+        when(line.getQuantity()).thenReturn(quantity);
+        when(line.getSalesPricePerUnit()).thenReturn(new BigDecimal("2.50"));
+        return line;
+    }
+}
@@ -1,6 +1,7 @@
 package com.retailpulse.service;
 
 import com.retailpulse.client.PaymentServiceClient;
+import com.retailpulse.dto.TransactionStatusUpdateDto;
 import com.retailpulse.dto.request.SalesDetailsDto;
 import com.retailpulse.dto.request.SalesTransactionRequestDto;
 import com.retailpulse.dto.request.SuspendedTransactionDto;
@@ -10,15 +11,24 @@ import com.retailpulse.dto.response.PaymentResponseDto;
 import com.retailpulse.dto.response.SalesTransactionResponseDto;
 import com.retailpulse.dto.response.TaxResultDto;
 import com.retailpulse.dto.response.TransientSalesTransactionDto;
+import com.retailpulse.dto.response.TransactionStatusResponseDto;
 import com.retailpulse.entity.*;
 import com.retailpulse.exception.BusinessException;
-import com.retailpulse.repository.SalesTaxRepository;
+import com.retailpulse.exception.DependencyUnavailableException;
+import com.retailpulse.exception.ErrorCodes;
 import com.retailpulse.repository.SalesTransactionRepository;
+import com.retailpulse.repository.SalesTransactionStatusRepository;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.lang.reflect.Field;
@@ -28,6 +38,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -42,7 +53,10 @@ public class SalesTransactionServiceTest {
   private SalesTransactionRepository salesTransactionRepository;
 
   @Mock
-  private SalesTaxRepository salesTaxRepository;
+  private SalesTransactionStatusRepository salesTransactionStatusRepository;
+
+  @Mock
+  private SalesTaxRegistry salesTaxRegistry;
 
   @Mock
   private StockUpdateService stockUpdateService;
@@ -53,6 +67,21 @@ public class SalesTransactionServiceTest {
   @Mock
   private SalesTransactionHistory salesTransactionHistory;
 
+  @Mock
+  private TransactionStatusCache transactionStatusCache;
+
+  @Mock
+  private TransactionStatusWatcher transactionStatusWatcher;
+
+  @Mock
+  private SalesRollupService salesRollupService;
+
+  @Spy
+  private CheckoutPhaseObserver checkoutPhaseObserver = new CheckoutPhaseObserver(ObservationRegistry.NOOP);
+
+  @Spy
+  private DownstreamGuard downstreamGuard = new DownstreamGuard(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), new SimpleMeterRegistry());
+
   @InjectMocks
   private SalesTransactionService salesTransactionService;
 
@@ -95,7 +124,7 @@ public class SalesTransactionServiceTest {
 
   @Test
   public void testCalculateSalesTax() {
-    when(salesTaxRepository.save(any(SalesTax.class))).thenReturn(dummySalesTax);
+    when(salesTaxRegistry.getSalesTax(TaxType.GST)).thenReturn(dummySalesTax);
 
     TaxResultDto result = salesTransactionService.calculateSalesTax(salesDetailsDtos);
 
@@ -106,9 +135,22 @@ public class SalesTransactionServiceTest {
     assertEquals("1308.00", result.totalAmount());
   }
 
+  @Test
+  public void testCalculateSalesTax_priceWithMoreDecimalsThanMoneyHolds() {
+    when(salesTaxRegistry.getSalesTax(TaxType.GST)).thenReturn(dummySalesTax);
+
+    TaxResultDto result = salesTransactionService.calculateSalesTax(List.of(
+      new SalesDetailsDto(1L, 3, "0.3333333333333333333333"),
+      new SalesDetailsDto(2L, 1, "10.00")));
+
+    assertEquals("11.00", result.subTotalAmount());
+    assertEquals("0.99", result.taxAmount());
+    assertEquals("11.99", result.totalAmount());
+  }
+
   @Test
   public void testCreateSalesTransaction_success() {
-    when(salesTaxRepository.findSalesTaxByTaxType(TaxType.GST)).thenReturn(Optional.of(dummySalesTax));
+    when(salesTaxRegistry.getSalesTax(TaxType.GST)).thenReturn(dummySalesTax);
     when(salesTransactionRepository.save(any(SalesTransaction.class)))
     .thenAnswer(invocation -> {
       SalesTransaction savedTransaction = invocation.getArgument(0);
@@ -153,26 +195,61 @@ public class SalesTransactionServiceTest {
     verify(paymentServiceClient, times(1)).createPaymentIntent(any(PaymentRequestDto.class));
   }
 
+  @Test
+  public void testCreateSalesTransaction_paymentCircuitOpen_failsFastWithUnavailableCode() {
+    when(salesTaxRegistry.getSalesTax(TaxType.GST)).thenReturn(dummySalesTax);
+    when(salesTransactionRepository.save(any(SalesTransaction.class))).thenAnswer(invocation -> {
+      SalesTransaction savedTransaction = invocation.getArgument(0);
+      setPrivateField(savedTransaction, "id", testTransactionId);
+      return savedTransaction;
+    });
+    doThrow(new DependencyUnavailableException("PAYMENT_SERVICE_UNAVAILABLE", "payment-service is unavailable, try again later."))
+      .when(downstreamGuard).call(eq(DownstreamGuard.Dependency.PAYMENT), ArgumentMatchers.<Supplier<PaymentResponseDto>>any());
+
+    DependencyUnavailableException exception = assertThrows(DependencyUnavailableException.class,
+      () -> salesTransactionService.createSalesTransaction(salesTransactionRequestDto));
+
+    assertEquals("PAYMENT_SERVICE_UNAVAILABLE", exception.getErrorCode());
+    verify(paymentServiceClient, never()).createPaymentIntent(any(PaymentRequestDto.class));
+  }
+
   @Test
   void updateTransactionStatus_Success() {
     // Arrange
-    when(salesTransactionRepository.findById(testTransactionId)).thenReturn(Optional.of(dummySalesTransaction));
-    when(salesTransactionRepository.saveAndFlush(any(SalesTransaction.class))).thenAnswer(invocation -> invocation.getArgument(0)); // Return the saved object
+    Instant paymentEventDate = Instant.now();
+    TransactionStatusUpdateDto update = new TransactionStatusUpdateDto(testTransactionId, newStatus, paymentEventDate);
+    when(salesTransactionStatusRepository.transition(update)).thenReturn(true);
 
     // Act
-    assertDoesNotThrow(() -> salesTransactionService.updateTransactionStatus(testTransactionId, newStatus, Instant.now()));
+    assertDoesNotThrow(() -> salesTransactionService.updateTransactionStatus(testTransactionId, newStatus, paymentEventDate));
 
     // Assert
-    assertEquals(newStatus, dummySalesTransaction.getStatus(), "Transaction status should be updated.");
-    verify(salesTransactionRepository, times(1)).findById(testTransactionId);
-    verify(salesTransactionRepository, times(1)).saveAndFlush(dummySalesTransaction); // Verify save was called
+    verify(salesTransactionStatusRepository, times(1)).transition(update);
+    verify(salesTransactionRepository, never()).findById(any()); // the transition does not load the entity
+    verify(salesRollupService).recordStatusChanges(List.of(update));
+    verify(transactionStatusCache).putAfterCommit(testTransactionId, newStatus, paymentEventDate);
+    verify(transactionStatusWatcher).publishAfterCommit(testTransactionId, newStatus);
+  }
+
+  @Test
+  void updateTransactionStatus_StaleUpdate_IsIgnored() {
+    when(salesTransactionStatusRepository.transition(any())).thenReturn(false);
+    when(salesTransactionRepository.findStatusById(testTransactionId))
+      .thenReturn(Optional.of(new TransactionStatusResponseDto(testTransactionId, TransactionStatus.COMPLETED)));
+
+    assertDoesNotThrow(() -> salesTransactionService.updateTransactionStatus(testTransactionId, TransactionStatus.PENDING_PAYMENT, Instant.now()));
+
+    verify(salesRollupService, never()).recordStatusChanges(any());
+    verify(transactionStatusCache, never()).putAfterCommit(any(), any(), any());
+    verify(transactionStatusWatcher, never()).publishAfterCommit(any(), any());
   }
 
   @Test
   void updateTransactionStatus_TransactionNotFound_ThrowsBusinessException() {
     // Arrange
     Long nonExistentId = 999L;
-    when(salesTransactionRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+    when(salesTransactionStatusRepository.transition(any())).thenReturn(false);
+    when(salesTransactionRepository.findStatusById(nonExistentId)).thenReturn(Optional.empty());
 
     // Act & Assert
     BusinessException exception = assertThrows(BusinessException.class, () -> {
@@ -181,14 +258,18 @@ public class SalesTransactionServiceTest {
 
     assertEquals("NOT_FOUND", exception.getErrorCode(), "Error code should be NOT_FOUND.");    
     assertTrue(exception.getMessage().contains("Sales transaction not found for id: " + nonExistentId), "Message should contain transaction ID.");
-    verify(salesTransactionRepository, times(1)).findById(nonExistentId);
-    verify(salesTransactionRepository, never()).save(any(SalesTransaction.class)); // Verify save was NOT called
+    verify(salesTransactionRepository, times(1)).findStatusById(nonExistentId);
+    verify(salesRollupService, never()).recordStatusChanges(any());
   }
 
   @Test
   public void testUpdateSalesTransaction_success() {
-    when(salesTransactionRepository.findById(any())).thenReturn(Optional.of(dummySalesTransaction));
+    when(salesTransactionRepository.findWithDetailsById(any())).thenReturn(Optional.of(dummySalesTransaction));
     when(salesTransactionRepository.saveAndFlush(any())).thenReturn(dummySalesTransaction);
+    doAnswer(invocation -> {
+      invocation.<Runnable>getArgument(1).run();
+      return null;
+    }).when(salesRollupService).recordLinesChange(eq(dummySalesTransaction), any());
 
     SalesDetailsDto updatedDto1 = new SalesDetailsDto(1L, 3, "50.0");
     SalesDetailsDto updatedDto2 = new SalesDetailsDto(2L, 0, "100.0");
@@ -201,9 +282,23 @@ public class SalesTransactionServiceTest {
     assertEquals(3, response.salesDetails().size());
 
     verify(stockUpdateService, times(1)).updateStocks(eq(1L), any());
+    verify(salesRollupService, times(1)).recordLinesChange(eq(dummySalesTransaction), any());
     verify(salesTransactionRepository, times(1)).saveAndFlush(any(SalesTransaction.class));
   }
 
+  @Test
+  public void testUpdateSalesTransaction_inventoryCircuitOpen_keepsUnavailableCode() {
+    when(salesTransactionRepository.findWithDetailsById(any())).thenReturn(Optional.of(dummySalesTransaction));
+    doThrow(new DependencyUnavailableException("INVENTORY_SERVICE_UNAVAILABLE", "inventory-service is unavailable, try again later."))
+      .when(stockUpdateService).updateStocks(eq(1L), any());
+
+    DependencyUnavailableException exception = assertThrows(DependencyUnavailableException.class,
+      () -> salesTransactionService.updateSalesTransaction(1L, List.of(new SalesDetailsDto(1L, 3, "50.0"))));
+
+    assertEquals("INVENTORY_SERVICE_UNAVAILABLE", exception.getErrorCode());
+    verify(salesTransactionRepository, never()).saveAndFlush(any());
+  }
+
   @Test
   public void testUpdateSalesTransaction_emptyInput_throwsException() {
     BusinessException ex = assertThrows(BusinessException.class, () ->
@@ -214,7 +309,7 @@ public class SalesTransactionServiceTest {
 
   @Test
   public void testSuspendTransaction_success() {
-    when(salesTaxRepository.findSalesTaxByTaxType(TaxType.GST)).thenReturn(Optional.of(dummySalesTax));
+    when(salesTaxRegistry.getSalesTax(TaxType.GST)).thenReturn(dummySalesTax);
 
     SalesTransactionMemento memento = dummySalesTransaction.saveToMemento();
     Map<Long, SalesTransactionMemento> historyMap = Map.of(1L, memento);
@@ -245,6 +340,65 @@ public class SalesTransactionServiceTest {
     verify(salesTransactionHistory, times(1)).deleteTransaction(1L, 1L);
   }
 
+  @Test
+  public void testUpdateTransactionStatuses_returnsUpdatesOfMissingTransactions() {
+    List<TransactionStatusUpdateDto> updates = List.of(
+      new TransactionStatusUpdateDto(1L, TransactionStatus.COMPLETED, Instant.now()),
+      new TransactionStatusUpdateDto(2L, TransactionStatus.REJECTED, Instant.now()),
+      new TransactionStatusUpdateDto(3L, TransactionStatus.CANCELLED, Instant.now()),
+      new TransactionStatusUpdateDto(4L, TransactionStatus.COMPLETED, Instant.now()));
+    when(salesTransactionStatusRepository.transitions(updates)).thenReturn(new int[] {1, 0, 1, 0});
+    when(salesTransactionRepository.findStatusById(2L))
+      .thenReturn(Optional.of(new TransactionStatusResponseDto(2L, TransactionStatus.COMPLETED)));
+    when(salesTransactionRepository.findStatusById(4L)).thenReturn(Optional.empty());
+
+    List<TransactionStatusUpdateDto> notFound = salesTransactionService.updateTransactionStatuses(updates);
+
+    // the stale update of 2 is dropped; 4 may not be committed yet
+    assertEquals(List.of(updates.get(3)), notFound);
+    var inOrder = inOrder(salesRollupService, salesTransactionStatusRepository);
+    inOrder.verify(salesTransactionStatusRepository).transitions(updates);
+    inOrder.verify(salesRollupService).recordStatusChanges(List.of(updates.get(0), updates.get(2)));
+    verify(salesTransactionRepository, never()).save(any());
+    verify(transactionStatusCache).putAfterCommit(eq(1L), eq(TransactionStatus.COMPLETED), any());
+    verify(transactionStatusCache).putAfterCommit(eq(3L), eq(TransactionStatus.CANCELLED), any());
+    verify(transactionStatusCache, never()).putAfterCommit(eq(2L), any(), any());
+  }
+
+  @Test
+  public void testGetTransactionStatus_cached_skipsDatabase() {
+    when(transactionStatusCache.get(testTransactionId)).thenReturn(TransactionStatus.COMPLETED);
+
+    TransactionStatusResponseDto status = salesTransactionService.getTransactionStatus(testTransactionId);
+
+    assertEquals(new TransactionStatusResponseDto(testTransactionId, TransactionStatus.COMPLETED), status);
+    verifyNoInteractions(salesTransactionRepository);
+  }
+
+  @Test
+  public void testGetTransactionStatus_notCached_readsProjectionAndCaches() {
+    TransactionStatusResponseDto projection = new TransactionStatusResponseDto(testTransactionId, initialStatus);
+    when(salesTransactionRepository.findStatusById(testTransactionId)).thenReturn(Optional.of(projection));
+
+    TransactionStatusResponseDto status = salesTransactionService.getTransactionStatus(testTransactionId);
+
+    assertEquals(projection, status);
+    verify(salesTransactionRepository, never()).findById(any());
+    verify(transactionStatusCache).putIfAbsent(testTransactionId, initialStatus);
+  }
+
+  @Test
+  public void testGetTransactionStatus_notFound_throwsException() {
+    when(salesTransactionRepository.findStatusById(testTransactionId)).thenReturn(Optional.empty());
+
+    BusinessException ex = assertThrows(BusinessException.class, () ->
+      salesTransactionService.getTransactionStatus(testTransactionId)
+    );
+
+    assertEquals(ErrorCodes.NOT_FOUND, ex.getErrorCode());
+    verify(transactionStatusCache, never()).putIfAbsent(any(), any());
+  }
+
   private <T, V> void setPrivateField(T targetObject, String fieldName, V value) {
     try {
       Field field = targetObject.getClass().getDeclaredField(fieldName);
@@ -0,0 +1,113 @@
+package com.retailpulse.service;
+
+import com.retailpulse.dto.TransactionStatusUpdateDto;
+import com.retailpulse.entity.SalesDetails;
+import com.retailpulse.entity.SalesTax;
+import com.retailpulse.entity.SalesTransaction;
+import com.retailpulse.entity.TaxType;
+import com.retailpulse.entity.TransactionStatus;
+import com.retailpulse.repository.SalesTransactionRepository;
+import com.retailpulse.repository.SalesTransactionStatusRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the conditional status updates against an in-memory database: an update only applies from a predecessor
+ * status and for an event that is not older than the last one applied.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(SalesTransactionStatusRepository.class)
+class SalesTransactionStatusTransitionTest {
+
+    private static final Instant PAID_AT = Instant.parse("2025-03-01T01:30:00Z");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SalesTransactionRepository salesTransactionRepository;
+
+    @Autowired
+    private SalesTransactionStatusRepository salesTransactionStatusRepository;
+
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        SalesTax gst = entityManager.persist(new SalesTax(TaxType.GST, new BigDecimal("0.09")));
+        id = entityManager.persistAndFlush(new SalesTransaction(10L, gst)).getId();
+        entityManager.clear();
+    }
+
+    @Test
+    void transition_appliesAllowedTransition() {
+        assertTrue(salesTransactionStatusRepository.transition(update(TransactionStatus.COMPLETED, PAID_AT)));
+
+        assertEquals(TransactionStatus.COMPLETED, status());
+    }
+
+    @Test
+    void transition_redeliveredProcessingEventDoesNotOverwriteCompleted() {
+        salesTransactionStatusRepository.transition(update(TransactionStatus.COMPLETED, PAID_AT));
+
+        assertFalse(salesTransactionStatusRepository.transition(update(TransactionStatus.PENDING_PAYMENT, PAID_AT.plusSeconds(60))));
+        assertFalse(salesTransactionStatusRepository.transition(update(TransactionStatus.COMPLETED, PAID_AT)));
+        assertEquals(TransactionStatus.COMPLETED, status());
+    }
+
+    @Test
+    void transition_olderEventIsIgnored() {
+        salesTransactionStatusRepository.transition(update(TransactionStatus.REJECTED, PAID_AT));
+
+        assertFalse(salesTransactionStatusRepository.transition(update(TransactionStatus.COMPLETED, PAID_AT.minusSeconds(1))));
+        assertEquals(TransactionStatus.REJECTED, status());
+        // a retried payment succeeding later still completes the sale
+        assertTrue(salesTransactionStatusRepository.transition(update(TransactionStatus.COMPLETED, PAID_AT.plusSeconds(1))));
+        assertEquals(TransactionStatus.COMPLETED, status());
+    }
+
+    @Test
+    void transitions_reportsEachUpdateInOrder() {
+        int[] updateCounts = salesTransactionStatusRepository.transitions(List.of(
+                new TransactionStatusUpdateDto(id + 1, TransactionStatus.COMPLETED, PAID_AT),
+                update(TransactionStatus.REFUNDED, PAID_AT),
+                update(TransactionStatus.CANCELLED, PAID_AT)));
+
+        assertArrayEquals(new int[] {0, 0, 1}, updateCounts);
+        assertEquals(TransactionStatus.CANCELLED, status());
+    }
+
+    @Test
+    void transition_appliedWhileLinesAreEditedIsKeptWhenTheEditIsFlushed() {
+        SalesTransaction edited = salesTransactionRepository.findWithDetailsById(id).orElseThrow();
+
+        assertTrue(salesTransactionStatusRepository.transition(update(TransactionStatus.COMPLETED, PAID_AT)));
+        edited.updateSalesDetails(Map.of(100L, new SalesDetails(100L, 2, new BigDecimal("2.50"))));
+        salesTransactionRepository.saveAndFlush(edited);
+        entityManager.clear();
+
+        SalesTransaction stored = salesTransactionRepository.findById(id).orElseThrow();
+        assertEquals(TransactionStatus.COMPLETED, stored.getStatus());
+        assertEquals(PAID_AT, stored.getPaymentEventDate());
+        assertEquals(0, new BigDecimal("5.00").compareTo(stored.getSubtotal()));
+    }
+
+    private TransactionStatusUpdateDto update(TransactionStatus status, Instant paymentEventDate) {
+        return new TransactionStatusUpdateDto(id, status, paymentEventDate);
+    }
+
+    private TransactionStatus status() {
+        return salesTransactionRepository.findStatusById(id).orElseThrow().status();
+    }
+}
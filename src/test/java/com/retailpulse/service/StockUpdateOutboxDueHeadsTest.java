@@ -0,0 +1,84 @@
+package com.retailpulse.service;
+
+import com.retailpulse.entity.OutboxStatus;
+import com.retailpulse.entity.StockUpdateOutbox;
+import com.retailpulse.repository.StockUpdateOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the outbox relay's queries against an in-memory database: only the oldest pending entry of each business
+ * entity is claimed, and only once it is due; a failure is only recorded while the entry keeps the relay's lease.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class StockUpdateOutboxDueHeadsTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private StockUpdateOutboxRepository stockUpdateOutboxRepository;
+
+    @Test
+    void findDueHeads_returnsOldestPendingEntryOfEachBusinessEntity() {
+        Instant now = Instant.now();
+        StockUpdateOutbox parked = persist(1L);
+        parked.markFailed();
+        StockUpdateOutbox head = persist(1L);
+        persist(1L);
+        StockUpdateOutbox backingOff = persist(2L);
+        backingOff.recordFailure("timeout", now.plusSeconds(60));
+        persist(2L);
+        StockUpdateOutbox otherHead = persist(3L);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<StockUpdateOutbox> due = stockUpdateOutboxRepository.findDueHeads(OutboxStatus.PENDING, now.plusSeconds(1), Limit.of(10));
+
+        assertEquals(List.of(head.getId(), otherHead.getId()), due.stream().map(StockUpdateOutbox::getId).toList());
+    }
+
+    @Test
+    void findDueHeads_leasedEntryHoldsBackItsBusinessEntity() {
+        Instant now = Instant.now();
+        StockUpdateOutbox head = persist(1L);
+        persist(1L);
+        head.lease(now.plusSeconds(60));
+        entityManager.flush();
+
+        assertTrue(stockUpdateOutboxRepository.findDueHeads(OutboxStatus.PENDING, now.plusSeconds(1), Limit.of(10)).isEmpty());
+    }
+
+    @Test
+    void recordFailure_onlyAppliesWhileTheEntryKeepsTheRelaysLease() {
+        Instant leaseEnd = Instant.parse("2025-03-01T01:31:00.123456Z");
+        StockUpdateOutbox entry = persist(1L);
+        entry.lease(leaseEnd);
+        entityManager.flush();
+        Instant retryAt = leaseEnd.plusSeconds(1);
+
+        // another relay claimed the entry after this relay's lease ran out
+        assertEquals(0, stockUpdateOutboxRepository.recordFailure(entry.getId(), leaseEnd.minusSeconds(60),
+                OutboxStatus.PENDING, 1, retryAt, "timeout"));
+        assertEquals(1, stockUpdateOutboxRepository.recordFailure(entry.getId(), leaseEnd,
+                OutboxStatus.PENDING, 1, retryAt, "timeout"));
+        entityManager.clear();
+
+        StockUpdateOutbox stored = entityManager.find(StockUpdateOutbox.class, entry.getId());
+        assertEquals(1, stored.getAttempts());
+        assertEquals(retryAt, stored.getNextAttemptAt());
+        assertEquals("timeout", stored.getLastError());
+    }
+
+    private StockUpdateOutbox persist(Long businessEntityId) {
+        return entityManager.persist(new StockUpdateOutbox(businessEntityId, "{}"));
+    }
+}
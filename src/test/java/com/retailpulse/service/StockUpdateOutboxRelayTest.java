@@ -0,0 +1,174 @@
+package com.retailpulse.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailpulse.client.InventoryServiceClient;
+import com.retailpulse.dto.request.InventoryUpdateRequestDto;
+import com.retailpulse.entity.OutboxStatus;
+import com.retailpulse.entity.StockUpdateOutbox;
+import com.retailpulse.repository.StockUpdateOutboxRepository;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class StockUpdateOutboxRelayTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private InventoryServiceClient inventoryServiceClient;
+  private StockUpdateOutboxRepository stockUpdateOutboxRepository;
+  private TransactionTemplate transactionTemplate;
+  private StockUpdateService stockUpdateService;
+  private StockUpdateOutboxRelay relay;
+  private long nextId = 1;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    inventoryServiceClient = mock(InventoryServiceClient.class);
+    stockUpdateOutboxRepository = mock(StockUpdateOutboxRepository.class);
+    transactionTemplate = mock(TransactionTemplate.class);
+    when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+      ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    when(stockUpdateOutboxRepository.recordFailure(any(), any(), any(), anyInt(), any(), any())).thenReturn(1);
+
+    stockUpdateService = new StockUpdateService(inventoryServiceClient, stockUpdateOutboxRepository,
+      objectMapper, new DownstreamGuard(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), new SimpleMeterRegistry()),
+      StockUpdateService.Mode.OUTBOX, 5, 200);
+    relay = relay(60000);
+  }
+
+  @Test
+  void relay_deliversInOrderAndDeletesDelivered() throws Exception {
+    StockUpdateOutbox first = entry(1L, 10L);
+    StockUpdateOutbox second = entry(2L, 20L);
+    dueHeads(first, second);
+
+    int delivered = relay.relay();
+
+    assertEquals(2, delivered);
+    var inOrder = inOrder(inventoryServiceClient);
+    inOrder.verify(inventoryServiceClient).updateStocks(argThat(request -> request.businessEntityId() == 1L));
+    inOrder.verify(inventoryServiceClient).updateStocks(argThat(request -> request.businessEntityId() == 2L));
+    verify(stockUpdateOutboxRepository).deleteAllByIdInBatch(List.of(first.getId(), second.getId()));
+  }
+
+  @Test
+  void relay_claimsEntriesAndCommitsBeforeDelivering() throws Exception {
+    StockUpdateOutbox entry = entry(1L, 10L);
+    dueHeads(entry);
+    Instant before = Instant.now();
+    doAnswer(invocation -> {
+      // the claim transaction has completed and the entry is leased to this relay
+      verify(transactionTemplate, times(1)).execute(any());
+      assertFalse(entry.getNextAttemptAt().isBefore(before.plusSeconds(60)));
+      return null;
+    }).when(inventoryServiceClient).updateStocks(any());
+
+    assertEquals(1, relay.relay());
+    // the delivered entry is deleted by a statement of its own
+    verify(transactionTemplate, times(1)).execute(any());
+    verify(stockUpdateOutboxRepository).deleteAllByIdInBatch(List.of(entry.getId()));
+  }
+
+  @Test
+  void relay_failure_backsOffEntryAndDeliversOtherBusinessEntities() throws Exception {
+    StockUpdateOutbox failing = entry(1L, 10L);
+    StockUpdateOutbox otherEntity = entry(2L, 20L);
+    dueHeads(failing, otherEntity);
+    doThrow(mock(FeignException.class))
+      .when(inventoryServiceClient).updateStocks(argThat(request -> request.businessEntityId() == 1L));
+
+    Instant before = Instant.now();
+    int delivered = relay.relay();
+
+    assertEquals(1, delivered);
+    verify(inventoryServiceClient, times(2)).updateStocks(any());
+    assertEquals(1, failing.getAttempts());
+    assertEquals(OutboxStatus.PENDING, failing.getStatus());
+    assertFalse(failing.getNextAttemptAt().isBefore(before.plusSeconds(1)));
+    assertTrue(failing.getNextAttemptAt().isBefore(before.plusSeconds(60)));
+    verify(stockUpdateOutboxRepository).deleteAllByIdInBatch(List.of(otherEntity.getId()));
+    verify(stockUpdateOutboxRepository).recordFailure(eq(failing.getId()), any(Instant.class), eq(OutboxStatus.PENDING),
+      eq(1), eq(failing.getNextAttemptAt()), any());
+  }
+
+  @Test
+  void relay_maxAttemptsReached_parksEntry() throws Exception {
+    StockUpdateOutbox failing = entry(1L, 10L);
+    failing.recordFailure("timeout", Instant.now().minusSeconds(1));
+    failing.recordFailure("timeout", Instant.now().minusSeconds(1));
+    dueHeads(failing);
+    doThrow(mock(FeignException.class)).when(inventoryServiceClient).updateStocks(any());
+
+    int delivered = relay.relay();
+
+    assertEquals(0, delivered);
+    assertEquals(3, failing.getAttempts());
+    assertEquals(OutboxStatus.FAILED, failing.getStatus());
+    verify(stockUpdateOutboxRepository).recordFailure(eq(failing.getId()), any(Instant.class), eq(OutboxStatus.FAILED),
+      eq(3), any(Instant.class), eq(failing.getLastError()));
+    verify(stockUpdateOutboxRepository, never()).deleteAllByIdInBatch(any());
+  }
+
+  @Test
+  void relay_leaseRunOut_leavesRemainingEntriesToALaterPass() throws Exception {
+    relay = relay(50);
+    StockUpdateOutbox slow = entry(1L, 10L);
+    StockUpdateOutbox notSent = entry(2L, 20L);
+    dueHeads(slow, notSent);
+    doAnswer(invocation -> {
+      Thread.sleep(100);
+      return null;
+    }).when(inventoryServiceClient).updateStocks(any());
+
+    int delivered = relay.relay();
+
+    assertEquals(1, delivered);
+    verify(inventoryServiceClient, times(1)).updateStocks(any());
+    verify(stockUpdateOutboxRepository).deleteAllByIdInBatch(List.of(slow.getId()));
+    assertEquals(0, notSent.getAttempts());
+  }
+
+  @Test
+  void backoff_doublesUpToMaximum() {
+    assertEquals(Duration.ofSeconds(1), relay.backoff(1));
+    assertEquals(Duration.ofSeconds(2), relay.backoff(2));
+    assertEquals(Duration.ofSeconds(4), relay.backoff(3));
+    assertEquals(Duration.ofSeconds(4), relay.backoff(30));
+  }
+
+  private StockUpdateOutboxRelay relay(long leaseMs) {
+    return new StockUpdateOutboxRelay(stockUpdateOutboxRepository, stockUpdateService, transactionTemplate,
+      new SimpleMeterRegistry(), 100, 3, 1000, 4000, leaseMs);
+  }
+
+  private void dueHeads(StockUpdateOutbox... entries) {
+    when(stockUpdateOutboxRepository.findDueHeads(eq(OutboxStatus.PENDING), any(Instant.class), any(Limit.class)))
+      .thenReturn(List.of(entries));
+  }
+
+  private StockUpdateOutbox entry(long businessEntityId, long productId) throws JsonProcessingException {
+    InventoryUpdateRequestDto request = new InventoryUpdateRequestDto(businessEntityId,
+      List.of(new InventoryUpdateRequestDto.InventoryItem(productId, 1)));
+    StockUpdateOutbox entry = new StockUpdateOutbox(businessEntityId, objectMapper.writeValueAsString(request));
+    ReflectionTestUtils.setField(entry, "id", nextId++);
+    return entry;
+  }
+}
@@ -1,28 +1,51 @@
 package com.retailpulse.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.retailpulse.client.InventoryServiceClient;
 import com.retailpulse.dto.request.InventoryUpdateRequestDto;
 import com.retailpulse.entity.SalesDetails;
+import com.retailpulse.entity.StockUpdateOutbox;
 import com.retailpulse.exception.BusinessException;
+import com.retailpulse.exception.DependencyUnavailableException;
+import com.retailpulse.repository.StockUpdateOutboxRepository;
 import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 class StockUpdateServiceTest {
 
   private InventoryServiceClient inventoryServiceClient;
+  private StockUpdateOutboxRepository stockUpdateOutboxRepository;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final DownstreamGuard downstreamGuard = new DownstreamGuard(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), new SimpleMeterRegistry());
   private StockUpdateService stockUpdateService;
 
   @BeforeEach
   void setUp() {
     inventoryServiceClient = mock(InventoryServiceClient.class);
-    stockUpdateService = new StockUpdateService(inventoryServiceClient);
+    stockUpdateOutboxRepository = mock(StockUpdateOutboxRepository.class);
+    stockUpdateService = new StockUpdateService(inventoryServiceClient, stockUpdateOutboxRepository, objectMapper,
+      downstreamGuard, StockUpdateService.Mode.DIRECT, 5, 200);
   }
 
   @Test
@@ -64,4 +87,130 @@ class StockUpdateServiceTest {
 
     assertEquals("INVENTORY_UPDATE_FAILED", ex.getErrorCode());
   }
+
+  @Test
+  void updateStocks_outboxMode_queuesEntryWithoutCallingInventory() {
+    stockUpdateService = new StockUpdateService(inventoryServiceClient, stockUpdateOutboxRepository, objectMapper,
+      downstreamGuard, StockUpdateService.Mode.OUTBOX, 5, 200);
+    when(stockUpdateOutboxRepository.save(any(StockUpdateOutbox.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    Map<Long, SalesDetails> salesDetails = Map.of(
+      100L, new SalesDetails(100L, 3, new BigDecimal("9.99"))
+    );
+
+    stockUpdateService.updateStocks(7L, salesDetails);
+
+    verify(inventoryServiceClient, never()).updateStocks(any());
+    ArgumentCaptor<StockUpdateOutbox> captor = ArgumentCaptor.forClass(StockUpdateOutbox.class);
+    verify(stockUpdateOutboxRepository, times(1)).save(captor.capture());
+    StockUpdateOutbox entry = captor.getValue();
+    assertEquals(7L, entry.getBusinessEntityId());
+
+    InventoryUpdateRequestDto request = stockUpdateService.readPayload(entry);
+    assertEquals(7L, request.businessEntityId());
+    assertEquals(List.of(new InventoryUpdateRequestDto.InventoryItem(100L, 3)), request.items());
+  }
+
+  @Test
+  void updateStocks_coalescingMode_mergesConcurrentUpdatesOfStore() throws Exception {
+    stockUpdateService = new StockUpdateService(inventoryServiceClient, stockUpdateOutboxRepository, objectMapper,
+      downstreamGuard, StockUpdateService.Mode.COALESCING, 500, 200);
+
+    try (ExecutorService terminals = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<?>> updates = List.of(
+        terminals.submit(() -> stockUpdateService.updateStocks(7L, Map.of(100L, new SalesDetails(100L, 2, new BigDecimal("9.99"))))),
+        terminals.submit(() -> stockUpdateService.updateStocks(7L, Map.of(100L, new SalesDetails(100L, 3, new BigDecimal("9.99"))))),
+        terminals.submit(() -> stockUpdateService.updateStocks(7L, Map.of(101L, new SalesDetails(101L, 1, new BigDecimal("4.50"))))),
+        terminals.submit(() -> stockUpdateService.updateStocks(8L, Map.of(100L, new SalesDetails(100L, 1, new BigDecimal("9.99"))))));
+      for (Future<?> update : updates) {
+        update.get();
+      }
+    }
+
+    ArgumentCaptor<InventoryUpdateRequestDto> captor = ArgumentCaptor.forClass(InventoryUpdateRequestDto.class);
+    verify(inventoryServiceClient, times(2)).updateStocks(captor.capture());
+    InventoryUpdateRequestDto store7 = captor.getAllValues().stream().filter(request -> request.businessEntityId() == 7L).findFirst().orElseThrow();
+    assertEquals(Map.of(100L, 5, 101L, 1), quantities(store7));
+  }
+
+  @Test
+  void updateStocks_coalescingMode_sendsFullBatchWithoutWaitingForWindow() {
+    stockUpdateService = new StockUpdateService(inventoryServiceClient, stockUpdateOutboxRepository, objectMapper,
+      downstreamGuard, StockUpdateService.Mode.COALESCING, 60_000, 2);
+    Map<Long, SalesDetails> salesDetails = Map.of(
+      100L, new SalesDetails(100L, 5, new BigDecimal("10.00")),
+      101L, new SalesDetails(101L, 2, new BigDecimal("12.50"))
+    );
+
+    assertTimeoutPreemptively(Duration.ofSeconds(5), () -> stockUpdateService.updateStocks(1L, salesDetails));
+    verify(inventoryServiceClient, times(1)).updateStocks(any(InventoryUpdateRequestDto.class));
+  }
+
+  @Test
+  void updateStocks_coalescingMode_failedBatchFailsOnlyUpdatesThatFailAlone() throws Exception {
+    stockUpdateService = new StockUpdateService(inventoryServiceClient, stockUpdateOutboxRepository, objectMapper,
+      downstreamGuard, StockUpdateService.Mode.COALESCING, 500, 200);
+    // product 101 is rejected, and with it every request that carries it
+    doThrow(mock(FeignException.FeignClientException.class)).when(inventoryServiceClient).updateStocks(argThat(request ->
+      request.items().stream().anyMatch(item -> item.productId() == 101L)));
+
+    try (ExecutorService terminals = Executors.newVirtualThreadPerTaskExecutor()) {
+      Future<?> accepted = terminals.submit(() -> stockUpdateService.updateStocks(7L, Map.of(100L, new SalesDetails(100L, 2, new BigDecimal("9.99")))));
+      Future<?> rejected = terminals.submit(() -> stockUpdateService.updateStocks(7L, Map.of(101L, new SalesDetails(101L, 1, new BigDecimal("4.50")))));
+
+      assertDoesNotThrow(() -> accepted.get());
+      ExecutionException ex = assertThrows(ExecutionException.class, rejected::get);
+      BusinessException cause = assertInstanceOf(BusinessException.class, ex.getCause());
+      assertEquals("INVENTORY_UPDATE_FAILED", cause.getErrorCode());
+    }
+
+    // the merged request, then each update on its own
+    verify(inventoryServiceClient, times(3)).updateStocks(any(InventoryUpdateRequestDto.class));
+  }
+
+  @Test
+  void updateStocks_coalescingMode_timedOutBatchFailsEveryUpdateWithoutSendingThemAlone() throws Exception {
+    stockUpdateService = new StockUpdateService(inventoryServiceClient, stockUpdateOutboxRepository, objectMapper,
+      downstreamGuard, StockUpdateService.Mode.COALESCING, 500, 200);
+    // the merged request may have been applied, so it must not be sent again
+    doThrow(mock(RetryableException.class)).when(inventoryServiceClient).updateStocks(any(InventoryUpdateRequestDto.class));
+
+    try (ExecutorService terminals = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<?>> updates = List.of(
+        terminals.submit(() -> stockUpdateService.updateStocks(7L, Map.of(100L, new SalesDetails(100L, 2, new BigDecimal("9.99"))))),
+        terminals.submit(() -> stockUpdateService.updateStocks(7L, Map.of(101L, new SalesDetails(101L, 1, new BigDecimal("4.50"))))));
+      for (Future<?> update : updates) {
+        ExecutionException ex = assertThrows(ExecutionException.class, update::get);
+        BusinessException cause = assertInstanceOf(BusinessException.class, ex.getCause());
+        assertEquals("INVENTORY_UPDATE_FAILED", cause.getErrorCode());
+      }
+    }
+
+    verify(inventoryServiceClient, times(1)).updateStocks(any(InventoryUpdateRequestDto.class));
+  }
+
+  @Test
+  void coalescer_unavailableDependencyFailsEveryUpdateWithoutSendingThemAlone() throws Exception {
+    AtomicInteger sends = new AtomicInteger();
+    StockUpdateCoalescer coalescer = new StockUpdateCoalescer(Duration.ofMillis(500), 200, request -> {
+      sends.incrementAndGet();
+      throw new DependencyUnavailableException("INVENTORY_SERVICE_UNAVAILABLE", "inventory-service is unavailable, try again later.");
+    });
+
+    try (ExecutorService terminals = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<?>> updates = List.of(
+        terminals.submit(() -> coalescer.update(new InventoryUpdateRequestDto(7L, List.of(new InventoryUpdateRequestDto.InventoryItem(100L, 2))))),
+        terminals.submit(() -> coalescer.update(new InventoryUpdateRequestDto(7L, List.of(new InventoryUpdateRequestDto.InventoryItem(101L, 1))))));
+      for (Future<?> update : updates) {
+        ExecutionException ex = assertThrows(ExecutionException.class, update::get);
+        assertInstanceOf(DependencyUnavailableException.class, ex.getCause());
+      }
+    }
+
+    assertEquals(1, sends.get());
+  }
+
+  private static Map<Long, Integer> quantities(InventoryUpdateRequestDto request) {
+    return request.items().stream()
+      .collect(Collectors.toMap(InventoryUpdateRequestDto.InventoryItem::productId, InventoryUpdateRequestDto.InventoryItem::quantity));
+  }
 }
@@ -0,0 +1,119 @@
+package com.retailpulse.service;
+
+import com.retailpulse.entity.TransactionStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionStatusCacheTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private TransactionStatusCache transactionStatusCache;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    transactionStatusCache = new TransactionStatusCache(meterRegistry, 100, 30);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void putIfAbsent_doesNotReplaceNewerStatus() {
+    // a poll that read PENDING_PAYMENT finishes after the payment event was cached
+    transactionStatusCache.putAfterCommit(1L, TransactionStatus.COMPLETED, Instant.now());
+    transactionStatusCache.putIfAbsent(1L, TransactionStatus.PENDING_PAYMENT);
+
+    assertEquals(TransactionStatus.COMPLETED, transactionStatusCache.get(1L));
+  }
+
+  @Test
+  void putIfAbsent_nullStatus_isNotCached() {
+    transactionStatusCache.putIfAbsent(1L, null);
+
+    assertNull(transactionStatusCache.get(1L));
+  }
+
+  @Test
+  void putAfterCommit_cachesOnlyOnceCommitted() {
+    TransactionSynchronizationManager.initSynchronization();
+
+    transactionStatusCache.putAfterCommit(1L, TransactionStatus.COMPLETED, Instant.now());
+    assertNull(transactionStatusCache.get(1L));
+
+    TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    assertEquals(TransactionStatus.COMPLETED, transactionStatusCache.get(1L));
+  }
+
+  @Test
+  void putAfterCommit_noTransaction_cachesImmediately() {
+    transactionStatusCache.putAfterCommit(1L, TransactionStatus.REJECTED, Instant.now());
+
+    assertEquals(TransactionStatus.REJECTED, transactionStatusCache.get(1L));
+  }
+
+  @Test
+  void putAfterCommit_keepsStatusOfLaterEvent() {
+    Instant paid = Instant.parse("2025-01-01T02:00:00Z");
+    transactionStatusCache.putAfterCommit(1L, TransactionStatus.COMPLETED, paid);
+    // callback of an earlier commit running late
+    transactionStatusCache.putAfterCommit(1L, TransactionStatus.PENDING_PAYMENT, paid.minusSeconds(60));
+
+    assertEquals(TransactionStatus.COMPLETED, transactionStatusCache.get(1L));
+  }
+
+  @Test
+  void advance_movesCachedStatusForward() {
+    Instant processing = Instant.parse("2025-01-01T02:00:00Z");
+    transactionStatusCache.putIfAbsent(1L, TransactionStatus.PENDING_PAYMENT);
+
+    assertTrue(transactionStatusCache.advance(1L, TransactionStatus.PENDING_PAYMENT, processing));
+    assertTrue(transactionStatusCache.advance(1L, TransactionStatus.COMPLETED, processing.plusSeconds(5)));
+
+    assertEquals(TransactionStatus.COMPLETED, transactionStatusCache.get(1L));
+  }
+
+  @Test
+  void advance_staleEventDoesNotOverwriteStatus() {
+    Instant paid = Instant.parse("2025-01-01T02:00:00Z");
+    transactionStatusCache.putAfterCommit(1L, TransactionStatus.COMPLETED, paid);
+    transactionStatusCache.putAfterCommit(2L, TransactionStatus.REJECTED, paid);
+
+    // redelivered PROCESSING after SUCCEEDED: COMPLETED does not lead to PENDING_PAYMENT
+    assertFalse(transactionStatusCache.advance(1L, TransactionStatus.PENDING_PAYMENT, paid.plusSeconds(5)));
+    // a retried payment that is older than the failure
+    assertFalse(transactionStatusCache.advance(2L, TransactionStatus.COMPLETED, paid.minusSeconds(5)));
+
+    assertEquals(TransactionStatus.COMPLETED, transactionStatusCache.get(1L));
+    assertEquals(TransactionStatus.REJECTED, transactionStatusCache.get(2L));
+  }
+
+  @Test
+  void advance_uncachedTransactionIsNotCached() {
+    assertTrue(transactionStatusCache.advance(1L, TransactionStatus.COMPLETED, Instant.now()));
+
+    assertNull(transactionStatusCache.get(1L));
+  }
+
+  @Test
+  void get_recordsHitsAndMisses() {
+    transactionStatusCache.putAfterCommit(1L, TransactionStatus.COMPLETED, Instant.now());
+    transactionStatusCache.get(1L);
+    transactionStatusCache.get(2L);
+
+    assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "transactionStatus").tag("result", "hit").functionCounter().count());
+    assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "transactionStatus").tag("result", "miss").functionCounter().count());
+  }
+}
@@ -0,0 +1,162 @@
+package com.retailpulse.service;
+
+import com.retailpulse.entity.TransactionStatus;
+import com.retailpulse.exception.BusinessException;
+import com.retailpulse.exception.ErrorCodes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class TransactionStatusWatcherTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionStatusWatcher transactionStatusWatcher;
+    private final Map<Long, TransactionStatus> statuses = new HashMap<>();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transactionStatusWatcher = new TransactionStatusWatcher(new SyncTaskExecutor(), meterRegistry, 30000);
+        mockMvc = MockMvcBuilders.standaloneSetup(new WatchController()).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void watch_pendingTransactionIsPushedItsStatusOnceSettled() throws Exception {
+        statuses.put(7L, TransactionStatus.PENDING_PAYMENT);
+        MvcResult result = watch(7L);
+        assertEquals("", result.getResponse().getContentAsString());
+        assertEquals(1, subscribers());
+
+        transactionStatusWatcher.publish(7L, TransactionStatus.PENDING_PAYMENT);
+        assertEquals(1, subscribers());
+        transactionStatusWatcher.publish(7L, TransactionStatus.COMPLETED);
+
+        String stream = result.getResponse().getContentAsString();
+        assertTrue(stream.startsWith("event:status\n"), stream);
+        assertTrue(stream.contains("\"transactionId\":7"), stream);
+        assertTrue(stream.contains("\"status\":\"COMPLETED\""), stream);
+        assertEquals(0, subscribers());
+    }
+
+    @Test
+    void publish_statusThatCannotFollowPendingPaymentIsIgnored() throws Exception {
+        statuses.put(7L, TransactionStatus.PENDING_PAYMENT);
+        MvcResult result = watch(7L);
+
+        transactionStatusWatcher.publish(7L, TransactionStatus.REFUNDED);
+
+        assertEquals("", result.getResponse().getContentAsString());
+        assertEquals(1, subscribers());
+    }
+
+    @Test
+    void publish_sendsOnTheTaskExecutor() throws Exception {
+        List<Runnable> sends = new ArrayList<>();
+        transactionStatusWatcher = new TransactionStatusWatcher(sends::add, meterRegistry, 30000);
+        statuses.put(7L, TransactionStatus.PENDING_PAYMENT);
+        MvcResult result = watch(7L);
+
+        transactionStatusWatcher.publish(7L, TransactionStatus.COMPLETED);
+        assertEquals("", result.getResponse().getContentAsString());
+
+        sends.forEach(Runnable::run);
+        assertTrue(result.getResponse().getContentAsString().contains("\"status\":\"COMPLETED\""));
+    }
+
+    @Test
+    void watch_settledTransactionIsReportedAtOnce() throws Exception {
+        statuses.put(7L, TransactionStatus.REJECTED);
+
+        MvcResult result = watch(7L);
+
+        assertTrue(result.getResponse().getContentAsString().contains("\"status\":\"REJECTED\""));
+        assertEquals(0, subscribers());
+    }
+
+    @Test
+    void watch_timedOutSubscriberIsRemoved() throws Exception {
+        statuses.put(7L, TransactionStatus.PENDING_PAYMENT);
+        MvcResult result = watch(7L);
+
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        assertEquals(0, subscribers());
+        transactionStatusWatcher.publish(7L, TransactionStatus.COMPLETED);
+        assertEquals("", result.getResponse().getContentAsString());
+    }
+
+    @Test
+    void watch_unknownTransactionIsNotRegistered() {
+        assertThrows(BusinessException.class, () -> transactionStatusWatcher.watch(8L, () -> {
+            throw new BusinessException(ErrorCodes.NOT_FOUND, "Sales transaction not found for id: 8");
+        }));
+        assertEquals(0, subscribers());
+    }
+
+    @Test
+    void publishAfterCommit_waitsForTheCommit() throws Exception {
+        statuses.put(7L, TransactionStatus.PENDING_PAYMENT);
+        MvcResult result = watch(7L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        transactionStatusWatcher.publishAfterCommit(7L, TransactionStatus.CANCELLED);
+        assertEquals(1, subscribers());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(result.getResponse().getContentAsString().contains("\"status\":\"CANCELLED\""));
+        assertEquals(0, subscribers());
+    }
+
+    private MvcResult watch(Long transactionId) throws Exception {
+        return mockMvc.perform(get("/watch/{transactionId}", transactionId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("sales.status.subscribers").gauge().value();
+    }
+
+    @RestController
+    class WatchController {
+
+        @GetMapping("/watch/{transactionId}")
+        SseEmitter watch(@PathVariable Long transactionId) {
+            return transactionStatusWatcher.watch(transactionId, () -> statuses.get(transactionId));
+        }
+    }
+}